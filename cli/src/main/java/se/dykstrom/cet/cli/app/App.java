@@ -21,6 +21,9 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -31,18 +34,28 @@ import picocli.CommandLine.ExitCode;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
 import se.dykstrom.cet.engine.state.IdlingEngine;
 import se.dykstrom.cet.engine.time.TimeControl;
 import se.dykstrom.cet.engine.time.TimeControlFormat;
+import se.dykstrom.cet.engine.util.ProcessUtils;
+import se.dykstrom.cet.services.broadcast.BroadcastServer;
 import se.dykstrom.cet.services.engine.EngineService;
 import se.dykstrom.cet.services.engine.EngineServiceImpl;
 import se.dykstrom.cet.services.io.FileService;
 import se.dykstrom.cet.services.io.FileServiceImpl;
 import se.dykstrom.cet.services.match.MatchConfig;
+import se.dykstrom.cet.services.match.MatchJournal;
+import se.dykstrom.cet.services.match.MatchOpenings;
 import se.dykstrom.cet.services.match.MatchService;
 import se.dykstrom.cet.services.match.MatchServiceImpl;
 import se.dykstrom.cet.services.match.PlayedMatch;
+import se.dykstrom.cet.services.metrics.MetricsServer;
+import se.dykstrom.cet.services.opening.OpeningSuite;
+import se.dykstrom.cet.services.opening.PolyglotBook;
 import se.dykstrom.cet.services.util.PgnFileWriter;
+import se.dykstrom.cet.services.util.ThinkTimeSummary;
 
 import static com.github.bhlangonijr.chesslib.game.GameResult.BLACK_WON;
 import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
@@ -54,13 +67,17 @@ import static se.dykstrom.cet.engine.util.StringUtils.EOL;
 @Command(name = "cet",
          mixinStandardHelpOptions = true,
          version = "chess-engine-tester 0.3.1",
-         description = "Tests chess engines by letting them play each other.")
+         description = "Tests chess engines by letting them play each other.",
+         subcommands = {TournamentCommand.class, RatingsCommand.class, CoordinatorCommand.class, WorkerCommand.class, ServerCommand.class, BatchCommand.class})
 public class App implements Callable<Integer> {
 
-    @Option(names = {"-1", "--engine1"}, description = "Chess engine 1 config FILENAME.", paramLabel = "FILENAME", required = true)
+    // The options below are validated in call(), because required options in
+    // the main command would be required when running subcommands too
+
+    @Option(names = {"-1", "--engine1"}, description = "Chess engine 1 config FILENAME.", paramLabel = "FILENAME")
     private File engine1File;
 
-    @Option(names = {"-2", "--engine2"}, description = "Chess engine 2 config FILENAME.", paramLabel = "FILENAME", required = true)
+    @Option(names = {"-2", "--engine2"}, description = "Chess engine 2 config FILENAME.", paramLabel = "FILENAME")
     private File engine2File;
 
     @Option(names = {"-3", "--engine3"},
@@ -76,16 +93,72 @@ public class App implements Callable<Integer> {
 
     @Option(names = {"-n", "--number"},
             description = "Number of games to play. Either 1 or a positive, even number.",
-            paramLabel = "NUMBER",
-            required = true)
+            paramLabel = "NUMBER")
     private int numberOfGames;
 
     @Option(names = {"-t", "--time"},
             description = "Time control in PGN format. Either moves/seconds or initial+increase (both in seconds).",
-            paramLabel = "TIME CONTROL",
-            required = true)
+            paramLabel = "TIME CONTROL")
     private String timeControlString;
 
+    @Option(names = {"--openings"},
+            description = "Opening suite FILENAME in EPD or FEN format. Each opening is played twice, with colors swapped. " +
+                          "The engines must support the setboard command.",
+            paramLabel = "FILENAME")
+    private File openingsFile;
+
+    @Option(names = {"--book"},
+            description = "Opening book FILENAME in Polyglot format. Each pair of games starts with weighted random book moves.",
+            paramLabel = "FILENAME")
+    private File bookFile;
+
+    @Option(names = {"--book-depth"},
+            description = "Maximum number of book moves (plies) to play. The default is 8.",
+            paramLabel = "NUMBER",
+            defaultValue = "8")
+    private int bookDepth;
+
+    @Option(names = {"--journal"},
+            description = "Match journal FILENAME. Each finished game is written to the journal, so the match can be resumed if interrupted.",
+            paramLabel = "FILENAME")
+    private File journalFile;
+
+    @Option(names = {"--resume"},
+            description = "Resume the match in the journal specified by --journal, skipping all games that are already finished.")
+    private boolean resume;
+
+    @Option(names = {"--max-crashes"},
+            description = "Maximum NUMBER of times each engine may crash in a match. A crashed engine loses the game, and is restarted. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "NUMBER",
+            defaultValue = "" + MatchConfig.DEFAULT_MAX_CRASHES)
+    private int maxCrashes;
+
+    @Option(names = {"--cgroup"},
+            description = "Run each engine in its own sub-group of cgroup v2 DIRECTORY, with CPU and memory limits from the engine config. Linux only.",
+            paramLabel = "DIRECTORY")
+    private File cgroupDirectory;
+
+    @Option(names = {"--sample-interval"},
+            description = "Sample CPU time, threads and memory of the engine processes every MILLIS milliseconds. Use 0 to turn sampling off. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "MILLIS",
+            defaultValue = "" + GameConfig.DEFAULT_SAMPLE_INTERVAL_MILLIS)
+    private long sampleIntervalMillis;
+
+    @Option(names = {"--metrics-port"},
+            description = "Export metrics in Prometheus format on http://HOST:PORT/metrics while playing.",
+            paramLabel = "PORT")
+    private Integer metricsPort;
+
+    @Option(names = {"--broadcast-port"},
+            description = "Broadcast the games in progress on http://HOST:PORT/ while playing.",
+            paramLabel = "PORT")
+    private Integer broadcastPort;
+
+    @Option(names = {"--seed"},
+            description = "Seed used when sampling openings and book moves. If not specified, a random seed is used.",
+            paramLabel = "NUMBER")
+    private Long seed;
+
     @Spec
     private CommandSpec spec;
 
@@ -110,6 +183,11 @@ public class App implements Callable<Integer> {
             spec.commandLine().getErr().println("Number of games must be either 1 or a positive, even number.");
             return ExitCode.USAGE;
         }
+        if (engine1File == null || engine2File == null || timeControlString == null) {
+            spec.commandLine().getErr().println("Missing required options: --engine1, --engine2, and --time must all be specified.");
+            spec.commandLine().usage(spec.commandLine().getErr());
+            return ExitCode.USAGE;
+        }
 
         final TimeControl timeControl;
         try {
@@ -131,32 +209,79 @@ public class App implements Callable<Integer> {
             spec.commandLine().getErr().println("Cannot open engine 3 file: " + engine3File);
             return ExitCode.USAGE;
         }
-
-        final IdlingEngine engine1;
-        final IdlingEngine engine2;
-        final IdlingEngine engine3;
-        try {
-             engine1 = engineService.load(engine1File);
-        } catch (IOException e) {
-            spec.commandLine().getErr().println("Cannot read engine 1 file: " + e.getMessage());
-            return ExitCode.SOFTWARE;
+        if ((openingsFile != null || bookFile != null) && numberOfGames == 1) {
+            spec.commandLine().getErr().println("Openings can only be used in matches with an even number of games.");
+            return ExitCode.USAGE;
         }
-        try {
-             engine2 = engineService.load(engine2File);
+        if (journalFile != null && numberOfGames == 1) {
+            spec.commandLine().getErr().println("A journal can only be used in matches with an even number of games.");
+            return ExitCode.USAGE;
+        }
+        if (resume && journalFile == null) {
+            spec.commandLine().getErr().println("Option --resume requires option --journal.");
+            return ExitCode.USAGE;
+        }
+        if (resume && !fileService.canRead(journalFile)) {
+            spec.commandLine().getErr().println("Cannot open journal file: " + journalFile);
+            return ExitCode.USAGE;
+        }
+        if (!resume && journalFile != null && fileService.canRead(journalFile)) {
+            spec.commandLine().getErr().println("Journal file already exists, use --resume to continue the match: " + journalFile);
+            return ExitCode.USAGE;
+        }
+        if (bookFile != null && !fileService.canRead(bookFile)) {
+            spec.commandLine().getErr().println("Cannot open book file: " + bookFile);
+            return ExitCode.USAGE;
+        }
+        if (bookDepth < 0) {
+            spec.commandLine().getErr().println("Book depth must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (maxCrashes < 0) {
+            spec.commandLine().getErr().println("Max crashes must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (openingsFile != null && !fileService.canRead(openingsFile)) {
+            spec.commandLine().getErr().println("Cannot open openings file: " + openingsFile);
+            return ExitCode.USAGE;
+        }
+        if (sampleIntervalMillis < 0) {
+            spec.commandLine().getErr().println("Sample interval must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (cgroupDirectory != null && !fileService.canRead(cgroupDirectory)) {
+            spec.commandLine().getErr().println("Cannot open cgroup directory: " + cgroupDirectory);
+            return ExitCode.USAGE;
+        }
+
+        // The match service is closed first, so the listeners have handled all events when the servers close
+        try (var metricsServer = metricsPort != null ? MetricsServer.start(metricsPort) : null;
+             var broadcastServer = broadcastPort != null ? BroadcastServer.start(broadcastPort) : null;
+             matchService) {
+            if (broadcastServer != null) {
+                matchService.addGameListener(broadcastServer);
+            }
+            return playMatch(timeControl);
         } catch (IOException e) {
-            spec.commandLine().getErr().println("Cannot read engine 2 file: " + e.getMessage());
+            spec.commandLine().getErr().println("Cannot start server: " + e.getMessage());
             return ExitCode.SOFTWARE;
         }
+    }
+
+    private int playMatch(final TimeControl timeControl) {
+        // Load all engines at the same time, since some engines take a while to start
+        final List<IdlingEngine> engines;
         try {
-            if (engine3File != null) {
-                engine3 = engineService.load(engine3File);
-            } else {
-                engine3 = null;
-            }
+            final var engineFiles = engine3File != null ? List.of(engine1File, engine2File, engine3File) : List.of(engine1File, engine2File);
+            final var sandbox = new Sandbox(Set.of(), cgroupDirectory != null ? cgroupDirectory.toPath() : null);
+            engines = engineService.loadAll(engineFiles, sandbox);
         } catch (IOException e) {
-            spec.commandLine().getErr().println("Cannot read engine 3 file: " + e.getMessage());
+            spec.commandLine().getErr().println("Cannot read engine file: " + e.getMessage());
             return ExitCode.SOFTWARE;
         }
+        final IdlingEngine engine1 = engines.get(0);
+        final IdlingEngine engine2 = engines.get(1);
+        final IdlingEngine engine3 = engine3File != null ? engines.get(2) : null;
 
         spec.commandLine().getOut().println("Starting match of " + numberOfGames + " game(s) between " +
                                             engine1.myName() + " and " + engine2.myName());
@@ -167,19 +292,26 @@ public class App implements Callable<Integer> {
         if (outputFile != null) {
             spec.commandLine().getOut().println("Saving games to " + outputFile);
         }
-        matchService.addGameListener(new ProgressBarWriter(numberOfGames));
+        final var dashboard = new DashboardWriter(numberOfGames, spec.commandLine().getOut());
+        matchService.addGameListener(dashboard);
         matchService.addGameListener(new PgnFileWriter(outputFile, fileService));
+        final var thinkTimes = new ThinkTimeSummary();
+        matchService.addGameListener(thinkTimes);
         final PlayedMatch playedMatch;
-        if (numberOfGames == 1) {
-            if (engine3File != null) {
-                playedMatch = matchService.playSingleGameMatchWithExtraEngine(timeControl, engine1, engine2, engine3);
-            } else {
-                playedMatch = matchService.playSingleGameMatch(timeControl, engine1, engine2);
+        try (dashboard) {
+            dashboard.start();
+            playedMatch = playGames(timeControl, engine1, engine2, engine3);
+        } catch (IOException | IllegalArgumentException e) {
+            spec.commandLine().getErr().println("Cannot start match: " + e.getMessage());
+            engineService.unload(engine1);
+            engineService.unload(engine2);
+            if (engine3 != null) {
+                engineService.unload(engine3);
             }
-        } else {
-            playedMatch = matchService.playMatch(new MatchConfig(numberOfGames, timeControl), engine1, engine2);
+            return ExitCode.SOFTWARE;
         }
         printResult(playedMatch);
+        thinkTimes.format().forEach(spec.commandLine().getOut()::println);
 
         engineService.unload(playedMatch.engine1());
         engineService.unload(playedMatch.engine2());
@@ -190,25 +322,108 @@ public class App implements Callable<Integer> {
         return ExitCode.OK;
     }
 
+    private PlayedMatch playGames(final TimeControl timeControl,
+                                  final IdlingEngine engine1,
+                                  final IdlingEngine engine2,
+                                  final IdlingEngine engine3) throws IOException {
+        if (numberOfGames == 1) {
+            if (engine3 != null) {
+                return matchService.playSingleGameMatchWithExtraEngine(timeControl, engine1, engine2, engine3);
+            } else {
+                return matchService.playSingleGameMatch(timeControl, engine1, engine2);
+            }
+        } else if (openingsFile == null && bookFile == null && journalFile == null) {
+            return matchService.playMatch(MatchConfig.builder()
+                    .numberOfGames(numberOfGames)
+                    .timeControl(timeControl)
+                    .maxCrashes(maxCrashes)
+                    .sampleIntervalMillis(sampleIntervalMillis)
+                    .build(), engine1, engine2);
+        } else {
+            return playMatchWithOptions(timeControl, engine1, engine2);
+        }
+    }
+
+    /**
+     * Plays a match with an opening suite, an opening book, or a journal. They all use the same seed,
+     * which is read from the journal when resuming a match.
+     */
+    private PlayedMatch playMatchWithOptions(final TimeControl timeControl,
+                                             final IdlingEngine engine1,
+                                             final IdlingEngine engine2) throws IOException {
+        try (var resumedJournal = resume ? MatchJournal.resume(journalFile.toPath()) : null) {
+            if (resumedJournal != null && resumedJournal.numberOfGames() != numberOfGames) {
+                throw new IOException("journal " + journalFile + " is for a match of " + resumedJournal.numberOfGames() + " games");
+            }
+            if (resumedJournal != null && seed != null && seed != resumedJournal.seed()) {
+                throw new IOException("journal " + journalFile + " was created with seed " + resumedJournal.seed());
+            }
+            final long actualSeed = resumedJournal != null ? resumedJournal.seed() : seed != null ? seed : new Random().nextLong();
+
+            if (openingsFile != null || bookFile != null) {
+                spec.commandLine().getOut().println("Using openings from " + (openingsFile != null ? openingsFile : bookFile) +
+                                                    " with seed " + actualSeed);
+            }
+            if (resumedJournal != null) {
+                spec.commandLine().getOut().println("Resuming match with " + resumedJournal.entries().size() +
+                                                    " finished game(s) from " + journalFile);
+            } else if (journalFile != null) {
+                spec.commandLine().getOut().println("Writing journal to " + journalFile);
+            }
+
+            try (var openings = openingsFile != null ? OpeningSuite.open(openingsFile.toPath()) : null;
+                 var book = bookFile != null ? PolyglotBook.open(bookFile.toPath()) : null) {
+                final var matchConfig = MatchConfig.builder()
+                        .numberOfGames(numberOfGames)
+                        .timeControl(timeControl)
+                        .openings(openings)
+                        .book(book, book != null ? bookDepth : 0)
+                        .seed(actualSeed)
+                        .maxCrashes(maxCrashes)
+                        .sampleIntervalMillis(sampleIntervalMillis)
+                        .build();
+                // The journal records which openings the match uses, so it can only be resumed with the same openings
+                try (var newJournal = journalFile != null && resumedJournal == null
+                        ? MatchJournal.create(journalFile.toPath(), numberOfGames, actualSeed, MatchOpenings.of(matchConfig).fingerprint())
+                        : null) {
+                    return matchService.playMatch(matchConfig.withJournal(resumedJournal != null ? resumedJournal : newJournal), engine1, engine2);
+                }
+            }
+        }
+    }
+
     private void printResult(final PlayedMatch playedMatch) {
-        final String engine1 = playedMatch.engine1().myName();
-        final String engine2 = playedMatch.engine2().myName();
-        final List<GameResult> results = playedMatch.results();
-        final List<String> reasons = playedMatch.reasons();
+        spec.commandLine().getOut().println(formatResult(playedMatch.engine1().myName(), playedMatch.engine2().myName(),
+                                                         playedMatch.results(), playedMatch.reasons(), numberOfGames));
+    }
 
+    /**
+     * Formats the results of a match between engine 1 and engine 2 as a table, followed by the final score.
+     */
+    static String formatResult(final String engine1,
+                               final String engine2,
+                               final List<GameResult> results,
+                               final List<String> reasons,
+                               final int numberOfGames) {
         final var numberColumnWidth = 3;
         final var namesColumnWidth = engine1.length() + 3 + engine2.length();
-        final var resultColumnWidth = maxWidth(results, GameResult::getDescription);
-        final var reasonColumnWidth = maxWidth(reasons, s -> s);
+        // A game that was not played, for example in a distributed match, has no result
+        final var playedResults = results.stream().filter(Objects::nonNull).toList();
+        final var resultColumnWidth = maxWidth(playedResults, GameResult::getDescription);
+        final var reasonColumnWidth = maxWidth(reasons.stream().filter(Objects::nonNull).toList(), s -> s);
         final var totalWidth = 3 + numberColumnWidth + 5 + namesColumnWidth + 5 + resultColumnWidth + 5 + reasonColumnWidth + 3;
 
         var engine1Score = 0.0;
         var engine2Score = 0.0;
         final var builder = new StringBuilder();
         builder.append(" ").append("-".repeat(totalWidth - 2)).append(" ").append(EOL);
-        for (var gameNumber = 1; gameNumber <= numberOfGames; gameNumber++) {
+        // The match may have been stopped before all games were played
+        for (var gameNumber = 1; gameNumber <= results.size(); gameNumber++) {
             final var result = results.get(gameNumber - 1);
             final var reason = reasons.get(gameNumber - 1);
+            if (result == null) {
+                continue;
+            }
 
             builder.append("|  ").append(String.format("%3d", gameNumber)).append("  |  ");
             if (gameNumber % 2 != 0) {
@@ -230,14 +445,17 @@ public class App implements Callable<Integer> {
             engine2Score += (result == DRAW) ? 0.5 : 0.0;
         }
         builder.append(" ").append("-".repeat(totalWidth - 2)).append(" ").append(EOL);
+        if (playedResults.size() < numberOfGames) {
+            builder.append("Match stopped after ").append(playedResults.size()).append(" of ").append(numberOfGames).append(" game(s)").append(EOL);
+        }
         builder.append("Final result:").append(EOL);
         builder.append(String.format(US, "%-20s : %2.1f", engine1, engine1Score)).append(EOL);
         builder.append(String.format(US, "%-20s : %2.1f", engine2, engine2Score));
-        spec.commandLine().getOut().println(builder);
+        return builder.toString();
     }
 
     public static <T> int maxWidth(Collection<T> collection, Function<T, String> extractor) {
-        return collection.stream().map(extractor).mapToInt(String::length).max().orElseThrow();
+        return collection.stream().map(extractor).mapToInt(String::length).max().orElse(0);
     }
 
     public int execute(final String[] args) {
@@ -245,6 +463,8 @@ public class App implements Callable<Integer> {
     }
 
     public static void main(String[] args) {
-        System.exit(new App().execute(args));
+        final int exitCode = new App().execute(args);
+        ProcessUtils.awaitTearDowns();
+        System.exit(exitCode);
     }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.io.FileServiceImpl;
+import se.dykstrom.cet.services.metrics.MetricsServer;
+import se.dykstrom.cet.services.server.BatchFile;
+import se.dykstrom.cet.services.server.JobRequest;
+import se.dykstrom.cet.services.server.JobService;
+import se.dykstrom.cet.services.server.JobServiceImpl;
+import se.dykstrom.cet.services.server.JobState;
+import se.dykstrom.cet.services.server.JobStatus;
+import se.dykstrom.cet.services.util.ResourceUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static se.dykstrom.cet.engine.util.StringUtils.EOL;
+
+@SuppressWarnings("unused")
+@Command(name = "batch",
+         mixinStandardHelpOptions = true,
+         description = "Plays all matches in a batch file, several at a time, and writes one PGN file and one summary per match.")
+public class BatchCommand implements Callable<Integer> {
+
+    @Parameters(paramLabel = "FILE",
+                description = "Batch FILE with a JSON array of matches, each with engines, timeControl, games, and optionally name, priority and pgn.")
+    private File batchFile;
+
+    @Option(names = {"-s", "--slots"},
+            description = "Number of games to play at the same time, over all matches. The default is 1.",
+            paramLabel = "NUMBER",
+            defaultValue = "1")
+    private int slots;
+
+    @Option(names = {"-d", "--directory"},
+            description = "Write PGN files and summaries to DIRECTORY. The default is the current directory.",
+            paramLabel = "DIRECTORY",
+            defaultValue = ".")
+    private File outputDirectory;
+
+    @Option(names = {"--cgroup"},
+            description = "Run each engine in its own sub-group of cgroup v2 DIRECTORY, with CPU and memory limits from the engine config. Linux only.",
+            paramLabel = "DIRECTORY")
+    private File cgroupDirectory;
+
+    @Option(names = {"--metrics-port"},
+            description = "Export metrics in Prometheus format on http://HOST:PORT/metrics while playing.",
+            paramLabel = "PORT")
+    private Integer metricsPort;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final FileService fileService;
+    private final BiFunction<Integer, Sandbox, JobService> jobServiceFactory;
+
+    public BatchCommand() {
+        this(new FileServiceImpl(), JobServiceImpl::new);
+    }
+
+    public BatchCommand(final FileService fileService, final BiFunction<Integer, Sandbox, JobService> jobServiceFactory) {
+        this.fileService = fileService;
+        this.jobServiceFactory = jobServiceFactory;
+    }
+
+    @Override
+    public Integer call() {
+        if (slots < 1) {
+            spec.commandLine().getErr().println("Number of slots must be a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (!fileService.canRead(batchFile)) {
+            spec.commandLine().getErr().println("Cannot open batch file: " + batchFile);
+            return ExitCode.USAGE;
+        }
+        if (cgroupDirectory != null && !fileService.canRead(cgroupDirectory)) {
+            spec.commandLine().getErr().println("Cannot open cgroup directory: " + cgroupDirectory);
+            return ExitCode.USAGE;
+        }
+
+        final List<JobRequest> requests;
+        try {
+            requests = nameJobs(BatchFile.load(batchFile));
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot read batch file: " + e.getMessage());
+            return ExitCode.USAGE;
+        }
+        if (requests.stream().map(JobRequest::name).distinct().count() < requests.size()) {
+            spec.commandLine().getErr().println("Match names in batch file must be unique.");
+            return ExitCode.USAGE;
+        }
+
+        // Make sure the engines do not reserve more memory and cores than the machine has
+        final var engineConfigs = new ArrayList<EngineConfigDto>();
+        for (final File engineFile : engineFiles(requests)) {
+            try {
+                engineConfigs.add(fileService.load(engineFile));
+            } catch (IOException e) {
+                // Engine files that cannot be read are reported when their match is submitted
+            }
+        }
+        // Each slot keeps some idle engines loaded, in addition to the two that are playing
+        final var readableConfigs = engineConfigs.stream().filter(Objects::nonNull).toList();
+        final var enginesPerSlot = Math.min(readableConfigs.size(), JobServiceImpl.ENGINES_PER_SLOT + 2);
+        final var problems = ResourceUtils.checkResources(readableConfigs, slots, enginesPerSlot,
+                                                          ResourceUtils.totalMemoryMb(), ResourceUtils.availableCores());
+        if (!problems.isEmpty()) {
+            problems.forEach(spec.commandLine().getErr()::println);
+            return ExitCode.USAGE;
+        }
+
+        final var sandbox = new Sandbox(Set.of(), cgroupDirectory != null ? cgroupDirectory.toPath() : null);
+        final var jobService = jobServiceFactory.apply(slots, sandbox);
+
+        // A match that cannot be queued is reported, but does not stop the other matches
+        var allFinished = true;
+        final Map<Integer, JobRequest> jobs = new LinkedHashMap<>();
+        for (final JobRequest request : requests) {
+            try {
+                jobs.put(jobService.submit(request).id(), request);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                spec.commandLine().getErr().println("Cannot start match " + request.name() + ": " + e.getMessage());
+                allFinished = false;
+            }
+        }
+
+        spec.commandLine().getOut().println("Playing " + jobs.size() + " match(es), " + slots + " game(s) at a time");
+        try (var metricsServer = metricsPort != null ? MetricsServer.start(metricsPort) : null) {
+            jobService.start();
+            for (final Map.Entry<Integer, JobRequest> entry : jobs.entrySet()) {
+                final var status = jobService.await(entry.getKey()).orElseThrow();
+                final var summary = formatSummary(status);
+                spec.commandLine().getOut().println(summary);
+                writeSummary(entry.getValue().name(), summary);
+                allFinished &= status.state() == JobState.FINISHED;
+            }
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot start metrics server: " + e.getMessage());
+            allFinished = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            allFinished = false;
+        } finally {
+            jobService.stop();
+        }
+        return allFinished ? ExitCode.OK : ExitCode.SOFTWARE;
+    }
+
+    /**
+     * Gives each job without a name a name after its position in the batch file,
+     * and a PGN file named after the job in the output directory.
+     */
+    private List<JobRequest> nameJobs(final List<JobRequest> requests) {
+        final var namedRequests = new ArrayList<JobRequest>();
+        for (var index = 0; index < requests.size(); index++) {
+            var request = requests.get(index);
+            if (request.name() == null) {
+                request = request.withName("match" + (index + 1));
+            }
+            if (request.pgn() == null) {
+                request = request.withPgn(new File(outputDirectory, request.name() + ".pgn"));
+            }
+            namedRequests.add(request);
+        }
+        return namedRequests;
+    }
+
+    /**
+     * Returns the distinct engine files in all jobs that can be read.
+     */
+    private List<File> engineFiles(final List<JobRequest> requests) {
+        return requests.stream()
+                       .filter(request -> request.engines() != null)
+                       .flatMap(request -> request.engines().stream())
+                       .filter(Objects::nonNull)
+                       .distinct()
+                       .filter(fileService::canRead)
+                       .toList();
+    }
+
+    private void writeSummary(final String name, final String summary) {
+        final var summaryFile = new File(outputDirectory, name + ".txt");
+        try {
+            fileService.write(summaryFile.toPath(), List.of(summary), UTF_8);
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot write summary file: " + summaryFile);
+        }
+    }
+
+    /**
+     * Formats the state and the games of a job. If a game failed, only the games played before it are included.
+     */
+    static String formatSummary(final JobStatus status) {
+        final var builder = new StringBuilder();
+        builder.append("Match ").append(status.name()).append(": ").append(status.state());
+        if (status.error() != null) {
+            builder.append(" (").append(status.error()).append(")");
+        }
+        builder.append(EOL);
+
+        final var results = new ArrayList<GameResult>();
+        final var reasons = new ArrayList<String>();
+        for (var index = 0; index < status.results().size() && status.results().get(index) != null; index++) {
+            results.add(GameResult.fromNotation(status.results().get(index)));
+            reasons.add(status.reasons().get(index));
+        }
+        if (status.engines() != null && !results.isEmpty()) {
+            builder.append(App.formatResult(status.engines().get(0), status.engines().get(1), results, reasons, status.numberOfGames()));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.text.ParseException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.engine.time.TimeControlFormat;
+import se.dykstrom.cet.services.distributed.Coordinator;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.io.FileServiceImpl;
+import se.dykstrom.cet.services.match.MatchConfig;
+import se.dykstrom.cet.services.opening.OpeningSuite;
+import se.dykstrom.cet.services.opening.PolyglotBook;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+
+@SuppressWarnings("unused")
+@Command(name = "coordinator",
+         mixinStandardHelpOptions = true,
+         description = "Plays a match on workers that connect over the network. Start workers with the worker subcommand.")
+public class CoordinatorCommand implements Callable<Integer> {
+
+    @Option(names = {"-n", "--number"},
+            description = "Number of games to play. A positive, even number.",
+            paramLabel = "NUMBER",
+            required = true)
+    private int numberOfGames;
+
+    @Option(names = {"-t", "--time"},
+            description = "Time control in PGN format. Either moves/seconds or initial+increase (both in seconds).",
+            paramLabel = "TIME CONTROL",
+            required = true)
+    private String timeControlString;
+
+    @Option(names = {"-p", "--port"},
+            description = "PORT to accept workers on. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "PORT",
+            defaultValue = "" + Coordinator.DEFAULT_PORT)
+    private int port;
+
+    @Option(names = {"--batch-size"},
+            description = "Number of game pairs to hand to a worker at a time. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "NUMBER",
+            defaultValue = "" + Coordinator.DEFAULT_BATCH_SIZE)
+    private int batchSize;
+
+    @Option(names = {"--openings"},
+            description = "Opening suite FILENAME in EPD or FEN format. Each opening is played twice, with colors swapped. " +
+                          "The engines must support the setboard command.",
+            paramLabel = "FILENAME")
+    private File openingsFile;
+
+    @Option(names = {"--book"},
+            description = "Opening book FILENAME in Polyglot format. Each pair of games starts with weighted random book moves.",
+            paramLabel = "FILENAME")
+    private File bookFile;
+
+    @Option(names = {"--book-depth"},
+            description = "Maximum number of book moves (plies) to play. The default is 8.",
+            paramLabel = "NUMBER",
+            defaultValue = "8")
+    private int bookDepth;
+
+    @Option(names = {"--seed"},
+            description = "Seed used when sampling openings and book moves. If not specified, a random seed is used.",
+            paramLabel = "NUMBER")
+    private Long seed;
+
+    @Option(names = {"--sample-interval"},
+            description = "Sample CPU time, threads and memory of the engine processes every MILLIS milliseconds. Use 0 to turn sampling off. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "MILLIS",
+            defaultValue = "" + GameConfig.DEFAULT_SAMPLE_INTERVAL_MILLIS)
+    private long sampleIntervalMillis;
+
+    @Option(names = {"-o", "--output"},
+            description = "PGN game file FILENAME. If not specified, no file will be written.",
+            paramLabel = "FILENAME")
+    private File outputFile;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final FileService fileService;
+
+    public CoordinatorCommand() {
+        this(new FileServiceImpl());
+    }
+
+    public CoordinatorCommand(final FileService fileService) {
+        this.fileService = fileService;
+    }
+
+    @Override
+    public Integer call() {
+        if (numberOfGames < 2 || numberOfGames % 2 != 0) {
+            spec.commandLine().getErr().println("Number of games must be a positive, even number.");
+            return ExitCode.USAGE;
+        }
+        if (batchSize < 1) {
+            spec.commandLine().getErr().println("Batch size must be a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (bookDepth < 0) {
+            spec.commandLine().getErr().println("Book depth must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (sampleIntervalMillis < 0) {
+            spec.commandLine().getErr().println("Sample interval must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (openingsFile != null && !fileService.canRead(openingsFile)) {
+            spec.commandLine().getErr().println("Cannot open openings file: " + openingsFile);
+            return ExitCode.USAGE;
+        }
+        if (bookFile != null && !fileService.canRead(bookFile)) {
+            spec.commandLine().getErr().println("Cannot open book file: " + bookFile);
+            return ExitCode.USAGE;
+        }
+
+        final TimeControl timeControl;
+        try {
+            timeControl = TimeControlFormat.parse(timeControlString);
+        } catch (ParseException e) {
+            spec.commandLine().getErr().println("Cannot parse time control: " + timeControlString);
+            return ExitCode.USAGE;
+        }
+
+        final long actualSeed = seed != null ? seed : new Random().nextLong();
+        try (var serverSocket = new ServerSocket(port);
+             var openings = openingsFile != null ? OpeningSuite.open(openingsFile.toPath()) : null;
+             var book = bookFile != null ? PolyglotBook.open(bookFile.toPath()) : null) {
+            final var matchConfig = MatchConfig.builder()
+                    .numberOfGames(numberOfGames)
+                    .timeControl(timeControl)
+                    .openings(openings)
+                    .book(book, book != null ? bookDepth : 0)
+                    .seed(actualSeed)
+                    .sampleIntervalMillis(sampleIntervalMillis)
+                    .build();
+
+            spec.commandLine().getOut().println("Waiting for workers on port " + serverSocket.getLocalPort() +
+                                                " to play a match of " + numberOfGames + " game(s)");
+            spec.commandLine().getOut().println("Time control is " + timeControl.toPgn());
+            if (openingsFile != null || bookFile != null) {
+                spec.commandLine().getOut().println("Using openings from " + (openingsFile != null ? openingsFile : bookFile) +
+                                                    " with seed " + actualSeed);
+            }
+            if (outputFile != null) {
+                spec.commandLine().getOut().println("Saving games to " + outputFile);
+            }
+
+            final var coordinator = new Coordinator(serverSocket, batchSize, new PgnFileWriter(outputFile, fileService));
+            final var playedMatch = coordinator.playMatch(matchConfig);
+            final var engineNames = coordinator.engineNames();
+            if (engineNames != null) {
+                spec.commandLine().getOut().println(App.formatResult(engineNames.get(0), engineNames.get(1),
+                                                                     playedMatch.results(), playedMatch.reasons(), numberOfGames));
+            }
+            return ExitCode.OK;
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot start coordinator: " + e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.metrics.LiveGame;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.util.GameListener;
+
+/**
+ * Shows the progress of a match or tournament. When stdout is a terminal, the dashboard is redrawn
+ * in place every second, and shows the number of games played, games per hour, the estimated time
+ * left, the score and Elo difference of each engine, the reasons games ended, the games that are
+ * being played, and the nodes per second of each engine in its last game. When stdout is not a
+ * terminal, for example when it is redirected to a file, one line is printed after each game.
+ */
+public class DashboardWriter implements GameListener, AutoCloseable {
+
+    private static final long REFRESH_MILLIS = 1000;
+    private static final String CURSOR_UP = "\u001b[%dF";
+    private static final String CLEAR_DOWN = "\u001b[J";
+
+    private final int numberOfGames;
+    private final PrintWriter out;
+    private final boolean terminal;
+    private final Metrics metrics;
+    private final LongSupplier nanoTime;
+    private final long startNanos;
+
+    private final Map<String, Score> scores = new LinkedHashMap<>();
+    private final Map<String, Integer> reasons = new TreeMap<>();
+    private final Map<String, Long> nps = new TreeMap<>();
+    private int numberOfGamesOver;
+    private int linesDrawn;
+    private ScheduledExecutorService scheduler;
+
+    public DashboardWriter(final int numberOfGames, final PrintWriter out) {
+        this(numberOfGames, out, isTerminal(), Metrics.global(), System::nanoTime);
+    }
+
+    DashboardWriter(final int numberOfGames,
+                    final PrintWriter out,
+                    final boolean terminal,
+                    final Metrics metrics,
+                    final LongSupplier nanoTime) {
+        this.numberOfGames = numberOfGames;
+        this.out = out;
+        this.terminal = terminal;
+        this.metrics = metrics;
+        this.nanoTime = nanoTime;
+        this.startNanos = nanoTime.getAsLong();
+    }
+
+    private static boolean isTerminal() {
+        final var console = System.console();
+        return console != null && console.isTerminal();
+    }
+
+    /**
+     * Starts redrawing the dashboard every second, if stdout is a terminal.
+     */
+    public synchronized void start() {
+        if (terminal && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("dashboard").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::draw, 0, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops redrawing the dashboard, and draws it a final time.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            draw();
+        }
+    }
+
+    @Override
+    public synchronized void gameOver(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+        numberOfGamesOver++;
+        final var white = playedGame.whiteEngine().myName();
+        final var black = playedGame.blackEngine().myName();
+        final var result = playedGame.result();
+        scores.computeIfAbsent(white, key -> new Score()).add(result, GameResult.WHITE_WON);
+        scores.computeIfAbsent(black, key -> new Score()).add(result, GameResult.BLACK_WON);
+        if (playedGame.reason() != null) {
+            reasons.merge(playedGame.reason(), 1, Integer::sum);
+        }
+        updateNps(white, playedGame.whiteSearch());
+        updateNps(black, playedGame.blackSearch());
+
+        if (!terminal) {
+            out.println("Game " + numberOfGamesOver + "/" + numberOfGames + ": " + white + " - " + black + " " + result.getDescription() +
+                        (playedGame.reason() != null ? " (" + playedGame.reason() + ")" : "") +
+                        ", " + formatScore(white) + ", " + formatScore(black) +
+                        ", " + formatRate() + " games/h, ETA " + formatEta());
+            out.flush();
+        }
+    }
+
+    private void updateNps(final String engine, final SearchStatistics search) {
+        if (search != null && search.nps() > 0) {
+            nps.put(engine, search.nps());
+        }
+    }
+
+    private synchronized void draw() {
+        final var lines = render();
+        final var builder = new StringBuilder();
+        if (linesDrawn > 0) {
+            builder.append(CURSOR_UP.formatted(linesDrawn));
+        }
+        builder.append(CLEAR_DOWN);
+        lines.forEach(line -> builder.append(line).append(System.lineSeparator()));
+        out.print(builder);
+        out.flush();
+        linesDrawn = lines.size();
+    }
+
+    /**
+     * Returns the lines of the dashboard.
+     */
+    synchronized List<String> render() {
+        final var lines = new ArrayList<String>();
+        lines.add("Games " + numberOfGamesOver + "/" + numberOfGames + "   " + formatRate() + " games/h   ETA " + formatEta());
+
+        if (!scores.isEmpty()) {
+            final var nameWidth = scores.keySet().stream().mapToInt(String::length).max().orElse(0);
+            lines.add("");
+            scores.forEach((name, score) -> lines.add(String.format(Locale.ROOT, "%-" + nameWidth + "s   %s   %s",
+                                                                    name, score.formatPoints(), score.formatElo())));
+        }
+
+        if (!reasons.isEmpty()) {
+            final var builder = new StringBuilder("Reasons:");
+            reasons.forEach((reason, count) -> builder.append(" ").append(reason).append(" ").append(count).append(","));
+            builder.setLength(builder.length() - 1);
+            lines.add("");
+            lines.add(builder.toString());
+        }
+
+        // The games being played, the oldest first; a game does not know which slot it is played in
+        final var liveGames = metrics.liveGames();
+        if (!liveGames.isEmpty()) {
+            lines.add("");
+            liveGames.forEach(liveGame -> lines.add("Playing: " + formatLiveGame(liveGame)));
+        }
+
+        if (!nps.isEmpty()) {
+            final var builder = new StringBuilder("NPS:");
+            nps.forEach((engine, value) -> builder.append(String.format(Locale.ROOT, " %s %,d,", engine, value)));
+            builder.setLength(builder.length() - 1);
+            lines.add("");
+            lines.add(builder.toString());
+        }
+        return lines;
+    }
+
+    private String formatScore(final String engine) {
+        return engine + " " + scores.get(engine).formatPoints();
+    }
+
+    private static String formatLiveGame(final LiveGame liveGame) {
+        return liveGame.white() + " - " + liveGame.black() +
+               ", move " + (liveGame.ply() / 2 + 1) +
+               ", " + formatClock(liveGame.whiteMillisLeft()) + " - " + formatClock(liveGame.blackMillisLeft());
+    }
+
+    private String formatRate() {
+        final var elapsedNanos = nanoTime.getAsLong() - startNanos;
+        if (numberOfGamesOver == 0 || elapsedNanos <= 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%.1f", numberOfGamesOver * 3600e9 / elapsedNanos);
+    }
+
+    private String formatEta() {
+        if (numberOfGamesOver == 0) {
+            return "-";
+        }
+        final var elapsedNanos = nanoTime.getAsLong() - startNanos;
+        final var gamesLeft = Math.max(0, numberOfGames - numberOfGamesOver);
+        return formatDuration(elapsedNanos / numberOfGamesOver * gamesLeft / 1_000_000);
+    }
+
+    /**
+     * Formats a duration in milliseconds as h:mm:ss.
+     */
+    static String formatDuration(final long millis) {
+        final var seconds = millis / 1000;
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    /**
+     * Formats the time left on a chess clock in milliseconds as m:ss.s.
+     */
+    static String formatClock(final long millis) {
+        final var tenths = Math.max(0, millis) / 100;
+        return String.format(Locale.ROOT, "%d:%02d.%d", tenths / 600, tenths / 10 % 60, tenths % 10);
+    }
+
+    /**
+     * Formats the Elo difference of an engine that has scored {@code wins}, {@code draws}, and {@code losses},
+     * with a 95% confidence interval. Returns "-" if the Elo difference is not defined, that is, if the engine
+     * has scored 0% or 100%.
+     */
+    static String formatElo(final int wins, final int draws, final int losses) {
+        final var games = wins + draws + losses;
+        if (games == 0 || wins + draws == 0 || draws + losses == 0) {
+            return "-";
+        }
+        final var score = (wins + draws / 2.0) / games;
+        final var variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2) + losses * Math.pow(score, 2)) / games;
+        final var error = 1.96 * Math.sqrt(variance / games);
+        final var low = Math.max(score - error, 1e-6);
+        final var high = Math.min(score + error, 1 - 1e-6);
+        return String.format(Locale.ROOT, "%+.0f +/- %.0f", elo(score), (elo(high) - elo(low)) / 2);
+    }
+
+    private static double elo(final double score) {
+        // Adding 0.0 turns -0.0 into 0.0
+        return -400 * Math.log10(1 / score - 1) + 0.0;
+    }
+
+    private static final class Score {
+
+        private int wins;
+        private int draws;
+        private int losses;
+
+        void add(final GameResult result, final GameResult win) {
+            if (result == win) {
+                wins++;
+            } else if (result == GameResult.DRAW) {
+                draws++;
+            } else if (result != GameResult.ONGOING) {
+                losses++;
+            }
+        }
+
+        String formatPoints() {
+            return String.format(Locale.ROOT, "%.1f/%d", wins + draws / 2.0, wins + draws + losses);
+        }
+
+        String formatElo() {
+            return DashboardWriter.formatElo(wins, draws, losses);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.services.rating.Rating;
+import se.dykstrom.cet.services.rating.RatingList;
+import se.dykstrom.cet.services.rating.RatingService;
+import se.dykstrom.cet.services.rating.RatingServiceImpl;
+
+import static java.util.Locale.US;
+import static se.dykstrom.cet.engine.util.StringUtils.EOL;
+
+@SuppressWarnings("unused")
+@Command(name = "ratings",
+         mixinStandardHelpOptions = true,
+         description = "Computes Elo ratings for all players in one or more PGN files.")
+public class RatingsCommand implements Callable<Integer> {
+
+    @Parameters(description = "PGN game FILENAME(s).",
+                paramLabel = "FILENAME",
+                arity = "1..*")
+    private List<Path> pgnFiles;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final RatingService ratingService;
+
+    public RatingsCommand() {
+        this(new RatingServiceImpl());
+    }
+
+    public RatingsCommand(final RatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    @Override
+    public Integer call() {
+        for (final Path pgnFile : pgnFiles) {
+            if (!Files.isReadable(pgnFile)) {
+                spec.commandLine().getErr().println("Cannot open PGN file: " + pgnFile);
+                return ExitCode.USAGE;
+            }
+        }
+
+        try {
+            final var results = ratingService.readPgn(pgnFiles);
+            if (results.size() == 0) {
+                spec.commandLine().getErr().println("No finished games found.");
+                return ExitCode.SOFTWARE;
+            }
+            spec.commandLine().getOut().println(format(ratingService.rate(results)));
+            return ExitCode.OK;
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Failed to read PGN file: " + e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+    }
+
+    /**
+     * Formats the given rating list as a table, with the error given as a 95% confidence interval.
+     */
+    static String format(final RatingList ratingList) {
+        final var ratings = ratingList.ratings();
+        final var nameColumnWidth = Math.max(6, App.maxWidth(ratings, Rating::name));
+
+        final var builder = new StringBuilder();
+        builder.append(String.format(US, "%4s  %-" + nameColumnWidth + "s  %5s  %5s  %6s  %7s  %5s",
+                "Rank", "Engine", "Elo", "+/-", "Games", "Score", "%")).append(EOL);
+        var rank = 1;
+        for (final Rating rating : ratings) {
+            builder.append(String.format(US, "%4d  %-" + nameColumnWidth + "s  %5.0f  %5.0f  %6d  %7.1f  %5.1f",
+                    rank++, rating.name(), rating.elo(), rating.error(), rating.games(), rating.score(),
+                    rating.games() > 0 ? 100 * rating.score() / rating.games() : 0.0)).append(EOL);
+        }
+        builder.append(String.format(US, "White advantage = %.1f, draw elo = %.1f", ratingList.eloAdvantage(), ratingList.eloDraw()));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.metrics.MetricsServer;
+import se.dykstrom.cet.services.server.JobServer;
+import se.dykstrom.cet.services.server.JobServiceImpl;
+import se.dykstrom.cet.services.util.ResourceUtils;
+
+@SuppressWarnings("unused")
+@Command(name = "server",
+         mixinStandardHelpOptions = true,
+         description = "Runs a server that plays match jobs submitted over a local HTTP API, keeping engines loaded between jobs.")
+public class ServerCommand implements Callable<Integer> {
+
+    @Option(names = {"-p", "--port"},
+            description = "PORT to listen on. The server only accepts connections from localhost. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "PORT",
+            defaultValue = "8100")
+    private int port;
+
+    @Option(names = {"-s", "--slots"},
+            description = "Number of games to play at the same time. The default is 1.",
+            paramLabel = "NUMBER",
+            defaultValue = "1")
+    private int slots;
+
+    @Option(names = {"-d", "--directory"},
+            description = "DIRECTORY that the engine config files and PGN files of submitted jobs must be in. " +
+                          "Repeat this option to allow more directories. The default is the current directory.",
+            paramLabel = "DIRECTORY")
+    private List<File> directories;
+
+    @Option(names = {"--cgroup"},
+            description = "Run each engine in its own sub-group of cgroup v2 DIRECTORY, with CPU and memory limits from the engine config. Linux only.",
+            paramLabel = "DIRECTORY")
+    private File cgroupDirectory;
+
+    @Option(names = {"--metrics-port"},
+            description = "Export metrics in Prometheus format on http://HOST:PORT/metrics while playing.",
+            paramLabel = "PORT")
+    private Integer metricsPort;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (slots < 1) {
+            spec.commandLine().getErr().println("Number of slots must be a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (cgroupDirectory != null && !cgroupDirectory.canRead()) {
+            spec.commandLine().getErr().println("Cannot open cgroup directory: " + cgroupDirectory);
+            return ExitCode.USAGE;
+        }
+
+        // The engine configs arrive with the jobs, so only check that each slot has a core for each of its two engines
+        final var defaultEngine = new EngineConfigDto(null, null);
+        final var problems = ResourceUtils.checkResources(List.of(defaultEngine, defaultEngine), slots, 2,
+                                                          ResourceUtils.totalMemoryMb(), ResourceUtils.availableCores());
+        if (!problems.isEmpty()) {
+            problems.forEach(spec.commandLine().getErr()::println);
+            return ExitCode.USAGE;
+        }
+
+        final var sandbox = new Sandbox(Set.of(), cgroupDirectory != null ? cgroupDirectory.toPath() : null);
+        final var jobService = new JobServiceImpl(slots, sandbox);
+        final JobServer jobServer;
+        final MetricsServer metricsServer;
+        try {
+            final var allowedDirectories = directories != null ? directories.stream().map(File::toPath).toList() : List.of(Path.of(""));
+            jobServer = new JobServer(jobService, port, allowedDirectories);
+            metricsServer = metricsPort != null ? MetricsServer.start(metricsPort) : null;
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot start server: " + e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+
+        // Run until the JVM is shut down, for example by Ctrl-C
+        final var stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            jobServer.close();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            jobService.stop();
+            stopped.countDown();
+        }));
+        jobService.start();
+        jobServer.start();
+        spec.commandLine().getOut().println("Listening on http://localhost:" + jobServer.port() + "/jobs with " + slots + " game slot(s)");
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ExitCode.OK;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.engine.time.TimeControlFormat;
+import se.dykstrom.cet.services.broadcast.BroadcastServer;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.io.FileServiceImpl;
+import se.dykstrom.cet.services.metrics.MetricsServer;
+import se.dykstrom.cet.services.rating.PairwiseResults;
+import se.dykstrom.cet.services.rating.RatingService;
+import se.dykstrom.cet.services.rating.RatingServiceImpl;
+import se.dykstrom.cet.services.tournament.PlayedTournament;
+import se.dykstrom.cet.services.tournament.TournamentConfig;
+import se.dykstrom.cet.services.tournament.TournamentFormat;
+import se.dykstrom.cet.services.tournament.TournamentService;
+import se.dykstrom.cet.services.tournament.TournamentServiceImpl;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+import se.dykstrom.cet.services.util.ThinkTimeSummary;
+import se.dykstrom.cet.services.util.ResourceUtils;
+
+import static java.util.Locale.US;
+import static se.dykstrom.cet.engine.util.StringUtils.EOL;
+
+@SuppressWarnings("unused")
+@Command(name = "tournament",
+         mixinStandardHelpOptions = true,
+         description = "Plays a round-robin or gauntlet tournament between two or more chess engines.")
+public class TournamentCommand implements Callable<Integer> {
+
+    @Option(names = {"-e", "--engine"},
+            description = "Chess engine config FILENAME. Repeat this option for each engine in the tournament.",
+            paramLabel = "FILENAME",
+            required = true)
+    private List<File> engineFiles;
+
+    @Option(names = {"-g", "--gauntlet"},
+            description = "Play a gauntlet, in which the first engine plays all the others. The default is a round-robin tournament.")
+    private boolean gauntlet;
+
+    @Option(names = {"-n", "--number"},
+            description = "Number of games each pair of engines play. Either 1 or a positive, even number.",
+            paramLabel = "NUMBER",
+            required = true)
+    private int gamesPerPairing;
+
+    @Option(names = {"-t", "--time"},
+            description = "Time control in PGN format. Either moves/seconds or initial+increase (both in seconds).",
+            paramLabel = "TIME CONTROL",
+            required = true)
+    private String timeControlString;
+
+    @Option(names = {"-c", "--concurrency"},
+            description = "Number of games to play at the same time. The default is 1.",
+            paramLabel = "NUMBER",
+            defaultValue = "1")
+    private int concurrency;
+
+    @Option(names = {"--min-concurrency"},
+            description = "Least number of games to play at the same time. If less than the concurrency, the number of games adapts to load average, engine NPS and time forfeits. The default is the concurrency.",
+            paramLabel = "NUMBER")
+    private Integer minConcurrency;
+
+    @Option(names = {"--affinity"},
+            description = "Pin each game slot to its own CPU cores, and the tester to a reserved core. Linux only.")
+    private boolean affinity;
+
+    @Option(names = {"--cgroup"},
+            description = "Run each engine in its own sub-group of cgroup v2 DIRECTORY, with CPU and memory limits from the engine config. Linux only.",
+            paramLabel = "DIRECTORY")
+    private File cgroupDirectory;
+
+    @Option(names = {"--sample-interval"},
+            description = "Sample CPU time, threads and memory of the engine processes every MILLIS milliseconds. Use 0 to turn sampling off. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "MILLIS",
+            defaultValue = "" + GameConfig.DEFAULT_SAMPLE_INTERVAL_MILLIS)
+    private long sampleIntervalMillis;
+
+    @Option(names = {"-o", "--output"},
+            description = "PGN game file FILENAME. If not specified, no file will be written.",
+            paramLabel = "FILENAME")
+    private File outputFile;
+
+    @Option(names = {"--metrics-port"},
+            description = "Export metrics in Prometheus format on http://HOST:PORT/metrics while playing.",
+            paramLabel = "PORT")
+    private Integer metricsPort;
+
+    @Option(names = {"--broadcast-port"},
+            description = "Broadcast the games in progress on http://HOST:PORT/ while playing.",
+            paramLabel = "PORT")
+    private Integer broadcastPort;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final FileService fileService;
+    private final TournamentService tournamentService;
+    private final RatingService ratingService;
+
+    public TournamentCommand() {
+        this(new FileServiceImpl(), new TournamentServiceImpl(), new RatingServiceImpl());
+    }
+
+    public TournamentCommand(final FileService fileService, final TournamentService tournamentService, final RatingService ratingService) {
+        this.fileService = fileService;
+        this.tournamentService = tournamentService;
+        this.ratingService = ratingService;
+    }
+
+    @Override
+    public Integer call() {
+        if (engineFiles.size() < 2) {
+            spec.commandLine().getErr().println("A tournament needs at least two engines.");
+            return ExitCode.USAGE;
+        }
+        final boolean gamesPerPairingOk = gamesPerPairing == 1 || (gamesPerPairing > 1 && gamesPerPairing % 2 == 0);
+        if (!gamesPerPairingOk) {
+            spec.commandLine().getErr().println("Number of games must be either 1 or a positive, even number.");
+            return ExitCode.USAGE;
+        }
+        if (concurrency < 1) {
+            spec.commandLine().getErr().println("Concurrency must be a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (minConcurrency != null && (minConcurrency < 1 || minConcurrency > concurrency)) {
+            spec.commandLine().getErr().println("Minimum concurrency must be a positive number, not greater than the concurrency.");
+            return ExitCode.USAGE;
+        }
+
+        if (affinity && !System.getProperty("os.name").startsWith("Linux")) {
+            spec.commandLine().getErr().println("CPU affinity is only supported on Linux.");
+            return ExitCode.USAGE;
+        }
+
+        if (sampleIntervalMillis < 0) {
+            spec.commandLine().getErr().println("Sample interval must be zero or a positive number.");
+            return ExitCode.USAGE;
+        }
+        if (cgroupDirectory != null && !fileService.canRead(cgroupDirectory)) {
+            spec.commandLine().getErr().println("Cannot open cgroup directory: " + cgroupDirectory);
+            return ExitCode.USAGE;
+        }
+
+        final TimeControl timeControl;
+        try {
+            timeControl = TimeControlFormat.parse(timeControlString);
+        } catch (ParseException e) {
+            spec.commandLine().getErr().println("Cannot parse time control: " + timeControlString);
+            return ExitCode.USAGE;
+        }
+
+        for (final File engineFile : engineFiles) {
+            if (!fileService.canRead(engineFile)) {
+                spec.commandLine().getErr().println("Cannot open engine file: " + engineFile);
+                return ExitCode.USAGE;
+            }
+        }
+
+        // Make sure the engines do not reserve more memory and cores than the machine has
+        final var engineConfigs = new ArrayList<EngineConfigDto>();
+        for (final File engineFile : engineFiles) {
+            try {
+                engineConfigs.add(fileService.load(engineFile));
+            } catch (IOException e) {
+                spec.commandLine().getErr().println("Cannot read engine file: " + engineFile);
+                return ExitCode.SOFTWARE;
+            }
+        }
+        // Each slot keeps every engine it has played with loaded until the tournament ends
+        final var problems = ResourceUtils.checkResources(engineConfigs.stream().filter(Objects::nonNull).toList(), concurrency, engineConfigs.size(),
+                                                          ResourceUtils.totalMemoryMb(), ResourceUtils.availableCores());
+        if (!problems.isEmpty()) {
+            problems.forEach(spec.commandLine().getErr()::println);
+            return ExitCode.USAGE;
+        }
+
+        final var format = gauntlet ? TournamentFormat.GAUNTLET : TournamentFormat.ROUND_ROBIN;
+        final var config = TournamentConfig.builder()
+                .engineFiles(engineFiles)
+                .format(format)
+                .gamesPerPairing(gamesPerPairing)
+                .timeControl(timeControl)
+                .concurrency(concurrency)
+                .affinity(affinity)
+                .cgroup(cgroupDirectory != null ? cgroupDirectory.toPath() : null)
+                .sampleIntervalMillis(sampleIntervalMillis)
+                .minConcurrency(minConcurrency)
+                .build();
+        final var gamesAtATime = config.adaptive() ? config.minConcurrency() + " to " + concurrency : String.valueOf(concurrency);
+        spec.commandLine().getOut().println("Starting " + (gauntlet ? "gauntlet" : "round-robin") + " tournament between " +
+                                            engineFiles.size() + " engines, playing " + gamesAtATime + " game(s) at a time");
+        spec.commandLine().getOut().println("Time control is " + timeControl.toPgn());
+        if (outputFile != null) {
+            spec.commandLine().getOut().println("Saving games to " + outputFile);
+        }
+
+        // The tournament service is closed first, so the listeners have handled all events when the servers close
+        try (var metricsServer = metricsPort != null ? MetricsServer.start(metricsPort) : null;
+             var broadcastServer = broadcastPort != null ? BroadcastServer.start(broadcastPort) : null;
+             tournamentService) {
+            if (broadcastServer != null) {
+                tournamentService.addGameListener(broadcastServer);
+            }
+            playTournament(config);
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Cannot start server: " + e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+        return ExitCode.OK;
+    }
+
+    private void playTournament(final TournamentConfig config) {
+        final var numberOfGames = numberOfGames(config);
+        final var dashboard = new DashboardWriter(numberOfGames, spec.commandLine().getOut());
+        tournamentService.addGameListener(dashboard);
+        tournamentService.addGameListener(new PgnFileWriter(outputFile, fileService));
+        final var thinkTimes = new ThinkTimeSummary();
+        tournamentService.addGameListener(thinkTimes);
+        final PlayedTournament playedTournament;
+        try (dashboard) {
+            dashboard.start();
+            playedTournament = tournamentService.playTournament(config);
+        }
+        printCrosstable(playedTournament);
+        final var results = PairwiseResults.of(playedTournament);
+        if (results.size() > 0) {
+            spec.commandLine().getOut().println(RatingsCommand.format(ratingService.rate(results)));
+        }
+        thinkTimes.format().forEach(spec.commandLine().getOut()::println);
+    }
+
+    private static int numberOfGames(final TournamentConfig config) {
+        final var engines = config.engineFiles().size();
+        final var pairs = config.format() == TournamentFormat.GAUNTLET ? engines - 1 : engines * (engines - 1) / 2;
+        return pairs * config.gamesPerPairing();
+    }
+
+    private void printCrosstable(final PlayedTournament playedTournament) {
+        final var names = playedTournament.engineNames();
+        final var crosstable = playedTournament.crosstable();
+        final var nameColumnWidth = Math.max(6, App.maxWidth(names, s -> s));
+
+        final var builder = new StringBuilder();
+        builder.append(String.format(US, "%4s  %-" + nameColumnWidth + "s  %6s  %5s", "Rank", "Engine", "Score", "Games"));
+        for (var column = 1; column <= crosstable.size(); column++) {
+            builder.append(String.format(US, "  %5d", column));
+        }
+        builder.append(EOL);
+
+        var rank = 1;
+        for (final int engine : crosstable.ranking()) {
+            builder.append(String.format(US, "%4d  %-" + nameColumnWidth + "s  %6.1f  %5d",
+                    rank++, names.get(engine), crosstable.totalScore(engine), crosstable.totalGames(engine)));
+            for (var opponent = 0; opponent < crosstable.size(); opponent++) {
+                if (opponent == engine || crosstable.games(engine, opponent) == 0) {
+                    builder.append(String.format(US, "  %5s", "-"));
+                } else {
+                    builder.append(String.format(US, "  %5.1f", crosstable.score(engine, opponent)));
+                }
+            }
+            builder.append(EOL);
+        }
+        builder.append("Columns are in engine order: ");
+        for (var index = 0; index < names.size(); index++) {
+            builder.append(index > 0 ? ", " : "").append(index + 1).append(" = ").append(names.get(index));
+        }
+        spec.commandLine().getOut().println(builder);
+    }
+}
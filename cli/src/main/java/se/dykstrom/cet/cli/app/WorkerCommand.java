@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.services.distributed.Coordinator;
+import se.dykstrom.cet.services.distributed.Worker;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.io.FileServiceImpl;
+import se.dykstrom.cet.services.metrics.MetricsServer;
+import se.dykstrom.cet.services.util.ThreadUtils;
+
+@SuppressWarnings("unused")
+@Command(name = "worker",
+         mixinStandardHelpOptions = true,
+         description = "Plays games handed out by a coordinator, started with the coordinator subcommand.")
+public class WorkerCommand implements Callable<Integer> {
+
+    private static final int CONNECT_ATTEMPTS = 30;
+
+    @Option(names = {"-1", "--engine1"}, description = "Chess engine 1 config FILENAME.", paramLabel = "FILENAME", required = true)
+    private File engine1File;
+
+    @Option(names = {"-2", "--engine2"}, description = "Chess engine 2 config FILENAME.", paramLabel = "FILENAME", required = true)
+    private File engine2File;
+
+    @Option(names = {"-c", "--coordinator"},
+            description = "HOST of the coordinator. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "HOST",
+            defaultValue = "localhost")
+    private String host;
+
+    @Option(names = {"-p", "--port"},
+            description = "PORT of the coordinator. Default is ${DEFAULT-VALUE}.",
+            paramLabel = "PORT",
+            defaultValue = "" + Coordinator.DEFAULT_PORT)
+    private int port;
+
+    @Option(names = {"--cgroup"},
+            description = "Run each engine in its own sub-group of cgroup v2 DIRECTORY, with CPU and memory limits from the engine config. Linux only.",
+            paramLabel = "DIRECTORY")
+    private File cgroupDirectory;
+
+    @Option(names = {"--metrics-port"},
+            description = "Export metrics in Prometheus format on http://HOST:PORT/metrics while playing.",
+            paramLabel = "PORT")
+    private Integer metricsPort;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final FileService fileService;
+    private final Worker worker;
+
+    public WorkerCommand() {
+        this(new FileServiceImpl(), new Worker());
+    }
+
+    public WorkerCommand(final FileService fileService, final Worker worker) {
+        this.fileService = fileService;
+        this.worker = worker;
+    }
+
+    @Override
+    public Integer call() {
+        if (!fileService.canRead(engine1File)) {
+            spec.commandLine().getErr().println("Cannot open engine 1 file: " + engine1File);
+            return ExitCode.USAGE;
+        }
+        if (!fileService.canRead(engine2File)) {
+            spec.commandLine().getErr().println("Cannot open engine 2 file: " + engine2File);
+            return ExitCode.USAGE;
+        }
+        if (cgroupDirectory != null && !fileService.canRead(cgroupDirectory)) {
+            spec.commandLine().getErr().println("Cannot open cgroup directory: " + cgroupDirectory);
+            return ExitCode.USAGE;
+        }
+
+        try (var metricsServer = metricsPort != null ? MetricsServer.start(metricsPort) : null;
+             var socket = connect()) {
+            spec.commandLine().getOut().println("Connected to coordinator at " + host + ":" + port);
+            final var sandbox = new Sandbox(Set.of(), cgroupDirectory != null ? cgroupDirectory.toPath() : null);
+            final var gamesPlayed = worker.work(socket, List.of(engine1File, engine2File), sandbox);
+            spec.commandLine().getOut().println("Played " + gamesPlayed + " game(s)");
+            return ExitCode.OK;
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Worker failed: " + e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+    }
+
+    /**
+     * Connects to the coordinator, retrying for a while, since workers may be started before the coordinator.
+     */
+    private Socket connect() throws IOException {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return new Socket(host, port);
+            } catch (ConnectException e) {
+                if (attempt == CONNECT_ATTEMPTS) {
+                    throw e;
+                }
+                ThreadUtils.sleepSilently(1_000);
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
+import se.dykstrom.cet.engine.config.Sandbox;
 import se.dykstrom.cet.engine.state.IdlingEngine;
 import se.dykstrom.cet.engine.time.ClassicTimeControl;
 import se.dykstrom.cet.services.engine.EngineService;
@@ -164,7 +165,7 @@ class AppTest {
                 "-1", FILE_FOO.getPath(),
                 "-2", FILE_BAR.getPath()
         };
-        final MatchConfig matchConfig = new MatchConfig(1, TIME_CONTROL);
+        final MatchConfig matchConfig = MatchConfig.builder().numberOfGames(1).timeControl(TIME_CONTROL).build();
         final PlayedMatch playedMatch = new PlayedMatch(
                 matchConfig,
                 idlingEngine1Mock,
@@ -175,8 +176,7 @@ class AppTest {
         );
         when(fileServiceMock.canRead(FILE_FOO)).thenReturn(true);
         when(fileServiceMock.canRead(FILE_BAR)).thenReturn(true);
-        when(engineServiceMock.load(FILE_FOO)).thenReturn(idlingEngine1Mock);
-        when(engineServiceMock.load(FILE_BAR)).thenReturn(idlingEngine2Mock);
+        when(engineServiceMock.loadAll(List.of(FILE_FOO, FILE_BAR), Sandbox.NONE)).thenReturn(List.of(idlingEngine1Mock, idlingEngine2Mock));
         when(matchServiceMock.playSingleGameMatch(any(), any(), any())).thenReturn(playedMatch);
         when(idlingEngine1Mock.myName()).thenReturn("foo");
         when(idlingEngine2Mock.myName()).thenReturn("bar");
@@ -194,8 +194,8 @@ class AppTest {
         assertTrue(stdout.toString().contains(" : 1.0"));
         verify(fileServiceMock).canRead(FILE_FOO);
         verify(fileServiceMock).canRead(FILE_BAR);
-        verify(engineServiceMock, times(2)).load(any());
-        verify(matchServiceMock).addGameListener(any(ProgressBarWriter.class));
+        verify(engineServiceMock).loadAll(any(), any());
+        verify(matchServiceMock).addGameListener(any(DashboardWriter.class));
         verify(matchServiceMock).addGameListener(any(PgnFileWriter.class));
         verify(matchServiceMock).playSingleGameMatch(any(), any(), any());
     }
@@ -210,7 +210,7 @@ class AppTest {
                 "-2", FILE_BAR.getPath(),
                 "-3", FILE_TEE.getPath()
         };
-        final MatchConfig matchConfig = new MatchConfig(1, TIME_CONTROL);
+        final MatchConfig matchConfig = MatchConfig.builder().numberOfGames(1).timeControl(TIME_CONTROL).build();
         final PlayedMatch playedMatch = new PlayedMatch(
                 matchConfig,
                 idlingEngine1Mock,
@@ -222,9 +222,7 @@ class AppTest {
         when(fileServiceMock.canRead(FILE_FOO)).thenReturn(true);
         when(fileServiceMock.canRead(FILE_BAR)).thenReturn(true);
         when(fileServiceMock.canRead(FILE_TEE)).thenReturn(true);
-        when(engineServiceMock.load(FILE_FOO)).thenReturn(idlingEngine1Mock);
-        when(engineServiceMock.load(FILE_BAR)).thenReturn(idlingEngine2Mock);
-        when(engineServiceMock.load(FILE_TEE)).thenReturn(idlingEngine3Mock);
+        when(engineServiceMock.loadAll(List.of(FILE_FOO, FILE_BAR, FILE_TEE), Sandbox.NONE)).thenReturn(List.of(idlingEngine1Mock, idlingEngine2Mock, idlingEngine3Mock));
         when(matchServiceMock.playSingleGameMatchWithExtraEngine(any(), any(), any(), any())).thenReturn(playedMatch);
         when(idlingEngine1Mock.myName()).thenReturn("foo");
         when(idlingEngine2Mock.myName()).thenReturn("bar");
@@ -244,8 +242,8 @@ class AppTest {
         verify(fileServiceMock).canRead(FILE_FOO);
         verify(fileServiceMock).canRead(FILE_BAR);
         verify(fileServiceMock).canRead(FILE_TEE);
-        verify(engineServiceMock, times(3)).load(any());
-        verify(matchServiceMock).addGameListener(any(ProgressBarWriter.class));
+        verify(engineServiceMock).loadAll(any(), any());
+        verify(matchServiceMock).addGameListener(any(DashboardWriter.class));
         verify(matchServiceMock).addGameListener(any(PgnFileWriter.class));
         verify(matchServiceMock).playSingleGameMatchWithExtraEngine(any(), any(), any(), any());
     }
@@ -259,7 +257,7 @@ class AppTest {
                 "-1", FILE_FOO.getPath(),
                 "-2", FILE_BAR.getPath()
         };
-        final MatchConfig matchConfig = new MatchConfig(4, TIME_CONTROL);
+        final MatchConfig matchConfig = MatchConfig.builder().numberOfGames(4).timeControl(TIME_CONTROL).build();
         final PlayedMatch playedMatch = new PlayedMatch(
                 matchConfig,
                 idlingEngine1Mock,
@@ -269,8 +267,7 @@ class AppTest {
                 List.of("Checkmate", "Checkmate", "Time forfeit", "Draw by repetition")
         );
         when(fileServiceMock.canRead(any())).thenReturn(true);
-        when(engineServiceMock.load(FILE_FOO)).thenReturn(idlingEngine1Mock);
-        when(engineServiceMock.load(FILE_BAR)).thenReturn(idlingEngine2Mock);
+        when(engineServiceMock.loadAll(List.of(FILE_FOO, FILE_BAR), Sandbox.NONE)).thenReturn(List.of(idlingEngine1Mock, idlingEngine2Mock));
         when(matchServiceMock.playMatch(any(), any(), any())).thenReturn(playedMatch);
         when(idlingEngine1Mock.myName()).thenReturn("foo");
         when(idlingEngine2Mock.myName()).thenReturn("bar");
@@ -288,8 +285,8 @@ class AppTest {
         assertTrue(stdout.toString().contains(" : 1.5"));
         assertTrue(stdout.toString().contains(" : 2.5"));
         verify(fileServiceMock, times(2)).canRead(any());
-        verify(engineServiceMock, times(2)).load(any());
-        verify(matchServiceMock).addGameListener(any(ProgressBarWriter.class));
+        verify(engineServiceMock).loadAll(any(), any());
+        verify(matchServiceMock).addGameListener(any(DashboardWriter.class));
         verify(matchServiceMock).addGameListener(any(PgnFileWriter.class));
         verify(matchServiceMock).playMatch(any(), any(), any());
     }
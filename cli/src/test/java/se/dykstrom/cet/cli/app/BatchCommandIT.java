@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.server.JobRequest;
+import se.dykstrom.cet.services.server.JobService;
+import se.dykstrom.cet.services.server.JobState;
+import se.dykstrom.cet.services.server.JobStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchCommandIT {
+
+    private static final String BATCH = """
+                                        [
+                                            {"name": "foo-bar", "engines": ["foo.json", "bar.json"], "timeControl": "40/60", "games": 2},
+                                            {"engines": ["foo.json", "tee.json"], "timeControl": "60+1", "games": 2, "priority": 1}
+                                        ]
+                                        """;
+
+    private static final JobStatus FOO_BAR = new JobStatus(1, "foo-bar", JobState.FINISHED, 0, 2, 2, List.of("foo", "bar"),
+                                                           List.of("1-0", "1/2-1/2"), List.of("Checkmate", "Stalemate"), null);
+    private static final JobStatus FOO_TEE = new JobStatus(2, "match2", JobState.FAILED, 1, 2, 1, List.of("foo", "tee"),
+                                                           Arrays.asList("0-1", null), Arrays.asList("Checkmate", null), "Engine crashed");
+
+    private final StringWriter stdout = new StringWriter();
+    private final StringWriter stderr = new StringWriter();
+
+    private final FileService fileServiceMock = mock(FileService.class);
+    private final JobService jobServiceMock = mock(JobService.class);
+
+    private final CommandLine commandLine = new CommandLine(new BatchCommand(fileServiceMock, (slots, sandbox) -> jobServiceMock));
+
+    @BeforeEach
+    void setUp() {
+        commandLine.setOut(new PrintWriter(stdout));
+        commandLine.setErr(new PrintWriter(stderr));
+        when(fileServiceMock.canRead(any())).thenReturn(true);
+    }
+
+    @Test
+    void shouldPlayAllMatches() throws Exception {
+        // Given
+        final var batchFile = createBatchFile(BATCH);
+        final var directory = batchFile.getParentFile();
+        when(jobServiceMock.submit(any())).thenReturn(FOO_BAR, FOO_TEE);
+        when(jobServiceMock.await(1)).thenReturn(Optional.of(FOO_BAR));
+        when(jobServiceMock.await(2)).thenReturn(Optional.of(FOO_TEE));
+
+        // When
+        final var exitCode = commandLine.execute(batchFile.getPath(), "-d", "out", "-s", "4");
+
+        // Then
+        assertEquals(CommandLine.ExitCode.SOFTWARE, exitCode);
+        verify(jobServiceMock).submit(new JobRequest(List.of(new File(directory, "foo.json"), new File(directory, "bar.json")),
+                                                     "40/60", 2, 0, "foo-bar", new File("out", "foo-bar.pgn")));
+        verify(jobServiceMock).submit(new JobRequest(List.of(new File(directory, "foo.json"), new File(directory, "tee.json")),
+                                                     "60+1", 2, 1, "match2", new File("out", "match2.pgn")));
+        verify(jobServiceMock).start();
+        verify(jobServiceMock).stop();
+        verify(fileServiceMock).write(eq(new File("out", "foo-bar.txt").toPath()), any(), any());
+        verify(fileServiceMock).write(eq(new File("out", "match2.txt").toPath()), any(), any());
+        assertTrue(stdout.toString().contains("Match foo-bar: FINISHED"));
+        assertTrue(stdout.toString().contains("Match match2: FAILED (Engine crashed)"));
+    }
+
+    @Test
+    void shouldPlayOtherMatchesIfOneCannotStart() throws Exception {
+        // Given
+        final var batchFile = createBatchFile(BATCH);
+        when(jobServiceMock.submit(any())).thenThrow(new IllegalArgumentException("cannot open engine file: foo.json"))
+                                          .thenReturn(FOO_TEE);
+        final var finished = new JobStatus(2, "match2", JobState.FINISHED, 1, 2, 2, List.of("foo", "tee"),
+                                           List.of("0-1", "0-1"), List.of("Checkmate", "Checkmate"), null);
+        when(jobServiceMock.await(2)).thenReturn(Optional.of(finished));
+
+        // When
+        final var exitCode = commandLine.execute(batchFile.getPath());
+
+        // Then
+        assertEquals(CommandLine.ExitCode.SOFTWARE, exitCode);
+        assertTrue(stderr.toString().contains("Cannot start match foo-bar"));
+        assertTrue(stdout.toString().contains("Match match2: FINISHED"));
+    }
+
+    @Test
+    void shouldNotAllowDuplicateNames() throws Exception {
+        // Given
+        final var batchFile = createBatchFile("""
+                                              [
+                                                  {"name": "foo", "engines": ["foo.json", "bar.json"], "timeControl": "40/60", "games": 2},
+                                                  {"name": "foo", "engines": ["foo.json", "tee.json"], "timeControl": "40/60", "games": 2}
+                                              ]
+                                              """);
+
+        // When
+        final var exitCode = commandLine.execute(batchFile.getPath());
+
+        // Then
+        assertEquals(CommandLine.ExitCode.USAGE, exitCode);
+        assertTrue(stderr.toString().contains("must be unique"));
+    }
+
+    @Test
+    void shouldNotPlayEnginesThatDoNotFit() throws Exception {
+        // Given
+        final var batchFile = createBatchFile(BATCH);
+        // One terabyte of hash
+        when(fileServiceMock.load(any())).thenReturn(new EngineConfigDto("foo", null, 1024 * 1024, 1, null));
+
+        // When
+        final var exitCode = commandLine.execute(batchFile.getPath(), "-s", "4");
+
+        // Then
+        assertEquals(CommandLine.ExitCode.USAGE, exitCode);
+        assertTrue(stderr.toString().contains("MB of hash"));
+        verify(jobServiceMock, never()).start();
+    }
+
+    @Test
+    void shouldNotAllowInvalidBatchFile() throws Exception {
+        // Given
+        final var batchFile = createBatchFile("[{");
+
+        // When
+        final var exitCode = commandLine.execute(batchFile.getPath());
+
+        // Then
+        assertEquals(CommandLine.ExitCode.USAGE, exitCode);
+        assertTrue(stderr.toString().contains("Cannot read batch file"));
+    }
+
+    private static File createBatchFile(final String text) throws Exception {
+        final Path path = Files.createTempFile(null, ".json");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, text);
+        return path.toFile();
+    }
+}
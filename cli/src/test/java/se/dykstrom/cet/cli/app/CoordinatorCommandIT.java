@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static se.dykstrom.cet.cli.util.TestConfig.ENGINE_1_CONFIG_FILE;
+import static se.dykstrom.cet.cli.util.TestConfig.ENGINE_2_CONFIG_FILE;
+
+@Tag("slow")
+class CoordinatorCommandIT {
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void shouldPlayMatchOnWorkerProcesses() throws Exception {
+        // Given
+        final var port = freePort();
+        final var workers = new ArrayList<Process>();
+        for (var index = 0; index < 2; index++) {
+            workers.add(startWorker(port));
+        }
+        final String[] args = {
+                "coordinator",
+                "-n", "4",
+                "-t", "40/10",
+                "-p", String.valueOf(port),
+                "--batch-size", "1"
+        };
+
+        // When
+        final var exitCode = new App().execute(args);
+
+        // Then
+        assertEquals(0, exitCode);
+        for (final Process worker : workers) {
+            assertTrue(worker.waitFor(30, TimeUnit.SECONDS));
+            assertEquals(0, worker.exitValue());
+        }
+    }
+
+    /**
+     * Starts a worker in its own JVM, with the same class path as this test.
+     */
+    private static Process startWorker(final int port) throws IOException {
+        final var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(List.of(java, "-cp", System.getProperty("java.class.path"), App.class.getName(),
+                                          "worker",
+                                          "-1", ENGINE_1_CONFIG_FILE.getPath(),
+                                          "-2", ENGINE_2_CONFIG_FILE.getPath(),
+                                          "-p", String.valueOf(port)))
+                .inheritIO()
+                .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.cli.app;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.metrics.Metrics;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardWriterTest {
+
+    private final IdlingEngine fooMock = mock(IdlingEngine.class);
+    private final IdlingEngine barMock = mock(IdlingEngine.class);
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final StringWriter stdout = new StringWriter();
+
+    @BeforeEach
+    void setUp() {
+        when(fooMock.myName()).thenReturn("foo");
+        when(barMock.myName()).thenReturn("bar");
+    }
+
+    @Test
+    void shouldPrintOneLinePerGameWhenNotTerminal() {
+        // Given
+        final var writer = new DashboardWriter(4, new PrintWriter(stdout), false, Metrics.global(), nanoTime::get);
+
+        // When
+        nanoTime.set(TimeUnit.MINUTES.toNanos(30));
+        writer.gameOver(1, LocalDateTime.now(), game(fooMock, barMock, WHITE_WON, "Checkmate"));
+        nanoTime.set(TimeUnit.MINUTES.toNanos(60));
+        writer.gameOver(1, LocalDateTime.now(), game(barMock, fooMock, DRAW, "Stalemate"));
+
+        // Then
+        final var lines = stdout.toString().lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("Game 1/4: foo - bar 1-0 (Checkmate), foo 1.0/1, bar 0.0/1, 2.0 games/h, ETA 1:30:00", lines.get(0));
+        assertEquals("Game 2/4: bar - foo 1/2-1/2 (Stalemate), bar 0.5/2, foo 1.5/2, 2.0 games/h, ETA 1:00:00", lines.get(1));
+    }
+
+    @Test
+    void shouldRenderDashboard() {
+        // Given
+        final var writer = new DashboardWriter(10, new PrintWriter(stdout), true, Metrics.global(), nanoTime::get);
+        nanoTime.set(TimeUnit.MINUTES.toNanos(30));
+        writer.gameOver(1, LocalDateTime.now(), game(fooMock, barMock, WHITE_WON, "Checkmate"));
+        writer.gameOver(1, LocalDateTime.now(), game(barMock, fooMock, WHITE_WON, "Time forfeit"));
+        writer.gameOver(1, LocalDateTime.now(), game(fooMock, barMock, WHITE_WON, "Checkmate"));
+
+        // When
+        final var lines = writer.render();
+
+        // Then
+        assertTrue(stdout.toString().isEmpty());
+        assertEquals("Games 3/10   6.0 games/h   ETA 1:10:00", lines.get(0));
+        assertTrue(lines.contains("foo   2.0/3   +120 +/- 1363"));
+        assertTrue(lines.contains("bar   1.0/3   -120 +/- 1363"));
+        assertTrue(lines.contains("Reasons: Checkmate 2, Time forfeit 1"));
+        assertTrue(lines.contains("NPS: bar 20,000, foo 10,000"));
+    }
+
+    @Test
+    void shouldRenderGamesBeingPlayed() {
+        // Given
+        final var writer = new DashboardWriter(10, new PrintWriter(stdout), true, Metrics.global(), nanoTime::get);
+        final var liveGame = Metrics.global().gameStarted("foo", "bar", 62_345);
+
+        // When
+        final var lines = writer.render();
+        Metrics.global().gameFinished(liveGame, false);
+
+        // Then
+        assertTrue(lines.contains("Playing: foo - bar, move 1, 1:02.3 - 1:02.3"));
+    }
+
+    @Test
+    void shouldFormatElo() {
+        assertEquals("+147 +/- 269", DashboardWriter.formatElo(6, 2, 2));
+        assertEquals("+0 +/- 0", DashboardWriter.formatElo(0, 4, 0));
+        assertEquals("-", DashboardWriter.formatElo(3, 0, 0));
+        assertEquals("-", DashboardWriter.formatElo(0, 0, 0));
+    }
+
+    @Test
+    void shouldFormatClockAndDuration() {
+        assertEquals("1:02.3", DashboardWriter.formatClock(62_345));
+        assertEquals("0:00.0", DashboardWriter.formatClock(-10));
+        assertEquals("2:03:04", DashboardWriter.formatDuration(7_384_000));
+    }
+
+    private static PlayedGame game(final IdlingEngine white, final IdlingEngine black, final GameResult result, final String reason) {
+        final var whiteNps = white.myName().equals("foo") ? 10_000 : 20_000;
+        final var blackNps = black.myName().equals("foo") ? 10_000 : 20_000;
+        return PlayedGame.builder()
+                .whiteEngine(white)
+                .blackEngine(black)
+                .result(result)
+                .reason(reason)
+                .moves(new MoveList())
+                .whiteSearch(new SearchStatistics(10, whiteNps * 10L, 1000))
+                .blackSearch(new SearchStatistics(10, blackNps * 10L, 1000))
+                .build();
+    }
+}
@@ -17,5 +17,62 @@
 package se.dykstrom.cet.engine.config;
 
 import java.io.File;
+import java.util.Map;
 
-public record EngineConfig(int id, String command, File directory) { }
+import se.dykstrom.cet.engine.util.ProcessLimits;
+
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Configuration of a chess engine.
+ *
+ * @param id The engine id, unique within this program run.
+ * @param command The command used to start the engine.
+ * @param directory The directory in which to start the engine, or {@code null} for the current directory.
+ * @param hash The hash table size in MB, sent with the memory command, or {@code null} for the engine default.
+ * @param threads The number of threads, sent with the cores command, or {@code null} for the engine default.
+ * @param options Engine-defined options, sent with the option command.
+ * @param sandbox Restrictions on where and how the engine may run.
+ */
+public record EngineConfig(int id,
+                           String command,
+                           File directory,
+                           Integer hash,
+                           Integer threads,
+                           Map<String, String> options,
+                           Sandbox sandbox) {
+
+    /** Memory allowed on top of the hash table in the engine cgroup, in MB. */
+    public static final long MEMORY_OVERHEAD_MB = 256;
+
+    public EngineConfig {
+        ensure(hash == null || hash > 0, "hash must be > 0");
+        ensure(threads == null || threads > 0, "threads must be > 0");
+        options = options == null ? Map.of() : Map.copyOf(options);
+        sandbox = sandbox == null ? Sandbox.NONE : sandbox;
+    }
+
+    public EngineConfig(final int id, final String command, final File directory) {
+        this(id, command, directory, null, null, null, null);
+    }
+
+    public EngineConfig(final int id, final String command, final File directory, final Integer hash, final Integer threads, final Map<String, String> options) {
+        this(id, command, directory, hash, threads, options, null);
+    }
+
+    public EngineConfig withSandbox(final Sandbox sandbox) {
+        return new EngineConfig(id, command, directory, hash, threads, options, sandbox);
+    }
+
+    /**
+     * Returns the limits to apply to the engine process. The cgroup CPU quota is the configured
+     * number of threads, and the memory limit is the hash size plus {@link #MEMORY_OVERHEAD_MB}.
+     * Without a number of threads, CPU time is not limited, and without a hash size, memory is
+     * not limited.
+     */
+    public ProcessLimits processLimits() {
+        final var cpuQuota = threads != null ? threads : 0;
+        final var memoryMaxBytes = hash != null ? (hash + MEMORY_OVERHEAD_MB) * 1024 * 1024 : 0;
+        return new ProcessLimits(sandbox.cpus(), sandbox.cgroup(), cpuQuota, memoryMaxBytes);
+    }
+}
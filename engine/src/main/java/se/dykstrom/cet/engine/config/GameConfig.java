@@ -16,10 +16,89 @@
 
 package se.dykstrom.cet.engine.config;
 
+import java.util.List;
+
 import se.dykstrom.cet.engine.time.TimeControl;
 
-public record GameConfig(String white, String black, TimeControl timeControl) {
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Configuration of a single game. If {@code fen} is null, the game starts from the standard start position.
+ * The opening {@code moves}, in coordinate notation, are played from the start position before the engines
+ * start thinking. The CPU time, threads and memory of the engine processes are sampled every
+ * {@code sampleIntervalMillis} milliseconds during the game, or not at all if it is 0.
+ */
+public record GameConfig(String white,
+                         String black,
+                         TimeControl timeControl,
+                         String fen,
+                         List<String> moves,
+                         long sampleIntervalMillis) {
+
+    public static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 250;
+
+    public GameConfig {
+        moves = moves == null ? List.of() : List.copyOf(moves);
+        ensure(sampleIntervalMillis >= 0, "sampleIntervalMillis must be >= 0");
+    }
+
     public GameConfig withBlack(final String black) {
-        return new GameConfig(white, black, timeControl);
+        return new GameConfig(white, black, timeControl, fen, moves, sampleIntervalMillis);
+    }
+
+    public GameConfig withFen(final String fen) {
+        return new GameConfig(white, black, timeControl, fen, moves, sampleIntervalMillis);
+    }
+
+    public GameConfig withMoves(final List<String> moves) {
+        return new GameConfig(white, black, timeControl, fen, moves, sampleIntervalMillis);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private String white;
+        private String black;
+        private TimeControl timeControl;
+        private String fen;
+        private List<String> moves = List.of();
+        private long sampleIntervalMillis = DEFAULT_SAMPLE_INTERVAL_MILLIS;
+
+        public Builder white(final String white) {
+            this.white = white;
+            return this;
+        }
+
+        public Builder black(final String black) {
+            this.black = black;
+            return this;
+        }
+
+        public Builder timeControl(final TimeControl timeControl) {
+            this.timeControl = timeControl;
+            return this;
+        }
+
+        public Builder fen(final String fen) {
+            this.fen = fen;
+            return this;
+        }
+
+        public Builder moves(final List<String> moves) {
+            this.moves = moves;
+            return this;
+        }
+
+        public Builder sampleIntervalMillis(final long sampleIntervalMillis) {
+            this.sampleIntervalMillis = sampleIntervalMillis;
+            return this;
+        }
+
+        public GameConfig build() {
+            return new GameConfig(white, black, timeControl, fen, moves, sampleIntervalMillis);
+        }
     }
 }
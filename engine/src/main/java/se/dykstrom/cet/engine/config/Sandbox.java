@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.config;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Restrictions on where and how an engine process may run.
+ *
+ * @param cpus The logical CPUs the engine may run on, or an empty set for all CPUs.
+ * @param cgroup A cgroup v2 directory in which each engine gets its own sub-group with CPU and
+ *               memory limits, or {@code null} to run engines without cgroup limits.
+ */
+public record Sandbox(Set<Integer> cpus, Path cgroup) {
+
+    /** No restrictions. */
+    public static final Sandbox NONE = new Sandbox(Set.of(), null);
+
+    public Sandbox {
+        cpus = cpus == null ? Set.of() : Set.copyOf(cpus);
+    }
+
+    public Sandbox withCpus(final Set<Integer> cpus) {
+        return new Sandbox(cpus, cgroup);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.exception;
+
+/**
+ * Thrown when the engine process has exited while the tester was talking to it.
+ */
+public class EngineCrashedException extends EngineException {
+
+    private final int exitCode;
+
+    public EngineCrashedException(final int id, final int exitCode, final Throwable cause) {
+        super("Engine process " + id + " exited with code " + exitCode, cause);
+        this.exitCode = exitCode;
+    }
+
+    public int exitCode() {
+        return exitCode;
+    }
+}
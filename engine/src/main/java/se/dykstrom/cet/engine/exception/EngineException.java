@@ -25,4 +25,8 @@ public class EngineException extends RuntimeException {
     public EngineException(final String message) {
         super(message);
     }
+
+    public EngineException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for starting an engine process and negotiating its features.
+ */
+@Name("se.dykstrom.cet.EngineLoad")
+@Label("Engine Load")
+@Category({"Chess Engine Tester", "Engine"})
+@Description("Starting an engine process, and the feature handshake")
+public class EngineLoadEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Startup Time")
+    @Description("Time to start the engine process")
+    @Timespan(Timespan.NANOSECONDS)
+    public long startupTime;
+
+    @Label("Handshake Time")
+    @Description("Time to negotiate features, zero if cached features were used")
+    @Timespan(Timespan.NANOSECONDS)
+    public long handshakeTime;
+
+    @Label("Protocol Version 2")
+    @Description("True if the engine sent feature done=1")
+    public boolean protocolVersion2;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.parser;
+
+import java.io.IOException;
+
+/**
+ * A source of text lines, read by the {@link Parser}.
+ */
+public interface LineReader {
+
+    /**
+     * Returns true if a line can be read without blocking.
+     */
+    boolean ready() throws IOException;
+
+    /**
+     * Reads the next line, blocking until a line is available. Returns null at end of stream.
+     */
+    String readLine() throws IOException;
+}
@@ -17,6 +17,7 @@
 package se.dykstrom.cet.engine.parser;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -24,9 +25,13 @@ import java.util.ArrayDeque;
 import java.util.Queue;
 import java.util.regex.Pattern;
 
+import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+
 import static java.lang.System.Logger.Level.INFO;
 import static java.lang.System.Logger.Level.TRACE;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static se.dykstrom.cet.engine.util.EngineProcess.NO_SCORE;
 
 public class Parser {
 
@@ -35,12 +40,42 @@ public class Parser {
     private static final Pattern REGEX_ILLEGAL_MOVE = Pattern.compile("^Illegal move( \\((.*)\\))?: (.+)$");
     private static final Pattern REGEX_INVALID_MOVE = Pattern.compile("^Invalid move: (.+)$");
     private static final Pattern REGEX_RESULT = Pattern.compile("^(0-1|1-0|1/2-1/2|\\*)\\s+\\{(.*)}$");
+    /** Scores are clamped to this range, which covers the mate scores of common engines. */
+    private static final long MAX_SCORE = 1_000_000_000;
 
-    private final BufferedReader reader;
+    private final LineReader reader;
     private final Queue<Response> buffer = new ArrayDeque<>();
+    // The buffer holds at most one response, so one timestamp is enough
+    private long bufferedLineNanos;
+    private volatile long lastLineNanos;
+
+    // Score, nodes and time of the last thinking output seen since the last move
+    private long thinkingNodes = -1;
+    private long thinkingCentis;
+    private int thinkingScore;
+    private volatile SearchStatistics searchStatistics = SearchStatistics.ZERO;
+    private volatile int lastScore = NO_SCORE;
 
     public Parser(final InputStream in) {
-        this.reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+        this(lineReader(new BufferedReader(new InputStreamReader(in, UTF_8))));
+    }
+
+    public Parser(final LineReader reader) {
+        this.reader = reader;
+    }
+
+    private static LineReader lineReader(final BufferedReader reader) {
+        return new LineReader() {
+            @Override
+            public boolean ready() throws IOException {
+                return reader.ready();
+            }
+
+            @Override
+            public String readLine() throws IOException {
+                return reader.readLine();
+            }
+        };
     }
 
     public boolean hasNext() throws IOException {
@@ -62,7 +97,7 @@ public class Parser {
     private void fillBufferIfPossible() throws IOException {
         Response response = null;
         while (response == null && reader.ready()) {
-            response = parse(reader.readLine());
+            response = parse(readLine());
         }
         if (response != null) {
             buffer.add(response);
@@ -72,35 +107,49 @@ public class Parser {
     private void fillBuffer() throws IOException {
         Response response = null;
         while (response == null) {
-            response = parse(reader.readLine());
+            response = parse(readLine());
         }
         buffer.add(response);
     }
 
-    private Response parse(final String line) {
+    private String readLine() throws IOException {
+        final var line = reader.readLine();
+        bufferedLineNanos = System.nanoTime();
+        return line;
+    }
+
+    private Response parse(final String line) throws IOException {
         if (line == null) {
-            throw new IllegalStateException("End-of-stream");
+            throw new EOFException("End-of-stream");
         }
 
-        final var resultMatcher = REGEX_RESULT.matcher(line);
-        final var illegalMoveMatcher = REGEX_ILLEGAL_MOVE.matcher(line);
-        final var invalidMoveMatcher = REGEX_INVALID_MOVE.matcher(line);
-
+        // Most lines are moves and thinking output, so those are parsed without creating any matchers
         if (line.isBlank()) {
             return null;
+        } else if (line.startsWith("move ")) {
+            return parseMove(line.substring(5, strippedEnd(line)));
+        } else if (parseThinking(line)) {
+            if (LOGGER.isLoggable(TRACE)) {
+                LOGGER.log(TRACE, "Thinking: {0}", line);
+            }
+            return null;
         } else if (line.startsWith("#")) {
             LOGGER.log(INFO, "Debug: {0}", line);
             return null;
-        } else if (illegalMoveMatcher.matches()) {
+        }
+
+        final var illegalMoveMatcher = REGEX_ILLEGAL_MOVE.matcher(line);
+        final var invalidMoveMatcher = REGEX_INVALID_MOVE.matcher(line);
+        final var resultMatcher = REGEX_RESULT.matcher(line);
+
+        if (illegalMoveMatcher.matches()) {
             return new IllegalMove(illegalMoveMatcher.group(3), illegalMoveMatcher.group(2));
         } else if (invalidMoveMatcher.matches()) {
             return new IllegalMove(invalidMoveMatcher.group(1), "");
         } else if (line.startsWith("Error")) {
             return new InvalidCommand(line);
-        } else if (line.startsWith("move ")) {
-            return new Move(line.strip().substring(5));
         } else if (line.startsWith("My move is : ")) {
-            return new Move(line.strip().substring(13));
+            return parseMove(line.strip().substring(13));
         } else if (resultMatcher.matches()) {
             return new Result(resultMatcher.group(1), resultMatcher.group(2));
         } else {
@@ -109,11 +158,108 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses thinking output, "ply score time nodes [pv]" where time is in centiseconds, and remembers
+     * its score, time and nodes. Returns false if the line is not thinking output. The numbers are
+     * parsed in place, so that the many thinking lines of a search do not create any objects.
+     */
+    private boolean parseThinking(final String line) {
+        final int plyStart = whitespaceEnd(line, 0);
+        final int plyEnd = digitsEnd(line, plyStart);
+        final int scoreStart = whitespaceEnd(line, plyEnd);
+        final int scoreDigits = scoreStart < line.length() && line.charAt(scoreStart) == '-' ? scoreStart + 1 : scoreStart;
+        final int scoreEnd = digitsEnd(line, scoreDigits);
+        final int timeStart = whitespaceEnd(line, scoreEnd);
+        final int timeEnd = digitsEnd(line, timeStart);
+        final int nodesStart = whitespaceEnd(line, timeEnd);
+        final int nodesEnd = digitsEnd(line, nodesStart);
+
+        // Each number must have digits, and be followed by whitespace or the end of the line
+        if (plyEnd == plyStart || scoreStart == plyEnd || scoreEnd == scoreDigits || timeStart == scoreEnd ||
+            timeEnd == timeStart || nodesStart == timeEnd || nodesEnd == nodesStart ||
+            (nodesEnd < line.length() && !isWhitespace(line.charAt(nodesEnd)))) {
+            return false;
+        }
+        thinkingScore = (int) Math.clamp(Long.parseLong(line, scoreStart, scoreEnd, 10), -MAX_SCORE, MAX_SCORE);
+        thinkingCentis = Long.parseLong(line, timeStart, timeEnd, 10);
+        thinkingNodes = Long.parseLong(line, nodesStart, nodesEnd, 10);
+        return true;
+    }
+
+    private static int whitespaceEnd(final String line, final int start) {
+        int index = start;
+        while (index < line.length() && isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int digitsEnd(final String line, final int start) {
+        int index = start;
+        while (index < line.length() && line.charAt(index) >= '0' && line.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns true if {@code c} is whitespace, as defined by {@code \s} in a regular expression.
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Returns the end index of {@code line} with trailing whitespace stripped, as by {@link String#strip()}.
+     */
+    private static int strippedEnd(final String line) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the search statistics of all moves parsed so far.
+     */
+    public SearchStatistics searchStatistics() {
+        return searchStatistics;
+    }
+
+    /**
+     * Returns the score of the last move parsed, in centipawns, or {@link EngineProcess#NO_SCORE}
+     * if there was no thinking output before the move.
+     */
+    public int lastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} when the line of the last response returned by {@link #next()}
+     * was read, before it was parsed, or 0 if no response has been returned.
+     */
+    public long lastLineNanos() {
+        return lastLineNanos;
+    }
+
+    private Move parseMove(final String move) {
+        if (thinkingNodes >= 0) {
+            searchStatistics = searchStatistics.plus(thinkingNodes, thinkingCentis);
+            lastScore = thinkingScore;
+            thinkingNodes = -1;
+        } else {
+            lastScore = NO_SCORE;
+        }
+        return new Move(move);
+    }
+
     private boolean hasDataInBuffer() {
         return !buffer.isEmpty();
     }
 
     private Response nextFromBuffer() {
+        lastLineNanos = bufferedLineNanos;
         return buffer.remove();
     }
 }
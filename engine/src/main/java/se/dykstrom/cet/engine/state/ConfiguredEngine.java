@@ -16,14 +16,18 @@
 
 package se.dykstrom.cet.engine.state;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import se.dykstrom.cet.engine.config.EngineConfig;
+import se.dykstrom.cet.engine.exception.EngineException;
+import se.dykstrom.cet.engine.jfr.EngineLoadEvent;
 import se.dykstrom.cet.engine.util.EngineFeatures;
 import se.dykstrom.cet.engine.util.EngineProcess;
 import se.dykstrom.cet.engine.util.StringUtils;
@@ -37,12 +41,31 @@ public record ConfiguredEngine(EngineConfig config, EngineProcess process) imple
 
     private static final System.Logger LOGGER = System.getLogger(ConfiguredEngine.class.getName());
 
+    /** Time to wait for feature done=1 before assuming protocol version 1, as in XBoard. */
+    static final long FEATURE_TIMEOUT_MILLIS = 2_000;
+
+    /** Time to wait for feature done=1 after the engine has sent feature done=0. */
+    static final long HANDSHAKE_TIMEOUT_MILLIS = 60_000;
+
+    /** Upper limit for the time to wait for feature done=1, however slow the engine was last time. */
+    static final long MAX_HANDSHAKE_TIMEOUT_MILLIS = 300_000;
+
+    /** Number of handshakes without feature done=1 before an engine is taken to be protocol version 1. */
+    static final int PROTOCOL_1_HANDSHAKES = 2;
+
+    /** Result of the last handshake with each engine, by command and directory. */
+    private static final Map<String, Handshake> HANDSHAKES = new ConcurrentHashMap<>();
+
     private static final String FEATURE_DEBUG = "debug";
     private static final String FEATURE_DONE = "done";
+    private static final String FEATURE_MEMORY = "memory";
     private static final String FEATURE_MY_NAME = "myname";
     private static final String FEATURE_NAME = "name";
+    private static final String FEATURE_OPTION = "option";
     private static final String FEATURE_PLAY_OTHER = "playother";
     private static final String FEATURE_REUSE = "reuse";
+    private static final String FEATURE_SET_BOARD = "setboard";
+    private static final String FEATURE_SMP = "smp";
     private static final String FEATURE_TIME = "time";
     private static final String FEATURE_USER_MOVE = "usermove";
 
@@ -51,36 +74,145 @@ public record ConfiguredEngine(EngineConfig config, EngineProcess process) imple
     private static final Set<String> RECOGNIZED_FEATURES = Set.of(
             FEATURE_DEBUG,
             FEATURE_DONE,
+            FEATURE_MEMORY,
             FEATURE_MY_NAME,
             FEATURE_NAME,
+            FEATURE_OPTION,
             FEATURE_PLAY_OTHER,
             FEATURE_REUSE,
+            FEATURE_SET_BOARD,
+            FEATURE_SMP,
             FEATURE_TIME,
             FEATURE_USER_MOVE
     );
 
     public IdlingEngine load() {
         LOGGER.log(INFO, "Loading engine by running command ''{0}'' in directory ''{1}''", config.command(), config.directory());
-        final var loadedProcess = process.startUp(config.id(), config.command(), config.directory());
-        loadedProcess.sendCommand(XboardCommand.XBOARD);
-        loadedProcess.sendCommand(XboardCommand.PROTOVER, 2);
-        loadedProcess.sendCommand(XboardCommand.FORCE);
-        final var response = loadedProcess.readUntil("done=1");
-        EngineFeatures features = parseFeatures(response, loadedProcess);
+        final var event = new EngineLoadEvent();
+        event.begin();
+        final var loadStartTime = System.nanoTime();
+        final var loadedProcess = process.startUp(config.id(), config.command(), config.directory(), config.processLimits());
+        final var startupTime = System.nanoTime() - loadStartTime;
+        final EngineFeatures features;
+        try {
+            loadedProcess.sendCommand(XboardCommand.XBOARD);
+            loadedProcess.sendCommand(XboardCommand.PROTOVER, 2);
+            loadedProcess.sendCommand(XboardCommand.FORCE);
+            features = handshake(loadedProcess, event);
+        } catch (RuntimeException e) {
+            // The engine is of no use without features, and must not be left running
+            loadedProcess.shutDown();
+            throw e;
+        }
         LOGGER.log(DEBUG, "Recognized features: {0}", features);
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = config.command();
+            event.engine = features.myName();
+            event.startupTime = startupTime;
+            event.commit();
+        }
         return new IdlingEngine(config, features, loadedProcess);
     }
 
-    private EngineFeatures parseFeatures(final List<String> response, EngineProcess loadedProcess) {
+    /**
+     * Negotiates features with the engine, or returns the cached features if the engine has been
+     * found to be a protocol version 1 engine. An engine that did not send feature done=1 only once
+     * may just have been slow to start, and is given another, longer chance to negotiate.
+     */
+    private EngineFeatures handshake(final EngineProcess loadedProcess, final EngineLoadEvent event) {
+        final var cacheKey = config.command() + "|" + config.directory();
+        final var cachedHandshake = HANDSHAKES.get(cacheKey);
+        if (cachedHandshake != null && cachedHandshake.misses() >= PROTOCOL_1_HANDSHAKES) {
+            // This engine has never negotiated features, so there is no need to wait for it again
+            LOGGER.log(DEBUG, "Using cached features for command ''{0}''", config.command());
+            return cachedHandshake.features();
+        }
+
+        // An engine that was slow last time is given more time, within limits
+        final var startTime = System.nanoTime();
+        final var previousMisses = cachedHandshake != null ? cachedHandshake.misses() : 0;
+        final var previousMillis = cachedHandshake != null ? cachedHandshake.millis() : 0;
+        final var featureTimeoutMillis = FEATURE_TIMEOUT_MILLIS * (previousMisses + 1);
+        final var handshakeTimeoutMillis = Math.min(MAX_HANDSHAKE_TIMEOUT_MILLIS, Math.max(HANDSHAKE_TIMEOUT_MILLIS, 2 * previousMillis));
+        final var negotiation = negotiate(loadedProcess, featureTimeoutMillis, handshakeTimeoutMillis);
+        final var features = parseFeatures(negotiation.lines(), loadedProcess);
+        final var handshakeTime = System.nanoTime() - startTime;
+        final var misses = negotiation.done() ? 0 : previousMisses + 1;
+        HANDSHAKES.put(cacheKey, new Handshake(features, misses, handshakeTime / 1_000_000));
+        event.handshakeTime = handshakeTime;
+        event.protocolVersion2 = negotiation.done();
+        return features;
+    }
+
+    /**
+     * Reads the feature commands sent by the engine, following the rules in the XBoard protocol.
+     * The engine has {@code featureTimeoutMillis} milliseconds to send feature done=1. If it does
+     * not, it is assumed to be a protocol version 1 engine. If the engine sends feature done=0, it has
+     * {@code handshakeTimeoutMillis} milliseconds to send feature done=1, and fails if it does not.
+     */
+    private Negotiation negotiate(final EngineProcess loadedProcess, final long featureTimeoutMillis, final long handshakeTimeoutMillis) {
+        final var lines = new ArrayList<String>();
+        final var startTime = System.nanoTime();
+        var waitingForDone = false;
+        while (true) {
+            final var elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            final var timeoutMillis = (waitingForDone ? handshakeTimeoutMillis : featureTimeoutMillis) - elapsedMillis;
+            final var line = timeoutMillis > 0 ? loadedProcess.readLine(timeoutMillis) : null;
+            if (line == null) {
+                if (waitingForDone) {
+                    throw new EngineException("Engine '" + config.command() + "' sent feature done=0, but not done=1 within " +
+                                              handshakeTimeoutMillis + " ms");
+                }
+                LOGGER.log(INFO, "No feature done=1 from engine ''{0}'' within {1} ms, assuming protocol version 1",
+                        config.command(), String.valueOf(featureTimeoutMillis));
+                return new Negotiation(lines, false);
+            }
+            lines.add(line);
+            final var done = parseFeatures(line).get(FEATURE_DONE);
+            if ("1".equals(done)) {
+                return new Negotiation(lines, true);
+            } else if ("0".equals(done)) {
+                waitingForDone = true;
+            }
+        }
+    }
+
+    private static Map<String, String> parseFeatures(final String line) {
         final Map<String, String> map = new HashMap<>();
-        response.stream()
-                .filter(line -> line.startsWith("feature "))
-                .forEach(line -> {
-                    final var matcher = FEATURE_PATTERN.matcher(line.substring("feature ".length()));
-                    while (matcher.find()) {
-                        map.put(matcher.group(1), unstringify(matcher.group(2)));
+        if (line.startsWith("feature ")) {
+            final var matcher = FEATURE_PATTERN.matcher(line.substring("feature ".length()));
+            while (matcher.find()) {
+                map.put(matcher.group(1), unstringify(matcher.group(2)));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the names of all options defined by the engine. An option feature looks like
+     * {@code option="NAME -TYPE ..."}, and an engine may send many of them.
+     */
+    private static List<String> parseOptionNames(final List<String> response) {
+        final var names = new ArrayList<String>();
+        for (final var line : response) {
+            if (line.startsWith("feature ")) {
+                final var matcher = FEATURE_PATTERN.matcher(line.substring("feature ".length()));
+                while (matcher.find()) {
+                    if (FEATURE_OPTION.equals(matcher.group(1))) {
+                        final var option = unstringify(matcher.group(2));
+                        final var index = option.indexOf(" -");
+                        names.add(index != -1 ? option.substring(0, index) : option);
                     }
-                });
+                }
+            }
+        }
+        return names;
+    }
+
+    private EngineFeatures parseFeatures(final List<String> response, EngineProcess loadedProcess) {
+        final Map<String, String> map = new HashMap<>();
+        response.forEach(line -> map.putAll(parseFeatures(line)));
         // Accept recognized features
         RECOGNIZED_FEATURES.stream()
                            .filter(map::containsKey)
@@ -107,8 +239,20 @@ public record ConfiguredEngine(EngineConfig config, EngineProcess process) imple
                              .name(map.get(FEATURE_NAME))
                              .playOther(map.get(FEATURE_PLAY_OTHER))
                              .reuse(map.get(FEATURE_REUSE))
+                             .setBoard(map.get(FEATURE_SET_BOARD))
                              .time(map.get(FEATURE_TIME))
                              .userMove(map.get(FEATURE_USER_MOVE))
+                             .memory(map.get(FEATURE_MEMORY))
+                             .smp(map.get(FEATURE_SMP))
+                             .options(parseOptionNames(response))
                              .build();
     }
+
+    private record Negotiation(List<String> lines, boolean done) { }
+
+    /**
+     * The result of a handshake, where {@code misses} is the number of handshakes in a row
+     * without feature done=1.
+     */
+    private record Handshake(EngineFeatures features, int misses, long millis) { }
 }
@@ -24,6 +24,10 @@ import se.dykstrom.cet.engine.util.EngineProcess;
 public record CreatedEngine(EngineProcess process) implements Engine {
 
     public ConfiguredEngine configure(final int id, final String command, final File directory) {
-        return new ConfiguredEngine(new EngineConfig(id, command, directory), process);
+        return configure(new EngineConfig(id, command, directory));
+    }
+
+    public ConfiguredEngine configure(final EngineConfig config) {
+        return new ConfiguredEngine(config, process);
     }
 }
@@ -16,8 +16,47 @@
 
 package se.dykstrom.cet.engine.state;
 
+import java.util.Optional;
+
+import se.dykstrom.cet.engine.util.CgroupUsage;
 import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.engine.util.SearchStatistics;
 
 public interface Engine {
     EngineProcess process();
+
+    /**
+     * Returns true if the engine process has exited without being shut down.
+     */
+    default boolean hasCrashed() {
+        return process().hasCrashed();
+    }
+
+    /**
+     * Returns the resource usage of the engine cgroup, if the engine runs in its own cgroup.
+     */
+    default Optional<CgroupUsage> resourceUsage() {
+        return process().resourceUsage();
+    }
+
+    /**
+     * Returns the search statistics of the moves the engine has made so far.
+     */
+    default SearchStatistics searchStatistics() {
+        return process().searchStatistics();
+    }
+
+    /**
+     * Returns the score of the last move the engine made, or {@link EngineProcess#NO_SCORE} if not known.
+     */
+    default int lastScore() {
+        return process().lastScore();
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} when the last response from the engine was read, or 0 if not known.
+     */
+    default long lastLineNanos() {
+        return process().lastLineNanos();
+    }
 }
@@ -16,6 +16,7 @@
 
 package se.dykstrom.cet.engine.state;
 
+import java.util.Map;
 import java.util.Objects;
 
 import se.dykstrom.cet.engine.config.EngineConfig;
@@ -25,6 +26,7 @@ import se.dykstrom.cet.engine.util.EngineProcess;
 import se.dykstrom.cet.engine.util.XboardCommand;
 
 import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
 
 public record IdlingEngine(EngineConfig engineConfig, EngineFeatures features, EngineProcess process) implements Engine {
 
@@ -32,10 +34,18 @@ public record IdlingEngine(EngineConfig engineConfig, EngineFeatures features, E
 
     public ForcedEngine start(final GameConfig gameConfig) {
         process.sendCommand(XboardCommand.NEW);
+        sendResourceCommands();
         process.sendCommand(XboardCommand.RANDOM);
         process.sendCommand(gameConfig.timeControl().xboardCommand(), gameConfig.timeControl().parameters());
         process.sendCommand(XboardCommand.EASY);
+        process.sendCommand(XboardCommand.POST);
         process.sendCommand(XboardCommand.FORCE);
+        if (gameConfig.fen() != null) {
+            if (!features.setBoard()) {
+                throw new IllegalStateException("Engine '" + features.myName() + "' does not support setboard command");
+            }
+            process.sendCommand(XboardCommand.SETBOARD, gameConfig.fen());
+        }
         process.sendCommand(XboardCommand.COMPUTER);
         if (features.name()) {
             if (Objects.equals(features.myName(), gameConfig.white())) {
@@ -49,9 +59,44 @@ public record IdlingEngine(EngineConfig engineConfig, EngineFeatures features, E
         return new ForcedEngine(engineConfig, features, gameConfig, process);
     }
 
+    /**
+     * Sends the hash size, number of threads, and engine-defined options from the engine config,
+     * if the engine supports them. Unsupported settings are logged and skipped.
+     */
+    private void sendResourceCommands() {
+        if (engineConfig.hash() != null) {
+            if (features.memory()) {
+                process.sendCommand(XboardCommand.MEMORY, engineConfig.hash());
+            } else {
+                LOGGER.log(WARNING, "Engine ''{0}'' does not support memory command, ignoring hash size", features.myName());
+            }
+        }
+        if (engineConfig.threads() != null) {
+            if (features.smp()) {
+                process.sendCommand(XboardCommand.CORES, engineConfig.threads());
+            } else {
+                LOGGER.log(WARNING, "Engine ''{0}'' does not support cores command, ignoring threads", features.myName());
+            }
+        }
+        engineConfig.options().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(option -> {
+                        if (features.options().contains(option.getKey())) {
+                            // Button options have no value
+                            final var value = option.getValue().isEmpty() ? "" : "=" + option.getValue();
+                            process.sendCommand(XboardCommand.OPTION, option.getKey() + value);
+                        } else {
+                            LOGGER.log(WARNING, "Engine ''{0}'' does not define option ''{1}'', ignoring it", features.myName(), option.getKey());
+                        }
+                    });
+    }
+
     public ConfiguredEngine unload() {
         LOGGER.log(INFO, "Unloading engine in directory ''{0}''", engineConfig.directory());
-        process.sendCommand(XboardCommand.QUIT);
+        // A crashed engine cannot receive any more commands
+        if (!hasCrashed()) {
+            process.sendCommand(XboardCommand.QUIT);
+        }
         return new ConfiguredEngine(engineConfig, process.shutDown());
     }
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.System.Logger.Level.DEBUG;
+
+/**
+ * A cgroup v2 sub-group that contains a single engine process, and limits its CPU time and memory.
+ * The parent directory must be a cgroup that the tester is allowed to write to, with the cpu
+ * and memory controllers available.
+ *
+ * @param directory The directory of the sub-group.
+ */
+public record Cgroup(Path directory) {
+
+    private static final System.Logger LOGGER = System.getLogger(Cgroup.class.getName());
+
+    /** The cpu.max period in microseconds. */
+    static final long PERIOD_MICROS = 100_000;
+
+    /**
+     * Creates a sub-group of {@code parent} with the given name and limits. A limit of 0 means no limit.
+     */
+    public static Cgroup create(final Path parent, final String name, final int cpuQuota, final long memoryMaxBytes) throws IOException {
+        enableControllers(parent);
+        final var directory = Files.createDirectories(parent.resolve(name));
+        Files.writeString(directory.resolve("cpu.max"), (cpuQuota > 0 ? String.valueOf(cpuQuota * PERIOD_MICROS) : "max") + " " + PERIOD_MICROS);
+        Files.writeString(directory.resolve("memory.max"), memoryMaxBytes > 0 ? String.valueOf(memoryMaxBytes) : "max");
+        LOGGER.log(DEBUG, "Created cgroup ''{0}'' with {1} CPU(s) and memory.max {2}", directory, cpuQuota, String.valueOf(memoryMaxBytes));
+        return new Cgroup(directory);
+    }
+
+    /**
+     * Makes the cpu and memory controllers available to the sub-groups of {@code parent}.
+     */
+    private static void enableControllers(final Path parent) throws IOException {
+        final var subtreeControl = parent.resolve("cgroup.subtree_control");
+        // The file lists the enabled controllers separated by spaces, for example "cpuset cpu io memory"
+        final var enabled = Files.exists(subtreeControl) ? Arrays.asList(Files.readString(subtreeControl).trim().split("\\s+")) : List.of();
+        if (!enabled.contains("cpu") || !enabled.contains("memory")) {
+            Files.writeString(subtreeControl, "+cpu +memory");
+        }
+    }
+
+    /**
+     * Returns the given command, wrapped so that the process moves itself into this group
+     * before it executes the command. This way, all threads and child processes of the
+     * command are started inside the group.
+     */
+    public List<String> wrap(final List<String> command) {
+        final var wrapped = new ArrayList<>(List.of("sh", "-c", "echo $$ > \"$0/cgroup.procs\" && exec \"$@\"", directory.toString()));
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    /**
+     * Reads the current resource usage of this group.
+     */
+    public CgroupUsage usage() throws IOException {
+        final var cpuStat = readKeyValues(directory.resolve("cpu.stat"));
+        final var memoryEvents = readKeyValues(directory.resolve("memory.events"));
+        return new CgroupUsage(cpuStat.getOrDefault("usage_usec", 0L),
+                               cpuStat.getOrDefault("nr_throttled", 0L),
+                               memoryEvents.getOrDefault("max", 0L),
+                               memoryEvents.getOrDefault("oom_kill", 0L));
+    }
+
+    /**
+     * Removes this group. This only works after all processes in the group have exited.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(directory);
+    }
+
+    private static Map<String, Long> readKeyValues(final Path file) throws IOException {
+        final Map<String, Long> map = new HashMap<>();
+        if (Files.exists(file)) {
+            for (final var line : Files.readAllLines(file)) {
+                final var parts = line.trim().split("\\s+");
+                if (parts.length == 2) {
+                    map.put(parts[0], Long.parseLong(parts[1]));
+                }
+            }
+        }
+        return map;
+    }
+}
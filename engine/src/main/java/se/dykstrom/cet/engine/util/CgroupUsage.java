@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+/**
+ * Resource usage counters of a cgroup, read from cpu.stat and memory.events.
+ *
+ * @param cpuMicros Total CPU time used, in microseconds.
+ * @param throttledPeriods Number of periods in which the group was throttled for using more than cpu.max.
+ * @param memoryMaxEvents Number of times the group tried to use more than memory.max.
+ * @param oomKills Number of processes in the group killed by the OOM killer.
+ */
+public record CgroupUsage(long cpuMicros, long throttledPeriods, long memoryMaxEvents, long oomKills) {
+
+    public static final CgroupUsage ZERO = new CgroupUsage(0, 0, 0, 0);
+
+    /**
+     * Returns the usage since {@code before}.
+     */
+    public CgroupUsage minus(final CgroupUsage before) {
+        return new CgroupUsage(cpuMicros - before.cpuMicros,
+                               throttledPeriods - before.throttledPeriods,
+                               memoryMaxEvents - before.memoryMaxEvents,
+                               oomKills - before.oomKills);
+    }
+
+    /**
+     * Returns true if the group has hit its CPU or memory limits.
+     */
+    public boolean exceededLimits() {
+        return throttledPeriods > 0 || memoryMaxEvents > 0 || oomKills > 0;
+    }
+}
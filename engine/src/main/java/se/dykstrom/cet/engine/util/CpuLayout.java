@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Divides the cores of a machine between the tester and a number of game slots. The first
+ * physical core is reserved for the tester, and the remaining cores are divided evenly between
+ * the game slots. Each slot gets consecutive cores from the topology, so that the engines in
+ * a slot share L3 cache with each other rather than with the engines in other slots.
+ *
+ * @param reserved The logical CPUs reserved for the tester.
+ * @param slots The logical CPUs of each game slot.
+ */
+public record CpuLayout(Set<Integer> reserved, List<Set<Integer>> slots) {
+
+    public CpuLayout {
+        reserved = Set.copyOf(reserved);
+        slots = List.copyOf(slots);
+    }
+
+    /**
+     * Creates a layout for the given number of game slots.
+     *
+     * @throws IllegalArgumentException If there are not enough cores for one core per slot.
+     */
+    public static CpuLayout of(final CpuTopology topology, final int numberOfSlots) {
+        ensure(numberOfSlots > 0, "numberOfSlots must be > 0");
+        final var cores = topology.cores();
+        final var coresPerSlot = (cores.size() - 1) / numberOfSlots;
+        ensure(coresPerSlot > 0, "Cannot pin " + numberOfSlots + " game slot(s) to " + cores.size() +
+                                 " core(s), one core is reserved for the tester");
+
+        final var slots = new ArrayList<Set<Integer>>();
+        for (var slot = 0; slot < numberOfSlots; slot++) {
+            final var cpus = new HashSet<Integer>();
+            final var first = 1 + slot * coresPerSlot;
+            cores.subList(first, first + coresPerSlot).forEach(core -> cpus.addAll(core.cpus()));
+            slots.add(cpus);
+        }
+        return new CpuLayout(cores.getFirst().cpus(), slots);
+    }
+}
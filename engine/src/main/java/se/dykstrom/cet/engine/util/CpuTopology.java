@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The physical cores of this machine, as described by the Linux CPU topology in /sys.
+ * The cores are sorted by L3 cache domain, so that cores next to each other in the
+ * list are likely to share cache.
+ *
+ * @param cores The physical cores, sorted by L3 cache domain and lowest logical CPU.
+ */
+public record CpuTopology(List<Core> cores) {
+
+    /** The directory that describes the CPUs in Linux. */
+    public static final Path SYS_CPU_DIRECTORY = Path.of("/sys/devices/system/cpu");
+
+    public CpuTopology {
+        cores = List.copyOf(cores);
+    }
+
+    /**
+     * A physical core.
+     *
+     * @param domain The L3 cache domain, identified by its lowest logical CPU.
+     * @param cpus The logical CPUs (hardware threads) of this core.
+     */
+    public record Core(int domain, Set<Integer> cpus) {
+
+        public Core {
+            cpus = Set.copyOf(cpus);
+        }
+
+        int firstCpu() {
+            return cpus.stream().min(Integer::compare).orElseThrow();
+        }
+    }
+
+    /**
+     * Reads the CPU topology of this machine.
+     */
+    public static CpuTopology read() throws IOException {
+        return read(SYS_CPU_DIRECTORY);
+    }
+
+    /**
+     * Reads the CPU topology from the given directory, which has the same layout as /sys/devices/system/cpu.
+     */
+    public static CpuTopology read(final Path directory) throws IOException {
+        final Map<Set<Integer>, Core> cores = new LinkedHashMap<>();
+        for (final int cpu : parse(Files.readString(directory.resolve("online")))) {
+            final var cpuDirectory = directory.resolve("cpu" + cpu);
+            final var siblings = parse(Files.readString(cpuDirectory.resolve("topology/thread_siblings_list")));
+            final var l3File = cpuDirectory.resolve("cache/index3/shared_cpu_list");
+            final int domain;
+            if (Files.exists(l3File)) {
+                domain = parse(Files.readString(l3File)).first();
+            } else {
+                // Without an L3 cache, use the package as the domain
+                domain = Integer.parseInt(Files.readString(cpuDirectory.resolve("topology/physical_package_id")).trim());
+            }
+            cores.computeIfAbsent(siblings, key -> new Core(domain, key));
+        }
+        final var sortedCores = new ArrayList<>(cores.values());
+        sortedCores.sort(Comparator.comparingInt(Core::domain).thenComparingInt(Core::firstCpu));
+        return new CpuTopology(sortedCores);
+    }
+
+    /**
+     * Parses a Linux CPU list, for example "0-3,8,10-11".
+     */
+    public static TreeSet<Integer> parse(final String list) {
+        final var cpus = new TreeSet<Integer>();
+        for (final var part : list.trim().split(",")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            final var range = part.split("-");
+            final var first = Integer.parseInt(range[0]);
+            final var last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+            for (var cpu = first; cpu <= last; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+
+    /**
+     * Formats the given CPUs as a Linux CPU list, for example "0,1,2".
+     */
+    public static String format(final Set<Integer> cpus) {
+        return cpus.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -16,13 +16,24 @@
 
 package se.dykstrom.cet.engine.util;
 
+import java.util.Collection;
+import java.util.Set;
+
 public record EngineFeatures(boolean debug,
                              String myName,
                              boolean name,
                              boolean playOther,
                              boolean reuse,
+                             boolean setBoard,
                              boolean time,
-                             boolean userMove) {
+                             boolean userMove,
+                             boolean memory,
+                             boolean smp,
+                             Set<String> options) {
+
+    public EngineFeatures {
+        options = Set.copyOf(options);
+    }
 
     public static Builder builder() {
         return new Builder();
@@ -35,8 +46,12 @@ public record EngineFeatures(boolean debug,
         private int name = 0;
         private int playOther = 0;
         private int reuse = 1;
+        private int setBoard = 0;
         private int time = 1;
         private int userMove = 0;
+        private int memory = 0;
+        private int smp = 0;
+        private Set<String> options = Set.of();
 
         public Builder debug(final String debug) {
             if (debug != null) {
@@ -73,6 +88,13 @@ public record EngineFeatures(boolean debug,
             return this;
         }
 
+        public Builder setBoard(final String setBoard) {
+            if (setBoard != null) {
+                this.setBoard = Integer.parseInt(setBoard);
+            }
+            return this;
+        }
+
         public Builder time(final String time) {
             if (time != null) {
                 this.time = Integer.parseInt(time);
@@ -87,6 +109,25 @@ public record EngineFeatures(boolean debug,
             return this;
         }
 
+        public Builder memory(final String memory) {
+            if (memory != null) {
+                this.memory = Integer.parseInt(memory);
+            }
+            return this;
+        }
+
+        public Builder smp(final String smp) {
+            if (smp != null) {
+                this.smp = Integer.parseInt(smp);
+            }
+            return this;
+        }
+
+        public Builder options(final Collection<String> options) {
+            this.options = Set.copyOf(options);
+            return this;
+        }
+
         public EngineFeatures build() {
             return new EngineFeatures(
                     debug == 1,
@@ -94,8 +135,12 @@ public record EngineFeatures(boolean debug,
                     name == 1,
                     playOther == 1,
                     reuse == 1,
+                    setBoard == 1,
                     time == 1,
-                    userMove == 1
+                    userMove == 1,
+                    memory == 1,
+                    smp == 1,
+                    options
             );
         }
     }
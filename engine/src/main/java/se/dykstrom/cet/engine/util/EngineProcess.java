@@ -18,12 +18,23 @@ package se.dykstrom.cet.engine.util;
 
 import java.io.File;
 import java.util.List;
+import java.util.Optional;
 
 import se.dykstrom.cet.engine.parser.Response;
 
 public interface EngineProcess {
 
-    EngineProcess startUp(final int id, final String osCommand, final File directory);
+    /** The score of a move without thinking output. */
+    int NO_SCORE = Integer.MIN_VALUE;
+
+    default EngineProcess startUp(final int id, final String osCommand, final File directory) {
+        return startUp(id, osCommand, directory, ProcessLimits.NONE);
+    }
+
+    /**
+     * Starts the engine, and applies the given CPU affinity and cgroup limits to it.
+     */
+    EngineProcess startUp(final int id, final String osCommand, final File directory, final ProcessLimits limits);
 
     EngineProcess shutDown();
 
@@ -37,6 +48,24 @@ public interface EngineProcess {
      */
     void sendCommand(final XboardCommand xboardCommand, final Object... params);
 
+    /**
+     * Sends the given XBoard command, followed by a single numeric parameter, to the engine.
+     * Unlike the varargs method, this method does not allocate.
+     */
+    void sendCommand(final XboardCommand xboardCommand, final long param);
+
+    /**
+     * Sends the given XBoard command, followed by a single parameter, to the engine.
+     * Unlike the varargs method, this method does not allocate.
+     */
+    void sendCommand(final XboardCommand xboardCommand, final String param);
+
+    /**
+     * Sends the given command to the engine. This is typically used to send moves without
+     * the "usermove" command. Unlike the varargs method, this method does not allocate.
+     */
+    void sendCommand(final String command);
+
     /**
      * Sends a command that only consists of the given parameters to the engine.
      * This is typically used to send moves without the "usermove" command.
@@ -45,11 +74,56 @@ public interface EngineProcess {
 
     void checkStatus();
 
+    /**
+     * Returns true if the engine process has been started, and has since exited
+     * without being shut down.
+     */
+    boolean hasCrashed();
+
+    /**
+     * Returns the resource usage of the engine cgroup, or an empty optional if the engine
+     * does not run in its own cgroup.
+     */
+    Optional<CgroupUsage> resourceUsage();
+
+    /**
+     * Returns the search statistics of the moves the engine has made so far,
+     * taken from its thinking output.
+     */
+    SearchStatistics searchStatistics();
+
+    /**
+     * Returns the score of the last move the engine made, in centipawns from the point of view of
+     * the engine, taken from its thinking output. Returns {@link #NO_SCORE} if the engine did not
+     * print any thinking output before the move.
+     */
+    int lastScore();
+
+    /**
+     * Returns the {@link System#nanoTime()} when the last response from the engine was read,
+     * before it was parsed, or 0 if not known.
+     */
+    long lastLineNanos();
+
+    /**
+     * Returns the output lines that are available, waiting only briefly for more lines to arrive.
+     */
     List<String> readAllLines();
 
     List<String> readUntil(final String regex);
 
+    /**
+     * Reads the next output line, waiting at most {@code timeoutMillis} milliseconds.
+     * Returns null if no line arrived in time.
+     */
+    String readLine(final long timeoutMillis);
+
     <T extends Response> T read(final Class<T> clazz);
 
     void clearOutput();
+
+    /**
+     * Returns the last lines that the engine has written to standard error.
+     */
+    List<String> errorOutput();
 }
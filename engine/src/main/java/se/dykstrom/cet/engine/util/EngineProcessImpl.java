@@ -16,39 +16,80 @@
 
 package se.dykstrom.cet.engine.util;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
+import se.dykstrom.cet.engine.exception.EngineCrashedException;
 import se.dykstrom.cet.engine.exception.EngineException;
 import se.dykstrom.cet.engine.exception.UnexpectedException;
 import se.dykstrom.cet.engine.parser.Parser;
 import se.dykstrom.cet.engine.parser.Response;
 
 import static java.lang.System.Logger.Level.TRACE;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
+import static se.dykstrom.cet.engine.util.StringUtils.EOL;
 
 public class EngineProcessImpl implements EngineProcess {
 
     private static final System.Logger LOGGER = System.getLogger(EngineProcessImpl.class.getName());
 
+    /** Time to wait for a process to exit after its output has ended. */
+    private static final long EXIT_TIMEOUT_MILLIS = 1_000;
+
+    /** Time to wait for more output when reading all available lines. */
+    private static final long QUIET_MILLIS = 50;
+
+    /** Number of lines from standard error to keep. */
+    private static final int ERROR_LOG_CAPACITY = 200;
+
+    /** Number of lines from standard error to log when the engine crashes. */
+    private static final int CRASH_LOG_LINES = 20;
+
+    /** Sequence number of cgroups, making the name of each group unique. */
+    private static final AtomicInteger CGROUPS = new AtomicInteger(0);
+
     private final int id;
     private final Process process;
+    private final Cgroup cgroup;
+    private final OutputDrain output;
+    private final ErrorLog errorLog;
     private final Parser parser;
+    private volatile boolean shuttingDown;
+
+    /** Buffers used to build and encode commands. Guarded by the input buffer. */
+    private final StringBuilder input = new StringBuilder(64);
+    private byte[] bytes = new byte[64];
 
     public EngineProcessImpl() {
         this.id = -1;
         this.process = null;
+        this.cgroup = null;
+        this.output = null;
+        this.errorLog = null;
         this.parser = null;
     }
 
     public EngineProcessImpl(final int id, final Process process) {
+        this(id, process, null);
+    }
+
+    private EngineProcessImpl(final int id, final Process process, final Cgroup cgroup) {
         this.id = id;
         this.process = requireNonNull(process);
-        this.parser = new Parser(process.getInputStream());
+        this.cgroup = cgroup;
+        this.output = new OutputDrain(process.getInputStream(), "engine-" + id + "-stdout");
+        this.errorLog = new ErrorLog(process.getErrorStream(), id, ERROR_LOG_CAPACITY);
+        this.parser = new Parser(output);
     }
 
     @Override
@@ -57,42 +98,168 @@ public class EngineProcessImpl implements EngineProcess {
     }
 
     @Override
-    public EngineProcess startUp(final int id, final String osCommand, final File directory) {
+    public EngineProcess startUp(final int id, final String osCommand, final File directory, final ProcessLimits limits) {
         assert process == null;
-        final List<String> commandSplitByWhiteSpace = List.of(osCommand.split("\\s+"));
+        List<String> command = List.of(osCommand.split("\\s+"));
         try {
-            return new EngineProcessImpl(id, ProcessUtils.setUpProcess(commandSplitByWhiteSpace, directory));
+            Cgroup newCgroup = null;
+            if (limits.cgroupParent() != null) {
+                final var name = "cet-" + ProcessHandle.current().pid() + "-engine-" + id + "-" + CGROUPS.getAndIncrement();
+                newCgroup = Cgroup.create(limits.cgroupParent(), name, limits.cpuQuota(), limits.memoryMaxBytes());
+                command = newCgroup.wrap(command);
+            }
+            final var newProcess = ProcessUtils.setUpProcess(command, directory, limits.cpus());
+            final var engineProcess = new EngineProcessImpl(id, newProcess, newCgroup);
+            engineProcess.watch();
+            return engineProcess;
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
         }
     }
 
+    /**
+     * Logs the exit code when the process exits, unless it was shut down by the tester.
+     */
+    private void watch() {
+        process.onExit().thenAccept(p -> {
+            if (!shuttingDown) {
+                LOGGER.log(WARNING, "Engine process {0} exited unexpectedly with code {1}", id, p.exitValue());
+            }
+        });
+    }
+
     @Override
     public EngineProcess shutDown() {
         assert process != null;
-        ProcessUtils.tearDownProcess(process);
+        shuttingDown = true;
+        final var tearDown = ProcessUtils.tearDownProcess(process);
+        if (cgroup != null) {
+            tearDown.thenRun(this::deleteCgroup);
+        }
         return new EngineProcessImpl();
     }
 
+    private void deleteCgroup() {
+        try {
+            cgroup.delete();
+        } catch (IOException e) {
+            LOGGER.log(WARNING, "Cannot delete cgroup ''{0}'': {1}", cgroup.directory(), e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<CgroupUsage> resourceUsage() {
+        if (cgroup == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(cgroup.usage());
+        } catch (IOException e) {
+            LOGGER.log(WARNING, "Cannot read usage of cgroup ''{0}'': {1}", cgroup.directory(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public SearchStatistics searchStatistics() {
+        return parser != null ? parser.searchStatistics() : SearchStatistics.ZERO;
+    }
+
+    @Override
+    public int lastScore() {
+        return parser != null ? parser.lastScore() : NO_SCORE;
+    }
+
+    @Override
+    public long lastLineNanos() {
+        return parser != null ? parser.lastLineNanos() : 0;
+    }
+
+    @Override
+    public boolean hasCrashed() {
+        return process != null && !shuttingDown && !process.isAlive();
+    }
+
     @Override
     public void sendCommand(final XboardCommand xboardCommand, final Object... params) {
-        final String input = createInput(xboardCommand, params);
-        sendCommand(input);
+        synchronized (input) {
+            input.setLength(0);
+            input.append(xboardCommand.command());
+            for (final Object param : params) {
+                input.append(' ').append(param);
+            }
+            send();
+        }
+    }
+
+    @Override
+    public void sendCommand(final XboardCommand xboardCommand, final long param) {
+        synchronized (input) {
+            input.setLength(0);
+            input.append(xboardCommand.command()).append(' ').append(param);
+            send();
+        }
+    }
+
+    @Override
+    public void sendCommand(final XboardCommand xboardCommand, final String param) {
+        synchronized (input) {
+            input.setLength(0);
+            input.append(xboardCommand.command()).append(' ').append(param);
+            send();
+        }
     }
 
     @Override
     public void sendCommand(final Object... params) {
-        final String input = Stream.of(params).map(Objects::toString).collect(joining(" "));
-        sendCommand(input);
+        synchronized (input) {
+            input.setLength(0);
+            for (int i = 0; i < params.length; i++) {
+                input.append(i > 0 ? " " : "").append(params[i]);
+            }
+            send();
+        }
     }
 
-    private void sendCommand(final String input) {
+    @Override
+    public void sendCommand(final String command) {
+        synchronized (input) {
+            input.setLength(0);
+            input.append(command);
+            send();
+        }
+    }
+
+    /**
+     * Sends the command in the input buffer to the engine, followed by a line separator.
+     * Commands are nearly always ASCII, and are then encoded into a reused byte array,
+     * so sending a command does not allocate.
+     */
+    private void send() {
         assert process != null;
+        if (LOGGER.isLoggable(TRACE)) {
+            LOGGER.log(TRACE, "Sending to {0}: {1}", id, input.toString());
+        }
+        input.append(EOL);
+        final var length = input.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, 2 * bytes.length)];
+        }
         try {
-            LOGGER.log(TRACE, "Sending to {0}: {1}", id, input);
-            ProcessUtils.writeToProcess(input, process);
+            final var out = process.getOutputStream();
+            for (int i = 0; i < length; i++) {
+                final var c = input.charAt(i);
+                if (c > 0x7f) {
+                    out.write(input.toString().getBytes(UTF_8));
+                    out.flush();
+                    return;
+                }
+                bytes[i] = (byte) c;
+            }
+            out.write(bytes, 0, length);
+            out.flush();
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
         }
     }
 
@@ -107,7 +274,7 @@ public class EngineProcessImpl implements EngineProcess {
                 throw new UnexpectedException(response);
             }
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new EngineException(e);
@@ -118,19 +285,40 @@ public class EngineProcessImpl implements EngineProcess {
     public List<String> readAllLines() {
         assert process != null;
         try {
-            return ProcessUtils.readAllLines(process);
+            return output.readAvailableLines(QUIET_MILLIS);
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
         }
     }
 
     @Override
     public List<String> readUntil(final String regex) {
         assert process != null;
+        final var pattern = Pattern.compile(regex);
+        final var lines = new ArrayList<String>();
         try {
-            return ProcessUtils.readUntil(process, regex);
+            while (true) {
+                final var line = output.readLine();
+                if (line == null) {
+                    throw new EOFException("End-of-stream");
+                }
+                lines.add(line);
+                if (pattern.matcher(line).find()) {
+                    return lines;
+                }
+            }
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public String readLine(final long timeoutMillis) {
+        assert process != null;
+        try {
+            return output.readLine(timeoutMillis);
+        } catch (IOException e) {
+            throw failure(e);
         }
     }
 
@@ -144,7 +332,7 @@ public class EngineProcessImpl implements EngineProcess {
                 throw new UnexpectedException(response);
             }
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
         }
     }
 
@@ -155,15 +343,38 @@ public class EngineProcessImpl implements EngineProcess {
                 LOGGER.log(TRACE, "Ignoring: {0}", parser.next().text());
             }
         } catch (IOException e) {
-            throw new EngineException(e);
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Returns an exception that describes the given I/O error. If the error was caused by
+     * the process exiting, the returned exception is an {@link EngineCrashedException}.
+     */
+    private EngineException failure(final IOException e) {
+        if (process != null && hasExited()) {
+            final var errorOutput = errorOutput();
+            if (!errorOutput.isEmpty()) {
+                final var lastLines = errorOutput.subList(Math.max(0, errorOutput.size() - CRASH_LOG_LINES), errorOutput.size());
+                LOGGER.log(WARNING, "Last output on stderr from {0}:\n{1}", id, String.join("\n", lastLines));
+            }
+            return new EngineCrashedException(id, process.exitValue(), e);
+        }
+        return new EngineException(e);
+    }
+
+    private boolean hasExited() {
+        try {
+            return process.waitFor(EXIT_TIMEOUT_MILLIS, MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return !process.isAlive();
         }
     }
 
-    private String createInput(XboardCommand xboardCommand, Object[] params) {
-        final var input = new StringBuilder();
-        input.append(xboardCommand.command());
-        Stream.of(params).forEach(p -> input.append(" ").append(p));
-        return input.toString();
+    @Override
+    public List<String> errorOutput() {
+        return errorLog != null ? errorLog.lines() : List.of();
     }
 
     @Override
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the standard error of an engine process continuously in a background thread, and keeps
+ * the last lines in a bounded log. Older lines are discarded when the log is full.
+ */
+class ErrorLog {
+
+    private static final System.Logger LOGGER = System.getLogger(ErrorLog.class.getName());
+
+    private final int id;
+    private final int capacity;
+    private final Deque<String> lines;
+
+    ErrorLog(final InputStream in, final int id, final int capacity) {
+        this.id = id;
+        this.capacity = capacity;
+        this.lines = new ArrayDeque<>(capacity);
+        Thread.ofPlatform().name("engine-" + id + "-stderr").daemon().start(() -> drain(in));
+    }
+
+    private void drain(final InputStream in) {
+        try (var reader = new BufferedReader(new InputStreamReader(in, UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                LOGGER.log(DEBUG, "Stderr from {0}: {1}", id, line);
+                add(line);
+            }
+        } catch (IOException e) {
+            LOGGER.log(DEBUG, "Stopped reading stderr from {0}: {1}", id, e.getMessage());
+        }
+    }
+
+    private synchronized void add(final String line) {
+        if (lines.size() == capacity) {
+            lines.removeFirst();
+        }
+        lines.addLast(line);
+    }
+
+    /**
+     * Returns the lines currently in the log, oldest first.
+     */
+    synchronized List<String> lines() {
+        return List.copyOf(lines);
+    }
+}
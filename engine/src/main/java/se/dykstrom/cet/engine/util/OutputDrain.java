@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import se.dykstrom.cet.engine.parser.LineReader;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Reads the standard output of an engine process continuously in a background thread,
+ * and keeps the lines in a queue until they are read. The engine never blocks when
+ * writing to standard output, even if the tester is busy doing other things.
+ */
+class OutputDrain implements LineReader {
+
+    private static final System.Logger LOGGER = System.getLogger(OutputDrain.class.getName());
+
+    /** Marks the end of the stream in the queue. Compared by identity. */
+    private static final String END_OF_STREAM = new String("<end-of-stream>");
+
+    private final LinkedBlockingDeque<String> lines = new LinkedBlockingDeque<>();
+
+    OutputDrain(final InputStream in, final String name) {
+        Thread.ofPlatform().name(name).daemon().start(() -> drain(in));
+    }
+
+    private void drain(final InputStream in) {
+        try (var reader = new BufferedReader(new InputStreamReader(in, UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            LOGGER.log(DEBUG, "Stopped reading engine output: {0}", e.getMessage());
+        } finally {
+            lines.add(END_OF_STREAM);
+        }
+    }
+
+    @Override
+    public boolean ready() {
+        final var line = lines.peekFirst();
+        return line != null && line != END_OF_STREAM;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        try {
+            return next(lines.takeFirst());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading engine output");
+        }
+    }
+
+    /**
+     * Reads the next line, waiting at most {@code timeoutMillis} milliseconds.
+     * Returns null if no line arrived in time.
+     *
+     * @throws EOFException If the end of the stream has been reached.
+     */
+    String readLine(final long timeoutMillis) throws IOException {
+        try {
+            final var line = lines.pollFirst(timeoutMillis, MILLISECONDS);
+            if (line != null && next(line) == null) {
+                throw new EOFException("End-of-stream");
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading engine output");
+        }
+    }
+
+    /**
+     * Returns all lines that arrive without a pause longer than {@code quietMillis} milliseconds.
+     */
+    List<String> readAvailableLines(final long quietMillis) throws IOException {
+        final var result = new ArrayList<String>();
+        try {
+            String line;
+            while ((line = next(lines.pollFirst(quietMillis, MILLISECONDS))) != null) {
+                result.add(line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading engine output");
+        }
+        return result;
+    }
+
+    private String next(final String line) {
+        if (line == END_OF_STREAM) {
+            // Keep the marker, so that all following reads also find the end of the stream
+            lines.addFirst(END_OF_STREAM);
+            return null;
+        }
+        return line;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Limits applied to an engine process when it is started.
+ *
+ * @param cpus The logical CPUs the process may run on, or an empty set for all CPUs.
+ * @param cgroupParent The cgroup v2 directory in which to create a sub-group for the process,
+ *                     or {@code null} to not use a cgroup.
+ * @param cpuQuota The number of CPUs worth of time the process may use, written to cpu.max, or 0 for no limit.
+ * @param memoryMaxBytes The maximum memory of the process, written to memory.max, or 0 for no limit.
+ */
+public record ProcessLimits(Set<Integer> cpus, Path cgroupParent, int cpuQuota, long memoryMaxBytes) {
+
+    /** No limits. */
+    public static final ProcessLimits NONE = new ProcessLimits(Set.of(), null, 0, 0);
+
+    public ProcessLimits {
+        cpus = Set.copyOf(cpus);
+        ensure(cpuQuota >= 0, "cpuQuota must be >= 0");
+        ensure(memoryMaxBytes >= 0, "memoryMaxBytes must be >= 0");
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * A sample of the resources used by a process and its descendants, read from /proc/[pid]/stat
+ * and /proc/[pid]/status. This only works on Linux.
+ *
+ * @param cpuMillis Total CPU time (user + system) used so far, in milliseconds.
+ * @param threads Current number of threads.
+ * @param rssKb Current resident set size, in kB.
+ */
+public record ProcessSample(long cpuMillis, int threads, long rssKb) {
+
+    /** The directory of the proc file system. */
+    public static final Path PROC_DIRECTORY = Path.of("/proc");
+
+    /** Clock ticks per second used in /proc/[pid]/stat. This is 100 on all common Linux platforms. */
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+
+    /** Index of utime among the fields after the command name in /proc/[pid]/stat. */
+    private static final int UTIME_INDEX = 11;
+
+    /** Index of stime among the fields after the command name in /proc/[pid]/stat. */
+    private static final int STIME_INDEX = 12;
+
+    public static final ProcessSample ZERO = new ProcessSample(0, 0, 0);
+
+    /**
+     * Returns true if the proc file system is available.
+     */
+    public static boolean isSupported() {
+        return Files.isDirectory(PROC_DIRECTORY.resolve("self"));
+    }
+
+    /**
+     * Reads a sample of the given process and all its descendants. Processes that exit while
+     * they are being read are left out.
+     */
+    public static ProcessSample read(final ProcessHandle handle) throws IOException {
+        return read(pids(handle));
+    }
+
+    /**
+     * Returns the pids of the given process and all its descendants. Finding the descendants
+     * means reading the parent of every process in the system, so this is much slower than
+     * reading a sample.
+     */
+    public static long[] pids(final ProcessHandle handle) {
+        return Stream.concat(Stream.of(handle), handle.descendants()).mapToLong(ProcessHandle::pid).toArray();
+    }
+
+    /**
+     * Reads a sample of the processes with the given pids. Processes that have exited are left out.
+     */
+    public static ProcessSample read(final long[] pids) throws IOException {
+        return read(PROC_DIRECTORY, pids);
+    }
+
+    /**
+     * Reads a sample of the processes with the given pids from the given proc directory.
+     */
+    public static ProcessSample read(final Path procDirectory, final long[] pids) throws IOException {
+        var sample = ZERO;
+        for (final long pid : pids) {
+            try {
+                sample = sample.plus(read(procDirectory.resolve(String.valueOf(pid))));
+            } catch (NoSuchFileException e) {
+                // The process has exited
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Reads a sample of a single process from its directory in the proc file system.
+     */
+    static ProcessSample read(final Path pidDirectory) throws IOException {
+        // The command name may contain spaces, so the fields are counted from the end of the name
+        final var stat = Files.readString(pidDirectory.resolve("stat"));
+        final var fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split("\\s+");
+        final var ticks = Long.parseLong(fields[UTIME_INDEX]) + Long.parseLong(fields[STIME_INDEX]);
+
+        var threads = 0;
+        var rssKb = 0L;
+        for (final var line : Files.readAllLines(pidDirectory.resolve("status"))) {
+            if (line.startsWith("Threads:")) {
+                threads = Integer.parseInt(line.substring("Threads:".length()).trim());
+            } else if (line.startsWith("VmRSS:")) {
+                rssKb = Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+            }
+        }
+        return new ProcessSample(ticks * 1000 / CLOCK_TICKS_PER_SECOND, threads, rssKb);
+    }
+
+    private ProcessSample plus(final ProcessSample other) {
+        return new ProcessSample(cpuMillis + other.cpuMillis, threads + other.threads, rssKb + other.rssKb);
+    }
+}
@@ -16,23 +16,37 @@
 
 package se.dykstrom.cet.engine.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static se.dykstrom.cet.engine.util.StringUtils.EOL;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Contains static utility methods related to process management.
  */
 public final class ProcessUtils {
 
+    private static final System.Logger LOGGER = System.getLogger(ProcessUtils.class.getName());
+
+    /** Time to wait for a process to exit by itself before it is killed. */
+    public static final long EXIT_TIMEOUT_MILLIS = 2_000;
+
+    /** Process tear-downs that have not finished yet. */
+    private static final Set<CompletableFuture<Void>> PENDING_TEAR_DOWNS = ConcurrentHashMap.newKeySet();
+
+    /** The Linux command used to set the CPU affinity of processes. */
+    private static final String TASKSET = "taskset";
+
     private ProcessUtils() { }
 
     /**
@@ -42,71 +56,104 @@ public final class ProcessUtils {
      * @param directory The current directory to execute the command in.
      */
     public static Process setUpProcess(List<String> command, final File directory) throws IOException {
-        final ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).directory(directory);
-        builder.environment().remove("JAVA_TOOL_OPTIONS");
-        return builder.start();
+        return setUpProcess(command, directory, Set.of());
     }
 
     /**
-     * Tears down the given process.
+     * Sets up and returns a new process that executes the given {@code command}, restricted to
+     * the given logical CPUs. The CPU affinity is set with taskset, and is inherited by all
+     * threads and child processes of the new process.
+     *
+     * @param command The command to execute.
+     * @param directory The current directory to execute the command in.
+     * @param cpus The logical CPUs to run on, or an empty set to run on any CPU.
      */
-    public static void tearDownProcess(Process process) {
-        process.destroy();
+    public static Process setUpProcess(List<String> command, final File directory, final Set<Integer> cpus) throws IOException {
+        final var fullCommand = new ArrayList<String>();
+        if (!cpus.isEmpty()) {
+            fullCommand.addAll(List.of(TASKSET, "-c", CpuTopology.format(cpus)));
+        }
+        fullCommand.addAll(command);
+        final ProcessBuilder builder = new ProcessBuilder(fullCommand).directory(directory);
+        builder.environment().remove("JAVA_TOOL_OPTIONS");
+        return builder.start();
     }
 
     /**
-     * Reads all output lines that are available from the given {@code process},
-     * and returns this as a list of strings. This method does not block.
+     * Restricts all threads of the current process to the given logical CPUs.
      *
-     * @param process The process to read from.
-     * @return The process output.
-     * @see #readUntil(Process, String)
+     * @param cpus The logical CPUs to run on.
      */
-    public static List<String> readAllLines(final Process process) throws IOException {
-        final var output = new ArrayList<String>();
-
-        final var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
-        while (reader.ready()) {
-            output.add(reader.readLine());
+    public static void pinCurrentProcess(final Set<Integer> cpus) throws IOException {
+        final var pid = String.valueOf(ProcessHandle.current().pid());
+        final var process = new ProcessBuilder(TASKSET, "-a", "-p", "-c", CpuTopology.format(cpus), pid).redirectErrorStream(true).start();
+        try {
+            final var output = new String(process.getInputStream().readAllBytes(), UTF_8).trim();
+            if (process.waitFor() != 0) {
+                throw new IOException("Cannot set CPU affinity of process " + pid + ": " + output);
+            }
+            LOGGER.log(DEBUG, "Pinned process {0} to CPUs {1}", pid, CpuTopology.format(cpus));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while setting CPU affinity");
         }
-
-        return output;
     }
 
     /**
-     * Reads output lines from the given {@code process} until a line is found that matches the given
-     * {@code regex}. Returns the output as a list of strings. This method blocks until it has read a
-     * line that matches the regex.
+     * Tears down the given process asynchronously. The process is given {@link #EXIT_TIMEOUT_MILLIS}
+     * milliseconds to exit by itself, and is then killed together with all its descendants.
      *
-     * @param process The process to read from.
-     * @param regex The regex to match.
-     * @return The process output.
+     * @param process The process to tear down.
+     * @return A future that completes when the process and its descendants are gone.
      */
-    public static List<String> readUntil(final Process process, final String regex) throws IOException {
-        final var pattern = Pattern.compile(regex);
-        final var output = new ArrayList<String>();
-
-        final var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
-        while (true) {
-            final var line = reader.readLine();
-            output.add(line);
-            if (pattern.matcher(line).find()) {
-                break;
-            }
-        }
-
-        return output;
+    public static CompletableFuture<Void> tearDownProcess(final Process process) {
+        return tearDownProcess(process, EXIT_TIMEOUT_MILLIS);
     }
 
     /**
-     * Writes the given {@code input} string to the given {@code process}.
+     * Tears down the given process asynchronously. The process is given {@code timeoutMillis}
+     * milliseconds to exit by itself, and is then killed together with all its descendants.
      *
-     * @param input The string to write to the process.
-     * @param process The process to write to.
+     * @param process The process to tear down.
+     * @param timeoutMillis The time to wait for the process to exit by itself.
+     * @return A future that completes when the process and its descendants are gone.
+     */
+    public static CompletableFuture<Void> tearDownProcess(final Process process, final long timeoutMillis) {
+        // Descendants must be found before the process exits, because then they are moved to another parent
+        final var descendants = process.descendants().toList();
+        final var future = process.onExit()
+                .completeOnTimeout(process, timeoutMillis, MILLISECONDS)
+                .thenCompose(p -> {
+                    if (p.isAlive()) {
+                        LOGGER.log(WARNING, "Process {0} did not exit within {1} ms, killing it", String.valueOf(p.pid()), timeoutMillis);
+                        p.destroyForcibly();
+                    }
+                    descendants.stream()
+                               .filter(ProcessHandle::isAlive)
+                               .forEach(handle -> {
+                                   LOGGER.log(WARNING, "Killing process {0}, left behind by process {1}", String.valueOf(handle.pid()), String.valueOf(p.pid()));
+                                   handle.destroyForcibly();
+                               });
+                    return p.onExit();
+                })
+                .thenAccept(p -> LOGGER.log(DEBUG, "Process {0} exited with code {1}", String.valueOf(p.pid()), p.exitValue()));
+        PENDING_TEAR_DOWNS.add(future);
+        future.whenComplete((result, throwable) -> PENDING_TEAR_DOWNS.remove(future));
+        return future;
+    }
+
+    /**
+     * Waits for all process tear-downs that have been started, but not finished yet.
+     * This method should be called before the application exits, to make sure that
+     * no processes are left running.
      */
-    public static void writeToProcess(String input, Process process) throws IOException {
-        final var writer = new OutputStreamWriter(process.getOutputStream(), UTF_8);
-        writer.write(input + EOL);
-        writer.flush();
+    public static void awaitTearDowns() {
+        try {
+            CompletableFuture.allOf(PENDING_TEAR_DOWNS.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            LOGGER.log(WARNING, "Failed to tear down process: {0}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+/**
+ * Search statistics summed over the moves an engine has made, taken from the last
+ * line of thinking output the engine printed before each move.
+ *
+ * @param moves Number of moves that were preceded by thinking output.
+ * @param nodes Total number of nodes searched.
+ * @param centis Total search time, in centiseconds.
+ */
+public record SearchStatistics(long moves, long nodes, long centis) {
+
+    public static final SearchStatistics ZERO = new SearchStatistics(0, 0, 0);
+
+    /**
+     * Returns these statistics, with one more move that searched {@code nodes} nodes
+     * in {@code centis} centiseconds.
+     */
+    public SearchStatistics plus(final long nodes, final long centis) {
+        return new SearchStatistics(moves + 1, this.nodes + nodes, this.centis + centis);
+    }
+
+    /**
+     * Returns the sum of these statistics and {@code other}.
+     */
+    public SearchStatistics plus(final SearchStatistics other) {
+        return new SearchStatistics(moves + other.moves, nodes + other.nodes, centis + other.centis);
+    }
+
+    /**
+     * Returns the statistics since {@code before}.
+     */
+    public SearchStatistics minus(final SearchStatistics before) {
+        return new SearchStatistics(moves - before.moves, nodes - before.nodes, centis - before.centis);
+    }
+
+    /**
+     * Returns the average number of nodes searched per second, or 0 if no search time has been recorded.
+     */
+    public long nps() {
+        return centis > 0 ? nodes * 100 / centis : 0;
+    }
+}
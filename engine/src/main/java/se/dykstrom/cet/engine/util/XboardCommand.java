@@ -20,20 +20,25 @@ public enum XboardCommand {
 
     ACCEPTED("accepted"),
     COMPUTER("computer"),
+    CORES("cores"),
     EASY("easy"),
     FORCE("force"),
     GO("go"),
     LEVEL("level"),
+    MEMORY("memory"),
     NAME("name"),
     NEW("new"),
+    OPTION("option"),
     OTIM("otim"),
     PLAYOTHER("playother"),
+    POST("post"),
     PROTOVER("protover"),
     QUIT("quit"),
     RANDOM("random"),
     REJECTED("rejected"),
     REMOVE("remove"),
     RESULT("result"),
+    SETBOARD("setboard"),
     TIME("time"),
     USERMOVE("usermove"),
     XBOARD("xboard");
@@ -21,6 +21,9 @@ import java.io.ByteArrayInputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.engine.util.SearchStatistics;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -147,4 +150,104 @@ class ParserTest {
         // Then
         assertEquals(new Result(code, text), response);
     }
+
+    @Test
+    void shouldSumSearchStatisticsOfLastThinkingLineBeforeEachMove() throws Exception {
+        // Given
+        final var output = " 1    12      0       21 e2e4" + EOL +
+                           " 2     5      1      120 e2e4 e7e5" + EOL +
+                           "move e2e4" + EOL +
+                           " 1   -10     50   300000 d7d5" + EOL +
+                           "move d7d5" + EOL +
+                           "move a2a3" + EOL;
+        final var in = new ByteArrayInputStream(output.getBytes(UTF_8));
+
+        // When
+        final var parser = new Parser(in);
+        final var first = parser.next();
+        final var second = parser.next();
+        final var third = parser.next();
+
+        // Then
+        assertEquals(new Move("e2e4"), first);
+        assertEquals(new Move("d7d5"), second);
+        assertEquals(new Move("a2a3"), third);
+        assertEquals(new SearchStatistics(2, 300120, 51), parser.searchStatistics());
+        assertEquals(588470, parser.searchStatistics().nps());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1 2 3", "1 - 2 3 4", "1 2 3 4x", "-1 2 3 4", "1 2 3 4.5"})
+    void shouldIgnoreLinesThatAreNotThinkingOutput(final String line) throws Exception {
+        // Given
+        final var output = line + EOL + "move e2e4" + EOL;
+        final var in = new ByteArrayInputStream(output.getBytes(UTF_8));
+
+        // When
+        final var parser = new Parser(in);
+        final var response = parser.next();
+
+        // Then
+        assertEquals(new Move("e2e4"), response);
+        assertEquals(SearchStatistics.ZERO, parser.searchStatistics());
+        assertEquals(EngineProcess.NO_SCORE, parser.lastScore());
+    }
+
+    @Test
+    void shouldParseThinkingOutputSeparatedByTabs() throws Exception {
+        // Given
+        final var output = "\t3\t-45\t7\t1500" + EOL + "move e2e4 " + EOL;
+        final var in = new ByteArrayInputStream(output.getBytes(UTF_8));
+
+        // When
+        final var parser = new Parser(in);
+        final var response = parser.next();
+
+        // Then
+        assertEquals(new Move("e2e4"), response);
+        assertEquals(new SearchStatistics(1, 1500, 7), parser.searchStatistics());
+        assertEquals(-45, parser.lastScore());
+    }
+
+    @Test
+    void shouldRememberScoreOfLastMove() throws Exception {
+        // Given
+        final var output = " 1    12      0       21 e2e4" + EOL +
+                           " 2     5      1      120 e2e4 e7e5" + EOL +
+                           "move e2e4" + EOL +
+                           "move d7d5" + EOL;
+        final var in = new ByteArrayInputStream(output.getBytes(UTF_8));
+
+        // When
+        final var parser = new Parser(in);
+        parser.next();
+        final var scoreAfterFirstMove = parser.lastScore();
+        parser.next();
+
+        // Then
+        assertEquals(5, scoreAfterFirstMove);
+        assertEquals(EngineProcess.NO_SCORE, parser.lastScore());
+    }
+
+    @Test
+    void shouldRememberWhenLineOfLastResponseWasRead() throws Exception {
+        // Given
+        final var output = "move e2e4" + EOL + "move d7d5" + EOL;
+        final var in = new ByteArrayInputStream(output.getBytes(UTF_8));
+        final var parser = new Parser(in);
+
+        // When
+        final var beforeFirst = System.nanoTime();
+        parser.hasNext();
+        final var afterFirst = System.nanoTime();
+        parser.next();
+        final var firstLineNanos = parser.lastLineNanos();
+        final var beforeSecond = System.nanoTime();
+        parser.next();
+        final var secondLineNanos = parser.lastLineNanos();
+
+        // Then
+        assertTrue(firstLineNanos - beforeFirst >= 0 && afterFirst - firstLineNanos >= 0);
+        assertTrue(secondLineNanos - beforeSecond >= 0);
+    }
 }
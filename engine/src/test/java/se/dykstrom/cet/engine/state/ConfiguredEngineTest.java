@@ -18,14 +18,23 @@ package se.dykstrom.cet.engine.state;
 
 import java.io.File;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import se.dykstrom.cet.engine.config.EngineConfig;
+import se.dykstrom.cet.engine.exception.EngineException;
 import se.dykstrom.cet.engine.util.EngineFeatures;
 import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.engine.util.ProcessLimits;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.dykstrom.cet.engine.util.XboardCommand.ACCEPTED;
@@ -42,7 +51,6 @@ class ConfiguredEngineTest {
     private static final EngineFeatures FEATURES_FOO = EngineFeatures.builder().myName("foo").userMove("1").build();
     private static final EngineFeatures FEATURES_BAR = EngineFeatures.builder().myName("bar").userMove("1").build();
 
-    private static final String DONE_REGEX = "done=1";
     private static final String FEATURE_DONE_0 = "feature done=0";
     private static final String FEATURE_DONE_1 = "feature done=1";
     private static final String FEATURE_MY_NAME_FOO = "feature myname=foo";
@@ -61,8 +69,8 @@ class ConfiguredEngineTest {
     void shouldLoadEngine() {
         // Given
         final var configuredEngine = new ConfiguredEngine(CONFIG, unloadedProcessMock);
-        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY)).thenReturn(loadedProcessMock);
-        when(loadedProcessMock.readUntil(DONE_REGEX)).thenReturn(FEATURE_RESPONSE_NORMAL);
+        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        setUpResponse(FEATURE_RESPONSE_NORMAL);
 
         // When
         final IdlingEngine idlingEngine = configuredEngine.load();
@@ -71,19 +79,19 @@ class ConfiguredEngineTest {
         assertEquals(CONFIG, idlingEngine.engineConfig());
         assertEquals(FEATURES_FOO, idlingEngine.features());
         assertEquals(loadedProcessMock, idlingEngine.process());
-        verify(unloadedProcessMock).startUp(ID, OS_COMMAND, DIRECTORY);
+        verify(unloadedProcessMock).startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE);
         verify(loadedProcessMock).sendCommand(XBOARD);
         verify(loadedProcessMock).sendCommand(PROTOVER, 2);
         verify(loadedProcessMock).sendCommand(FORCE);
-        verify(loadedProcessMock).readUntil(DONE_REGEX);
+        verify(loadedProcessMock, times(3)).readLine(anyLong());
     }
 
     @Test
     void shouldLoadEngineWithMultipleFeaturesPerCommand() {
         // Given
         final var configuredEngine = new ConfiguredEngine(CONFIG, unloadedProcessMock);
-        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY)).thenReturn(loadedProcessMock);
-        when(loadedProcessMock.readUntil(DONE_REGEX)).thenReturn(FEATURE_RESPONSE_MULTI);
+        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        setUpResponse(FEATURE_RESPONSE_MULTI);
 
         // When
         final IdlingEngine idlingEngine = configuredEngine.load();
@@ -101,8 +109,8 @@ class ConfiguredEngineTest {
     void shouldLoadEngineWithFeatureDone0() {
         // Given
         final var configuredEngine = new ConfiguredEngine(CONFIG, unloadedProcessMock);
-        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY)).thenReturn(loadedProcessMock);
-        when(loadedProcessMock.readUntil(DONE_REGEX)).thenReturn(FEATURE_RESPONSE_DELAYED);
+        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        setUpResponse(FEATURE_RESPONSE_DELAYED);
 
         // When
         final IdlingEngine idlingEngine = configuredEngine.load();
@@ -111,10 +119,99 @@ class ConfiguredEngineTest {
         assertEquals(CONFIG, idlingEngine.engineConfig());
         assertEquals(FEATURES_BAR, idlingEngine.features());
         assertEquals(loadedProcessMock, idlingEngine.process());
-        verify(unloadedProcessMock).startUp(ID, OS_COMMAND, DIRECTORY);
+        verify(unloadedProcessMock).startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE);
         verify(loadedProcessMock).sendCommand(XBOARD);
         verify(loadedProcessMock).sendCommand(PROTOVER, 2);
         verify(loadedProcessMock).sendCommand(FORCE);
-        verify(loadedProcessMock).readUntil(DONE_REGEX);
+        verify(loadedProcessMock, times(4)).readLine(anyLong());
+    }
+
+    @Test
+    void shouldLoadEngineWithResourceFeatures() {
+        // Given
+        final var configuredEngine = new ConfiguredEngine(CONFIG, unloadedProcessMock);
+        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        setUpResponse(List.of("feature memory=1 smp=1 option=\"Ponder -check 1\"",
+                              "feature option=\"Clear Hash -button\"",
+                              FEATURE_DONE_1));
+
+        // When
+        final IdlingEngine idlingEngine = configuredEngine.load();
+
+        // Then
+        assertTrue(idlingEngine.features().memory());
+        assertTrue(idlingEngine.features().smp());
+        assertEquals(Set.of("Ponder", "Clear Hash"), idlingEngine.features().options());
+        verify(loadedProcessMock).sendCommand(ACCEPTED, "memory");
+        verify(loadedProcessMock).sendCommand(ACCEPTED, "option");
+        verify(loadedProcessMock).sendCommand(ACCEPTED, "smp");
+    }
+
+    @Test
+    void shouldFallBackToProtocolVersion1() {
+        // Given
+        final var config = new EngineConfig(ID, "protocol1.sh", DIRECTORY);
+        final var configuredEngine = new ConfiguredEngine(config, unloadedProcessMock);
+        when(unloadedProcessMock.startUp(ID, "protocol1.sh", DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        when(loadedProcessMock.readLine(anyLong())).thenReturn("Error (unknown command): protover", (String) null);
+
+        // When
+        final IdlingEngine idlingEngine = configuredEngine.load();
+
+        // Then
+        assertEquals("protocol1", idlingEngine.myName());
+        assertFalse(idlingEngine.features().userMove());
+    }
+
+    @Test
+    void shouldUseCachedFeaturesOfProtocolVersion1Engine() {
+        // Given
+        final var config = new EngineConfig(ID, "cached.sh", DIRECTORY);
+        final var otherLoadedProcessMock = mock(EngineProcess.class);
+        when(unloadedProcessMock.startUp(ID, "cached.sh", DIRECTORY, ProcessLimits.NONE))
+                .thenReturn(loadedProcessMock, loadedProcessMock, otherLoadedProcessMock);
+        new ConfiguredEngine(config, unloadedProcessMock).load();
+        new ConfiguredEngine(config, unloadedProcessMock).load();
+
+        // When
+        final IdlingEngine idlingEngine = new ConfiguredEngine(config, unloadedProcessMock).load();
+
+        // Then
+        assertEquals("cached", idlingEngine.myName());
+        assertEquals(otherLoadedProcessMock, idlingEngine.process());
+        verify(otherLoadedProcessMock, never()).readLine(anyLong());
+    }
+
+    @Test
+    void shouldNegotiateAgainWithEngineThatWasSlowToStart() {
+        // Given
+        final var config = new EngineConfig(ID, "slow.sh", DIRECTORY);
+        final var otherLoadedProcessMock = mock(EngineProcess.class);
+        when(unloadedProcessMock.startUp(ID, "slow.sh", DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock, otherLoadedProcessMock);
+        when(otherLoadedProcessMock.readLine(anyLong())).thenReturn(FEATURE_MULTI);
+        new ConfiguredEngine(config, unloadedProcessMock).load();
+
+        // When
+        final IdlingEngine idlingEngine = new ConfiguredEngine(config, unloadedProcessMock).load();
+
+        // Then
+        assertEquals(FEATURES_FOO, idlingEngine.features());
+        verify(otherLoadedProcessMock).sendCommand(ACCEPTED, "myname");
+    }
+
+    @Test
+    void shouldFailIfFeatureDone1NeverArrives() {
+        // Given
+        final var configuredEngine = new ConfiguredEngine(CONFIG, unloadedProcessMock);
+        when(unloadedProcessMock.startUp(ID, OS_COMMAND, DIRECTORY, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
+        when(loadedProcessMock.readLine(anyLong())).thenReturn(FEATURE_DONE_0, (String) null);
+
+        // When & Then
+        assertThrows(EngineException.class, configuredEngine::load);
+        verify(loadedProcessMock).shutDown();
+    }
+
+    private void setUpResponse(final List<String> lines) {
+        when(loadedProcessMock.readLine(anyLong())).thenReturn(lines.getFirst(), lines.subList(1, lines.size()).toArray(String[]::new));
     }
 }
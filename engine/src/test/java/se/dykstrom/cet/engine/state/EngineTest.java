@@ -16,15 +16,15 @@
 
 package se.dykstrom.cet.engine.state;
 
-import java.util.List;
-
 import org.junit.jupiter.api.Test;
 import se.dykstrom.cet.engine.time.IncrementalTimeControl;
 import se.dykstrom.cet.engine.config.EngineConfig;
 import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.engine.util.ProcessLimits;
 import se.dykstrom.cet.engine.config.GameConfig;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,7 +34,7 @@ class EngineTest {
     private static final int ID = 17;
     private static final String COMMAND = "engine.sh";
     private static final EngineConfig CONFIG = new EngineConfig(ID, COMMAND, null);
-    private static final List<String> FEATURE_DONE = List.of("feature done=1");
+    private static final String FEATURE_DONE = "feature done=1";
 
     private final EngineProcess unloadedProcessMock = mock(EngineProcess.class);
     private final EngineProcess loadedProcessMock = mock(EngineProcess.class);
@@ -42,9 +42,9 @@ class EngineTest {
 
     @Test
     void shouldPerformEntireLifeCycle() {
-        when(unloadedProcessMock.startUp(ID, COMMAND, null)).thenReturn(loadedProcessMock);
+        when(unloadedProcessMock.startUp(ID, COMMAND, null, ProcessLimits.NONE)).thenReturn(loadedProcessMock);
         when(loadedProcessMock.shutDown()).thenReturn(unloadedProcessMock);
-        when(loadedProcessMock.readUntil("feature done")).thenReturn(FEATURE_DONE);
+        when(loadedProcessMock.readLine(anyLong())).thenReturn(FEATURE_DONE);
         when(gameConfigMock.timeControl()).thenReturn(new IncrementalTimeControl(1, 0, 5));
 
         final var createdEngine = new CreatedEngine(unloadedProcessMock);
@@ -70,7 +70,7 @@ class EngineTest {
         assertEquals(CONFIG, onceAgainConfiguredEngine.config());
         assertEquals(unloadedProcessMock, onceAgainConfiguredEngine.process());
 
-        verify(unloadedProcessMock).startUp(ID, COMMAND, null);
+        verify(unloadedProcessMock).startUp(ID, COMMAND, null, ProcessLimits.NONE);
         verify(loadedProcessMock).shutDown();
     }
 }
@@ -43,7 +43,7 @@ class ForcedEngineIT {
 
     private static final int ID = 17;
     private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40, 0, 20);
-    private static final GameConfig GAME_CONFIG = new GameConfig(ENGINE_1_NAME, ENGINE_2_NAME, TIME_CONTROL);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white(ENGINE_1_NAME).black(ENGINE_2_NAME).timeControl(TIME_CONTROL).build();
 
     @Test
     @DisabledOnOs(OS.WINDOWS)
@@ -40,7 +40,7 @@ class IdlingEngineIT {
 
     private static final int ID = 17;
     private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40, 1, 0);
-    private static final GameConfig GAME_CONFIG = new GameConfig(ENGINE_1_NAME, ENGINE_2_NAME, TIME_CONTROL);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white(ENGINE_1_NAME).black(ENGINE_2_NAME).timeControl(TIME_CONTROL).build();
 
     @Test
     @DisabledOnOs(OS.WINDOWS)
@@ -16,6 +16,9 @@
 
 package se.dykstrom.cet.engine.state;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 import se.dykstrom.cet.engine.time.ClassicTimeControl;
 import se.dykstrom.cet.engine.time.TimeControl;
@@ -25,15 +28,22 @@ import se.dykstrom.cet.engine.util.EngineProcess;
 import se.dykstrom.cet.engine.config.GameConfig;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static se.dykstrom.cet.engine.util.XboardCommand.COMPUTER;
+import static se.dykstrom.cet.engine.util.XboardCommand.CORES;
 import static se.dykstrom.cet.engine.util.XboardCommand.FORCE;
 import static se.dykstrom.cet.engine.util.XboardCommand.LEVEL;
+import static se.dykstrom.cet.engine.util.XboardCommand.MEMORY;
 import static se.dykstrom.cet.engine.util.XboardCommand.NAME;
 import static se.dykstrom.cet.engine.util.XboardCommand.NEW;
+import static se.dykstrom.cet.engine.util.XboardCommand.OPTION;
+import static se.dykstrom.cet.engine.util.XboardCommand.POST;
 import static se.dykstrom.cet.engine.util.XboardCommand.QUIT;
+import static se.dykstrom.cet.engine.util.XboardCommand.SETBOARD;
 
 class IdlingEngineTest {
 
@@ -42,6 +52,7 @@ class IdlingEngineTest {
     private static final String OPPONENT = "name of opponent";
     private static final EngineFeatures FEATURES = EngineFeatures.builder().myName(MY_NAME).name("1").build();
     private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40,5, 10);
+    private static final String FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
 
     private final EngineProcess unloadedProcessMock = mock(EngineProcess.class);
     private final EngineProcess loadedProcessMock = mock(EngineProcess.class);
@@ -63,12 +74,70 @@ class IdlingEngineTest {
         assertEquals(FEATURES, forcedEngine.features());
         assertEquals(loadedProcessMock, forcedEngine.process());
         verify(loadedProcessMock).sendCommand(NEW);
+        verify(loadedProcessMock).sendCommand(POST);
         verify(loadedProcessMock).sendCommand(FORCE);
         verify(loadedProcessMock).sendCommand(COMPUTER);
         verify(loadedProcessMock).sendCommand(NAME, OPPONENT);
         verify(loadedProcessMock).sendCommand(LEVEL, 40, "5:10", 0);
     }
 
+    @Test
+    void shouldSendResourceCommands() {
+        // Given
+        final var config = new EngineConfig(17, "engine.sh", null, 256, 4, Map.of("Ponder", "false", "Clear Hash", ""));
+        final var features = EngineFeatures.builder().myName(MY_NAME).memory("1").smp("1").options(List.of("Ponder", "Clear Hash")).build();
+        final var idlingEngine = new IdlingEngine(config, features, loadedProcessMock);
+
+        // When
+        idlingEngine.start(GameConfig.builder().white(OPPONENT).black(MY_NAME).timeControl(TIME_CONTROL).build());
+
+        // Then
+        verify(loadedProcessMock).sendCommand(MEMORY, 256);
+        verify(loadedProcessMock).sendCommand(CORES, 4);
+        verify(loadedProcessMock).sendCommand(OPTION, "Ponder=false");
+        verify(loadedProcessMock).sendCommand(OPTION, "Clear Hash");
+    }
+
+    @Test
+    void shouldNotSendUnsupportedResourceCommands() {
+        // Given
+        final var config = new EngineConfig(17, "engine.sh", null, 256, 4, Map.of("Ponder", "false"));
+        final var features = EngineFeatures.builder().myName(MY_NAME).build();
+        final var idlingEngine = new IdlingEngine(config, features, loadedProcessMock);
+
+        // When
+        idlingEngine.start(GameConfig.builder().white(OPPONENT).black(MY_NAME).timeControl(TIME_CONTROL).build());
+
+        // Then
+        verify(loadedProcessMock, never()).sendCommand(MEMORY, 256);
+        verify(loadedProcessMock, never()).sendCommand(CORES, 4);
+        verify(loadedProcessMock, never()).sendCommand(OPTION, "Ponder=false");
+    }
+
+    @Test
+    void shouldStartEngineFromPosition() {
+        // Given
+        final var features = EngineFeatures.builder().myName(MY_NAME).setBoard("1").build();
+        final var idlingEngine = new IdlingEngine(CONFIG, features, loadedProcessMock);
+
+        // When
+        idlingEngine.start(GameConfig.builder().white(OPPONENT).black(MY_NAME).timeControl(TIME_CONTROL).fen(FEN).build());
+
+        // Then
+        verify(loadedProcessMock).sendCommand(FORCE);
+        verify(loadedProcessMock).sendCommand(SETBOARD, FEN);
+    }
+
+    @Test
+    void shouldNotStartEngineFromPositionWithoutSetBoard() {
+        // Given
+        final var idlingEngine = new IdlingEngine(CONFIG, FEATURES, loadedProcessMock);
+        final var gameConfig = GameConfig.builder().white(OPPONENT).black(MY_NAME).timeControl(TIME_CONTROL).fen(FEN).build();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> idlingEngine.start(gameConfig));
+    }
+
     @Test
     void shouldUnloadEngine() {
         // Given
@@ -84,4 +153,20 @@ class IdlingEngineTest {
         verify(loadedProcessMock).sendCommand(QUIT);
         verify(loadedProcessMock).shutDown();
     }
+
+    @Test
+    void shouldUnloadCrashedEngineWithoutQuit() {
+        // Given
+        final var idlingEngine = new IdlingEngine(CONFIG, FEATURES, loadedProcessMock);
+        when(loadedProcessMock.hasCrashed()).thenReturn(true);
+        when(loadedProcessMock.shutDown()).thenReturn(unloadedProcessMock);
+
+        // When
+        final ConfiguredEngine configuredEngine = idlingEngine.unload();
+
+        // Then
+        assertEquals(unloadedProcessMock, configuredEngine.process());
+        verify(loadedProcessMock, never()).sendCommand(QUIT);
+        verify(loadedProcessMock).shutDown();
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CgroupIT {
+
+    @Test
+    void shouldCreateGroupWithLimits() throws Exception {
+        // Given
+        final var parent = Files.createTempDirectory(null);
+        parent.toFile().deleteOnExit();
+
+        // When
+        final var cgroup = Cgroup.create(parent, "engine", 2, 512 * 1024 * 1024);
+
+        // Then
+        assertEquals(parent.resolve("engine"), cgroup.directory());
+        assertEquals("200000 100000", Files.readString(cgroup.directory().resolve("cpu.max")));
+        assertEquals("536870912", Files.readString(cgroup.directory().resolve("memory.max")));
+        assertEquals("+cpu +memory", Files.readString(parent.resolve("cgroup.subtree_control")));
+    }
+
+    @Test
+    void shouldEnableCpuControllerIfOnlyCpusetIsEnabled() throws Exception {
+        // Given
+        final var parent = Files.createTempDirectory(null);
+        parent.toFile().deleteOnExit();
+        Files.writeString(parent.resolve("cgroup.subtree_control"), "cpuset memory\n");
+
+        // When
+        Cgroup.create(parent, "engine", 1, 0);
+
+        // Then
+        assertEquals("+cpu +memory", Files.readString(parent.resolve("cgroup.subtree_control")));
+    }
+
+    @Test
+    void shouldNotEnableControllersThatAreAlreadyEnabled() throws Exception {
+        // Given
+        final var parent = Files.createTempDirectory(null);
+        parent.toFile().deleteOnExit();
+        Files.writeString(parent.resolve("cgroup.subtree_control"), "cpuset cpu io memory\n");
+
+        // When
+        Cgroup.create(parent, "engine", 1, 0);
+
+        // Then
+        assertEquals("cpuset cpu io memory\n", Files.readString(parent.resolve("cgroup.subtree_control")));
+    }
+
+    @Test
+    void shouldNotLimitMemoryIfNoLimitIsGiven() throws Exception {
+        // Given
+        final var parent = Files.createTempDirectory(null);
+        parent.toFile().deleteOnExit();
+
+        // When
+        final var cgroup = Cgroup.create(parent, "engine", 1, 0);
+
+        // Then
+        assertEquals("max", Files.readString(cgroup.directory().resolve("memory.max")));
+    }
+
+    @Test
+    void shouldNotLimitCpuIfNoLimitIsGiven() throws Exception {
+        // Given
+        final var parent = Files.createTempDirectory(null);
+        parent.toFile().deleteOnExit();
+
+        // When
+        final var cgroup = Cgroup.create(parent, "engine", 0, 0);
+
+        // Then
+        assertEquals("max 100000", Files.readString(cgroup.directory().resolve("cpu.max")));
+    }
+
+    @Test
+    void shouldReadUsage() throws Exception {
+        // Given
+        final var directory = Files.createTempDirectory(null);
+        directory.toFile().deleteOnExit();
+        Files.write(directory.resolve("cpu.stat"), List.of("usage_usec 1500000", "user_usec 1400000", "nr_periods 30", "nr_throttled 2"));
+        Files.write(directory.resolve("memory.events"), List.of("low 0", "high 0", "max 1", "oom 0", "oom_kill 0"));
+
+        // When
+        final var usage = new Cgroup(directory).usage();
+
+        // Then
+        assertEquals(new CgroupUsage(1_500_000, 2, 1, 0), usage);
+        assertTrue(usage.exceededLimits());
+        assertFalse(usage.minus(usage).exceededLimits());
+    }
+
+    @Test
+    void shouldMoveWrappedCommandIntoGroup() throws Exception {
+        // Given
+        final var directory = Files.createTempDirectory(null);
+        directory.toFile().deleteOnExit();
+        final var cgroup = new Cgroup(directory);
+
+        // When
+        final var process = new ProcessBuilder(cgroup.wrap(List.of("sh", "-c", "echo $$"))).start();
+        final var pid = new String(process.getInputStream().readAllBytes()).trim();
+        process.waitFor();
+
+        // Then
+        assertEquals(pid, Files.readString(directory.resolve("cgroup.procs")).trim());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CpuLayoutTest {
+
+    private static final CpuTopology TOPOLOGY = new CpuTopology(List.of(
+            new CpuTopology.Core(0, Set.of(0, 8)),
+            new CpuTopology.Core(0, Set.of(1, 9)),
+            new CpuTopology.Core(0, Set.of(2, 10)),
+            new CpuTopology.Core(0, Set.of(3, 11)),
+            new CpuTopology.Core(4, Set.of(4, 12)),
+            new CpuTopology.Core(4, Set.of(5, 13)),
+            new CpuTopology.Core(4, Set.of(6, 14)),
+            new CpuTopology.Core(4, Set.of(7, 15))
+    ));
+
+    @Test
+    void shouldReserveFirstCoreForTester() {
+        // When
+        final var layout = CpuLayout.of(TOPOLOGY, 1);
+
+        // Then
+        assertEquals(Set.of(0, 8), layout.reserved());
+        assertEquals(List.of(Set.of(1, 9, 2, 10, 3, 11, 4, 12, 5, 13, 6, 14, 7, 15)), layout.slots());
+    }
+
+    @Test
+    void shouldDivideRemainingCoresBetweenSlots() {
+        // When
+        final var layout = CpuLayout.of(TOPOLOGY, 3);
+
+        // Then
+        assertEquals(List.of(Set.of(1, 9, 2, 10), Set.of(3, 11, 4, 12), Set.of(5, 13, 6, 14)), layout.slots());
+    }
+
+    @Test
+    void shouldNotAllowMoreSlotsThanCores() {
+        assertThrows(IllegalArgumentException.class, () -> CpuLayout.of(TOPOLOGY, 8));
+    }
+}
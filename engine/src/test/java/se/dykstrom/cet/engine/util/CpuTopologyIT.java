@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CpuTopologyIT {
+
+    @Test
+    void shouldReadTopologyWithSmtAndTwoCacheDomains() throws Exception {
+        // Given
+        final var directory = Files.createTempDirectory(null);
+        directory.toFile().deleteOnExit();
+        Files.writeString(directory.resolve("online"), "0-7\n");
+        // Two L3 domains with two cores each, and two threads per core
+        writeCpu(directory, 0, "0,4", "0-1,4-5");
+        writeCpu(directory, 1, "1,5", "0-1,4-5");
+        writeCpu(directory, 2, "2,6", "2-3,6-7");
+        writeCpu(directory, 3, "3,7", "2-3,6-7");
+        writeCpu(directory, 4, "0,4", "0-1,4-5");
+        writeCpu(directory, 5, "1,5", "0-1,4-5");
+        writeCpu(directory, 6, "2,6", "2-3,6-7");
+        writeCpu(directory, 7, "3,7", "2-3,6-7");
+
+        // When
+        final var topology = CpuTopology.read(directory);
+
+        // Then
+        assertEquals(List.of(new CpuTopology.Core(0, Set.of(0, 4)),
+                             new CpuTopology.Core(0, Set.of(1, 5)),
+                             new CpuTopology.Core(2, Set.of(2, 6)),
+                             new CpuTopology.Core(2, Set.of(3, 7))), topology.cores());
+    }
+
+    @Test
+    void shouldParseAndFormatCpuLists() {
+        assertEquals(Set.of(0, 1, 2, 3, 8, 10, 11), CpuTopology.parse("0-3,8,10-11\n"));
+        assertEquals("0,1,5", CpuTopology.format(Set.of(5, 0, 1)));
+    }
+
+    private static void writeCpu(final Path directory, final int cpu, final String siblings, final String l3) throws IOException {
+        final var topology = Files.createDirectories(directory.resolve("cpu" + cpu + "/topology"));
+        final var cache = Files.createDirectories(directory.resolve("cpu" + cpu + "/cache/index3"));
+        Files.writeString(topology.resolve("thread_siblings_list"), siblings + "\n");
+        Files.writeString(topology.resolve("physical_package_id"), "0\n");
+        Files.writeString(cache.resolve("shared_cpu_list"), l3 + "\n");
+    }
+}
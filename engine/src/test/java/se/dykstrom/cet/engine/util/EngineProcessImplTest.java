@@ -20,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import se.dykstrom.cet.engine.parser.Move;
 
@@ -33,6 +34,11 @@ class EngineProcessImplTest {
 
     private final Process processMock = mock(Process.class);
 
+    @BeforeEach
+    void setUp() {
+        when(processMock.getErrorStream()).thenReturn(InputStream.nullInputStream());
+    }
+
     @Test
     void shouldReadAllLinesOfEmptyOutput() {
         // Given
@@ -92,4 +98,40 @@ class EngineProcessImplTest {
         // Then
         assertEquals("g1f3", move.text());
     }
+
+    @Test
+    void shouldReadUntilAfterReadingResponse() {
+        // Given
+        final var output = "move g1f3" + EOL + "feature done=1" + EOL;
+        final InputStream in = new ByteArrayInputStream(output.getBytes(UTF_8));
+        when(processMock.getInputStream()).thenReturn(in);
+
+        // When
+        final var engineProcess = new EngineProcessImpl(0, processMock);
+        final var move = engineProcess.read(Move.class);
+        final var lines = engineProcess.readUntil("done=1");
+
+        // Then
+        assertEquals("g1f3", move.text());
+        assertEquals(List.of("feature done=1"), lines);
+    }
+
+    @Test
+    void shouldKeepStandardErrorSeparate() throws Exception {
+        // Given
+        final var output = "move g1f3" + EOL;
+        final var error = "one" + EOL + "two" + EOL;
+        when(processMock.getInputStream()).thenReturn(new ByteArrayInputStream(output.getBytes(UTF_8)));
+        when(processMock.getErrorStream()).thenReturn(new ByteArrayInputStream(error.getBytes(UTF_8)));
+
+        // When
+        final var engineProcess = new EngineProcessImpl(0, processMock);
+        final var lines = engineProcess.readAllLines();
+        // Give the stderr thread some time to finish
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(List.of("move g1f3"), lines);
+        assertEquals(List.of("one", "two"), engineProcess.errorOutput());
+    }
 }
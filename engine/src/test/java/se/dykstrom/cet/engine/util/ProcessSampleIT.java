@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessSampleIT {
+
+    @Test
+    void shouldReadSampleFromProcFiles() throws Exception {
+        // Given
+        final var directory = Files.createTempDirectory(null);
+        directory.toFile().deleteOnExit();
+        Files.writeString(directory.resolve("stat"),
+                "4711 (my engine) S 1 4711 4711 0 -1 4194304 1000 0 0 0 250 50 0 0 20 0 4 0 100 1000000 2000 18446744073709551615");
+        Files.write(directory.resolve("status"), List.of("Name:\tmy engine", "VmHWM:\t  9000 kB", "VmRSS:\t  8000 kB", "Threads:\t4"));
+
+        // When
+        final var sample = ProcessSample.read(directory);
+
+        // Then
+        assertEquals(new ProcessSample(3000, 4, 8000), sample);
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void shouldReadSampleOfCurrentProcess() throws Exception {
+        // When
+        final var sample = ProcessSample.read(ProcessHandle.current());
+
+        // Then
+        assertTrue(sample.threads() > 1);
+        assertTrue(sample.rssKb() > 0);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.engine.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessUtilsIT {
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldTearDownProcessThatExits() throws Exception {
+        // Given
+        final var process = ProcessUtils.setUpProcess(List.of("true"), null);
+
+        // When
+        ProcessUtils.tearDownProcess(process, 5_000).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(process.isAlive());
+        assertEquals(0, process.exitValue());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldKillProcessAndDescendantsThatDoNotExit() throws Exception {
+        // Given
+        final var process = ProcessUtils.setUpProcess(List.of("sh", "-c", "sleep 60 & sleep 60"), null);
+        // Give the shell some time to start its children
+        Thread.sleep(500);
+        final var descendants = process.descendants().toList();
+        assertTrue(descendants.size() >= 1);
+
+        // When
+        ProcessUtils.tearDownProcess(process, 100).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(process.isAlive());
+        for (final var handle : descendants) {
+            handle.onExit().get(5, TimeUnit.SECONDS);
+            assertFalse(handle.isAlive());
+        }
+    }
+}
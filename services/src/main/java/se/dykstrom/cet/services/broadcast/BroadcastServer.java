@@ -0,0 +1,335 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.broadcast;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.services.event.Backpressure;
+import se.dykstrom.cet.services.event.GameEvent;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.util.GameListener;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An HTTP endpoint that broadcasts the games in progress as server-sent events on path {@code /events},
+ * and serves a page that displays them on path {@code /}. The server listens on all network interfaces,
+ * so the games can be watched from another host.
+ * <p>
+ * The server is a game listener that wants move events. The events are sent as:
+ * <ul>
+ *     <li>{@code game} when a game starts, with the current state of the game.</li>
+ *     <li>{@code move} after each ply, with the new state of the game.</li>
+ *     <li>{@code end} when a game ends, with the result.</li>
+ * </ul>
+ * A client that connects sends a {@code game} event for each game in progress first, so it
+ * does not have to wait for the next move. Each client has a bounded queue. A client that cannot
+ * keep up is disconnected, and gets a new snapshot when it reconnects.
+ */
+public class BroadcastServer implements GameListener, Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(BroadcastServer.class.getName());
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final int CLIENT_CAPACITY = 256;
+    private static final long KEEPALIVE_SECONDS = 15;
+
+    /** Put in the queue of a client to close the connection. */
+    private static final String CLOSE = "";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, GameState> games = new ConcurrentHashMap<>();
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a server on the given port. Use port 0 to pick any free port.
+     */
+    public BroadcastServer(final int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/events", this::handleEvents);
+        this.server.createContext("/", this::handlePage);
+    }
+
+    /**
+     * Creates and starts a server on the given port.
+     */
+    public static BroadcastServer start(final int port) throws IOException {
+        final var broadcastServer = new BroadcastServer(port);
+        broadcastServer.start();
+        return broadcastServer;
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.log(INFO, "Broadcasting games on port {0}", String.valueOf(port()));
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            clients.forEach(Client::close);
+            clients.clear();
+        }
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean wantsMoves() {
+        return true;
+    }
+
+    @Override
+    public Backpressure backpressure() {
+        return Backpressure.COALESCE;
+    }
+
+    @Override
+    public synchronized void gameStarted(final GameEvent.GameStarted event) {
+        final var config = event.gameConfig();
+        final var state = new GameState(event.gameId(), config.white(), config.black(), 0, null, event.fen(),
+                                        event.clockMillis(), event.clockMillis(), null);
+        games.put(state.id(), state);
+        send("game", state);
+    }
+
+    @Override
+    public synchronized void movePlayed(final GameEvent.MovePlayed event) {
+        final var previous = games.get(event.gameId());
+        if (previous == null) {
+            return;
+        }
+        final var state = new GameState(event.gameId(), previous.white(), previous.black(), event.ply(), event.move(),
+                                        event.fen(), event.whiteClockMillis(), event.blackClockMillis(), whiteScore(event));
+        games.put(state.id(), state);
+        send("move", state);
+    }
+
+    @Override
+    public synchronized void gameEnded(final GameEvent.GameEnded event) {
+        if (games.remove(event.gameId()) != null) {
+            final var playedGame = event.playedGame();
+            send("end", new GameOver(event.gameId(), playedGame.result().getDescription(), playedGame.reason()));
+        }
+    }
+
+    @Override
+    public void gameOver(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+        // Games are ended in gameEnded, where the game id is known
+    }
+
+    /**
+     * Returns the states of the games in progress.
+     */
+    List<GameState> games() {
+        return List.copyOf(games.values());
+    }
+
+    /**
+     * Returns the score of the move event from white's point of view, or null if there is no score.
+     */
+    private static Integer whiteScore(final GameEvent.MovePlayed event) {
+        if (event.score() == EngineProcess.NO_SCORE) {
+            return null;
+        }
+        // The FEN tells who is to move after the move, so the other side made it
+        final var whiteMoved = event.fen().contains(" b ");
+        return whiteMoved ? event.score() : -event.score();
+    }
+
+    private void send(final String type, final Object data) {
+        final var message = message(type, data);
+        for (final var client : clients) {
+            if (!client.offer(message)) {
+                LOGGER.log(INFO, "Disconnecting slow broadcast client");
+                clients.remove(client);
+                client.close();
+            }
+        }
+    }
+
+    private static String message(final String type, final Object data) {
+        try {
+            return "event: " + type + "\ndata: " + OBJECT_MAPPER.writeValueAsString(data) + "\n\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + data, e);
+        }
+    }
+
+    private void handleEvents(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final var client = new Client();
+            synchronized (this) {
+                // Register the client and queue the snapshot atomically, so no move is lost or sent twice
+                final var snapshot = new ArrayList<>(games.values());
+                snapshot.forEach(state -> client.offer(message("game", state)));
+                clients.add(client);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            final var out = exchange.getResponseBody();
+            try {
+                while (true) {
+                    final var message = client.queue.poll(KEEPALIVE_SECONDS, TimeUnit.SECONDS);
+                    if (CLOSE.equals(message)) {
+                        return;
+                    }
+                    out.write((message != null ? message : ": keepalive\n\n").getBytes(UTF_8));
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                clients.remove(client);
+            }
+        }
+    }
+
+    private void handlePage(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals("/")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final var body = PAGE.getBytes(UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /**
+     * The state of a game in progress. The move is the last move in coordinate notation, or null if no
+     * move has been made. The score is in centipawns from white's point of view, or null if not known.
+     */
+    record GameState(long id,
+                     String white,
+                     String black,
+                     int ply,
+                     String move,
+                     String fen,
+                     long whiteClockMillis,
+                     long blackClockMillis,
+                     Integer score) { }
+
+    record GameOver(long id, String result, String reason) { }
+
+    private static final class Client {
+
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(CLIENT_CAPACITY);
+
+        boolean offer(final String message) {
+            return queue.offer(message);
+        }
+
+        void close() {
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+    }
+
+    private static final String PAGE = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+            <meta charset="utf-8">
+            <title>Live Games</title>
+            <style>
+            body { font-family: sans-serif; }
+            th, td { padding: 2px 12px; text-align: left; }
+            </style>
+            </head>
+            <body>
+            <h1>Live Games</h1>
+            <table>
+            <thead><tr><th>Game</th><th>White</th><th>Black</th><th>Ply</th><th>Move</th><th>Score</th><th>White</th><th>Black</th></tr></thead>
+            <tbody id="games"></tbody>
+            </table>
+            <script>
+            const games = new Map();
+            const rows = document.getElementById("games");
+            const clock = millis => {
+              const seconds = Math.max(0, Math.floor(millis / 1000));
+              return Math.floor(seconds / 60) + ":" + String(seconds % 60).padStart(2, "0");
+            };
+            const score = game => game.score === null ? "" : (game.score / 100).toFixed(2);
+            const render = () => rows.replaceChildren(...[...games.values()].map(game => {
+              const row = document.createElement("tr");
+              for (const value of [game.id, game.white, game.black, game.ply, game.move ?? "", score(game),
+                                   clock(game.whiteClockMillis), clock(game.blackClockMillis)]) {
+                const cell = document.createElement("td");
+                cell.textContent = value;
+                row.append(cell);
+              }
+              return row;
+            }));
+            const update = event => {
+              const game = JSON.parse(event.data);
+              games.set(game.id, game);
+              render();
+            };
+            const source = new EventSource("events");
+            source.onopen = () => {
+              games.clear();
+              render();
+            };
+            source.addEventListener("game", update);
+            source.addEventListener("move", update);
+            source.addEventListener("end", event => {
+              games.delete(JSON.parse(event.data).id);
+              render();
+            });
+            </script>
+            </body>
+            </html>
+            """;
+}
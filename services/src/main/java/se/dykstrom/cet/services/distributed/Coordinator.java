@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.match.MatchConfig;
+import se.dykstrom.cet.services.match.MatchOpenings;
+import se.dykstrom.cet.services.match.PlayedMatch;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Plays a match by splitting it into batches of game pairs, and handing the batches to workers
+ * that connect to the coordinator. Workers stream back the result and PGN of each game, and the
+ * coordinator merges them into one match and one PGN file. If a worker disconnects before it has
+ * finished its batch, the unfinished games are given to another worker. The same happens if a
+ * worker does not finish its batch in the time that the games can take at most, see
+ * {@link #gameTimeoutMillis(TimeControl)}. A game that has been given to {@link #MAX_ATTEMPTS}
+ * workers without being finished is not played. A worker that reports a game played by other
+ * engines than the earlier games is disconnected.
+ * <p>
+ * The openings of all games are decided by the coordinator, so workers need the engine config
+ * files, but not the opening suite or book.
+ */
+public class Coordinator {
+
+    private static final System.Logger LOGGER = System.getLogger(Coordinator.class.getName());
+
+    public static final int DEFAULT_PORT = 9100;
+    public static final int DEFAULT_BATCH_SIZE = 2;
+
+    static final int MAX_ATTEMPTS = 3;
+
+    /** The number of moves per side that a game is expected to have at most. */
+    static final int MAX_MOVES = 200;
+    /** Extra time per game, for starting engines and pausing between games. */
+    static final long GAME_MARGIN_MILLIS = 60_000;
+
+    private final ServerSocket serverSocket;
+    private final int batchSize;
+    private final PgnFileWriter pgnFileWriter;
+    private final ToLongFunction<TimeControl> gameTimeout;
+
+    private final AtomicBoolean playing = new AtomicBoolean(false);
+    private final Set<MessageChannel> channels = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextBatchId = new AtomicInteger(1);
+    private final LinkedBlockingDeque<Message.Batch> batches = new LinkedBlockingDeque<>();
+
+    // State of the current match
+    private GameResult[] results;
+    private String[] reasons;
+    private int[] attempts;
+    private String[] engineNames;
+    private CountDownLatch remainingGames;
+    private long gameTimeoutMillis;
+
+    /**
+     * Creates a coordinator that accepts workers on the given server socket, and hands out
+     * {@code batchSize} pairs of games at a time. Games are written to {@code pgnFileWriter} as they arrive.
+     */
+    public Coordinator(final ServerSocket serverSocket, final int batchSize, final PgnFileWriter pgnFileWriter) {
+        this(serverSocket, batchSize, pgnFileWriter, Coordinator::gameTimeoutMillis);
+    }
+
+    Coordinator(final ServerSocket serverSocket, final int batchSize, final PgnFileWriter pgnFileWriter,
+                final ToLongFunction<TimeControl> gameTimeout) {
+        ensure(batchSize > 0, "batchSize must be > 0");
+        this.serverSocket = requireNonNull(serverSocket);
+        this.batchSize = batchSize;
+        this.pgnFileWriter = requireNonNull(pgnFileWriter);
+        this.gameTimeout = requireNonNull(gameTimeout);
+    }
+
+    /**
+     * Plays the given match on the workers that connect, and returns when all games have been played,
+     * or the match has been stopped. The engines of the returned match are {@code null}, since they
+     * run on the workers. Their names are available from {@link #engineNames()}. The results and reasons
+     * of the returned match are in game order, and a game that was not played is {@code null} in both.
+     */
+    public PlayedMatch playMatch(final MatchConfig matchConfig) {
+        ensure(matchConfig.numberOfGames() % 2 == 0, "numberOfGames must be even");
+        final var numberOfGames = matchConfig.numberOfGames();
+        LOGGER.log(INFO, "Starting new distributed match of {0} game(s) on port {1}. Time control is {2}. Sending {3} pair(s) of games at a time.",
+                numberOfGames, serverSocket.getLocalPort(), matchConfig.timeControl(), batchSize);
+        playing.set(true);
+        results = new GameResult[numberOfGames];
+        reasons = new String[numberOfGames];
+        attempts = new int[numberOfGames];
+        engineNames = new String[2];
+        remainingGames = new CountDownLatch(numberOfGames);
+        gameTimeoutMillis = gameTimeout.applyAsLong(matchConfig.timeControl());
+        createBatches(matchConfig);
+
+        try (var executor = Executors.newCachedThreadPool()) {
+            executor.execute(() -> acceptWorkers(executor));
+            awaitGames();
+            playing.set(false);
+            closeSilently(serverSocket);
+            // Workers that are still playing when the match is stopped are disconnected
+            if (remainingGames.getCount() > 0) {
+                channels.forEach(Coordinator::closeSilently);
+            }
+        }
+
+        // The match may have been stopped before all games were played, and games are
+        // played in parallel, so there may be unplayed games before the last played game
+        var lastPlayed = numberOfGames - 1;
+        while (lastPlayed >= 0 && results[lastPlayed] == null) {
+            lastPlayed--;
+        }
+        final var playedResults = new ArrayList<GameResult>();
+        final var playedReasons = new ArrayList<String>();
+        for (var index = 0; index <= lastPlayed; index++) {
+            playedResults.add(results[index]);
+            playedReasons.add(reasons[index]);
+        }
+        LOGGER.log(INFO, "Final results: {0}", playedResults);
+        return new PlayedMatch(matchConfig, null, null, null, playedResults, playedReasons);
+    }
+
+    /**
+     * Returns the names of engine 1 and engine 2, as reported by the workers, or {@code null}
+     * if no game has been played.
+     */
+    public synchronized List<String> engineNames() {
+        return engineNames != null && engineNames[0] != null ? List.of(engineNames) : null;
+    }
+
+    public void stopMatch() {
+        playing.set(false);
+    }
+
+    /**
+     * Returns the time in millis that a game with the given time control can take at most, if it is not
+     * longer than {@link #MAX_MOVES} moves per side. A worker that does not report a game in this time,
+     * is probably hung, or has lost its network connection without the coordinator noticing.
+     */
+    static long gameTimeoutMillis(final TimeControl timeControl) {
+        final var millisPerSide = timeControl.initialTimeInMillis() +
+                                  MAX_MOVES * timeControl.incrementInMillis() / timeControl.movesInOnePeriod();
+        return 2 * millisPerSide + GAME_MARGIN_MILLIS;
+    }
+
+    private void createBatches(final MatchConfig matchConfig) {
+        final var openings = MatchOpenings.of(matchConfig);
+        final var numberOfPairs = matchConfig.numberOfGames() / 2;
+        for (var firstPair = 0; firstPair < numberOfPairs; firstPair += batchSize) {
+            final var games = new ArrayList<GameTask>();
+            for (var pair = firstPair; pair < Math.min(firstPair + batchSize, numberOfPairs); pair++) {
+                final var fen = openings.fen(pair);
+                final var moves = openings.moves(pair);
+                games.add(new GameTask(2 * pair + 1, fen, moves));
+                games.add(new GameTask(2 * pair + 2, fen, moves));
+            }
+            batches.add(newBatch(matchConfig, games));
+        }
+    }
+
+    private Message.Batch newBatch(final MatchConfig matchConfig, final List<GameTask> games) {
+        return new Message.Batch(nextBatchId.getAndIncrement(), matchConfig.timeControl().toPgn(),
+                                 matchConfig.sampleIntervalMillis(), games);
+    }
+
+    private void awaitGames() {
+        try {
+            while (playing.get() && !remainingGames.await(1, TimeUnit.SECONDS)) {
+                // Check regularly if the match has been stopped
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptWorkers(final ExecutorService executor) {
+        while (playing.get()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setKeepAlive(true);
+                executor.execute(() -> serveWorker(socket));
+            } catch (IOException e) {
+                if (playing.get()) {
+                    LOGGER.log(WARNING, "Cannot accept worker: {0}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serveWorker(final Socket socket) {
+        try (var channel = new MessageChannel(socket)) {
+            channels.add(channel);
+            serveWorker(channel);
+            channels.remove(channel);
+        } catch (IOException e) {
+            if (playing.get()) {
+                LOGGER.log(WARNING, "Worker at {0} failed: {1}", socket.getRemoteSocketAddress(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hands out batches to one worker, until there are no more batches, or the worker disconnects.
+     * The worker must finish each batch within the game timeout times the number of games.
+     */
+    private void serveWorker(final MessageChannel channel) throws IOException {
+        if (!(channel.receive() instanceof Message.Hello hello)) {
+            LOGGER.log(WARNING, "Worker at {0} did not say hello", channel.remoteAddress());
+            return;
+        }
+        final var worker = hello.worker();
+        LOGGER.log(INFO, "Worker ''{0}'' connected from {1}", worker, channel.remoteAddress());
+
+        Message.Batch batch;
+        while ((batch = nextBatch()) != null) {
+            final Map<Integer, GameTask> unfinished = new LinkedHashMap<>();
+            batch.games().forEach(game -> unfinished.put(game.round(), game));
+            final var timeoutMillis = gameTimeoutMillis * batch.games().size();
+            final var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            try {
+                channel.send(batch);
+                LOGGER.log(INFO, "Sent batch {0} of {1} game(s) to worker ''{2}''", batch.id(), batch.games().size(), worker);
+                Message message;
+                while (!((message = channel.receive(millisUntil(deadline))) instanceof Message.Done)) {
+                    if (message == null) {
+                        throw new EOFException("End-of-stream");
+                    } else if (message instanceof Message.Game game && unfinished.containsKey(game.round())) {
+                        recordGame(worker, game);
+                        unfinished.remove(game.round());
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                LOGGER.log(WARNING, "Worker ''{0}'' did not finish batch {1} within {2} ms, disconnecting it",
+                        worker, batch.id(), timeoutMillis);
+                reassign(batch, unfinished.values(), worker);
+                return;
+            } catch (IOException e) {
+                LOGGER.log(WARNING, "Lost worker ''{0}'': {1}", worker, e.getMessage());
+                reassign(batch, unfinished.values(), worker);
+                return;
+            }
+            reassign(batch, unfinished.values(), worker);
+        }
+        channel.send(new Message.Quit());
+        LOGGER.log(INFO, "Worker ''{0}'' is done", worker);
+    }
+
+    /**
+     * Returns the next batch to play, waiting for batches that are being played by other
+     * workers, or null if all games have been played, or the match has been stopped.
+     */
+    private Message.Batch nextBatch() {
+        try {
+            while (playing.get() && remainingGames.getCount() > 0) {
+                final var batch = batches.poll(1, TimeUnit.SECONDS);
+                if (batch != null) {
+                    return batch;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Records the result of a game, unless it has already been recorded or given up. Throws an
+     * exception if the game was played by other engines than the games recorded before it.
+     */
+    private synchronized void recordGame(final String worker, final Message.Game game) throws IOException {
+        final var index = game.round() - 1;
+        if (index < 0 || index >= results.length || results[index] != null || attempts[index] >= MAX_ATTEMPTS) {
+            return;
+        }
+        final var engine1IsWhite = game.round() % 2 != 0;
+        final var engine1 = engine1IsWhite ? game.white() : game.black();
+        final var engine2 = engine1IsWhite ? game.black() : game.white();
+        if (engineNames[0] == null) {
+            engineNames[0] = engine1;
+            engineNames[1] = engine2;
+        } else if (!engineNames[0].equals(engine1) || !engineNames[1].equals(engine2)) {
+            throw new IOException("Game " + game.round() + " was played by " + game.white() + " - " + game.black() +
+                                  ", but the match is " + engineNames[0] + " vs " + engineNames[1]);
+        }
+        LOGGER.log(INFO, "Worker ''{0}'' finished game {1}: {2} - {3}, {4}, {5}",
+                worker, game.round(), game.white(), game.black(), game.result(), game.reason());
+        results[index] = GameResult.fromNotation(game.result());
+        reasons[index] = game.reason();
+        pgnFileWriter.write(game.pgn());
+        remainingGames.countDown();
+    }
+
+    /**
+     * Puts the given unfinished games first in line, in a new batch, unless they have
+     * already been given to {@link #MAX_ATTEMPTS} workers. A game that is given up has
+     * no result, and is not counted as played.
+     */
+    private synchronized void reassign(final Message.Batch batch, final Iterable<GameTask> unfinished, final String worker) {
+        final var games = new ArrayList<GameTask>();
+        for (final var game : unfinished) {
+            final var index = game.round() - 1;
+            if (results[index] != null) {
+                continue;
+            }
+            if (++attempts[index] < MAX_ATTEMPTS) {
+                games.add(game);
+            } else {
+                LOGGER.log(WARNING, "Giving up on game {0} after {1} attempts", game.round(), MAX_ATTEMPTS);
+                remainingGames.countDown();
+            }
+        }
+        if (!games.isEmpty()) {
+            final var newBatch = new Message.Batch(nextBatchId.getAndIncrement(), batch.timeControl(), batch.sampleIntervalMillis(), games);
+            LOGGER.log(WARNING, "Worker ''{0}'' did not finish {1} game(s) of batch {2}, reassigning them as batch {3}",
+                    worker, games.size(), batch.id(), newBatch.id());
+            batches.addFirst(newBatch);
+        }
+    }
+
+    private static long millisUntil(final long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    private static void closeSilently(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.util.List;
+
+/**
+ * A game that a worker should play. Engine 1 plays white in odd rounds, and black in even rounds,
+ * just like in a match that is played locally.
+ *
+ * @param round The round of the game in the match, starting at 1.
+ * @param fen The start position, or {@code null} to start from the standard position.
+ * @param moves The opening moves to play from the start position.
+ */
+public record GameTask(int round, String fen, List<String> moves) {
+
+    public GameTask {
+        moves = moves != null ? List.copyOf(moves) : List.of();
+    }
+
+    public boolean engine1IsWhite() {
+        return round % 2 != 0;
+    }
+}
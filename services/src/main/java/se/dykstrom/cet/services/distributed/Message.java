@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * A message sent between the coordinator and a worker. Each message is sent as one line of JSON,
+ * with the message type in property "type".
+ * <p>
+ * A worker starts by sending {@link Hello}. The coordinator then sends a {@link Batch}, and the
+ * worker answers with a {@link Game} for each game it has played, followed by {@link Done}.
+ * When there are no more batches, the coordinator sends {@link Quit}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = Message.Hello.class, name = "hello"),
+        @JsonSubTypes.Type(value = Message.Batch.class, name = "batch"),
+        @JsonSubTypes.Type(value = Message.Game.class, name = "game"),
+        @JsonSubTypes.Type(value = Message.Done.class, name = "done"),
+        @JsonSubTypes.Type(value = Message.Quit.class, name = "quit")
+})
+public sealed interface Message {
+
+    /**
+     * Sent by a worker when it has loaded its engines, and is ready to play.
+     */
+    record Hello(String worker) implements Message { }
+
+    /**
+     * A batch of games to play, with the time control in PGN format.
+     */
+    record Batch(int id, String timeControl, long sampleIntervalMillis, List<GameTask> games) implements Message { }
+
+    /**
+     * The result of one game in a batch, with the game formatted as PGN lines.
+     */
+    record Game(int batch, int round, String white, String black, String result, String reason, List<String> pgn) implements Message { }
+
+    /**
+     * Sent by a worker when it has finished a batch. Games in the batch that were not reported
+     * have not been played, and are given to another worker.
+     */
+    record Done(int batch) implements Message { }
+
+    /**
+     * Sent by the coordinator when there are no more games to play.
+     */
+    record Quit() implements Message { }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Sends and receives {@link Message messages} over a socket, one JSON line per message.
+ * Sending is thread-safe, but only one thread at a time may receive.
+ */
+final class MessageChannel implements Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    MessageChannel(final Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+        this.writer = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+    }
+
+    synchronized void send(final Message message) throws IOException {
+        writer.write(OBJECT_MAPPER.writeValueAsString(message));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Receives the next message, waiting until it arrives. Returns null if the other side has closed the connection.
+     */
+    Message receive() throws IOException {
+        final var line = reader.readLine();
+        return line != null ? OBJECT_MAPPER.readValue(line, Message.class) : null;
+    }
+
+    /**
+     * Receives the next message, waiting at most {@code timeoutMillis}. Returns null if the other side
+     * has closed the connection, and throws {@link SocketTimeoutException} if no message arrives in time.
+     * The channel cannot be used to receive after a timeout.
+     */
+    Message receive(final long timeoutMillis) throws IOException {
+        if (timeoutMillis <= 0) {
+            throw new SocketTimeoutException("Read timed out");
+        }
+        socket.setSoTimeout((int) Math.min(timeoutMillis, Integer.MAX_VALUE));
+        return receive();
+    }
+
+    String remoteAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.exception.EngineCrashedException;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.engine.time.TimeControlFormat;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.engine.EngineServiceImpl;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.GameServiceImpl;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+import se.dykstrom.cet.services.util.ThreadUtils;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.services.util.EngineUtils.restartEngineIfNeeded;
+
+/**
+ * Plays batches of games handed out by a {@link Coordinator}. The worker loads its two engines
+ * once, and restarts them if they crash, or do not support reuse. A game that cannot be
+ * started is not reported, so the coordinator gives it to another worker.
+ */
+public class Worker {
+
+    private static final System.Logger LOGGER = System.getLogger(Worker.class.getName());
+
+    private final EngineService engineService;
+    private final GameService gameService;
+
+    private final AtomicBoolean playing = new AtomicBoolean(false);
+
+    public Worker() {
+        this(new EngineServiceImpl(), new GameServiceImpl());
+    }
+
+    public Worker(final EngineService engineService, final GameService gameService) {
+        this.engineService = requireNonNull(engineService);
+        this.gameService = requireNonNull(gameService);
+    }
+
+    /**
+     * Loads the given engines, connects to the coordinator on the given socket, and plays
+     * the batches the coordinator sends, until the coordinator has no more batches, or
+     * the connection is lost. Returns the number of games played.
+     */
+    public int work(final Socket socket, final List<File> engineFiles, final Sandbox sandbox) throws IOException {
+        playing.set(true);
+        final var engines = engineService.loadAll(engineFiles, sandbox);
+        var engine1 = engines.get(0);
+        var engine2 = engines.get(1);
+        var gamesPlayed = 0;
+
+        try (var channel = new MessageChannel(socket)) {
+            channel.send(new Message.Hello(workerName()));
+            LOGGER.log(INFO, "Connected to coordinator at {0}", channel.remoteAddress());
+
+            Message message;
+            while (playing.get() && (message = channel.receive()) instanceof Message.Batch batch) {
+                LOGGER.log(INFO, "Playing batch {0} of {1} game(s)", batch.id(), batch.games().size());
+                final var timeControl = parseTimeControl(batch.timeControl());
+                for (final GameTask task : batch.games()) {
+                    if (!playing.get()) {
+                        break;
+                    }
+                    final var whiteEngine = task.engine1IsWhite() ? engine1 : engine2;
+                    final var blackEngine = task.engine1IsWhite() ? engine2 : engine1;
+                    final var gameConfig = new GameConfig(whiteEngine.myName(), blackEngine.myName(), timeControl,
+                                                          task.fen(), task.moves(), batch.sampleIntervalMillis());
+                    final var startTime = LocalDateTime.now();
+                    try {
+                        final var playedGame = gameService.playGame(gameConfig, whiteEngine, blackEngine);
+                        engine1 = task.engine1IsWhite() ? playedGame.whiteEngine() : playedGame.blackEngine();
+                        engine2 = task.engine1IsWhite() ? playedGame.blackEngine() : playedGame.whiteEngine();
+                        // A game that was stopped is not reported, and will be played again
+                        if (playedGame.result() != GameResult.ONGOING) {
+                            channel.send(new Message.Game(batch.id(), task.round(), gameConfig.white(), gameConfig.black(),
+                                                          playedGame.result().getDescription(), playedGame.reason(),
+                                                          PgnFileWriter.format(task.round(), startTime, playedGame)));
+                            gamesPlayed++;
+                        }
+                    } catch (EngineCrashedException e) {
+                        LOGGER.log(WARNING, "Engine crashed before game {0} started: {1}", task.round(), e.getMessage());
+                        Metrics.global().engineCrash();
+                    }
+                    engine1 = restartEngineIfNeeded(engine1);
+                    engine2 = restartEngineIfNeeded(engine2);
+                    ThreadUtils.sleepSilently(1_000);
+                }
+                channel.send(new Message.Done(batch.id()));
+            }
+            LOGGER.log(INFO, "Worker finished after {0} game(s)", gamesPlayed);
+            return gamesPlayed;
+        } finally {
+            engineService.unload(engine1);
+            engineService.unload(engine2);
+        }
+    }
+
+    public void stopWork() {
+        playing.set(false);
+        gameService.stopGame();
+    }
+
+    private static TimeControl parseTimeControl(final String timeControl) throws IOException {
+        try {
+            return TimeControlFormat.parse(timeControl);
+        } catch (ParseException e) {
+            throw new IOException("cannot parse time control: " + timeControl, e);
+        }
+    }
+
+    /**
+     * Returns a name that identifies this worker in the coordinator log.
+     */
+    private static String workerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
@@ -18,12 +18,32 @@ package se.dykstrom.cet.services.engine;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
+import se.dykstrom.cet.engine.config.Sandbox;
 import se.dykstrom.cet.engine.state.IdlingEngine;
 
 public interface EngineService {
 
     IdlingEngine load(final File configFile) throws IOException;
 
+    /**
+     * Loads the engine in the given config file, and runs it in the given sandbox.
+     */
+    IdlingEngine load(final File configFile, final Sandbox sandbox) throws IOException;
+
+    /**
+     * Loads the engines in the given config files concurrently, and returns them in the same
+     * order as the config files. If any engine cannot be loaded, the engines that were loaded
+     * are unloaded again, and the first failure is thrown.
+     */
+    List<IdlingEngine> loadAll(final List<File> configFiles) throws IOException;
+
+    /**
+     * Loads the engines in the given config files concurrently, like {@link #loadAll(List)},
+     * and runs them in the given sandbox.
+     */
+    List<IdlingEngine> loadAll(final List<File> configFiles, final Sandbox sandbox) throws IOException;
+
     void unload(final IdlingEngine idlingEngine);
 }
@@ -18,15 +18,26 @@ package se.dykstrom.cet.services.engine;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import se.dykstrom.cet.engine.config.EngineConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
 import se.dykstrom.cet.engine.state.CreatedEngine;
 import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.EngineProcess;
 import se.dykstrom.cet.engine.util.EngineProcessImpl;
 import se.dykstrom.cet.services.io.FileService;
 import se.dykstrom.cet.services.io.FileServiceImpl;
 
 import static java.lang.System.Logger.Level.INFO;
+import static java.util.Objects.requireNonNull;
 
 public class EngineServiceImpl implements EngineService {
 
@@ -34,15 +45,87 @@ public class EngineServiceImpl implements EngineService {
 
     private static final AtomicInteger IDS = new AtomicInteger(0);
 
-    private final FileService fileService = new FileServiceImpl();
+    private final FileService fileService;
+    private final Supplier<EngineProcess> processFactory;
+
+    public EngineServiceImpl() {
+        this(new FileServiceImpl(), EngineProcessImpl::new);
+    }
+
+    public EngineServiceImpl(final FileService fileService, final Supplier<EngineProcess> processFactory) {
+        this.fileService = requireNonNull(fileService);
+        this.processFactory = requireNonNull(processFactory);
+    }
 
     @Override
     public IdlingEngine load(final File configFile) throws IOException {
+        return load(configFile, Sandbox.NONE);
+    }
+
+    @Override
+    public IdlingEngine load(final File configFile, final Sandbox sandbox) throws IOException {
         LOGGER.log(INFO, "Loading engine config from file ''{0}''", configFile);
+        final var startTime = System.nanoTime();
         final var dto = fileService.load(configFile);
-        final var createdEngine = new CreatedEngine(new EngineProcessImpl());
-        final var configuredEngine = createdEngine.configure(IDS.getAndIncrement(), dto.command(), dto.directory());
-        return configuredEngine.load();
+        final var createdEngine = new CreatedEngine(processFactory.get());
+        final var engineConfig = new EngineConfig(IDS.getAndIncrement(), dto.command(), dto.directory(), dto.hash(), dto.threads(), dto.options(), sandbox);
+        final var configuredEngine = createdEngine.configure(engineConfig);
+        final var idlingEngine = configuredEngine.load();
+        LOGGER.log(INFO, "Loaded engine ''{0}'' in {1} ms", idlingEngine.myName(), String.valueOf(millisSince(startTime)));
+        return idlingEngine;
+    }
+
+    @Override
+    public List<IdlingEngine> loadAll(final List<File> configFiles) throws IOException {
+        return loadAll(configFiles, Sandbox.NONE);
+    }
+
+    @Override
+    public List<IdlingEngine> loadAll(final List<File> configFiles, final Sandbox sandbox) throws IOException {
+        final var startTime = System.nanoTime();
+        final List<Future<IdlingEngine>> futures;
+        Throwable failure = null;
+
+        // Each engine is loaded in its own thread, since loading mostly means waiting for the engine
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            futures = configFiles.stream()
+                                 .map(configFile -> executor.submit(() -> load(configFile, sandbox)))
+                                 .toList();
+            for (final var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure = failure == null ? e.getCause() : failure;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = failure == null ? new InterruptedIOException("Interrupted while loading engines") : failure;
+                    executor.shutdownNow();
+                    break;
+                }
+            }
+        }
+
+        // All loads have ended here, and an engine that loaded after an interrupt must be unloaded too
+        final var engines = new ArrayList<IdlingEngine>();
+        futures.stream()
+               .filter(future -> future.state() == Future.State.SUCCESS)
+               .forEach(future -> engines.add(future.resultNow()));
+
+        if (failure != null) {
+            engines.forEach(this::unload);
+            switch (failure) {
+                case IOException e -> throw e;
+                case RuntimeException e -> throw e;
+                case Error e -> throw e;
+                default -> throw new IOException(failure);
+            }
+        }
+        LOGGER.log(INFO, "Loaded {0} engine(s) in {1} ms", engines.size(), String.valueOf(millisSince(startTime)));
+        return engines;
+    }
+
+    private static long millisSince(final long startTime) {
+        return (System.nanoTime() - startTime) / 1_000_000;
     }
 
     @Override
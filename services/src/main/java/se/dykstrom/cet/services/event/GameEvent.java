@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.event;
+
+import java.time.LocalDateTime;
+
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+/**
+ * An event published on a {@link GameEventBus}. Games are identified by the game id in
+ * {@link GameStarted}, which is unique within the bus.
+ */
+public sealed interface GameEvent {
+
+    /**
+     * Published by the game thread when a game starts, after any opening moves.
+     * The position is in FEN, and the clock times are in milliseconds.
+     */
+    record GameStarted(long gameId, GameConfig gameConfig, String fen, long clockMillis) implements GameEvent { }
+
+    /**
+     * Published by the game thread after each ply played by an engine. The move is in coordinate
+     * notation, the position after the move is in FEN, and the times are in milliseconds. The score
+     * is in centipawns, from the point of view of the engine that moved, or
+     * {@link EngineProcess#NO_SCORE} if the engine did not print any thinking output.
+     */
+    record MovePlayed(long gameId,
+                      int ply,
+                      String move,
+                      String fen,
+                      long elapsedMillis,
+                      long whiteClockMillis,
+                      long blackClockMillis,
+                      int score) implements GameEvent { }
+
+    /**
+     * Published when a game has finished. The game id is 0 if the game did not publish {@link GameStarted}.
+     */
+    record GameEnded(long gameId, int round, LocalDateTime startTime, PlayedGame playedGame) implements GameEvent { }
+
+    /**
+     * Published when a match or tournament has finished.
+     */
+    record MatchEnded() implements GameEvent { }
+}
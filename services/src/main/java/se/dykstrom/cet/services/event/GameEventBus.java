@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.services.event.GameEvent.GameEnded;
+import se.dykstrom.cet.services.event.GameEvent.GameStarted;
+import se.dykstrom.cet.services.event.GameEvent.MatchEnded;
+import se.dykstrom.cet.services.event.GameEvent.MovePlayed;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.util.GameListener;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Delivers game events to game listeners asynchronously, so a slow listener does not delay the
+ * games. Each listener has a bounded queue, and a thread that takes events from the queue and
+ * calls the listener, in the order the events were published. When the queue is full, the
+ * {@link Backpressure} of the listener decides what happens to a new move event. Move events
+ * should only be created if some listener wants them, see {@link #movesWanted()}.
+ * <p>
+ * The game service stores the id of each game in the played game, so the bus does not need to
+ * remember the games that are in progress, and games that never end are no concern.
+ * <p>
+ * The delivery threads run until the bus is closed. Close the bus when no more events will be
+ * published, for example when the match or tournament is over.
+ * <p>
+ * This class is thread-safe. Many games may publish events at the same time.
+ */
+public class GameEventBus implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(GameEventBus.class.getName());
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final AtomicLong nextGameId = new AtomicLong(1);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean movesWanted;
+
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GameEventBus(final int capacity) {
+        ensure(capacity > 0, "capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Subscribes the given listener to all events published from now on.
+     */
+    public void subscribe(final GameListener listener) {
+        final var subscriber = new Subscriber(requireNonNull(listener), capacity);
+        subscribers.add(subscriber);
+        if (subscriber.wantsMoves) {
+            movesWanted = true;
+        }
+    }
+
+    /**
+     * Publishes that a game has started in position {@code fen}, with {@code clockMillis}
+     * milliseconds on each clock, and returns the id of the game.
+     */
+    public long gameStarted(final GameConfig gameConfig, final String fen, final long clockMillis) {
+        final var gameId = nextGameId.getAndIncrement();
+        publish(new GameStarted(gameId, gameConfig, fen, clockMillis));
+        return gameId;
+    }
+
+    /**
+     * Returns true if some listener wants move events.
+     */
+    public boolean movesWanted() {
+        return movesWanted;
+    }
+
+    /**
+     * Publishes a move event to the listeners that want move events.
+     */
+    public void movePlayed(final MovePlayed event) {
+        for (final var subscriber : subscribers) {
+            if (subscriber.wantsMoves) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Publishes that a game has ended. The id of the game is taken from the played game.
+     */
+    public void gameEnded(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+        publish(new GameEnded(playedGame != null ? playedGame.gameId() : 0, round, startTime, playedGame));
+    }
+
+    /**
+     * Publishes that a match or tournament has ended, and waits until all listeners have handled all events.
+     */
+    public void matchEnded() {
+        publish(new MatchEnded());
+        flush();
+    }
+
+    /**
+     * Waits until all listeners have handled all events published so far.
+     */
+    public void flush() {
+        subscribers.forEach(Subscriber::awaitIdle);
+    }
+
+    /**
+     * Waits until all listeners have handled all events published so far, and ends the delivery
+     * threads. The listeners are unsubscribed, and events published after this are not delivered.
+     */
+    @Override
+    public void close() {
+        flush();
+        subscribers.forEach(Subscriber::stop);
+        subscribers.clear();
+        movesWanted = false;
+    }
+
+    /**
+     * Returns the number of move events that have been dropped or coalesced, because a listener was too slow.
+     */
+    public long dropped() {
+        return subscribers.stream().mapToLong(subscriber -> subscriber.dropped.sum()).sum();
+    }
+
+    private void publish(final GameEvent event) {
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private static final class Subscriber {
+
+        private final GameListener listener;
+        private final Backpressure backpressure;
+        private final boolean wantsMoves;
+        private final BlockingQueue<GameEvent> queue;
+        private final LongAdder dropped = new LongAdder();
+        private final Thread thread;
+
+        /** The number of events offered, but not yet handled or dropped. */
+        private int pending;
+
+        Subscriber(final GameListener listener, final int capacity) {
+            this.listener = listener;
+            this.backpressure = requireNonNull(listener.backpressure());
+            this.wantsMoves = listener.wantsMoves();
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = Thread.ofPlatform().name("game-listener-" + listener.getClass().getSimpleName()).daemon().start(this::run);
+        }
+
+        /**
+         * Ends the delivery thread, which is waiting for the next event if the queue is empty.
+         */
+        void stop() {
+            thread.interrupt();
+        }
+
+        void offer(final GameEvent event) {
+            synchronized (this) {
+                pending++;
+            }
+            if (event instanceof MovePlayed move && backpressure != Backpressure.BLOCK) {
+                if (queue.offer(event)) {
+                    return;
+                }
+                if (backpressure == Backpressure.COALESCE) {
+                    done(removeMoves(move.gameId()));
+                    if (queue.offer(event)) {
+                        return;
+                    }
+                }
+                dropped.increment();
+                done(1);
+                return;
+            }
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                done(1);
+            }
+        }
+
+        /**
+         * Removes the queued move events of the given game, and returns the number of removed events.
+         */
+        private int removeMoves(final long gameId) {
+            var removed = 0;
+            for (final var iterator = queue.iterator(); iterator.hasNext(); ) {
+                if (iterator.next() instanceof MovePlayed move && move.gameId() == gameId) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            dropped.add(removed);
+            return removed;
+        }
+
+        private void run() {
+            while (true) {
+                final GameEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    dispatch(event);
+                } catch (RuntimeException e) {
+                    LOGGER.log(ERROR, "Game listener failed: " + e.getMessage(), e);
+                } finally {
+                    done(1);
+                }
+            }
+        }
+
+        private void dispatch(final GameEvent event) {
+            switch (event) {
+                case GameStarted started -> listener.gameStarted(started);
+                case MovePlayed move -> listener.movePlayed(move);
+                case GameEnded ended -> listener.gameEnded(ended);
+                case MatchEnded matchEnded -> listener.matchOver();
+            }
+        }
+
+        private synchronized void done(final int events) {
+            pending -= events;
+            if (pending == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void awaitIdle() {
+            try {
+                while (pending > 0) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
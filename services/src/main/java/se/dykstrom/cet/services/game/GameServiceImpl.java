@@ -22,26 +22,38 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
 import com.github.bhlangonijr.chesslib.game.GameResult;
 import com.github.bhlangonijr.chesslib.move.Move;
 import com.github.bhlangonijr.chesslib.move.MoveList;
 import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.exception.EngineCrashedException;
 import se.dykstrom.cet.engine.exception.UnexpectedException;
 import se.dykstrom.cet.engine.parser.Result;
 import se.dykstrom.cet.engine.state.ActiveEngine;
 import se.dykstrom.cet.engine.state.ForcedEngine;
 import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.CgroupUsage;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+import se.dykstrom.cet.services.event.GameEvent.MovePlayed;
+import se.dykstrom.cet.services.event.GameEventBus;
 import se.dykstrom.cet.services.exception.ChessLibDrawException;
 import se.dykstrom.cet.services.exception.ChessLibIllegalException;
+import se.dykstrom.cet.services.exception.OpeningException;
 import se.dykstrom.cet.services.exception.TimeoutException;
-import se.dykstrom.cet.services.time.StoppedChessClock;
+import se.dykstrom.cet.services.jfr.GameEndEvent;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.time.ChessClock;
 import se.dykstrom.cet.services.util.ThreadUtils;
 
+import static com.github.bhlangonijr.chesslib.Side.BLACK;
 import static com.github.bhlangonijr.chesslib.Side.WHITE;
 import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.INFO;
 import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
 import static se.dykstrom.cet.services.util.BoardUtils.isDrawBy50thMoveRule;
+import static se.dykstrom.cet.services.util.ResultUtils.createCrashResult;
 import static se.dykstrom.cet.services.util.ResultUtils.createDrawResult;
 import static se.dykstrom.cet.services.util.ResultUtils.createEngineResult;
 import static se.dykstrom.cet.services.util.ResultUtils.createIllegalMoveResult;
@@ -53,7 +65,21 @@ public class GameServiceImpl implements GameService {
 
     private static final String EXTRA_ENGINE = "EXTRA";
 
+    private static final Metrics METRICS = Metrics.global();
+
     private final AtomicBoolean playing = new AtomicBoolean(false);
+    private final GameEventBus eventBus;
+
+    public GameServiceImpl() {
+        this(new GameEventBus());
+    }
+
+    /**
+     * Creates a game service that publishes game start and move events on the given event bus.
+     */
+    public GameServiceImpl(final GameEventBus eventBus) {
+        this.eventBus = requireNonNull(eventBus);
+    }
 
     @Override
     public PlayedGame playGame(final GameConfig gameConfig,
@@ -65,90 +91,159 @@ public class GameServiceImpl implements GameService {
         var finalResult = new Result("*", "Stopped");
 
         // Game state
-        final var board = new Board();
-        final var moves = new MoveList();
+        final var board = createBoard(gameConfig);
+        final var moves = createMoveList(gameConfig);
+
+        // Resource usage before the game, for engines that run in their own cgroup
+        final var whiteUsageBefore = whiteEngine.resourceUsage();
+        final var blackUsageBefore = blackEngine.resourceUsage();
+        final var whiteSearchBefore = whiteEngine.searchStatistics();
+        final var blackSearchBefore = blackEngine.searchStatistics();
 
         // Engine states
         final ForcedEngine forcedWhiteEngine = whiteEngine.start(gameConfig);
         final ForcedEngine forcedBlackEngine = blackEngine.start(gameConfig);
-        ActiveEngine activeWhiteEngine = null;
-        ActiveEngine activeBlackEngine = null;
+
+        // Opening moves, checked on the board here, and sent to the engines when the game has started
+        final var openingProblem = playOpening(gameConfig, board, moves);
+
+        // Order engines by who moves first after the opening
+        final var whiteMovesFirst = board.getSideToMove() == WHITE;
+        final ForcedEngine forcedFirstEngine = whiteMovesFirst ? forcedWhiteEngine : forcedBlackEngine;
+        final ForcedEngine forcedSecondEngine = whiteMovesFirst ? forcedBlackEngine : forcedWhiteEngine;
+        ActiveEngine activeFirstEngine = null;
+        ActiveEngine activeSecondEngine = null;
 
         // Chess clocks
-        var stoppedWhiteClock = new StoppedChessClock(gameConfig.timeControl());
-        var stoppedBlackClock = new StoppedChessClock(gameConfig.timeControl());
+        final var firstClock = new ChessClock(gameConfig.timeControl());
+        final var secondClock = new ChessClock(gameConfig.timeControl());
 
         // Give engines some time to start
         ThreadUtils.sleepSilently(100);
 
+        final var gameEndEvent = new GameEndEvent();
+        gameEndEvent.begin();
+        final var liveGame = METRICS.gameStarted(whiteEngine.myName(), blackEngine.myName(), firstClock.timeLeft());
+        final var plyTimer = new PlyTimer(METRICS, liveGame);
+        final var gameId = eventBus.gameStarted(gameConfig, board.getFen(), gameConfig.timeControl().initialTimeInMillis());
+        final var whiteSampler = ProcessSampler.start(whiteEngine, gameConfig.sampleIntervalMillis());
+        final var blackSampler = ProcessSampler.start(blackEngine, gameConfig.sampleIntervalMillis());
         try {
-            // First white move
-            forcedWhiteEngine.postTime(stoppedWhiteClock.timeLeft(), stoppedBlackClock.timeLeft());
-            forcedWhiteEngine.clear();
-            var runningWhiteClock = stoppedWhiteClock.start();
-            activeWhiteEngine = forcedWhiteEngine.go();
-            var whiteMove = activeWhiteEngine.readMove();
-            stoppedWhiteClock = runningWhiteClock.stop();
-            logMove(whiteMove, board);
-            updateGameState(whiteMove, board, moves);
-
-            // First black move
-            logMove(whiteMove, board, false);
-            forcedBlackEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
-            forcedBlackEngine.clear();
-            forcedBlackEngine.makeMove(whiteMove);
-            var runningBlackClock = stoppedBlackClock.start();
-            activeBlackEngine = forcedBlackEngine.go();
-            var blackMove = activeBlackEngine.readMove();
-            stoppedBlackClock = runningBlackClock.stop();
-            logMove(blackMove, board);
-            updateGameState(blackMove, board, moves);
+            // Opening moves, played in force mode before the engines start thinking
+            sendOpening(gameConfig, openingProblem, forcedWhiteEngine, forcedBlackEngine);
+
+            // First move
+            forcedFirstEngine.postTime(firstClock.timeLeft(), secondClock.timeLeft());
+            forcedFirstEngine.clear();
+            firstClock.start();
+            plyTimer.moveSent();
+            activeFirstEngine = forcedFirstEngine.go();
+            var firstMove = activeFirstEngine.readMove();
+            firstClock.stop();
+            plyTimer.moveReceived(board.getSideToMove(), firstClock.timeLeft(), activeFirstEngine.lastLineNanos());
+            logMove(firstMove, board);
+            updateGameState(firstMove, board, moves);
+            endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
+
+            // First reply
+            logMove(firstMove, board, !whiteMovesFirst);
+            forcedSecondEngine.postTime(secondClock.timeLeft(), firstClock.timeLeft());
+            forcedSecondEngine.clear();
+            forcedSecondEngine.makeMove(firstMove);
+            secondClock.start();
+            plyTimer.moveSent();
+            activeSecondEngine = forcedSecondEngine.go();
+            var secondMove = activeSecondEngine.readMove();
+            secondClock.stop();
+            plyTimer.moveReceived(board.getSideToMove(), secondClock.timeLeft(), activeSecondEngine.lastLineNanos());
+            logMove(secondMove, board);
+            updateGameState(secondMove, board, moves);
+            endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
 
             while (playing.get()) {
-                logMove(blackMove, board, true);
-                activeWhiteEngine.postTime(stoppedWhiteClock.timeLeft(), stoppedBlackClock.timeLeft());
-                runningWhiteClock = stoppedWhiteClock.start();
-                whiteMove = activeWhiteEngine.makeAndReadMove(blackMove);
-                stoppedWhiteClock = runningWhiteClock.stop();
-                logMove(whiteMove, board);
-                updateGameState(whiteMove, board, moves);
-
-                logMove(whiteMove, board, false);
-                activeBlackEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
-                runningBlackClock = stoppedBlackClock.start();
-                blackMove = activeBlackEngine.makeAndReadMove(whiteMove);
-                stoppedBlackClock = runningBlackClock.stop();
-                logMove(blackMove, board);
-                updateGameState(blackMove, board, moves);
+                logMove(secondMove, board, whiteMovesFirst);
+                activeFirstEngine.postTime(firstClock.timeLeft(), secondClock.timeLeft());
+                firstClock.start();
+                plyTimer.moveSent();
+                firstMove = activeFirstEngine.makeAndReadMove(secondMove);
+                firstClock.stop();
+                plyTimer.moveReceived(board.getSideToMove(), firstClock.timeLeft(), activeFirstEngine.lastLineNanos());
+                logMove(firstMove, board);
+                updateGameState(firstMove, board, moves);
+                endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
+
+                logMove(firstMove, board, !whiteMovesFirst);
+                activeSecondEngine.postTime(secondClock.timeLeft(), firstClock.timeLeft());
+                secondClock.start();
+                plyTimer.moveSent();
+                secondMove = activeSecondEngine.makeAndReadMove(firstMove);
+                secondClock.stop();
+                plyTimer.moveReceived(board.getSideToMove(), secondClock.timeLeft(), activeSecondEngine.lastLineNanos());
+                logMove(secondMove, board);
+                updateGameState(secondMove, board, moves);
+                endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
             }
+        } catch (OpeningException e) {
+            LOGGER.log(WARNING, "Cannot play opening: " + e.getMessage());
+            finalResult = new Result("*", "Cannot play opening: " + e.getMessage());
         } catch (UnexpectedException e) {
             LOGGER.log(INFO, "Unexpected response from " + board.getSideToMove() + " engine on move " + board.getMoveCounter() + ": " + e.response());
             finalResult = createEngineResult(board, e.response());
         } catch (ChessLibIllegalException e) {
             LOGGER.log(INFO, "Illegal move detected on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createIllegalMoveResult(board, e.getMessage(), e.move());
+            METRICS.illegalMove();
         } catch (ChessLibDrawException e) {
             LOGGER.log(INFO, "Draw detected on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createDrawResult(board, e.getMessage());
         } catch (TimeoutException e) {
             LOGGER.log(INFO, "Timeout from " + board.getSideToMove() + " engine on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createTimeoutResult(board);
+            METRICS.timeForfeit();
+        } catch (EngineCrashedException e) {
+            METRICS.engineCrash();
+            final var side = crashedSide(board, forcedWhiteEngine, forcedBlackEngine);
+            LOGGER.log(WARNING, side + " engine crashed on move " + board.getMoveCounter() + ": " + e.getMessage());
+            finalResult = createCrashResult(side);
         } finally {
+            whiteSampler.stop();
+            blackSampler.stop();
+            METRICS.gameFinished(liveGame, !finalResult.code().equals("*"));
             postFinalResult(finalResult,
-                    forcedWhiteEngine, activeWhiteEngine,
-                    forcedBlackEngine, activeBlackEngine,
+                    forcedFirstEngine, activeFirstEngine,
+                    forcedSecondEngine, activeSecondEngine,
                     null, null);
         }
 
+        final var activeWhiteEngine = whiteMovesFirst ? activeFirstEngine : activeSecondEngine;
+        final var activeBlackEngine = whiteMovesFirst ? activeSecondEngine : activeFirstEngine;
+        final var stoppedWhiteEngine = stopEngine(activeWhiteEngine, forcedWhiteEngine);
+        final var stoppedBlackEngine = stopEngine(activeBlackEngine, forcedBlackEngine);
+        final var whiteUsage = usageSince(stoppedWhiteEngine, whiteUsageBefore);
+        final var blackUsage = usageSince(stoppedBlackEngine, blackUsageBefore);
+        final var whiteProcessUsage = processUsage(whiteSampler, stoppedWhiteEngine);
+        final var blackProcessUsage = processUsage(blackSampler, stoppedBlackEngine);
+        final var whiteSearch = searchSince(stoppedWhiteEngine, whiteSearchBefore);
+        final var blackSearch = searchSince(stoppedBlackEngine, blackSearchBefore);
+        final var reason = finalResult.text() + limitViolations(whiteUsage, blackUsage);
+        commitGameEnd(gameEndEvent, gameConfig, finalResult.code(), reason, moves.size());
         return new PlayedGame(
                 gameConfig,
-                stopEngine(activeWhiteEngine, forcedWhiteEngine),
-                stopEngine(activeBlackEngine, forcedBlackEngine),
+                stoppedWhiteEngine,
+                stoppedBlackEngine,
                 null,
                 GameResult.fromNotation(finalResult.code()),
-                finalResult.text(),
+                reason,
                 moves,
-                null);
+                null,
+                whiteUsage,
+                blackUsage,
+                whiteProcessUsage,
+                blackProcessUsage,
+                whiteSearch,
+                blackSearch,
+                plyTimer.moveTimes(),
+                gameId);
     }
 
     @Override
@@ -159,6 +254,12 @@ public class GameServiceImpl implements GameService {
         if (!extraEngine.features().playOther()) {
             throw new IllegalArgumentException("Extra engine '" + extraEngine.myName() + "' does not support playother command");
         }
+        if (createBoard(gameConfig).getSideToMove() != WHITE) {
+            throw new IllegalArgumentException("Cannot use extra engine in a game where black moves first");
+        }
+        if (!gameConfig.moves().isEmpty()) {
+            throw new IllegalArgumentException("Cannot use extra engine in a game with opening moves");
+        }
 
         LOGGER.log(INFO, "Starting new game with ''{0}'' as white and ''{1}'' as black. Using ''{2}'' as extra engine.",
                 whiteEngine.myName(), blackEngine.myName(), extraEngine.myName());
@@ -166,10 +267,16 @@ public class GameServiceImpl implements GameService {
         var finalResult = new Result("*", "Stopped");
 
         // Game state
-        final var board = new Board();
-        final var moves = new MoveList();
+        final var board = createBoard(gameConfig);
+        final var moves = createMoveList(gameConfig);
         final var extraMoves = new HashMap<Integer, String>();
 
+        // Resource usage before the game, for engines that run in their own cgroup
+        final var whiteUsageBefore = whiteEngine.resourceUsage();
+        final var blackUsageBefore = blackEngine.resourceUsage();
+        final var whiteSearchBefore = whiteEngine.searchStatistics();
+        final var blackSearchBefore = blackEngine.searchStatistics();
+
         // Engine states
         final ForcedEngine forcedWhiteEngine = whiteEngine.start(gameConfig);
         final ForcedEngine forcedBlackEngine = blackEngine.start(gameConfig);
@@ -178,40 +285,57 @@ public class GameServiceImpl implements GameService {
         ActiveEngine activeBlackEngine = null;
         ActiveEngine activeExtraEngine = null;
 
+        // There are no opening moves, but the position may already be over
+        final var openingProblem = playOpening(gameConfig, board, moves);
+
         // Chess clocks
-        var stoppedWhiteClock = new StoppedChessClock(gameConfig.timeControl());
-        var stoppedBlackClock = new StoppedChessClock(gameConfig.timeControl());
+        final var whiteClock = new ChessClock(gameConfig.timeControl());
+        final var blackClock = new ChessClock(gameConfig.timeControl());
 
         // Give engines some time to start
         ThreadUtils.sleepSilently(100);
 
+        final var gameEndEvent = new GameEndEvent();
+        gameEndEvent.begin();
+        final var liveGame = METRICS.gameStarted(whiteEngine.myName(), blackEngine.myName(), whiteClock.timeLeft());
+        final var plyTimer = new PlyTimer(METRICS, liveGame);
+        final var gameId = eventBus.gameStarted(gameConfig, board.getFen(), gameConfig.timeControl().initialTimeInMillis());
+        final var whiteSampler = ProcessSampler.start(whiteEngine, gameConfig.sampleIntervalMillis());
+        final var blackSampler = ProcessSampler.start(blackEngine, gameConfig.sampleIntervalMillis());
         try {
+            sendOpening(gameConfig, openingProblem, forcedWhiteEngine, forcedBlackEngine);
+
             // First white move
-            forcedWhiteEngine.postTime(stoppedWhiteClock.timeLeft(), stoppedBlackClock.timeLeft());
+            forcedWhiteEngine.postTime(whiteClock.timeLeft(), blackClock.timeLeft());
             forcedWhiteEngine.clear();
-            var runningWhiteClock = stoppedWhiteClock.start();
+            whiteClock.start();
+            plyTimer.moveSent();
             activeWhiteEngine = forcedWhiteEngine.go();
             var whiteMove = activeWhiteEngine.readMove();
-            stoppedWhiteClock = runningWhiteClock.stop();
+            whiteClock.stop();
+            plyTimer.moveReceived(board.getSideToMove(), whiteClock.timeLeft(), activeWhiteEngine.lastLineNanos());
             logMove(whiteMove, board);
             updateGameState(whiteMove, board, moves);
+            endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
 
             // First black move
             logMove(whiteMove, board, false);
             logMove(EXTRA_ENGINE, whiteMove, board, false);
             // Extra engine
-            forcedExtraEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
+            forcedExtraEngine.postTime(blackClock.timeLeft(), whiteClock.timeLeft());
             forcedExtraEngine.clear();
             forcedExtraEngine.makeMove(whiteMove);
             activeExtraEngine = forcedExtraEngine.go();
             // Black engine
-            forcedBlackEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
+            forcedBlackEngine.postTime(blackClock.timeLeft(), whiteClock.timeLeft());
             forcedBlackEngine.clear();
             forcedBlackEngine.makeMove(whiteMove);
-            var runningBlackClock = stoppedBlackClock.start();
+            blackClock.start();
+            plyTimer.moveSent();
             activeBlackEngine = forcedBlackEngine.go();
             var blackMove = activeBlackEngine.readMove();
-            stoppedBlackClock = runningBlackClock.stop();
+            blackClock.stop();
+            plyTimer.moveReceived(board.getSideToMove(), blackClock.timeLeft(), activeBlackEngine.lastLineNanos());
             logMove(blackMove, board);
             // Extra engine
             var extraMove = activeExtraEngine.readMove();
@@ -220,27 +344,33 @@ public class GameServiceImpl implements GameService {
             activeExtraEngine = takeBackExtraMoveAndForceBlackMove(activeExtraEngine, whiteMove, blackMove);
             // Black engine
             updateGameState(blackMove, board, moves);
+            endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
             
             while (playing.get()) {
                 logMove(blackMove, board, true);
                 // White engine
-                activeWhiteEngine.postTime(stoppedWhiteClock.timeLeft(), stoppedBlackClock.timeLeft());
-                runningWhiteClock = stoppedWhiteClock.start();
+                activeWhiteEngine.postTime(whiteClock.timeLeft(), blackClock.timeLeft());
+                whiteClock.start();
+                plyTimer.moveSent();
                 whiteMove = activeWhiteEngine.makeAndReadMove(blackMove);
-                stoppedWhiteClock = runningWhiteClock.stop();
+                whiteClock.stop();
+                plyTimer.moveReceived(board.getSideToMove(), whiteClock.timeLeft(), activeWhiteEngine.lastLineNanos());
                 logMove(whiteMove, board);
                 updateGameState(whiteMove, board, moves);
+                endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
 
                 logMove(whiteMove, board, false);
                 logMove(EXTRA_ENGINE, whiteMove, board, false);
                 // Extra engine
-                activeExtraEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
+                activeExtraEngine.postTime(blackClock.timeLeft(), whiteClock.timeLeft());
                 activeExtraEngine.makeMove(whiteMove);
                 // Black engine
-                activeBlackEngine.postTime(stoppedBlackClock.timeLeft(), stoppedWhiteClock.timeLeft());
-                runningBlackClock = stoppedBlackClock.start();
+                activeBlackEngine.postTime(blackClock.timeLeft(), whiteClock.timeLeft());
+                blackClock.start();
+                plyTimer.moveSent();
                 blackMove = activeBlackEngine.makeAndReadMove(whiteMove);
-                stoppedBlackClock = runningBlackClock.stop();
+                blackClock.stop();
+                plyTimer.moveReceived(board.getSideToMove(), blackClock.timeLeft(), activeBlackEngine.lastLineNanos());
                 logMove(blackMove, board);
                 // Extra engine
                 extraMove = activeExtraEngine.readMove();
@@ -249,35 +379,72 @@ public class GameServiceImpl implements GameService {
                 activeExtraEngine = takeBackExtraMoveAndForceBlackMove(activeExtraEngine, whiteMove, blackMove);
                 // Black engine
                 updateGameState(blackMove, board, moves);
+                endMove(gameId, board, moves, whiteEngine, blackEngine, whiteSampler, blackSampler, plyTimer);
             }
+        } catch (OpeningException e) {
+            LOGGER.log(WARNING, "Cannot play opening: " + e.getMessage());
+            finalResult = new Result("*", "Cannot play opening: " + e.getMessage());
         } catch (UnexpectedException e) {
             LOGGER.log(INFO, "Unexpected response from " + board.getSideToMove() + " engine on move " + board.getMoveCounter() + ": " + e.response());
             finalResult = createEngineResult(board, e.response());
         } catch (ChessLibIllegalException e) {
             LOGGER.log(INFO, "Illegal move detected on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createIllegalMoveResult(board, e.getMessage(), e.move());
+            METRICS.illegalMove();
         } catch (ChessLibDrawException e) {
             LOGGER.log(INFO, "Draw detected on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createDrawResult(board, e.getMessage());
         } catch (TimeoutException e) {
             LOGGER.log(INFO, "Timeout from " + board.getSideToMove() + " engine on move " + board.getMoveCounter() + ": " + e.getMessage());
             finalResult = createTimeoutResult(board);
+            METRICS.timeForfeit();
+        } catch (EngineCrashedException e) {
+            METRICS.engineCrash();
+            if (forcedExtraEngine.hasCrashed() && !forcedWhiteEngine.hasCrashed() && !forcedBlackEngine.hasCrashed()) {
+                LOGGER.log(WARNING, "Extra engine crashed on move " + board.getMoveCounter() + ": " + e.getMessage());
+                finalResult = new Result("*", "Extra engine crashed");
+            } else {
+                final var side = crashedSide(board, forcedWhiteEngine, forcedBlackEngine);
+                LOGGER.log(WARNING, side + " engine crashed on move " + board.getMoveCounter() + ": " + e.getMessage());
+                finalResult = createCrashResult(side);
+            }
         } finally {
+            whiteSampler.stop();
+            blackSampler.stop();
+            METRICS.gameFinished(liveGame, !finalResult.code().equals("*"));
             postFinalResult(finalResult,
                     forcedWhiteEngine, activeWhiteEngine,
                     forcedBlackEngine, activeBlackEngine,
                     forcedExtraEngine, activeExtraEngine);
         }
 
+        final var stoppedWhiteEngine = stopEngine(activeWhiteEngine, forcedWhiteEngine);
+        final var stoppedBlackEngine = stopEngine(activeBlackEngine, forcedBlackEngine);
+        final var whiteUsage = usageSince(stoppedWhiteEngine, whiteUsageBefore);
+        final var blackUsage = usageSince(stoppedBlackEngine, blackUsageBefore);
+        final var whiteProcessUsage = processUsage(whiteSampler, stoppedWhiteEngine);
+        final var blackProcessUsage = processUsage(blackSampler, stoppedBlackEngine);
+        final var whiteSearch = searchSince(stoppedWhiteEngine, whiteSearchBefore);
+        final var blackSearch = searchSince(stoppedBlackEngine, blackSearchBefore);
+        final var reason = finalResult.text() + limitViolations(whiteUsage, blackUsage);
+        commitGameEnd(gameEndEvent, gameConfig, finalResult.code(), reason, moves.size());
         return new PlayedGame(
                 gameConfig,
-                stopEngine(activeWhiteEngine, forcedWhiteEngine),
-                stopEngine(activeBlackEngine, forcedBlackEngine),
+                stoppedWhiteEngine,
+                stoppedBlackEngine,
                 stopEngine(activeExtraEngine, forcedExtraEngine),
                 GameResult.fromNotation(finalResult.code()),
-                finalResult.text(),
+                reason,
                 moves,
-                extraMoves);
+                extraMoves,
+                whiteUsage,
+                blackUsage,
+                whiteProcessUsage,
+                blackProcessUsage,
+                whiteSearch,
+                blackSearch,
+                plyTimer.moveTimes(),
+                gameId);
     }
 
     private ActiveEngine takeBackExtraMoveAndForceBlackMove(final ActiveEngine activeExtraEngine,
@@ -325,6 +492,58 @@ public class GameServiceImpl implements GameService {
         extraMoves.put(board.getMoveCounter(), array[array.length - 1]);
     }
 
+    private static Board createBoard(final GameConfig gameConfig) {
+        final var board = new Board();
+        if (gameConfig.fen() != null) {
+            board.loadFromFen(gameConfig.fen());
+        }
+        return board;
+    }
+
+    private static MoveList createMoveList(final GameConfig gameConfig) {
+        return gameConfig.fen() != null ? new MoveList(gameConfig.fen()) : new MoveList();
+    }
+
+    /**
+     * Plays the opening moves of the game on the board, and returns the reason why the
+     * opening cannot be played, or null if it can. The opening cannot be played if a move
+     * is illegal, or if the game is already over after the last move.
+     */
+    private String playOpening(final GameConfig gameConfig, final Board board, final MoveList moves) {
+        try {
+            for (final String move : gameConfig.moves()) {
+                updateGameState(move, board, moves);
+            }
+        } catch (ChessLibIllegalException e) {
+            return "illegal move " + e.move();
+        } catch (ChessLibDrawException e) {
+            return e.getMessage();
+        }
+        if (board.isMated()) {
+            return "checkmate";
+        } else if (board.isDraw()) {
+            return "draw";
+        }
+        return null;
+    }
+
+    /**
+     * Sends the opening moves to the engines, or throws an {@link OpeningException}
+     * if the opening cannot be played.
+     */
+    private static void sendOpening(final GameConfig gameConfig,
+                                    final String openingProblem,
+                                    final ForcedEngine forcedWhiteEngine,
+                                    final ForcedEngine forcedBlackEngine) {
+        if (openingProblem != null) {
+            throw new OpeningException(openingProblem);
+        }
+        for (final String move : gameConfig.moves()) {
+            forcedWhiteEngine.makeMove(move);
+            forcedBlackEngine.makeMove(move);
+        }
+    }
+
     private void updateGameState(final String canMove, final Board board, final MoveList moves) {
         try {
             final var move = new Move(canMove, board.getSideToMove());
@@ -367,14 +586,18 @@ public class GameServiceImpl implements GameService {
     /**
      * Logs an incoming (from engine to tester) move.
      */
-    private void logMove(final String move, final Board board) {
+    static void logMove(final String move, final Board board) {
         logMove(board.getSideToMove().value(), move, board);
     }
 
     /**
      * Logs an incoming (from engine to tester) move.
      */
-    private void logMove(final String source, final String move, final Board board) {
+    private static void logMove(final String source, final String move, final Board board) {
+        // Check the level first to avoid the varargs array and the boxed move number
+        if (!LOGGER.isLoggable(DEBUG)) {
+            return;
+        }
         final var side = board.getSideToMove();
         final var number = board.getMoveCounter();
         final var dots = side == WHITE ? "." : "...";
@@ -384,14 +607,17 @@ public class GameServiceImpl implements GameService {
     /**
      * Logs an outgoing (from tester to engine) move.
      */
-    private void logMove(final String move, final Board board, final boolean haveAlreadyIncrementedMoveNumber) {
+    static void logMove(final String move, final Board board, final boolean haveAlreadyIncrementedMoveNumber) {
         logMove(board.getSideToMove().value(), move, board, haveAlreadyIncrementedMoveNumber);
     }
 
     /**
      * Logs an outgoing (from tester to engine) move.
      */
-    private void logMove(final String destination, final String move, final Board board, final boolean haveAlreadyIncrementedMoveNumber) {
+    private static void logMove(final String destination, final String move, final Board board, final boolean haveAlreadyIncrementedMoveNumber) {
+        if (!LOGGER.isLoggable(DEBUG)) {
+            return;
+        }
         final var side = board.getSideToMove();
         final var number = board.getMoveCounter() - (haveAlreadyIncrementedMoveNumber ? 1 : 0);
         final var dots = side == WHITE ? "..." : ".";
@@ -411,7 +637,25 @@ public class GameServiceImpl implements GameService {
         postResult(finalResult, activeExtraEngine, forcedExtraEngine);
     }
 
+    /**
+     * Returns the side of the engine that crashed. If the process of neither engine has
+     * exited yet, the side to move is assumed to have crashed.
+     */
+    private static Side crashedSide(final Board board, final ForcedEngine forcedWhiteEngine, final ForcedEngine forcedBlackEngine) {
+        if (forcedWhiteEngine.hasCrashed()) {
+            return WHITE;
+        } else if (forcedBlackEngine.hasCrashed()) {
+            return BLACK;
+        } else {
+            return board.getSideToMove();
+        }
+    }
+
     private void postResult(final Result finalResult, final ActiveEngine activeEngine, final ForcedEngine forcedEngine) {
+        if (forcedEngine != null && forcedEngine.hasCrashed()) {
+            // A crashed engine cannot receive the result
+            return;
+        }
         if (activeEngine != null) {
             activeEngine.postResult(finalResult.code(), finalResult.text());
         } else if (forcedEngine != null) {
@@ -419,8 +663,110 @@ public class GameServiceImpl implements GameService {
         }
     }
 
+    /**
+     * Returns the resource usage of the given engine since {@code before}, or null if the
+     * engine does not run in its own cgroup.
+     */
+    private static CgroupUsage usageSince(final IdlingEngine engine, final Optional<CgroupUsage> before) {
+        if (before.isEmpty()) {
+            return null;
+        }
+        final var usage = engine.resourceUsage().map(after -> after.minus(before.get())).orElse(null);
+        if (usage != null) {
+            LOGGER.log(INFO, "Engine ''{0}'' used {1} ms of CPU time, and was throttled {2} time(s)",
+                    engine.myName(), String.valueOf(usage.cpuMicros() / 1000), usage.throttledPeriods());
+        }
+        return usage;
+    }
+
+    /**
+     * Ends the ply just played, after the move has been validated and the board updated.
+     */
+    private void endMove(final long gameId,
+                         final Board board,
+                         final MoveList moves,
+                         final IdlingEngine whiteEngine,
+                         final IdlingEngine blackEngine,
+                         final ProcessSampler whiteSampler,
+                         final ProcessSampler blackSampler,
+                         final PlyTimer plyTimer) {
+        final var ply = moves.size();
+        final var move = moves.getLast();
+        final var side = board.getSideToMove().flip();
+        plyTimer.plyDone(ply, side, move);
+        whiteSampler.endMove(ply);
+        blackSampler.endMove(ply);
+
+        // Only create move events if a listener wants them
+        if (eventBus.movesWanted()) {
+            final var liveGame = plyTimer.liveGame();
+            final var score = (side == WHITE ? whiteEngine : blackEngine).lastScore();
+            eventBus.movePlayed(new MovePlayed(gameId, ply, move.toString(), board.getFen(), plyTimer.moveTimes().elapsedMillis(ply),
+                                               liveGame.whiteMillisLeft(), liveGame.blackMillisLeft(), score));
+        }
+    }
+
+    /**
+     * Returns the usage of the given engine during the game, or null if the engine was not sampled.
+     */
+    private static ProcessUsage processUsage(final ProcessSampler sampler, final IdlingEngine engine) {
+        final var usage = sampler.usage();
+        if (usage != null) {
+            LOGGER.log(INFO, "Engine ''{0}'' process used {1} ms of CPU time, at most {2} thread(s), and at most {3} kB of memory",
+                    engine.myName(), String.valueOf(usage.cpuMillis()), usage.maxThreads(), String.valueOf(usage.peakRssKb()));
+        }
+        return usage;
+    }
+
+    private static SearchStatistics searchSince(final IdlingEngine engine, final SearchStatistics before) {
+        if (before == null) {
+            return null;
+        }
+        final var after = engine.searchStatistics();
+        final var search = after != null ? after.minus(before) : null;
+        if (search != null && search.moves() > 0) {
+            METRICS.search(engine.myName(), search.nodes(), search.centis());
+            LOGGER.log(INFO, "Engine ''{0}'' searched {1} nodes per second on average",
+                    engine.myName(), String.valueOf(search.nps()));
+        }
+        return search;
+    }
+
+    private static void commitGameEnd(final GameEndEvent event,
+                                      final GameConfig gameConfig,
+                                      final String result,
+                                      final String reason,
+                                      final int plies) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.white = gameConfig.white();
+            event.black = gameConfig.black();
+            event.result = result;
+            event.reason = reason;
+            event.plies = plies;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns a note about engines that exceeded their cgroup limits during the game,
+     * to add to the reason of the game result, or an empty string if no engine did.
+     */
+    private static String limitViolations(final CgroupUsage whiteUsage, final CgroupUsage blackUsage) {
+        final var whiteExceeded = whiteUsage != null && whiteUsage.exceededLimits();
+        final var blackExceeded = blackUsage != null && blackUsage.exceededLimits();
+        if (whiteExceeded && blackExceeded) {
+            return "; both engines exceeded their resource limits";
+        } else if (whiteExceeded) {
+            return "; white engine exceeded its resource limits";
+        } else if (blackExceeded) {
+            return "; black engine exceeded its resource limits";
+        }
+        return "";
+    }
+
     private IdlingEngine stopEngine(final ActiveEngine activeEngine, final ForcedEngine forcedEngine) {
-        if (activeEngine != null) {
+        if (activeEngine != null && !activeEngine.hasCrashed()) {
             return activeEngine.force().stop();
         } else {
             return forcedEngine.stop();
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import java.util.Arrays;
+
+/**
+ * The think time and the time left on the clock after each ply of a game, in milliseconds.
+ * Plies that were not played by an engine, for example opening moves, have no times. The times
+ * are stored in a primitive array that grows as needed, so recording a ply does not allocate
+ * an object.
+ * <p>
+ * This class is not thread-safe. It is written by the game thread, and read after the game.
+ */
+public final class MoveTimes {
+
+    private static final int INITIAL_PLIES = 256;
+    private static final long NO_TIME = -1;
+
+    /** Elapsed time and clock time of ply N are stored at index 2 * (N - 1) and 2 * (N - 1) + 1. */
+    private long[] times = newTimes(INITIAL_PLIES);
+    private int plies;
+
+    /**
+     * Records that ply number {@code ply} took {@code elapsedMillis} milliseconds,
+     * and left {@code clockMillis} milliseconds on the clock.
+     */
+    public void record(final int ply, final long elapsedMillis, final long clockMillis) {
+        final var index = 2 * (ply - 1);
+        if (index >= times.length) {
+            final var oldLength = times.length;
+            times = Arrays.copyOf(times, Math.max(2 * oldLength, index + 2));
+            Arrays.fill(times, oldLength, times.length, NO_TIME);
+        }
+        times[index] = elapsedMillis;
+        times[index + 1] = clockMillis;
+        plies = Math.max(plies, ply);
+    }
+
+    /**
+     * Returns the number of the last ply that has been recorded.
+     */
+    public int plies() {
+        return plies;
+    }
+
+    /**
+     * Returns true if ply number {@code ply} has been recorded.
+     */
+    public boolean contains(final int ply) {
+        return ply >= 1 && ply <= plies && times[2 * (ply - 1)] != NO_TIME;
+    }
+
+    /**
+     * Returns the think time of ply number {@code ply}, which must have been recorded.
+     */
+    public long elapsedMillis(final int ply) {
+        return times[2 * (ply - 1)];
+    }
+
+    /**
+     * Returns the time left on the clock after ply number {@code ply}, which must have been recorded.
+     */
+    public long clockMillis(final int ply) {
+        return times[2 * (ply - 1) + 1];
+    }
+
+    private static long[] newTimes(final int plies) {
+        final var array = new long[2 * plies];
+        Arrays.fill(array, NO_TIME);
+        return array;
+    }
+}
@@ -22,7 +22,28 @@ import com.github.bhlangonijr.chesslib.game.GameResult;
 import com.github.bhlangonijr.chesslib.move.MoveList;
 import se.dykstrom.cet.engine.config.GameConfig;
 import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.CgroupUsage;
+import se.dykstrom.cet.engine.util.SearchStatistics;
 
+/**
+ * A game that has been played.
+ *
+ * @param whiteUsage The cgroup resource usage of the white engine during the game, or {@code null}
+ *                   if the engine does not run in its own cgroup.
+ * @param blackUsage The cgroup resource usage of the black engine during the game, or {@code null}
+ *                   if the engine does not run in its own cgroup.
+ * @param whiteProcessUsage The resources used by the white engine process, sampled from /proc,
+ *                          or {@code null} if the process was not sampled.
+ * @param blackProcessUsage The resources used by the black engine process, sampled from /proc,
+ *                          or {@code null} if the process was not sampled.
+ * @param whiteSearch The search statistics of the white engine during the game, taken from its
+ *                    thinking output, or {@code null} if not available.
+ * @param blackSearch The search statistics of the black engine during the game, taken from its
+ *                    thinking output, or {@code null} if not available.
+ * @param moveTimes The think time and clock time of each ply, or {@code null} if not available.
+ * @param gameId The id of the game, as returned by {@link se.dykstrom.cet.services.event.GameEventBus#gameStarted},
+ *               or 0 if not known.
+ */
 public record PlayedGame(GameConfig gameConfig,
                          IdlingEngine whiteEngine,
                          IdlingEngine blackEngine,
@@ -30,5 +51,127 @@ public record PlayedGame(GameConfig gameConfig,
                          GameResult result,
                          String reason,
                          MoveList moves,
-                         Map<Integer, String> extraMoves) {
+                         Map<Integer, String> extraMoves,
+                         CgroupUsage whiteUsage,
+                         CgroupUsage blackUsage,
+                         ProcessUsage whiteProcessUsage,
+                         ProcessUsage blackProcessUsage,
+                         SearchStatistics whiteSearch,
+                         SearchStatistics blackSearch,
+                         MoveTimes moveTimes,
+                         long gameId) {
+
+    public PlayedGame withGameId(final long gameId) {
+        return new PlayedGame(gameConfig, whiteEngine, blackEngine, extraEngine, result, reason, moves, extraMoves,
+                              whiteUsage, blackUsage, whiteProcessUsage, blackProcessUsage, whiteSearch, blackSearch, moveTimes, gameId);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private GameConfig gameConfig;
+        private IdlingEngine whiteEngine;
+        private IdlingEngine blackEngine;
+        private IdlingEngine extraEngine;
+        private GameResult result;
+        private String reason;
+        private MoveList moves;
+        private Map<Integer, String> extraMoves;
+        private CgroupUsage whiteUsage;
+        private CgroupUsage blackUsage;
+        private ProcessUsage whiteProcessUsage;
+        private ProcessUsage blackProcessUsage;
+        private SearchStatistics whiteSearch;
+        private SearchStatistics blackSearch;
+        private MoveTimes moveTimes;
+        private long gameId;
+
+        public Builder gameConfig(final GameConfig gameConfig) {
+            this.gameConfig = gameConfig;
+            return this;
+        }
+
+        public Builder whiteEngine(final IdlingEngine whiteEngine) {
+            this.whiteEngine = whiteEngine;
+            return this;
+        }
+
+        public Builder blackEngine(final IdlingEngine blackEngine) {
+            this.blackEngine = blackEngine;
+            return this;
+        }
+
+        public Builder extraEngine(final IdlingEngine extraEngine) {
+            this.extraEngine = extraEngine;
+            return this;
+        }
+
+        public Builder result(final GameResult result) {
+            this.result = result;
+            return this;
+        }
+
+        public Builder reason(final String reason) {
+            this.reason = reason;
+            return this;
+        }
+
+        public Builder moves(final MoveList moves) {
+            this.moves = moves;
+            return this;
+        }
+
+        public Builder extraMoves(final Map<Integer, String> extraMoves) {
+            this.extraMoves = extraMoves;
+            return this;
+        }
+
+        public Builder whiteUsage(final CgroupUsage whiteUsage) {
+            this.whiteUsage = whiteUsage;
+            return this;
+        }
+
+        public Builder blackUsage(final CgroupUsage blackUsage) {
+            this.blackUsage = blackUsage;
+            return this;
+        }
+
+        public Builder whiteProcessUsage(final ProcessUsage whiteProcessUsage) {
+            this.whiteProcessUsage = whiteProcessUsage;
+            return this;
+        }
+
+        public Builder blackProcessUsage(final ProcessUsage blackProcessUsage) {
+            this.blackProcessUsage = blackProcessUsage;
+            return this;
+        }
+
+        public Builder whiteSearch(final SearchStatistics whiteSearch) {
+            this.whiteSearch = whiteSearch;
+            return this;
+        }
+
+        public Builder blackSearch(final SearchStatistics blackSearch) {
+            this.blackSearch = blackSearch;
+            return this;
+        }
+
+        public Builder moveTimes(final MoveTimes moveTimes) {
+            this.moveTimes = moveTimes;
+            return this;
+        }
+
+        public Builder gameId(final long gameId) {
+            this.gameId = gameId;
+            return this;
+        }
+
+        public PlayedGame build() {
+            return new PlayedGame(gameConfig, whiteEngine, blackEngine, extraEngine, result, reason, moves, extraMoves,
+                                  whiteUsage, blackUsage, whiteProcessUsage, blackProcessUsage, whiteSearch, blackSearch, moveTimes, gameId);
+        }
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+import jdk.jfr.EventType;
+import se.dykstrom.cet.services.jfr.PlyEvent;
+import se.dykstrom.cet.services.metrics.Histogram;
+import se.dykstrom.cet.services.metrics.LiveGame;
+import se.dykstrom.cet.services.metrics.Metrics;
+
+import static com.github.bhlangonijr.chesslib.Side.WHITE;
+
+/**
+ * Times each ply of a game, and records in {@link Metrics} how long the engine took to move,
+ * and how long the tester took from receiving a move until sending the next one. When a JFR
+ * recording with {@link PlyEvent} enabled is running, each ply is also committed as an event.
+ * Otherwise, timing a ply does not allocate. The timer also keeps the {@link LiveGame} up to date,
+ * and records the think time and clock time of each ply in {@link MoveTimes}.
+ * <p>
+ * This class is not thread-safe. Each game has its own timer.
+ */
+final class PlyTimer {
+
+    private static final EventType PLY_EVENT_TYPE = EventType.getEventType(PlyEvent.class);
+
+    private final LiveGame liveGame;
+    private final Histogram whiteLatency;
+    private final Histogram blackLatency;
+    private final Histogram overhead;
+    private final MoveTimes moveTimes = new MoveTimes();
+
+    private long plyStartNanos = System.nanoTime();
+    private long sentNanos;
+    private long readNanos = -1;
+    private long receivedNanos;
+    private long clockMillis;
+    private PlyEvent event = startEvent();
+
+    PlyTimer(final Metrics metrics, final LiveGame liveGame) {
+        this.liveGame = liveGame;
+        this.whiteLatency = metrics.moveLatency(liveGame.white());
+        this.blackLatency = metrics.moveLatency(liveGame.black());
+        this.overhead = metrics.plyOverhead();
+    }
+
+    /**
+     * Called when the tester has sent a move to an engine, or told it to start thinking.
+     */
+    void moveSent() {
+        sentNanos = System.nanoTime();
+        if (readNanos >= 0) {
+            overhead.observe(sentNanos - readNanos);
+        }
+    }
+
+    /**
+     * Called when the tester has received and parsed a move from the engine playing {@code side},
+     * that now has {@code millisLeft} milliseconds left on its clock. The line with the move was
+     * read at {@code lineNanos}, as returned by {@link System#nanoTime()}. If that time is not
+     * known, or not within the ply, the move is assumed to have been read just now.
+     */
+    void moveReceived(final Side side, final long millisLeft, final long lineNanos) {
+        receivedNanos = System.nanoTime();
+        readNanos = lineNanos - sentNanos >= 0 && receivedNanos - lineNanos >= 0 ? lineNanos : receivedNanos;
+        clockMillis = millisLeft;
+        if (side == WHITE) {
+            whiteLatency.observe(readNanos - sentNanos);
+            liveGame.whiteMoved(millisLeft);
+        } else {
+            blackLatency.observe(readNanos - sentNanos);
+            liveGame.blackMoved(millisLeft);
+        }
+    }
+
+    /**
+     * Called when the move received from the engine playing {@code side} has been validated,
+     * and the board updated. The move was ply number {@code ply} of the game.
+     */
+    void plyDone(final int ply, final Side side, final Move move) {
+        final var doneNanos = System.nanoTime();
+        liveGame.plyDone(ply);
+        moveTimes.record(ply, (readNanos - sentNanos) / 1_000_000, clockMillis);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.engine = side == WHITE ? liveGame.white() : liveGame.black();
+                event.ply = ply;
+                event.move = move.toString();
+                event.sendTime = sentNanos - plyStartNanos;
+                event.engineTime = readNanos - sentNanos;
+                event.parseTime = receivedNanos - readNanos;
+                event.validationTime = doneNanos - receivedNanos;
+                event.commit();
+            }
+        }
+        event = startEvent();
+        plyStartNanos = System.nanoTime();
+    }
+
+    LiveGame liveGame() {
+        return liveGame;
+    }
+
+    /**
+     * Returns the think time and clock time of each ply timed so far.
+     */
+    MoveTimes moveTimes() {
+        return moveTimes;
+    }
+
+    private static PlyEvent startEvent() {
+        if (!PLY_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        final var plyEvent = new PlyEvent();
+        plyEvent.begin();
+        return plyEvent;
+    }
+}
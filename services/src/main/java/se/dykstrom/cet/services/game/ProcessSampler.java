@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import se.dykstrom.cet.engine.state.Engine;
+import se.dykstrom.cet.engine.util.ProcessSample;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Samples the CPU time, threads and memory of one engine process and its descendants at a
+ * fixed interval during a game. All samplers share a single daemon thread, which does all the
+ * sampling. The game thread only queues the end of each move window, and never reads /proc.
+ * <p>
+ * Each sample reads /proc/[pid]/stat and /proc/[pid]/status of the engine process and each of
+ * its descendants. Finding the descendants means scanning all processes in the system, so the
+ * list of descendants is only refreshed every {@value #PIDS_INTERVAL_MILLIS} ms.
+ * <p>
+ * A sampler for an engine that cannot be sampled does nothing, and returns no usage.
+ */
+final class ProcessSampler {
+
+    private static final System.Logger LOGGER = System.getLogger(ProcessSampler.class.getName());
+
+    /** How often to look for new descendants of the engine process. */
+    static final long PIDS_INTERVAL_MILLIS = 5_000;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "process-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ProcessHandle handle;
+    private final List<ProcessUsage.MoveUsage> moves = new ArrayList<>();
+
+    private ScheduledFuture<?> task;
+    private long[] pids;
+    private long pidsNanos;
+    private ProcessSample first = ProcessSample.ZERO;
+    private ProcessSample last = ProcessSample.ZERO;
+    private ProcessSample windowStart = ProcessSample.ZERO;
+    private int maxThreads;
+    private long peakRssKb;
+    private int windowMaxThreads;
+    private long windowPeakRssKb;
+    private ProcessUsage usage;
+
+    private ProcessSampler(final ProcessHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Starts sampling the process of the given engine every {@code intervalMillis} milliseconds.
+     * If the interval is 0, or the process cannot be sampled, the returned sampler does nothing.
+     */
+    static ProcessSampler start(final Engine engine, final long intervalMillis) {
+        final var process = engine.process() != null ? engine.process().process() : null;
+        final var canSample = intervalMillis > 0 && process != null && ProcessSample.isSupported();
+        final var sampler = new ProcessSampler(canSample ? process.toHandle() : null);
+        if (canSample) {
+            sampler.schedule(intervalMillis);
+        }
+        return sampler;
+    }
+
+    private synchronized void schedule(final long intervalMillis) {
+        SCHEDULER.execute(this::begin);
+        task = SCHEDULER.scheduleAtFixedRate(this::sampleWhileAlive, intervalMillis, intervalMillis, MILLISECONDS);
+    }
+
+    private synchronized void begin() {
+        sample();
+        first = last;
+        windowStart = last;
+    }
+
+    /**
+     * Takes a sample, or stops sampling if the process has exited, in case the sampler was never stopped.
+     */
+    private synchronized void sampleWhileAlive() {
+        if (handle.isAlive()) {
+            sample();
+        } else {
+            task.cancel(false);
+        }
+    }
+
+    private synchronized void sample() {
+        try {
+            final var now = System.nanoTime();
+            if (pids == null || now - pidsNanos >= MILLISECONDS.toNanos(PIDS_INTERVAL_MILLIS)) {
+                pids = ProcessSample.pids(handle);
+                pidsNanos = now;
+            }
+            last = ProcessSample.read(pids);
+            maxThreads = Math.max(maxThreads, last.threads());
+            peakRssKb = Math.max(peakRssKb, last.rssKb());
+            windowMaxThreads = Math.max(windowMaxThreads, last.threads());
+            windowPeakRssKb = Math.max(windowPeakRssKb, last.rssKb());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(DEBUG, "Cannot sample process {0}: {1}", String.valueOf(handle.pid()), e.getMessage());
+        }
+    }
+
+    /**
+     * Ends the current move window, which ended with the move with the given ply. The window
+     * is closed by a sample on the sampler thread, so this method returns immediately.
+     */
+    void endMove(final int ply) {
+        if (handle != null) {
+            SCHEDULER.execute(() -> endWindow(ply));
+        }
+    }
+
+    private synchronized void endWindow(final int ply) {
+        sample();
+        moves.add(new ProcessUsage.MoveUsage(ply, last.cpuMillis() - windowStart.cpuMillis(), windowMaxThreads, windowPeakRssKb));
+        windowStart = last;
+        windowMaxThreads = 0;
+        windowPeakRssKb = 0;
+    }
+
+    /**
+     * Stops sampling, after all move windows that have been ended so far have been closed.
+     */
+    void stop() {
+        if (handle != null) {
+            synchronized (this) {
+                task.cancel(false);
+            }
+            // Tasks on the sampler thread run in order, so this runs after all queued windows
+            CompletableFuture.runAsync(this::finish, SCHEDULER).join();
+        }
+    }
+
+    private synchronized void finish() {
+        sample();
+        usage = new ProcessUsage(last.cpuMillis() - first.cpuMillis(), maxThreads, peakRssKb, moves);
+    }
+
+    /**
+     * Returns the usage between start and stop, or null if nothing was sampled.
+     */
+    synchronized ProcessUsage usage() {
+        return usage;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import java.util.List;
+
+/**
+ * The resources used by an engine process during a game, sampled from /proc.
+ *
+ * @param cpuMillis The CPU time used during the game, in milliseconds.
+ * @param maxThreads The largest number of threads seen during the game.
+ * @param peakRssKb The largest resident set size seen during the game, in kB.
+ * @param moves The resources used between each move and the move before it.
+ */
+public record ProcessUsage(long cpuMillis, int maxThreads, long peakRssKb, List<MoveUsage> moves) {
+
+    public ProcessUsage {
+        moves = List.copyOf(moves);
+    }
+
+    /**
+     * The resources used by an engine process in the window that ended with a move.
+     * The window includes the time the engine was waiting for the opponent to move,
+     * so CPU time used then means that the engine is pondering.
+     *
+     * @param ply The ply of the move that ended the window, starting from 1.
+     * @param cpuMillis The CPU time used in the window, in milliseconds.
+     * @param maxThreads The largest number of threads seen in the window.
+     * @param peakRssKb The largest resident set size seen in the window, in kB.
+     */
+    public record MoveUsage(int ply, long cpuMillis, int maxThreads, long peakRssKb) { }
+}
@@ -17,8 +17,23 @@
 package se.dykstrom.cet.services.io;
 
 import java.io.File;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+/**
+ * An engine config file, as read from disk.
+ *
+ * @param command The command used to start the engine.
+ * @param directory The directory in which to start the engine.
+ * @param hash The hash table size in MB, or {@code null} for the engine default.
+ * @param threads The number of threads, or {@code null} for the engine default.
+ * @param options Engine-defined options, by option name, or {@code null} if there are none.
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record EngineConfigDto(String command, File directory) { }
+public record EngineConfigDto(String command, File directory, Integer hash, Integer threads, Map<String, String> options) {
+
+    public EngineConfigDto(final String command, final File directory) {
+        this(command, directory, null, null, null);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for restarting an engine between two games of a match, tournament, or distributed match.
+ */
+@Name("se.dykstrom.cet.EngineRestart")
+@Label("Engine Restart")
+@Category({"Chess Engine Tester", "Engine"})
+@Description("Unloading and loading an engine between games")
+public class EngineRestartEvent extends Event {
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Crashed")
+    @Description("True if the engine was restarted because it crashed, false if it does not support reuse")
+    public boolean crashed;
+}
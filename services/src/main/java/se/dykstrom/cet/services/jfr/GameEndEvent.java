@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for a whole game, committed when the game is over.
+ */
+@Name("se.dykstrom.cet.GameEnd")
+@Label("Game End")
+@Category({"Chess Engine Tester", "Game"})
+@Description("A game, from the first move until the result")
+public class GameEndEvent extends Event {
+
+    @Label("White")
+    public String white;
+
+    @Label("Black")
+    public String black;
+
+    @Label("Result")
+    public String result;
+
+    @Label("Reason")
+    public String reason;
+
+    @Label("Plies")
+    public int plies;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for one ply of a game, from the end of the previous ply until the move
+ * of this ply has been validated, split into the time spent by the tester and the engine.
+ */
+@Name("se.dykstrom.cet.Ply")
+@Label("Ply")
+@Category({"Chess Engine Tester", "Game"})
+@Description("One ply of a game")
+public class PlyEvent extends Event {
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Move")
+    public String move;
+
+    @Label("Send Time")
+    @Description("Time from the end of the previous ply until the move was sent to the engine")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sendTime;
+
+    @Label("Engine Time")
+    @Description("Time from sending the move until the reply was read")
+    @Timespan(Timespan.NANOSECONDS)
+    public long engineTime;
+
+    @Label("Parse Time")
+    @Description("Time to parse the reply")
+    @Timespan(Timespan.NANOSECONDS)
+    public long parseTime;
+
+    @Label("Validation Time")
+    @Description("Time to validate the reply and update the board")
+    @Timespan(Timespan.NANOSECONDS)
+    public long validationTime;
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.match;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+
+/**
+ * One finished game in a {@link MatchJournal}. The opening is the index of the position
+ * in the opening suite, or -1 if no opening suite was used.
+ */
+public record JournalEntry(int round, String white, String black, int opening, GameResult result, String reason) { }
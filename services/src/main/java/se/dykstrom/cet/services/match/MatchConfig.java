@@ -16,13 +16,108 @@
 
 package se.dykstrom.cet.services.match;
 
+import se.dykstrom.cet.engine.config.GameConfig;
 import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.opening.OpeningSuite;
+import se.dykstrom.cet.services.opening.PolyglotBook;
 
 import static se.dykstrom.cet.engine.util.Args.ensure;
 
-public record MatchConfig(int numberOfGames, TimeControl timeControl) {
+/**
+ * Configuration of a match. If {@code openings} is not null, each pair of games starts from
+ * a position sampled from the opening suite. If {@code book} is not null, up to {@code bookDepth}
+ * weighted random book moves are then played from the start position. The {@code seed} makes
+ * both samples reproducible. If {@code journal} is not null, each finished game is written to
+ * the journal, and games already in the journal are not played again. An engine that crashes is
+ * restarted, and the match goes on, until the engine has crashed more than {@code maxCrashes} times.
+ * The engine processes are sampled every {@code sampleIntervalMillis} milliseconds, or not at all if it is 0.
+ */
+public record MatchConfig(int numberOfGames,
+                          TimeControl timeControl,
+                          OpeningSuite openings,
+                          PolyglotBook book,
+                          int bookDepth,
+                          long seed,
+                          MatchJournal journal,
+                          int maxCrashes,
+                          long sampleIntervalMillis) {
+
+    public static final int DEFAULT_MAX_CRASHES = 3;
 
     public MatchConfig {
         ensure(numberOfGames > 0, "numberOfGames must be > 0");
+        ensure(bookDepth >= 0, "bookDepth must be >= 0");
+        ensure(maxCrashes >= 0, "maxCrashes must be >= 0");
+        ensure(sampleIntervalMillis >= 0, "sampleIntervalMillis must be >= 0");
+    }
+
+    public MatchConfig withJournal(final MatchJournal journal) {
+        return new MatchConfig(numberOfGames, timeControl, openings, book, bookDepth, seed, journal, maxCrashes, sampleIntervalMillis);
+    }
+
+    public MatchConfig withMaxCrashes(final int maxCrashes) {
+        return new MatchConfig(numberOfGames, timeControl, openings, book, bookDepth, seed, journal, maxCrashes, sampleIntervalMillis);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int numberOfGames;
+        private TimeControl timeControl;
+        private OpeningSuite openings;
+        private PolyglotBook book;
+        private int bookDepth = 0;
+        private long seed = 0;
+        private MatchJournal journal;
+        private int maxCrashes = DEFAULT_MAX_CRASHES;
+        private long sampleIntervalMillis = GameConfig.DEFAULT_SAMPLE_INTERVAL_MILLIS;
+
+        public Builder numberOfGames(final int numberOfGames) {
+            this.numberOfGames = numberOfGames;
+            return this;
+        }
+
+        public Builder timeControl(final TimeControl timeControl) {
+            this.timeControl = timeControl;
+            return this;
+        }
+
+        public Builder openings(final OpeningSuite openings) {
+            this.openings = openings;
+            return this;
+        }
+
+        public Builder book(final PolyglotBook book, final int bookDepth) {
+            this.book = book;
+            this.bookDepth = bookDepth;
+            return this;
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder journal(final MatchJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public Builder maxCrashes(final int maxCrashes) {
+            this.maxCrashes = maxCrashes;
+            return this;
+        }
+
+        public Builder sampleIntervalMillis(final long sampleIntervalMillis) {
+            this.sampleIntervalMillis = sampleIntervalMillis;
+            return this;
+        }
+
+        public MatchConfig build() {
+            return new MatchConfig(numberOfGames, timeControl, openings, book, bookDepth, seed, journal, maxCrashes, sampleIntervalMillis);
+        }
     }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.match;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An append-only journal of finished games in a match, that makes it possible to resume
+ * a match that was interrupted.
+ * <p>
+ * The journal is a text file. The first line is a header with the match parameters: the number
+ * of games, the seed, and a fingerprint of the openings, see {@link MatchOpenings#fingerprint()}.
+ * Each following line describes one finished game. Each line ends with a CRC-32 checksum of the
+ * line. A line is written with a single write, and forced to disk before the next game starts.
+ * If the process dies while writing, the last line may be incomplete. Such a line fails the
+ * checksum test, and is removed when the journal is resumed.
+ */
+public final class MatchJournal implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(MatchJournal.class.getName());
+
+    private static final String HEADER = "# cet-journal 1";
+    private static final char SEPARATOR = '\t';
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int numberOfGames;
+    private final long seed;
+    private final String openings;
+    private final List<JournalEntry> entries;
+
+    private MatchJournal(final Path file,
+                         final FileChannel channel,
+                         final int numberOfGames,
+                         final long seed,
+                         final String openings,
+                         final List<JournalEntry> entries) {
+        this.file = file;
+        this.channel = channel;
+        this.numberOfGames = numberOfGames;
+        this.seed = seed;
+        this.openings = openings;
+        this.entries = entries;
+    }
+
+    /**
+     * Creates a new journal for a match with the given parameters. The file must not exist.
+     * The openings are identified by their {@link MatchOpenings#fingerprint() fingerprint}.
+     */
+    public static MatchJournal create(final Path file, final int numberOfGames, final long seed, final String openings) throws IOException {
+        final var channel = FileChannel.open(file, CREATE_NEW, WRITE);
+        final var journal = new MatchJournal(file, channel, numberOfGames, seed, openings, new ArrayList<>());
+        try {
+            journal.write(HEADER + SEPARATOR + numberOfGames + SEPARATOR + seed + SEPARATOR + clean(openings));
+        } catch (UncheckedIOException e) {
+            channel.close();
+            throw e.getCause();
+        }
+        LOGGER.log(INFO, "Created match journal ''{0}''", file);
+        return journal;
+    }
+
+    /**
+     * Opens an existing journal to resume the match. An incomplete last line is removed.
+     */
+    public static MatchJournal resume(final Path file) throws IOException {
+        final var bytes = Files.readAllBytes(file);
+        final var entries = new ArrayList<JournalEntry>();
+        var headerRead = false;
+        int numberOfGames = 0;
+        long seed = 0;
+        String openings = null;
+
+        var start = 0;
+        var lineNumber = 0;
+        while (start < bytes.length) {
+            var end = start;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            lineNumber++;
+            final var line = end < bytes.length ? verify(new String(bytes, start, end - start, UTF_8)) : null;
+            if (line == null) {
+                if (end + 1 < bytes.length) {
+                    throw new IOException("Corrupt match journal '" + file + "' on line " + lineNumber);
+                }
+                // Incomplete or damaged last line, probably written when the process died
+                LOGGER.log(WARNING, "Removing incomplete line {0} from match journal ''{1}''", lineNumber, file);
+                break;
+            }
+            final var fields = line.split(String.valueOf(SEPARATOR), -1);
+            if (!headerRead) {
+                if (fields.length != 4 || !fields[0].equals(HEADER)) {
+                    throw new IOException("File '" + file + "' is not a match journal");
+                }
+                numberOfGames = Integer.parseInt(fields[1]);
+                seed = Long.parseLong(fields[2]);
+                openings = fields[3];
+                headerRead = true;
+            } else {
+                entries.add(parseEntry(fields, file, lineNumber));
+            }
+            start = end + 1;
+        }
+        if (!headerRead) {
+            throw new IOException("Match journal '" + file + "' has no header");
+        }
+
+        final var channel = FileChannel.open(file, WRITE);
+        try {
+            // Remove anything after the last complete line, and continue writing from there
+            channel.truncate(Math.min(start, bytes.length));
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        LOGGER.log(INFO, "Resuming match journal ''{0}'' with {1} finished game(s)", file, entries.size());
+        return new MatchJournal(file, channel, numberOfGames, seed, openings, entries);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int numberOfGames() {
+        return numberOfGames;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Returns the fingerprint of the openings of the match, see {@link MatchOpenings#fingerprint()}.
+     */
+    public String openings() {
+        return openings;
+    }
+
+    /**
+     * Returns the entries in the journal, including those added since it was opened.
+     */
+    public synchronized List<JournalEntry> entries() {
+        return List.copyOf(entries);
+    }
+
+    /**
+     * Appends the given entry to the journal, and forces it to disk.
+     */
+    public synchronized void append(final JournalEntry entry) {
+        write(String.join(String.valueOf(SEPARATOR),
+                String.valueOf(entry.round()),
+                clean(entry.white()),
+                clean(entry.black()),
+                String.valueOf(entry.opening()),
+                entry.result().getDescription(),
+                clean(entry.reason())));
+        entries.add(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(final String line) {
+        final var bytes = (line + SEPARATOR + HEX.toHexDigits((int) crc(line)) + "\n").getBytes(UTF_8);
+        try {
+            final var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // File metadata such as the modification time need not be written
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to match journal '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Verifies the checksum of the given line, and returns the line without the checksum,
+     * or null if the checksum is missing or wrong.
+     */
+    private static String verify(final String lineWithChecksum) {
+        final var index = lineWithChecksum.lastIndexOf(SEPARATOR);
+        if (index < 0) {
+            return null;
+        }
+        final var line = lineWithChecksum.substring(0, index);
+        final var checksum = lineWithChecksum.substring(index + 1);
+        return checksum.equals(HEX.toHexDigits((int) crc(line))) ? line : null;
+    }
+
+    private static long crc(final String line) {
+        final var crc = new CRC32();
+        crc.update(line.getBytes(UTF_8));
+        return crc.getValue();
+    }
+
+    private static JournalEntry parseEntry(final String[] fields, final Path file, final int lineNumber) throws IOException {
+        if (fields.length != 6) {
+            throw new IOException("Invalid entry in match journal '" + file + "' on line " + lineNumber);
+        }
+        try {
+            return new JournalEntry(
+                    Integer.parseInt(fields[0]),
+                    fields[1],
+                    fields[2],
+                    Integer.parseInt(fields[3]),
+                    GameResult.fromNotation(fields[4]),
+                    fields[5]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid entry in match journal '" + file + "' on line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String clean(final String value) {
+        return value == null ? "" : value.replace(SEPARATOR, ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.match;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The start positions and book moves of each pair of games in a match. Each pair gets its own
+ * random generator, so that the same pair always gets the same book line, no matter in which
+ * order, or in which process, the pairs are played.
+ */
+public final class MatchOpenings {
+
+    private final MatchConfig matchConfig;
+    private final int[] sample;
+
+    private MatchOpenings(final MatchConfig matchConfig, final int[] sample) {
+        this.matchConfig = matchConfig;
+        this.sample = sample;
+    }
+
+    /**
+     * Samples the openings of all pairs of games in the given match.
+     */
+    public static MatchOpenings of(final MatchConfig matchConfig) {
+        final var openings = matchConfig.openings();
+        final var sample = openings != null ? openings.sample(matchConfig.numberOfGames() / 2, matchConfig.seed()) : null;
+        return new MatchOpenings(matchConfig, sample);
+    }
+
+    /**
+     * Returns the index in the opening suite of the given pair, or -1 if the match has no opening suite.
+     */
+    public int index(final int pair) {
+        return sample != null ? sample[pair] : -1;
+    }
+
+    /**
+     * Returns the start position of the given pair, or {@code null} to start from the standard position.
+     */
+    public String fen(final int pair) {
+        return sample != null ? matchConfig.openings().fen(sample[pair]) : null;
+    }
+
+    /**
+     * Returns a fingerprint of the start positions and book moves of all pairs of games. Two matches
+     * with the same fingerprint play the same openings, even if they use different opening suite or
+     * book files. The fingerprint changes if the suite, the book, the book depth, or the seed changes
+     * the openings.
+     */
+    public String fingerprint() {
+        final var crc = new CRC32();
+        for (var pair = 0; pair < matchConfig.numberOfGames() / 2; pair++) {
+            final var fen = fen(pair);
+            crc.update(((fen != null ? fen : "") + " " + String.join(" ", moves(pair)) + "\n").getBytes(UTF_8));
+        }
+        return HexFormat.of().toHexDigits((int) crc.getValue());
+    }
+
+    /**
+     * Returns the book moves of the given pair, played from the start position.
+     */
+    public List<String> moves(final int pair) {
+        final var book = matchConfig.book();
+        return book != null ? book.line(fen(pair), matchConfig.bookDepth(), new Random(matchConfig.seed() + pair)) : List.of();
+    }
+}
@@ -20,7 +20,7 @@ import se.dykstrom.cet.engine.state.IdlingEngine;
 import se.dykstrom.cet.engine.time.TimeControl;
 import se.dykstrom.cet.services.util.GameListener;
 
-public interface MatchService {
+public interface MatchService extends AutoCloseable {
 
     void addGameListener(final GameListener gameListener);
 
@@ -38,4 +38,10 @@ public interface MatchService {
                           final IdlingEngine engine2);
 
     void stopMatch();
+
+    /**
+     * Waits until all game listeners have handled all events, and releases the threads that deliver them.
+     */
+    @Override
+    void close();
 }
@@ -18,21 +18,28 @@ package se.dykstrom.cet.services.match;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.github.bhlangonijr.chesslib.game.GameResult;
 import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.exception.EngineCrashedException;
 import se.dykstrom.cet.engine.state.IdlingEngine;
 import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.event.GameEventBus;
 import se.dykstrom.cet.services.game.GameService;
 import se.dykstrom.cet.services.game.GameServiceImpl;
 import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.metrics.Metrics;
 import se.dykstrom.cet.services.util.GameListener;
 import se.dykstrom.cet.services.util.ThreadUtils;
 
 import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
 import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.services.util.EngineUtils.restartEngineIfNeeded;
 import static se.dykstrom.cet.engine.util.Args.ensure;
 
 public class MatchServiceImpl implements MatchService {
@@ -41,20 +48,34 @@ public class MatchServiceImpl implements MatchService {
 
     private final GameService gameService;
 
+    private final GameEventBus eventBus;
+
     private final AtomicBoolean playing = new AtomicBoolean(false);
-    private final List<GameListener> gameListeners = new ArrayList<>();
 
     public MatchServiceImpl() {
-        this(new GameServiceImpl());
+        this(new GameEventBus());
+    }
+
+    private MatchServiceImpl(final GameEventBus eventBus) {
+        this(new GameServiceImpl(eventBus), eventBus);
     }
 
     public MatchServiceImpl(final GameService gameService) {
+        this(gameService, new GameEventBus());
+    }
+
+    /**
+     * Creates a match service that publishes game events on the given event bus. The game service
+     * should publish game start and move events on the same bus.
+     */
+    public MatchServiceImpl(final GameService gameService, final GameEventBus eventBus) {
         this.gameService = requireNonNull(gameService);
+        this.eventBus = requireNonNull(eventBus);
     }
 
     @Override
     public void addGameListener(final GameListener gameListener) {
-        gameListeners.add(requireNonNull(gameListener));
+        eventBus.subscribe(gameListener);
     }
 
     @Override
@@ -65,7 +86,7 @@ public class MatchServiceImpl implements MatchService {
                 engine1.myName(), engine2.myName(), timeControl);
         playing.set(true);
 
-        final var gameConfig = new GameConfig(engine1.myName(), engine2.myName(), timeControl);
+        final var gameConfig = GameConfig.builder().white(engine1.myName()).black(engine2.myName()).timeControl(timeControl).build();
         final var startTime = LocalDateTime.now();
         final var playedGame = gameService.playGame(gameConfig, engine1, engine2);
         notifyListeners(1, startTime, playedGame);
@@ -73,8 +94,9 @@ public class MatchServiceImpl implements MatchService {
         final var results = List.of(playedGame.result());
         final var reasons = List.of(playedGame.reason());
         LOGGER.log(INFO, "Final results: {0}", results);
+        eventBus.matchEnded();
         return new PlayedMatch(
-                new MatchConfig(1, timeControl),
+                MatchConfig.builder().numberOfGames(1).timeControl(timeControl).build(),
                 playedGame.whiteEngine(),
                 playedGame.blackEngine(),
                 null,
@@ -93,7 +115,7 @@ public class MatchServiceImpl implements MatchService {
                 engine1.myName(), engine2.myName(), engine3.myName(), timeControl);
         playing.set(true);
 
-        final var gameConfig = new GameConfig(engine1.myName(), engine2.myName(), timeControl);
+        final var gameConfig = GameConfig.builder().white(engine1.myName()).black(engine2.myName()).timeControl(timeControl).build();
         final var startTime = LocalDateTime.now();
         final var playedGame = gameService.playGameWithExtraEngine(gameConfig, engine1, engine2, engine3);
         notifyListeners(1, startTime, playedGame);
@@ -101,8 +123,9 @@ public class MatchServiceImpl implements MatchService {
         final var results = List.of(playedGame.result());
         final var reasons = List.of(playedGame.reason());
         LOGGER.log(INFO, "Final results: {0}", results);
+        eventBus.matchEnded();
         return new PlayedMatch(
-                new MatchConfig(1, timeControl),
+                MatchConfig.builder().numberOfGames(1).timeControl(timeControl).build(),
                 playedGame.whiteEngine(),
                 playedGame.blackEngine(),
                 playedGame.extraEngine(),
@@ -119,52 +142,146 @@ public class MatchServiceImpl implements MatchService {
         LOGGER.log(INFO, "Starting new match of {0} game(s) between ''{1}'' and ''{2}''. Time control is {3}.",
                 matchConfig.numberOfGames(), engine1.myName(), engine2.myName(), matchConfig.timeControl());
         playing.set(true);
+        Metrics.global().gameSlots(1);
         final List<GameResult> results = new ArrayList<>();
         final List<String> reasons = new ArrayList<>();
         var idlingEngine1 = engine1;
         var idlingEngine2 = engine2;
 
+        // Each opening is played twice, with colors swapped
+        final var openings = matchConfig.openings();
+        if (openings != null) {
+            ensure(engine1.features().setBoard(), "Engine '" + engine1.myName() + "' does not support setboard command");
+            ensure(engine2.features().setBoard(), "Engine '" + engine2.myName() + "' does not support setboard command");
+            LOGGER.log(INFO, "Using openings from ''{0}'' with seed {1}", openings.file(), matchConfig.seed());
+        }
+        final var matchOpenings = MatchOpenings.of(matchConfig);
+
+        final var book = matchConfig.book();
+        if (book != null) {
+            LOGGER.log(INFO, "Using book ''{0}'' with depth {1} and seed {2}", book.file(), matchConfig.bookDepth(), matchConfig.seed());
+        }
+
+        // Games that were finished before the match was interrupted
+        final var journal = matchConfig.journal();
+        final Map<Integer, JournalEntry> finishedGames = new HashMap<>();
+        if (journal != null) {
+            journal.entries().forEach(entry -> finishedGames.put(entry.round(), entry));
+            if (!finishedGames.isEmpty()) {
+                LOGGER.log(INFO, "Resuming match with {0} finished game(s) from journal ''{1}''", finishedGames.size(), journal.file());
+            }
+            // The finished games must have been played from the same openings, and by the same engines
+            // with the same colors, as the rest of the match
+            final var fingerprint = matchOpenings.fingerprint();
+            ensure(journal.openings().equals(fingerprint), "Journal '" + journal.file() + "' was written for other openings (" +
+                    journal.openings() + ") than this match uses (" + fingerprint + ")");
+            finishedGames.values().forEach(entry -> {
+                final var opening = matchOpenings.index((entry.round() - 1) / 2);
+                ensure(entry.opening() == opening, "Game " + entry.round() + " in journal '" + journal.file() +
+                        "' was played from opening " + entry.opening() + ", but this match uses opening " + opening);
+                final var engine1IsWhite = entry.round() % 2 != 0;
+                final var white = engine1IsWhite ? engine1.myName() : engine2.myName();
+                final var black = engine1IsWhite ? engine2.myName() : engine1.myName();
+                ensure(entry.white().equals(white) && entry.black().equals(black), "Game " + entry.round() + " in journal '" +
+                        journal.file() + "' was played by " + entry.white() + " - " + entry.black() + ", but in this match it is " +
+                        white + " - " + black);
+            });
+        }
+
+        // Number of crashes for engine 1 and engine 2; crashes are not written to the journal,
+        // so a resumed match starts with a full crash budget
+        final int[] crashes = new int[2];
+
+        String fen = null;
+        List<String> moves = List.of();
         var round = 1;
         while (playing.get() && round <= matchConfig.numberOfGames()) {
-            // Odd game
-            var gameConfig = new GameConfig(idlingEngine1.myName(), idlingEngine2.myName(), matchConfig.timeControl());
-            var startTime = LocalDateTime.now();
-            var playedGame = gameService.playGame(gameConfig, idlingEngine1, idlingEngine2);
-            notifyListeners(round, startTime, playedGame);
-            idlingEngine1 = restartEngineIfNeeded(playedGame.whiteEngine());
-            idlingEngine2 = restartEngineIfNeeded(playedGame.blackEngine());
-            results.add(playedGame.result());
-            reasons.add(playedGame.reason());
-            round++;
-            ThreadUtils.sleepSilently(1_000);
+            final var pair = (round - 1) / 2;
+            if (round % 2 != 0) {
+                // A new pair of games; a resumed match plays the same openings as the original match
+                fen = matchOpenings.fen(pair);
+                moves = matchOpenings.moves(pair);
+            }
+
+            final var finishedGame = finishedGames.get(round);
+            if (finishedGame != null) {
+                results.add(finishedGame.result());
+                reasons.add(finishedGame.reason());
+                round++;
+                continue;
+            }
 
-            // Even game
-            gameConfig = new GameConfig(idlingEngine2.myName(), idlingEngine1.myName(), matchConfig.timeControl());
-            startTime = LocalDateTime.now();
-            playedGame = gameService.playGame(gameConfig, idlingEngine2, idlingEngine1);
+            // Engine 1 plays white in odd games, and black in even games
+            final var engine1IsWhite = round % 2 != 0;
+            final var whiteEngine = engine1IsWhite ? idlingEngine1 : idlingEngine2;
+            final var blackEngine = engine1IsWhite ? idlingEngine2 : idlingEngine1;
+            final var gameConfig = new GameConfig(whiteEngine.myName(), blackEngine.myName(), matchConfig.timeControl(), fen, moves,
+                                                  matchConfig.sampleIntervalMillis());
+            final var startTime = LocalDateTime.now();
+            final PlayedGame playedGame;
+            try {
+                playedGame = gameService.playGame(gameConfig, whiteEngine, blackEngine);
+            } catch (EngineCrashedException e) {
+                // The game never started, so it is played again after the engine has been restarted
+                LOGGER.log(WARNING, "Engine crashed before game {0} started: {1}", round, e.getMessage());
+                Metrics.global().engineCrash();
+                if (!isWithinCrashBudget(crashes, matchConfig.maxCrashes(), idlingEngine1, idlingEngine2)) {
+                    break;
+                }
+                if (!idlingEngine1.hasCrashed() && !idlingEngine2.hasCrashed()) {
+                    throw e;
+                }
+                idlingEngine1 = restartEngineIfNeeded(idlingEngine1);
+                idlingEngine2 = restartEngineIfNeeded(idlingEngine2);
+                continue;
+            }
             notifyListeners(round, startTime, playedGame);
-            idlingEngine1 = restartEngineIfNeeded(playedGame.blackEngine());
-            idlingEngine2 = restartEngineIfNeeded(playedGame.whiteEngine());
+            idlingEngine1 = engine1IsWhite ? playedGame.whiteEngine() : playedGame.blackEngine();
+            idlingEngine2 = engine1IsWhite ? playedGame.blackEngine() : playedGame.whiteEngine();
             results.add(playedGame.result());
             reasons.add(playedGame.reason());
+            if (journal != null && playedGame.result() != GameResult.ONGOING) {
+                // Listeners, like the PGN writer, must have handled the game before the journal says it is done
+                eventBus.flush();
+                journal.append(new JournalEntry(round, gameConfig.white(), gameConfig.black(),
+                        matchOpenings.index(pair), playedGame.result(), playedGame.reason()));
+            }
+            if (!isWithinCrashBudget(crashes, matchConfig.maxCrashes(), idlingEngine1, idlingEngine2)) {
+                break;
+            }
+            idlingEngine1 = restartEngineIfNeeded(idlingEngine1);
+            idlingEngine2 = restartEngineIfNeeded(idlingEngine2);
             round++;
             ThreadUtils.sleepSilently(1_000);
         }
 
         LOGGER.log(INFO, "Final results: {0}", results);
+        eventBus.matchEnded();
         return new PlayedMatch(matchConfig, idlingEngine1, idlingEngine2, null, results, reasons);
     }
 
     /**
-     * Restarts the engine process if reuse is disabled in the engine features.
-     * If reuse is enabled, this method just returns the given idling engine.
+     * Counts the crashes of the given engines, and returns false if either engine
+     * has crashed more than {@code maxCrashes} times.
      */
-    private IdlingEngine restartEngineIfNeeded(final IdlingEngine idlingEngine) {
-        if (idlingEngine.features().reuse()) {
-            return idlingEngine;
+    private static boolean isWithinCrashBudget(final int[] crashes,
+                                               final int maxCrashes,
+                                               final IdlingEngine engine1,
+                                               final IdlingEngine engine2) {
+        final var engines = new IdlingEngine[]{engine1, engine2};
+        var withinBudget = true;
+        for (var index = 0; index < engines.length; index++) {
+            if (engines[index].hasCrashed()) {
+                crashes[index]++;
+                LOGGER.log(WARNING, "Engine ''{0}'' has crashed {1} time(s)", engines[index].myName(), crashes[index]);
+                if (crashes[index] > maxCrashes) {
+                    LOGGER.log(WARNING, "Stopping match, engine ''{0}'' has crashed more than {1} time(s)",
+                            engines[index].myName(), maxCrashes);
+                    withinBudget = false;
+                }
+            }
         }
-
-        return idlingEngine.unload().load();
+        return withinBudget;
     }
 
     @Override
@@ -173,7 +290,12 @@ public class MatchServiceImpl implements MatchService {
         playing.set(false);
     }
 
+    @Override
+    public void close() {
+        eventBus.close();
+    }
+
     private void notifyListeners(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
-        gameListeners.forEach(listener -> listener.gameOver(round, startTime, playedGame));
+        eventBus.gameEnded(round, startTime, playedGame);
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations with fixed buckets. Observing a value only increments
+ * {@link LongAdder}s, so it is cheap, does not allocate, and never blocks.
+ */
+public final class Histogram {
+
+    // Upper bounds of the buckets in nanoseconds, in increasing order
+    private final long[] bounds;
+    // Number of observations per bucket, not cumulative, with a last bucket for values above all bounds
+    private final LongAdder[] counts;
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram(final double... boundsInSeconds) {
+        this.bounds = new long[boundsInSeconds.length];
+        for (var index = 0; index < boundsInSeconds.length; index++) {
+            bounds[index] = Math.round(boundsInSeconds[index] * 1_000_000_000);
+        }
+        this.counts = new LongAdder[bounds.length + 1];
+        for (var index = 0; index < counts.length; index++) {
+            counts[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one observation of the given duration.
+     */
+    public void observe(final long nanos) {
+        var index = 0;
+        while (index < bounds.length && nanos > bounds[index]) {
+            index++;
+        }
+        counts[index].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Appends the samples of this histogram in Prometheus text format. The {@code labels} are
+     * either empty, or a comma separated list of labels, for example {@code engine="foo"}.
+     */
+    void appendTo(final StringBuilder builder, final String name, final String labels) {
+        final var separator = labels.isEmpty() ? "" : ",";
+        var cumulative = 0L;
+        for (var index = 0; index < counts.length; index++) {
+            cumulative += counts[index].sum();
+            final var le = index < bounds.length ? Double.toString(bounds[index] / 1e9) : "+Inf";
+            builder.append(name).append("_bucket{").append(labels).append(separator)
+                   .append("le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+        }
+        final var braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        builder.append(name).append("_sum").append(braces).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+        builder.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.metrics;
+
+/**
+ * A game that is being played. The game thread updates the game after each ply,
+ * and other threads, for example a dashboard, may read it at any time. Each field
+ * is read and written atomically, but a reader may see the fields of two different plies.
+ */
+public final class LiveGame {
+
+    private final String white;
+    private final String black;
+    private final long startNanos = System.nanoTime();
+
+    private volatile int ply;
+    private volatile long whiteMillisLeft;
+    private volatile long blackMillisLeft;
+
+    LiveGame(final String white, final String black, final long initialMillis) {
+        this.white = white;
+        this.black = black;
+        this.whiteMillisLeft = initialMillis;
+        this.blackMillisLeft = initialMillis;
+    }
+
+    public String white() {
+        return white;
+    }
+
+    public String black() {
+        return black;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Returns the number of plies played so far.
+     */
+    public int ply() {
+        return ply;
+    }
+
+    public long whiteMillisLeft() {
+        return whiteMillisLeft;
+    }
+
+    public long blackMillisLeft() {
+        return blackMillisLeft;
+    }
+
+    /**
+     * Called by the game thread when white has made a move, and has {@code millisLeft} milliseconds left.
+     */
+    public void whiteMoved(final long millisLeft) {
+        whiteMillisLeft = millisLeft;
+    }
+
+    /**
+     * Called by the game thread when black has made a move, and has {@code millisLeft} milliseconds left.
+     */
+    public void blackMoved(final long millisLeft) {
+        blackMillisLeft = millisLeft;
+    }
+
+    /**
+     * Called by the game thread when ply number {@code ply} has been played.
+     */
+    public void plyDone(final int ply) {
+        this.ply = ply;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms that describe the games played by the tester, exported in
+ * Prometheus text format by {@link MetricsServer}. All updates are lock-free, so the game
+ * threads can record metrics on every ply whether they are exported or not.
+ * <p>
+ * The tester records its metrics in the {@link #global()} instance.
+ */
+public final class Metrics {
+
+    private static final double[] MOVE_BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+    private static final double[] OVERHEAD_BUCKETS = {0.00001, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.05};
+
+    // Must be created after the buckets
+    private static final Metrics GLOBAL = new Metrics();
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder gamesInProgress = new LongAdder();
+    private final LongAdder timeForfeits = new LongAdder();
+    private final LongAdder illegalMoves = new LongAdder();
+    private final LongAdder engineCrashes = new LongAdder();
+    private final AtomicInteger gameSlots = new AtomicInteger();
+    private final Histogram plyOverhead = new Histogram(OVERHEAD_BUCKETS);
+    private final ConcurrentMap<String, EngineMetrics> engines = new ConcurrentHashMap<>();
+    private final Set<LiveGame> liveGames = ConcurrentHashMap.newKeySet();
+
+    private record EngineMetrics(Histogram moveLatency, LongAdder nodes, LongAdder centis) {
+        EngineMetrics() {
+            this(new Histogram(MOVE_BUCKETS), new LongAdder(), new LongAdder());
+        }
+    }
+
+    Metrics() { }
+
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records the start of a game, and returns the live game, that the game thread should update after each ply.
+     */
+    public LiveGame gameStarted(final String white, final String black, final long initialMillis) {
+        final var liveGame = new LiveGame(white, black, initialMillis);
+        liveGames.add(liveGame);
+        gamesInProgress.increment();
+        return liveGame;
+    }
+
+    /**
+     * Records the end of a game. A game that was stopped before it was decided is not counted as completed.
+     */
+    public void gameFinished(final LiveGame liveGame, final boolean completed) {
+        liveGames.remove(liveGame);
+        gamesInProgress.decrement();
+        if (completed) {
+            gamesCompleted.increment();
+        }
+    }
+
+    public void timeForfeit() {
+        timeForfeits.increment();
+    }
+
+    public void illegalMove() {
+        illegalMoves.increment();
+    }
+
+    public void engineCrash() {
+        engineCrashes.increment();
+    }
+
+    /**
+     * Returns the games that are being played, the game that started first first.
+     */
+    public List<LiveGame> liveGames() {
+        return liveGames.stream().sorted(Comparator.comparingLong(LiveGame::startNanos)).toList();
+    }
+
+    /**
+     * Sets the number of game slots, that is, the number of games the tester tries to play at the same time.
+     */
+    public void gameSlots(final int slots) {
+        gameSlots.set(slots);
+    }
+
+    /**
+     * Returns the histogram of the time the tester spends between receiving a move and sending the next one.
+     */
+    public Histogram plyOverhead() {
+        return plyOverhead;
+    }
+
+    /**
+     * Returns the histogram of the time the given engine takes to make a move.
+     */
+    public Histogram moveLatency(final String engine) {
+        return engine(engine).moveLatency();
+    }
+
+    /**
+     * Records the nodes searched by the given engine, and the time it took, in centiseconds.
+     */
+    public void search(final String engine, final long nodes, final long centis) {
+        final var metrics = engine(engine);
+        metrics.nodes().add(nodes);
+        metrics.centis().add(centis);
+    }
+
+    private EngineMetrics engine(final String name) {
+        final var metrics = engines.get(name);
+        return metrics != null ? metrics : engines.computeIfAbsent(name, key -> new EngineMetrics());
+    }
+
+    /**
+     * Returns all metrics in Prometheus text format.
+     */
+    public String scrape() {
+        final var builder = new StringBuilder();
+        final var completed = gamesCompleted.sum();
+        final var elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+
+        header(builder, "cet_games_completed_total", "counter", "Number of games completed.");
+        builder.append("cet_games_completed_total ").append(completed).append('\n');
+        header(builder, "cet_games_per_hour", "gauge", "Games completed per hour since the tester started.");
+        builder.append("cet_games_per_hour ").append(completed * 3_600_000_000_000.0 / elapsedNanos).append('\n');
+        header(builder, "cet_games_in_progress", "gauge", "Number of games being played.");
+        builder.append("cet_games_in_progress ").append(gamesInProgress.sum()).append('\n');
+        header(builder, "cet_game_slots", "gauge", "Number of games the tester tries to play at the same time.");
+        builder.append("cet_game_slots ").append(gameSlots.get()).append('\n');
+        header(builder, "cet_time_forfeits_total", "counter", "Number of games lost on time.");
+        builder.append("cet_time_forfeits_total ").append(timeForfeits.sum()).append('\n');
+        header(builder, "cet_illegal_moves_total", "counter", "Number of games lost by an illegal move.");
+        builder.append("cet_illegal_moves_total ").append(illegalMoves.sum()).append('\n');
+        header(builder, "cet_engine_crashes_total", "counter", "Number of engine crashes.");
+        builder.append("cet_engine_crashes_total ").append(engineCrashes.sum()).append('\n');
+        header(builder, "cet_ply_overhead_seconds", "histogram", "Time from receiving a move until sending the next move.");
+        plyOverhead.appendTo(builder, "cet_ply_overhead_seconds", "");
+
+        // Sort engines by name to make the output stable
+        final Map<String, EngineMetrics> sortedEngines = new TreeMap<>(engines);
+        header(builder, "cet_engine_move_seconds", "histogram", "Time from sending a move to an engine until it replies.");
+        sortedEngines.forEach((name, metrics) -> metrics.moveLatency().appendTo(builder, "cet_engine_move_seconds", label(name)));
+        header(builder, "cet_engine_nodes_per_second", "gauge", "Average nodes per second reported by each engine.");
+        sortedEngines.forEach((name, metrics) -> {
+            final var centis = metrics.centis().sum();
+            final var nps = centis > 0 ? metrics.nodes().sum() * 100 / centis : 0;
+            builder.append("cet_engine_nodes_per_second{").append(label(name)).append("} ").append(nps).append('\n');
+        });
+        return builder.toString();
+    }
+
+    private static void header(final StringBuilder builder, final String name, final String type, final String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String label(final String engine) {
+        return "engine=\"" + engine.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
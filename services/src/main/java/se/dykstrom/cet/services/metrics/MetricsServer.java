@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An HTTP endpoint that exports {@link Metrics} in Prometheus text format on path {@code /metrics}.
+ * The server listens on all network interfaces, so the metrics can be scraped from another host.
+ */
+public class MetricsServer implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(MetricsServer.class.getName());
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Metrics metrics;
+    private final HttpServer server;
+
+    /**
+     * Creates a server on the given port. Use port 0 to pick any free port.
+     */
+    public MetricsServer(final Metrics metrics, final int port) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/metrics", this::handle);
+    }
+
+    /**
+     * Creates and starts a server that exports the global metrics on the given port.
+     */
+    public static MetricsServer start(final int port) throws IOException {
+        final var metricsServer = new MetricsServer(Metrics.global(), port);
+        metricsServer.start();
+        return metricsServer;
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.log(INFO, "Exporting metrics on port {0}", String.valueOf(port()));
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final var body = metrics.scrape().getBytes(UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.opening;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.READ;
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * A suite of opening positions, read from an EPD or FEN file with one position per line.
+ * Empty lines, and lines starting with #, are ignored.
+ * <p>
+ * The file is not loaded into memory. When the suite is opened, the file is scanned once
+ * to find the offset of each line, and each position is then read from the file when needed.
+ * Reading positions is thread-safe.
+ */
+public final class OpeningSuite implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(OpeningSuite.class.getName());
+
+    private static final Pattern REGEX_HALF_MOVE_CLOCK = Pattern.compile("\\bhmvc\\s+(\\d+)\\s*;");
+    private static final Pattern REGEX_FULL_MOVE_NUMBER = Pattern.compile("\\bfmvn\\s+(\\d+)\\s*;");
+    private static final Pattern REGEX_NUMBER = Pattern.compile("\\d+");
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long[] offsets;
+    private final int[] lengths;
+
+    private OpeningSuite(final Path file, final FileChannel channel, final long[] offsets, final int[] lengths) {
+        this.file = file;
+        this.channel = channel;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Opens the given EPD or FEN file, and indexes all positions in it.
+     */
+    public static OpeningSuite open(final Path file) throws IOException {
+        final var channel = FileChannel.open(file, READ);
+        try {
+            var offsets = new long[1024];
+            var lengths = new int[1024];
+            var size = 0;
+
+            final var in = new BufferedInputStream(Channels.newInputStream(channel), 65536);
+            long position = 0;
+            long lineStart = 0;
+            var skipLine = false;
+            int b;
+            while ((b = in.read()) != -1) {
+                if (position == lineStart) {
+                    skipLine = b == '#' || b == '\n' || b == '\r';
+                }
+                if (b == '\n') {
+                    if (!skipLine) {
+                        if (size == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, size * 2);
+                            lengths = Arrays.copyOf(lengths, size * 2);
+                        }
+                        offsets[size] = lineStart;
+                        lengths[size] = (int) (position - lineStart);
+                        size++;
+                    }
+                    lineStart = position + 1;
+                }
+                position++;
+            }
+            if (position > lineStart && !skipLine) {
+                if (size == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, size + 1);
+                    lengths = Arrays.copyOf(lengths, size + 1);
+                }
+                offsets[size] = lineStart;
+                lengths[size] = (int) (position - lineStart);
+                size++;
+            }
+
+            LOGGER.log(INFO, "Indexed {0} opening position(s) in ''{1}''", size, file);
+            return new OpeningSuite(file, channel, Arrays.copyOf(offsets, size), Arrays.copyOf(lengths, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the position with the given index as a FEN string.
+     */
+    public String fen(final int index) {
+        final var buffer = ByteBuffer.allocate(lengths[index]);
+        try {
+            var position = offsets[index];
+            while (buffer.hasRemaining()) {
+                final var count = channel.read(buffer, position);
+                if (count < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                position += count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read position " + index + " from '" + file + "'", e);
+        }
+        return toFen(new String(buffer.array(), US_ASCII).strip());
+    }
+
+    /**
+     * Returns the indices of {@code count} positions, sampled in random order using the given seed.
+     * The same seed always gives the same sample. All positions are used once before any position
+     * is used again.
+     */
+    public int[] sample(final int count, final long seed) {
+        ensure(size() > 0, "Opening suite '" + file + "' is empty");
+        final var random = new Random(seed);
+        final var order = new int[size()];
+        final var sample = new int[count];
+        var next = order.length;
+        for (var index = 0; index < count; index++) {
+            if (next == order.length) {
+                // Start a new pass through all positions
+                for (var position = 0; position < order.length; position++) {
+                    order[position] = position;
+                }
+                next = 0;
+            }
+            // Partial Fisher-Yates shuffle
+            final var pick = next + random.nextInt(order.length - next);
+            final var tmp = order[pick];
+            order[pick] = order[next];
+            order[next] = tmp;
+            sample[index] = order[next++];
+        }
+        return sample;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Converts a line in EPD or FEN format to FEN. An EPD line has four fields, followed by
+     * optional operations. The half move clock and full move number are taken from the
+     * operations hmvc and fmvn if present.
+     */
+    static String toFen(final String line) {
+        final var fields = line.split("\\s+");
+        ensure(fields.length >= 4, "Invalid EPD or FEN: " + line);
+        final var position = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3];
+        if (fields.length >= 6 && REGEX_NUMBER.matcher(fields[4]).matches() && REGEX_NUMBER.matcher(fields[5]).matches()) {
+            return position + " " + fields[4] + " " + fields[5];
+        }
+        final var halfMoveClock = REGEX_HALF_MOVE_CLOCK.matcher(line);
+        final var fullMoveNumber = REGEX_FULL_MOVE_NUMBER.matcher(line);
+        return position + " " +
+               (halfMoveClock.find() ? halfMoveClock.group(1) : "0") + " " +
+               (fullMoveNumber.find() ? fullMoveNumber.group(1) : "1");
+    }
+}
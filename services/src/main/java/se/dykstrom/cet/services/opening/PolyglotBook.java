@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.opening;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * An opening book in Polyglot format. The book file is a sorted array of 16-byte entries,
+ * each consisting of a position key, a move, a weight, and learning data. The file is memory
+ * mapped, and positions are looked up by binary search on the key, so the size of the book
+ * does not matter. Lookups are thread-safe.
+ */
+public final class PolyglotBook implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(PolyglotBook.class.getName());
+
+    private static final int ENTRY_SIZE = 16;
+
+    // Each mapped segment holds 2^26 entries, which is 1 GB
+    private static final int ENTRIES_PER_SEGMENT_BITS = 26;
+    private static final int ENTRIES_PER_SEGMENT = 1 << ENTRIES_PER_SEGMENT_BITS;
+
+    private static final String PROMOTIONS = " nbrq";
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private final PolyglotKeys keys;
+
+    private PolyglotBook(final Path file, final FileChannel channel, final MappedByteBuffer[] segments, final long size, final PolyglotKeys keys) {
+        this.file = file;
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+        this.keys = keys;
+    }
+
+    /**
+     * Opens the given Polyglot book, using the standard Polyglot keys.
+     */
+    public static PolyglotBook open(final Path file) throws IOException {
+        return open(file, PolyglotKeys.standard());
+    }
+
+    static PolyglotBook open(final Path file, final PolyglotKeys keys) throws IOException {
+        final var channel = FileChannel.open(file, READ);
+        try {
+            if (channel.size() % ENTRY_SIZE != 0) {
+                throw new IOException("Invalid Polyglot book '" + file + "': size is not a multiple of " + ENTRY_SIZE);
+            }
+            final var size = channel.size() / ENTRY_SIZE;
+            final var segments = new MappedByteBuffer[(int) ((size + ENTRIES_PER_SEGMENT - 1) / ENTRIES_PER_SEGMENT)];
+            for (var index = 0; index < segments.length; index++) {
+                final var start = (long) index * ENTRIES_PER_SEGMENT;
+                final var count = Math.min(ENTRIES_PER_SEGMENT, size - start);
+                segments[index] = channel.map(FileChannel.MapMode.READ_ONLY, start * ENTRY_SIZE, count * ENTRY_SIZE);
+            }
+            LOGGER.log(INFO, "Opened Polyglot book ''{0}'' with {1} entries", file, size);
+            return new PolyglotBook(file, channel, segments, size, keys);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Returns the number of entries in the book.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns all book entries for the position on the given board, in book order.
+     */
+    public List<BookEntry> entries(final Board board) {
+        final var key = keys.key(board);
+        final var entries = new ArrayList<BookEntry>();
+        for (var index = lowerBound(key); index < size && key(index) == key; index++) {
+            entries.add(new BookEntry(toMove(board, move(index)), weight(index)));
+        }
+        return entries;
+    }
+
+    /**
+     * Plays weighted random book moves from the given position, and returns the moves in
+     * coordinate notation. Stops after {@code maxPlies} moves, or when the position is not
+     * in the book. Moves that are not legal in the position are skipped. The line never ends
+     * in a position where the game is over, since there would be nothing left to play.
+     */
+    public List<String> line(final String fen, final int maxPlies, final Random random) {
+        final var board = new Board();
+        if (fen != null) {
+            board.loadFromFen(fen);
+        }
+        final var line = new ArrayList<String>();
+        while (line.size() < maxPlies && !board.isDraw()) {
+            final var legalMoves = board.legalMoves();
+            final var entries = entries(board).stream()
+                                              .filter(entry -> entry.weight() > 0)
+                                              .filter(entry -> legalMoves.contains(new Move(entry.move(), board.getSideToMove())))
+                                              .toList();
+            if (entries.isEmpty()) {
+                break;
+            }
+            final var move = pick(entries, random);
+            board.doMove(new Move(move, board.getSideToMove()));
+            if (board.isDraw() || board.isMated()) {
+                break;
+            }
+            line.add(move);
+        }
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static String pick(final List<BookEntry> entries, final Random random) {
+        final var totalWeight = entries.stream().mapToInt(BookEntry::weight).sum();
+        var remaining = random.nextInt(totalWeight);
+        for (final BookEntry entry : entries) {
+            remaining -= entry.weight();
+            if (remaining < 0) {
+                return entry.move();
+            }
+        }
+        throw new IllegalStateException("No book move picked");
+    }
+
+    /**
+     * Returns the index of the first entry with a key greater than or equal to the given key.
+     * Keys are compared as unsigned numbers.
+     */
+    private long lowerBound(final long key) {
+        var low = 0L;
+        var high = size;
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(final long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    private int move(final long index) {
+        return Short.toUnsignedInt(segment(index).getShort(offset(index) + 8));
+    }
+
+    private int weight(final long index) {
+        return Short.toUnsignedInt(segment(index).getShort(offset(index) + 10));
+    }
+
+    private MappedByteBuffer segment(final long index) {
+        return segments[(int) (index >>> ENTRIES_PER_SEGMENT_BITS)];
+    }
+
+    private static int offset(final long index) {
+        return (int) (index & (ENTRIES_PER_SEGMENT - 1)) * ENTRY_SIZE;
+    }
+
+    /**
+     * Converts a Polyglot move to coordinate notation. Polyglot encodes castling as the king
+     * capturing its own rook, which is converted to the king moving two squares.
+     */
+    static String toMove(final Board board, final int move) {
+        final var to = move & 0x3f;
+        final var from = (move >> 6) & 0x3f;
+        final var promotion = (move >> 12) & 0x7;
+
+        var toSquare = Square.squareAt(to);
+        final var fromSquare = Square.squareAt(from);
+        final Piece piece = board.getPiece(fromSquare);
+        if (piece != null && piece.getPieceType() == PieceType.KING) {
+            if (fromSquare == Square.E1 && toSquare == Square.H1) {
+                toSquare = Square.G1;
+            } else if (fromSquare == Square.E1 && toSquare == Square.A1) {
+                toSquare = Square.C1;
+            } else if (fromSquare == Square.E8 && toSquare == Square.H8) {
+                toSquare = Square.G8;
+            } else if (fromSquare == Square.E8 && toSquare == Square.A8) {
+                toSquare = Square.C8;
+            }
+        }
+
+        final var builder = new StringBuilder();
+        builder.append(fromSquare.value().toLowerCase()).append(toSquare.value().toLowerCase());
+        if (promotion > 0 && promotion < PROMOTIONS.length()) {
+            builder.append(PROMOTIONS.charAt(promotion));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A move in the book, in coordinate notation, and its weight.
+     */
+    public record BookEntry(String move, int weight) { }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import se.dykstrom.cet.services.tournament.PlayedTournament;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Game results aggregated per pair of players and colors. Since the rating computation
+ * only depends on the number of wins, draws, and losses of each such pair, the memory use
+ * and the time to compute ratings is independent of the number of games.
+ */
+public final class PairwiseResults {
+
+    private final List<String> players;
+    private final int[] white;
+    private final int[] black;
+    private final double[] whiteWins;
+    private final double[] draws;
+    private final double[] blackWins;
+
+    private PairwiseResults(final Builder builder) {
+        this.players = List.copyOf(builder.players);
+        this.white = Arrays.copyOf(builder.white, builder.size);
+        this.black = Arrays.copyOf(builder.black, builder.size);
+        this.whiteWins = Arrays.copyOf(builder.whiteWins, builder.size);
+        this.draws = Arrays.copyOf(builder.draws, builder.size);
+        this.blackWins = Arrays.copyOf(builder.blackWins, builder.size);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates pairwise results from the finished games of the given tournament.
+     */
+    public static PairwiseResults of(final PlayedTournament tournament) {
+        final var builder = builder();
+        tournament.engineNames().forEach(builder::addPlayer);
+        tournament.games().forEach(game -> builder.add(
+                tournament.engineNames().get(game.pairing().white()),
+                tournament.engineNames().get(game.pairing().black()),
+                game.result()));
+        return builder.build();
+    }
+
+    public List<String> players() {
+        return players;
+    }
+
+    /**
+     * Returns the number of distinct (white player, black player) pairs.
+     */
+    public int size() {
+        return white.length;
+    }
+
+    public int white(final int pair) {
+        return white[pair];
+    }
+
+    public int black(final int pair) {
+        return black[pair];
+    }
+
+    public double whiteWins(final int pair) {
+        return whiteWins[pair];
+    }
+
+    public double draws(final int pair) {
+        return draws[pair];
+    }
+
+    public double blackWins(final int pair) {
+        return blackWins[pair];
+    }
+
+    public static class Builder {
+
+        private final List<String> players = new ArrayList<>();
+        private final Map<String, Integer> playerIndices = new HashMap<>();
+        private final Map<Long, Integer> pairIndices = new HashMap<>();
+
+        private int size = 0;
+        private int[] white = new int[16];
+        private int[] black = new int[16];
+        private double[] whiteWins = new double[16];
+        private double[] draws = new double[16];
+        private double[] blackWins = new double[16];
+
+        /**
+         * Adds a player without any games. Players are otherwise added in the order they are first seen.
+         */
+        public Builder addPlayer(final String name) {
+            playerIndices.computeIfAbsent(requireNonNull(name), key -> {
+                players.add(key);
+                return players.size() - 1;
+            });
+            return this;
+        }
+
+        /**
+         * Adds the result of one game. Unfinished games are ignored.
+         */
+        public Builder add(final String whiteName, final String blackName, final GameResult result) {
+            if (result == GameResult.WHITE_WON || result == GameResult.DRAW || result == GameResult.BLACK_WON) {
+                final int pair = pairIndex(playerIndex(whiteName), playerIndex(blackName));
+                switch (result) {
+                    case WHITE_WON -> whiteWins[pair]++;
+                    case BLACK_WON -> blackWins[pair]++;
+                    default -> draws[pair]++;
+                }
+            }
+            return this;
+        }
+
+        public PairwiseResults build() {
+            return new PairwiseResults(this);
+        }
+
+        private int playerIndex(final String name) {
+            addPlayer(name);
+            return playerIndices.get(name);
+        }
+
+        private int pairIndex(final int whiteIndex, final int blackIndex) {
+            final long key = ((long) whiteIndex << 32) | blackIndex;
+            return pairIndices.computeIfAbsent(key, k -> {
+                if (size == white.length) {
+                    final int capacity = size * 2;
+                    white = Arrays.copyOf(white, capacity);
+                    black = Arrays.copyOf(black, capacity);
+                    whiteWins = Arrays.copyOf(whiteWins, capacity);
+                    draws = Arrays.copyOf(draws, capacity);
+                    blackWins = Arrays.copyOf(blackWins, capacity);
+                }
+                white[size] = whiteIndex;
+                black[size] = blackIndex;
+                return size++;
+            });
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+
+/**
+ * Reads game results from PGN text. Only the White, Black, and Result tags are used,
+ * and the move text is skipped.
+ */
+final class PgnResultReader {
+
+    private static final Pattern REGEX_TAG = Pattern.compile("^\\[(\\w+)\\s+\"(.*)\"\\s*]$");
+
+    private PgnResultReader() { }
+
+    /**
+     * Reads all games from {@code reader}, and adds their results to {@code builder}.
+     * Returns the number of games read.
+     */
+    static int read(final BufferedReader reader, final PairwiseResults.Builder builder) throws IOException {
+        var count = 0;
+        String white = null;
+        String black = null;
+        String result = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final var stripped = line.strip();
+            if (stripped.startsWith("[")) {
+                final var matcher = REGEX_TAG.matcher(stripped);
+                if (matcher.matches()) {
+                    switch (matcher.group(1)) {
+                        case "White" -> white = matcher.group(2);
+                        case "Black" -> black = matcher.group(2);
+                        case "Result" -> result = matcher.group(2);
+                        default -> { }
+                    }
+                }
+            } else if (!stripped.isEmpty() && white != null && black != null && result != null) {
+                // The first line of the move text ends the tag pair section
+                builder.add(white, black, toGameResult(result));
+                count++;
+                white = null;
+                black = null;
+                result = null;
+            }
+        }
+        return count;
+    }
+
+    private static GameResult toGameResult(final String result) {
+        return switch (result) {
+            case "1-0" -> GameResult.WHITE_WON;
+            case "0-1" -> GameResult.BLACK_WON;
+            case "1/2-1/2" -> GameResult.DRAW;
+            default -> GameResult.ONGOING;
+        };
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+/**
+ * The computed rating of one player.
+ *
+ * @param name The player name.
+ * @param elo The Elo rating, relative to the average of all players.
+ * @param error The half-width of the 95% confidence interval of the rating.
+ * @param games The number of finished games.
+ * @param score The score, in points.
+ */
+public record Rating(String name, double elo, double error, int games, double score) { }
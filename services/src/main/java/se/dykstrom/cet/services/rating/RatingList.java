@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.util.List;
+
+/**
+ * The result of a rating computation.
+ *
+ * @param ratings The ratings of all players, best player first.
+ * @param eloAdvantage The estimated advantage of playing white, in Elo.
+ * @param eloDraw The estimated draw parameter, in Elo. A larger value means more draws.
+ * @param iterations The number of iterations used.
+ */
+public record RatingList(List<Rating> ratings, double eloAdvantage, double eloDraw, int iterations) { }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface RatingService {
+
+    /**
+     * Computes the ratings of all players in {@code results} jointly.
+     */
+    RatingList rate(final PairwiseResults results);
+
+    /**
+     * Reads the game results from the given PGN files. Only the tag pairs are parsed,
+     * and the files are read line by line, so there is no limit on the file size.
+     */
+    PairwiseResults readPgn(final List<Path> files) throws IOException;
+}
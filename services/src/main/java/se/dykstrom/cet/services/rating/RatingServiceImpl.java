@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Computes ratings using the Bradley-Terry model extended with draws and a white advantage,
+ * the same model as in BayesElo. In this model, the probabilities of a white win and a black
+ * win are:
+ * <pre>
+ * P(white wins) = f(white - black + advantage - drawElo)
+ * P(black wins) = f(black - white - advantage - drawElo)
+ * </pre>
+ * where f(x) = 1 / (1 + 10^(-x / 400)), and a draw is the remaining probability. The ratings
+ * are fitted by maximum likelihood using minorization-maximization, as described by Hunter in
+ * "MM algorithms for generalized Bradley-Terry models". The update of each player only depends
+ * on the ratings from the previous iteration, so all players are updated in parallel. The white
+ * advantage and the draw parameter are estimated in between, when the ratings have converged. With
+ * few games, these estimates are unreliable, and the BayesElo defaults are used instead.
+ * <p>
+ * To keep the ratings finite for players that won or lost all their games, every player is given
+ * a number of virtual draws against a virtual opponent with average rating.
+ * <p>
+ * The error of each rating is computed from the diagonal of the observed Fisher information,
+ * that is, assuming that all other ratings are known exactly.
+ */
+public class RatingServiceImpl implements RatingService {
+
+    private static final System.Logger LOGGER = System.getLogger(RatingServiceImpl.class.getName());
+
+    private static final double ELO_PER_NATURAL_UNIT = 400 / Math.log(10);
+    private static final double Z_95 = 1.959964;
+
+    private static final double PRIOR_DRAWS = 2.0;
+    private static final double INITIAL_ELO_ADVANTAGE = 32.8;
+    private static final double INITIAL_ELO_DRAW = 97.3;
+    private static final double MIN_ELO_DRAW = 0.01;
+    private static final double MAX_ELO_DRAW = 1000.0;
+    private static final double MAX_ELO_ADVANTAGE = 500.0;
+
+    private static final int MIN_GAMES_TO_ESTIMATE_PARAMETERS = 1000;
+
+    private static final int MAX_ITERATIONS = 100_000;
+    private static final int MAX_ROUNDS = 100;
+    private static final double RATING_CONVERGENCE_LIMIT = 1e-4;
+    private static final double PARAMETER_CONVERGENCE_LIMIT = 1e-2;
+    private static final double SEARCH_TOLERANCE = 1e-3;
+
+    @Override
+    public RatingList rate(final PairwiseResults results) {
+        final int numberOfPlayers = results.players().size();
+        final int[][] pairsByPlayer = pairsByPlayer(results);
+
+        final var numerators = new double[numberOfPlayers];
+        final var games = new int[numberOfPlayers];
+        final var scores = new double[numberOfPlayers];
+        for (var pair = 0; pair < results.size(); pair++) {
+            final int white = results.white(pair);
+            final int black = results.black(pair);
+            numerators[white] += results.whiteWins(pair) + results.draws(pair);
+            numerators[black] += results.blackWins(pair) + results.draws(pair);
+            final var pairGames = (int) (results.whiteWins(pair) + results.draws(pair) + results.blackWins(pair));
+            games[white] += pairGames;
+            games[black] += pairGames;
+            scores[white] += results.whiteWins(pair) + 0.5 * results.draws(pair);
+            scores[black] += results.blackWins(pair) + 0.5 * results.draws(pair);
+        }
+        for (var player = 0; player < numberOfPlayers; player++) {
+            numerators[player] += PRIOR_DRAWS;
+        }
+
+        var gammas = new double[numberOfPlayers];
+        Arrays.fill(gammas, 1.0);
+        var eloAdvantage = INITIAL_ELO_ADVANTAGE;
+        var eloDraw = INITIAL_ELO_DRAW;
+        final var estimateParameters = IntStream.of(games).sum() / 2 >= MIN_GAMES_TO_ESTIMATE_PARAMETERS;
+
+        // Fit the ratings with the parameters fixed, then fit the parameters with the ratings fixed,
+        // and repeat until the parameters do not change any more
+        var iterations = 0;
+        for (var round = 0; round < MAX_ROUNDS; round++) {
+            final var eta = gamma(eloAdvantage);
+            final var theta = gamma(eloDraw);
+            var change = Double.MAX_VALUE;
+            while (change > RATING_CONVERGENCE_LIMIT && iterations < MAX_ITERATIONS) {
+                iterations++;
+                final var current = gammas;
+                final var next = IntStream.range(0, numberOfPlayers)
+                                          .parallel()
+                                          .mapToDouble(player -> numerators[player] / denominator(player, results, pairsByPlayer[player], current, eta, theta))
+                                          .toArray();
+                normalize(next);
+                change = 0.0;
+                for (var player = 0; player < numberOfPlayers; player++) {
+                    change = Math.max(change, Math.abs(elo(next[player]) - elo(current[player])));
+                }
+                gammas = next;
+            }
+            if (!estimateParameters) {
+                break;
+            }
+
+            final var fixedGammas = gammas;
+            final var fixedEloAdvantage = eloAdvantage;
+            final var newEloDraw = maximize(x -> logLikelihood(results, fixedGammas, gamma(fixedEloAdvantage), gamma(x)), MIN_ELO_DRAW, MAX_ELO_DRAW);
+            final var newEloAdvantage = maximize(x -> logLikelihood(results, fixedGammas, gamma(x), gamma(newEloDraw)), -MAX_ELO_ADVANTAGE, MAX_ELO_ADVANTAGE);
+            final var parameterChange = Math.max(Math.abs(newEloDraw - eloDraw), Math.abs(newEloAdvantage - eloAdvantage));
+            eloDraw = newEloDraw;
+            eloAdvantage = newEloAdvantage;
+            if (parameterChange < PARAMETER_CONVERGENCE_LIMIT) {
+                break;
+            }
+        }
+        LOGGER.log(INFO, "Computed ratings of {0} player(s) in {1} iteration(s)", numberOfPlayers, iterations);
+
+        final var eta = gamma(eloAdvantage);
+        final var theta = gamma(eloDraw);
+        final var ratings = new ArrayList<Rating>();
+        for (var player = 0; player < numberOfPlayers; player++) {
+            final var information = information(player, results, pairsByPlayer[player], gammas, eta, theta);
+            final var error = Z_95 * ELO_PER_NATURAL_UNIT / Math.sqrt(information);
+            ratings.add(new Rating(results.players().get(player), elo(gammas[player]), error, games[player], scores[player]));
+        }
+        ratings.sort(Comparator.comparingDouble(Rating::elo).reversed());
+        return new RatingList(ratings, eloAdvantage, eloDraw, iterations);
+    }
+
+    @Override
+    public PairwiseResults readPgn(final List<Path> files) throws IOException {
+        final var builder = PairwiseResults.builder();
+        for (final Path file : files) {
+            try (var reader = Files.newBufferedReader(file, UTF_8)) {
+                PgnResultReader.read(reader, builder);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the denominator of the MM update of {@code player}, that is, the sum of the derivatives
+     * of the minorizing functions with respect to the player's gamma.
+     */
+    private static double denominator(final int player,
+                                      final PairwiseResults results,
+                                      final int[] pairs,
+                                      final double[] gammas,
+                                      final double eta,
+                                      final double theta) {
+        final var gamma = gammas[player];
+        var sum = 0.0;
+        for (final int pair : pairs) {
+            final var whiteWinsOrDraws = results.whiteWins(pair) + results.draws(pair);
+            final var blackWinsOrDraws = results.blackWins(pair) + results.draws(pair);
+            if (results.white(pair) == player) {
+                final var opponent = gammas[results.black(pair)];
+                sum += whiteWinsOrDraws * eta / (eta * gamma + theta * opponent);
+                sum += blackWinsOrDraws * theta * eta / (theta * eta * gamma + opponent);
+            } else {
+                final var opponent = gammas[results.white(pair)];
+                sum += whiteWinsOrDraws * theta / (eta * opponent + theta * gamma);
+                sum += blackWinsOrDraws / (theta * eta * opponent + gamma);
+            }
+        }
+        sum += PRIOR_DRAWS * (1 / (gamma + theta) + theta / (theta * gamma + 1));
+        return sum;
+    }
+
+    /**
+     * Returns the observed Fisher information of {@code player}, with the rating expressed as the
+     * natural logarithm of the player's gamma.
+     */
+    private static double information(final int player,
+                                      final PairwiseResults results,
+                                      final int[] pairs,
+                                      final double[] gammas,
+                                      final double eta,
+                                      final double theta) {
+        final var gamma = gammas[player];
+        var sum = 0.0;
+        for (final int pair : pairs) {
+            final var whiteWinsOrDraws = results.whiteWins(pair) + results.draws(pair);
+            final var blackWinsOrDraws = results.blackWins(pair) + results.draws(pair);
+            final double p;
+            final double q;
+            if (results.white(pair) == player) {
+                final var opponent = gammas[results.black(pair)];
+                p = eta * gamma / (eta * gamma + theta * opponent);
+                q = theta * eta * gamma / (theta * eta * gamma + opponent);
+            } else {
+                final var opponent = gammas[results.white(pair)];
+                p = theta * gamma / (eta * opponent + theta * gamma);
+                q = gamma / (theta * eta * opponent + gamma);
+            }
+            sum += whiteWinsOrDraws * p * (1 - p) + blackWinsOrDraws * q * (1 - q);
+        }
+        final var a = gamma / (gamma + theta);
+        final var b = theta * gamma / (theta * gamma + 1);
+        sum += PRIOR_DRAWS * (a * (1 - a) + b * (1 - b));
+        return sum;
+    }
+
+    private static double logLikelihood(final PairwiseResults results, final double[] gammas, final double eta, final double theta) {
+        return IntStream.range(0, results.size()).parallel().mapToDouble(pair -> {
+            final var white = eta * gammas[results.white(pair)];
+            final var black = gammas[results.black(pair)];
+            final var whiteWin = white / (white + theta * black);
+            final var blackWin = black / (theta * white + black);
+            final var draw = Math.max(0.0, 1 - whiteWin - blackWin);
+            var sum = results.whiteWins(pair) * Math.log(whiteWin) + results.blackWins(pair) * Math.log(blackWin);
+            if (results.draws(pair) > 0) {
+                sum += results.draws(pair) * Math.log(draw);
+            }
+            return sum;
+        }).sum();
+    }
+
+    /**
+     * Returns the x in [low, high] that maximizes the unimodal function f, using golden-section search.
+     */
+    private static double maximize(final DoubleUnaryOperator f, final double low, final double high) {
+        final var ratio = (Math.sqrt(5) - 1) / 2;
+        var a = low;
+        var b = high;
+        var c = b - ratio * (b - a);
+        var d = a + ratio * (b - a);
+        var fc = f.applyAsDouble(c);
+        var fd = f.applyAsDouble(d);
+        while (b - a > SEARCH_TOLERANCE) {
+            if (fc > fd) {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - ratio * (b - a);
+                fc = f.applyAsDouble(c);
+            } else {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + ratio * (b - a);
+                fd = f.applyAsDouble(d);
+            }
+        }
+        return (a + b) / 2;
+    }
+
+    /**
+     * Scales the gammas so that their geometric mean is 1, which means that the average rating is 0.
+     */
+    private static void normalize(final double[] gammas) {
+        var sumOfLogs = 0.0;
+        for (final double gamma : gammas) {
+            sumOfLogs += Math.log(gamma);
+        }
+        final var scale = Math.exp(-sumOfLogs / gammas.length);
+        for (var index = 0; index < gammas.length; index++) {
+            gammas[index] *= scale;
+        }
+    }
+
+    private static int[][] pairsByPlayer(final PairwiseResults results) {
+        final var counts = new int[results.players().size()];
+        for (var pair = 0; pair < results.size(); pair++) {
+            counts[results.white(pair)]++;
+            counts[results.black(pair)]++;
+        }
+        final var pairsByPlayer = new int[counts.length][];
+        for (var player = 0; player < counts.length; player++) {
+            pairsByPlayer[player] = new int[counts[player]];
+            counts[player] = 0;
+        }
+        for (var pair = 0; pair < results.size(); pair++) {
+            pairsByPlayer[results.white(pair)][counts[results.white(pair)]++] = pair;
+            pairsByPlayer[results.black(pair)][counts[results.black(pair)]++] = pair;
+        }
+        return pairsByPlayer;
+    }
+
+    private static double gamma(final double elo) {
+        return Math.pow(10, elo / 400);
+    }
+
+    private static double elo(final double gamma) {
+        return 400 * Math.log10(gamma);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads batch files. A batch file is a JSON array of job requests, in the same format as
+ * posted to the job API. Relative paths in the batch file are resolved against the directory
+ * of the batch file.
+ */
+public final class BatchFile {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BatchFile() { }
+
+    public static List<JobRequest> load(final File file) throws IOException {
+        final var directory = file.getAbsoluteFile().getParentFile();
+        return OBJECT_MAPPER.readValue(file, new TypeReference<List<JobRequest>>() { })
+                            .stream()
+                            .map(request -> resolve(directory, request))
+                            .toList();
+    }
+
+    private static JobRequest resolve(final File directory, final JobRequest request) {
+        final var engines = request.engines() != null ? request.engines().stream().map(file -> resolve(directory, file)).toList() : null;
+        return new JobRequest(engines, request.timeControl(), request.games(), request.priority(), request.name(), resolve(directory, request.pgn()));
+    }
+
+    private static File resolve(final File directory, final File file) {
+        return file == null || file.isAbsolute() ? file : new File(directory, file.getPath());
+    }
+}
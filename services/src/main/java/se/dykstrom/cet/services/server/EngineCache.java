@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+
+import static java.lang.System.Logger.Level.INFO;
+
+/**
+ * The idle engines of one game slot, kept loaded between games and jobs. An engine is reused
+ * by any job whose engine config is equal to the config the engine was loaded with, even if it
+ * comes from another file. When more than {@code capacity} engines are idle, the engine that has
+ * been idle the longest is unloaded.
+ * <p>
+ * This class is not thread-safe. Each game slot has its own cache.
+ */
+class EngineCache {
+
+    private static final System.Logger LOGGER = System.getLogger(EngineCache.class.getName());
+
+    private record Entry(EngineConfigDto config, IdlingEngine engine) { }
+
+    private final EngineService engineService;
+    private final Sandbox sandbox;
+    private final int capacity;
+
+    // Idle engines, the most recently used last
+    private final Deque<Entry> idleEngines = new ArrayDeque<>();
+
+    EngineCache(final EngineService engineService, final Sandbox sandbox, final int capacity) {
+        this.engineService = engineService;
+        this.sandbox = sandbox;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns an idle engine loaded with the given config, or loads a new engine from the config file.
+     */
+    IdlingEngine acquire(final File configFile, final EngineConfigDto config) throws IOException {
+        final Iterator<Entry> iterator = idleEngines.descendingIterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            if (entry.config().equals(config)) {
+                iterator.remove();
+                LOGGER.log(INFO, "Reusing engine ''{0}''", entry.engine().myName());
+                return entry.engine();
+            }
+        }
+        return engineService.load(configFile, sandbox);
+    }
+
+    /**
+     * Returns the given engine to the cache, or unloads it if it cannot be reused.
+     */
+    void release(final EngineConfigDto config, final IdlingEngine engine) {
+        if (!engine.features().reuse() || engine.hasCrashed()) {
+            engineService.unload(engine);
+            return;
+        }
+        idleEngines.addLast(new Entry(config, engine));
+        while (idleEngines.size() > capacity) {
+            engineService.unload(idleEngines.removeFirst().engine());
+        }
+    }
+
+    void unloadAll() {
+        idleEngines.forEach(entry -> engineService.unload(entry.engine()));
+        idleEngines.clear();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+
+/**
+ * A match job, and its progress. The games of a job are handed out one at a time, in round order,
+ * to the game slots of the server, so a job may be played in several slots at the same time.
+ * <p>
+ * This class is thread-safe.
+ */
+final class Job {
+
+    private final int id;
+    private final String name;
+    private final int priority;
+    private final List<File> engineFiles;
+    private final List<EngineConfigDto> engineConfigs;
+    private final TimeControl timeControl;
+    private final PgnFileWriter pgnFileWriter;
+
+    private final String[] results;
+    private final String[] reasons;
+    private final String[] engineNames = new String[2];
+    private final List<String> pgn = new ArrayList<>();
+
+    private JobState state = JobState.QUEUED;
+    private int nextRound = 1;
+    private int gamesPlayed;
+    private int gamesRunning;
+    private String error;
+
+    Job(final int id,
+        final String name,
+        final int priority,
+        final List<File> engineFiles,
+        final List<EngineConfigDto> engineConfigs,
+        final TimeControl timeControl,
+        final int numberOfGames,
+        final PgnFileWriter pgnFileWriter) {
+        this.id = id;
+        this.name = name;
+        this.priority = priority;
+        this.engineFiles = List.copyOf(engineFiles);
+        this.engineConfigs = List.copyOf(engineConfigs);
+        this.timeControl = timeControl;
+        this.pgnFileWriter = pgnFileWriter;
+        this.results = new String[numberOfGames];
+        this.reasons = new String[numberOfGames];
+    }
+
+    int id() {
+        return id;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int priority() {
+        return priority;
+    }
+
+    List<File> engineFiles() {
+        return engineFiles;
+    }
+
+    List<EngineConfigDto> engineConfigs() {
+        return engineConfigs;
+    }
+
+    TimeControl timeControl() {
+        return timeControl;
+    }
+
+    /**
+     * Returns true if the job has games that have not yet been handed out.
+     */
+    synchronized boolean hasGamesLeft() {
+        return (state == JobState.QUEUED || state == JobState.RUNNING) && nextRound <= results.length;
+    }
+
+    /**
+     * Hands out the next game of the job, and returns its round.
+     */
+    synchronized int startGame() {
+        state = JobState.RUNNING;
+        gamesRunning++;
+        return nextRound++;
+    }
+
+    synchronized void gameOver(final int round, final PlayedGame playedGame, final List<String> pgnLines) {
+        gamesRunning--;
+        if (playedGame.result() != GameResult.ONGOING) {
+            results[round - 1] = playedGame.result().getDescription();
+            reasons[round - 1] = playedGame.reason();
+            gamesPlayed++;
+            pgn.addAll(pgnLines);
+            pgnFileWriter.write(pgnLines);
+            final var engine1IsWhite = round % 2 != 0;
+            engineNames[0] = engine1IsWhite ? playedGame.gameConfig().white() : playedGame.gameConfig().black();
+            engineNames[1] = engine1IsWhite ? playedGame.gameConfig().black() : playedGame.gameConfig().white();
+        }
+        if (state == JobState.RUNNING && gamesRunning == 0 && nextRound > results.length) {
+            state = JobState.FINISHED;
+        }
+    }
+
+    synchronized void gameFailed(final String message) {
+        gamesRunning--;
+        if (state == JobState.QUEUED || state == JobState.RUNNING) {
+            state = JobState.FAILED;
+            error = message;
+        }
+    }
+
+    /**
+     * Cancels the job. Games that are being played are finished, but no more games are started.
+     */
+    synchronized void cancel() {
+        if (state == JobState.QUEUED || state == JobState.RUNNING) {
+            state = JobState.CANCELLED;
+        }
+    }
+
+    /**
+     * Returns true if the job has finished, failed, or been cancelled, and has no games running.
+     */
+    synchronized boolean isDone() {
+        return state != JobState.QUEUED && state != JobState.RUNNING && gamesRunning == 0;
+    }
+
+    synchronized JobStatus status() {
+        return new JobStatus(id,
+                             name,
+                             state,
+                             priority,
+                             results.length,
+                             gamesPlayed,
+                             engineNames[0] != null ? List.of(engineNames) : null,
+                             Arrays.asList(results.clone()),
+                             Arrays.asList(reasons.clone()),
+                             error);
+    }
+
+    synchronized List<String> pgn() {
+        return List.copyOf(pgn);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A request to play a match, as posted to the job API.
+ *
+ * @param engines The config files of the two engines, on the host that runs the server.
+ * @param timeControl The time control in PGN format, for example "40/60" or "60+1".
+ * @param games The number of games to play. Engine 1 plays white in odd games.
+ * @param priority The priority of the job. Games of jobs with higher priority are played first.
+ * @param name The name of the job, or {@code null} to name it after its id.
+ * @param pgn The file to append each game to, in PGN format, or {@code null}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JobRequest(List<File> engines, String timeControl, int games, int priority, String name, File pgn) {
+
+    public JobRequest(final List<File> engines, final String timeControl, final int games, final int priority) {
+        this(engines, timeControl, games, priority, null, null);
+    }
+
+    public JobRequest(final List<File> engines, final String timeControl, final int games) {
+        this(engines, timeControl, games, 0);
+    }
+
+    public JobRequest withName(final String name) {
+        return new JobRequest(engines, timeControl, games, priority, name, pgn);
+    }
+
+    public JobRequest withPgn(final File pgn) {
+        return new JobRequest(engines, timeControl, games, priority, name, pgn);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static se.dykstrom.cet.engine.util.StringUtils.EOL;
+
+/**
+ * A local HTTP API for submitting match jobs to a {@link JobService}, and following their progress.
+ * The server only listens on the loopback address. All bodies are JSON, except the PGN.
+ * <p>
+ * A job names engine config files, and the commands in those files are run on this host. To keep
+ * web pages from submitting jobs through the browser of a local user, the server rejects requests
+ * with an Origin header, and jobs that are not posted as {@code application/json}. The engine
+ * config files and the PGN file of a job must be in one of the allowed directories.
+ * <ul>
+ *     <li>{@code POST /jobs} submits a {@link JobRequest}, and returns the {@link JobStatus} of the new job.</li>
+ *     <li>{@code GET /jobs} returns the status of all jobs.</li>
+ *     <li>{@code GET /jobs/ID} returns the status of one job.</li>
+ *     <li>{@code GET /jobs/ID/pgn} returns the games of one job that have been played, in PGN format.</li>
+ *     <li>{@code DELETE /jobs/ID} cancels one job, and returns its status.</li>
+ * </ul>
+ */
+public class JobServer implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(JobServer.class.getName());
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int BAD_REQUEST = 400;
+    private static final int FORBIDDEN = 403;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+    private final JobService jobService;
+    private final List<Path> allowedDirectories;
+    private final HttpServer server;
+
+    /**
+     * Creates a server on the given port of the loopback address, that only accepts files in the
+     * current directory. Use port 0 to pick any free port.
+     */
+    public JobServer(final JobService jobService, final int port) throws IOException {
+        this(jobService, port, List.of(Path.of("")));
+    }
+
+    /**
+     * Creates a server on the given port of the loopback address, that only accepts engine config
+     * files and PGN files in the given directories, or their subdirectories. Use port 0 to pick any free port.
+     */
+    public JobServer(final JobService jobService, final int port, final List<Path> allowedDirectories) throws IOException {
+        this.jobService = jobService;
+        this.allowedDirectories = allowedDirectories.stream().map(JobServer::realPath).toList();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/jobs", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.log(INFO, "Listening on http://{0}:{1}/jobs", server.getAddress().getHostString(), String.valueOf(port()));
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Browsers add an Origin header to requests from web pages, and no client of this API is a web page
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                sendText(exchange, FORBIDDEN, "Requests from web pages are not allowed");
+                return;
+            }
+            // Path is /jobs, /jobs/ID, or /jobs/ID/pgn
+            final var parts = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+            final var method = exchange.getRequestMethod();
+            if (parts.length == 2) {
+                switch (method) {
+                    case "GET" -> sendJson(exchange, OK, jobService.statuses());
+                    case "POST" -> submit(exchange);
+                    default -> sendText(exchange, METHOD_NOT_ALLOWED, "Method not allowed: " + method);
+                }
+            } else if (parts.length == 3 || (parts.length == 4 && parts[3].equals("pgn"))) {
+                final var id = parseId(parts[2]);
+                if (id.isEmpty()) {
+                    sendText(exchange, NOT_FOUND, "No such job: " + parts[2]);
+                } else if (parts.length == 4 && method.equals("GET")) {
+                    sendOptional(exchange, id.get(), jobService.pgn(id.get()).map(lines -> String.join(EOL, lines)));
+                } else if (parts.length == 3 && method.equals("GET")) {
+                    sendOptional(exchange, id.get(), jobService.status(id.get()));
+                } else if (parts.length == 3 && method.equals("DELETE")) {
+                    sendOptional(exchange, id.get(), jobService.cancel(id.get()));
+                } else {
+                    sendText(exchange, METHOD_NOT_ALLOWED, "Method not allowed: " + method);
+                }
+            } else {
+                sendText(exchange, NOT_FOUND, "Not found: " + exchange.getRequestURI().getPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(WARNING, "Cannot handle request {0} {1}: {2}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage());
+            throw e;
+        }
+    }
+
+    private void submit(final HttpExchange exchange) throws IOException {
+        // A web page cannot post application/json to another site without a preflight request
+        final var contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("application/json")) {
+            sendText(exchange, UNSUPPORTED_MEDIA_TYPE, "Content-Type must be application/json");
+            return;
+        }
+        final JobRequest request;
+        try {
+            request = OBJECT_MAPPER.readValue(exchange.getRequestBody(), JobRequest.class);
+        } catch (JsonProcessingException e) {
+            sendText(exchange, BAD_REQUEST, "Invalid job request: " + e.getOriginalMessage());
+            return;
+        }
+        final var forbiddenFiles = forbiddenFiles(request);
+        if (!forbiddenFiles.isEmpty()) {
+            sendText(exchange, FORBIDDEN, "Files not in an allowed directory: " + forbiddenFiles);
+            return;
+        }
+        try {
+            sendJson(exchange, CREATED, jobService.submit(request));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            sendText(exchange, BAD_REQUEST, "Invalid job request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the engine config files and PGN file of the request that are not in an allowed directory.
+     */
+    private List<File> forbiddenFiles(final JobRequest request) {
+        final var files = new ArrayList<File>();
+        if (request.engines() != null) {
+            files.addAll(request.engines());
+        }
+        files.add(request.pgn());
+        return files.stream()
+                    .filter(Objects::nonNull)
+                    .filter(file -> {
+                        final var path = realPath(file.toPath());
+                        return allowedDirectories.stream().noneMatch(path::startsWith);
+                    })
+                    .toList();
+    }
+
+    /**
+     * Returns the absolute path of the given path, with symbolic links resolved in the part of
+     * the path that exists. A PGN file, for example, may not have been created yet.
+     */
+    private static Path realPath(final Path path) {
+        final var absolutePath = path.toAbsolutePath().normalize();
+        try {
+            return absolutePath.toRealPath();
+        } catch (IOException e) {
+            final var parent = absolutePath.getParent();
+            return parent != null ? realPath(parent).resolve(absolutePath.getFileName()) : absolutePath;
+        }
+    }
+
+    private static Optional<Integer> parseId(final String text) {
+        try {
+            return Optional.of(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void sendOptional(final HttpExchange exchange, final int id, final Optional<?> body) throws IOException {
+        if (body.isEmpty()) {
+            sendText(exchange, NOT_FOUND, "No such job: " + id);
+        } else if (body.get() instanceof String text) {
+            sendText(exchange, OK, text);
+        } else {
+            sendJson(exchange, OK, body.get());
+        }
+    }
+
+    private static void sendJson(final HttpExchange exchange, final int status, final Object body) throws IOException {
+        send(exchange, status, "application/json", OBJECT_MAPPER.writeValueAsBytes(body));
+    }
+
+    private static void sendText(final HttpExchange exchange, final int status, final String text) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", text.getBytes(UTF_8));
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String contentType, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface JobService {
+
+    /**
+     * Starts the game slots that play the queued jobs.
+     */
+    void start();
+
+    /**
+     * Stops all game slots, and unloads all engines. Games that are being played are stopped.
+     */
+    void stop();
+
+    /**
+     * Queues a new job, and returns its status.
+     *
+     * @throws IllegalArgumentException If the request is invalid.
+     */
+    JobStatus submit(final JobRequest request);
+
+    Optional<JobStatus> status(final int id);
+
+    /**
+     * Returns the status of all jobs, in the order they were submitted.
+     */
+    List<JobStatus> statuses();
+
+    /**
+     * Returns the games of the job that have been played, formatted as PGN lines.
+     */
+    Optional<List<String>> pgn(final int id);
+
+    /**
+     * Cancels the job, and returns its status.
+     */
+    Optional<JobStatus> cancel(final int id);
+
+    /**
+     * Waits until the job has finished, failed, or been cancelled, or until the service is stopped,
+     * and returns its status.
+     */
+    Optional<JobStatus> await(final int id) throws InterruptedException;
+}
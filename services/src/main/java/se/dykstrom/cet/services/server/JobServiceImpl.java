@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.engine.time.TimeControlFormat;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.engine.EngineServiceImpl;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.GameServiceImpl;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.io.FileServiceImpl;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.INFO;
+import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Plays queued jobs in a fixed number of game slots. Each slot repeatedly takes the next game
+ * of the job with the highest priority, and among jobs with the same priority, of the job that
+ * was submitted first. Each slot keeps its engines loaded between games and jobs in an
+ * {@link EngineCache}.
+ */
+public class JobServiceImpl implements JobService {
+
+    private static final System.Logger LOGGER = System.getLogger(JobServiceImpl.class.getName());
+
+    /** The number of idle engines each game slot keeps loaded. */
+    public static final int ENGINES_PER_SLOT = 4;
+
+    private static final Comparator<Job> SCHEDULING_ORDER = Comparator.comparingInt(Job::priority).reversed()
+                                                                      .thenComparingInt(Job::id);
+
+    private final FileService fileService;
+    private final EngineService engineService;
+    private final Supplier<GameService> gameServiceFactory;
+    private final int slots;
+    private final Sandbox sandbox;
+
+    // All jobs by id, guarded by this
+    private final Map<Integer, Job> jobs = new LinkedHashMap<>();
+    private final List<GameService> gameServices = new CopyOnWriteArrayList<>();
+    private int nextId = 1;
+    private boolean running;
+    private boolean stopped;
+    private ExecutorService executor;
+
+    public JobServiceImpl(final int slots, final Sandbox sandbox) {
+        this(new FileServiceImpl(), new EngineServiceImpl(), GameServiceImpl::new, slots, sandbox);
+    }
+
+    public JobServiceImpl(final FileService fileService,
+                          final EngineService engineService,
+                          final Supplier<GameService> gameServiceFactory,
+                          final int slots,
+                          final Sandbox sandbox) {
+        ensure(slots > 0, "slots must be > 0");
+        this.fileService = requireNonNull(fileService);
+        this.engineService = requireNonNull(engineService);
+        this.gameServiceFactory = requireNonNull(gameServiceFactory);
+        this.slots = slots;
+        this.sandbox = requireNonNull(sandbox);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(slots);
+        for (var slot = 0; slot < slots; slot++) {
+            executor.execute(this::playSlot);
+        }
+        Metrics.global().gameSlots(slots);
+        LOGGER.log(INFO, "Started {0} game slot(s)", slots);
+    }
+
+    @Override
+    public void stop() {
+        final ExecutorService slotExecutor;
+        synchronized (this) {
+            running = false;
+            stopped = true;
+            slotExecutor = executor;
+            notifyAll();
+        }
+        gameServices.forEach(GameService::stopGame);
+        if (slotExecutor != null) {
+            slotExecutor.close();
+        }
+        LOGGER.log(INFO, "Stopped all game slots");
+    }
+
+    @Override
+    public JobStatus submit(final JobRequest request) {
+        ensure(request.engines() != null && request.engines().size() == 2, "a job needs exactly two engines");
+        ensure(request.games() > 0, "games must be > 0");
+        final TimeControl timeControl;
+        try {
+            timeControl = TimeControlFormat.parse(requireNonNull(request.timeControl(), "timeControl"));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("cannot parse time control: " + request.timeControl());
+        }
+        final var engineConfigs = new ArrayList<EngineConfigDto>();
+        for (final File engineFile : request.engines()) {
+            ensure(fileService.canRead(engineFile), "cannot open engine file: " + engineFile);
+            try {
+                engineConfigs.add(fileService.load(engineFile));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("cannot read engine file: " + engineFile);
+            }
+        }
+
+        synchronized (this) {
+            final var id = nextId++;
+            final var name = request.name() != null ? request.name() : "job" + id;
+            final var job = new Job(id, name, request.priority(), request.engines(), engineConfigs, timeControl, request.games(),
+                                    new PgnFileWriter(request.pgn(), fileService));
+            jobs.put(id, job);
+            LOGGER.log(INFO, "Queued job {0} ''{1}'' of {2} game(s) with priority {3}", id, name, request.games(), request.priority());
+            notifyAll();
+            return job.status();
+        }
+    }
+
+    @Override
+    public synchronized Optional<JobStatus> status(final int id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    @Override
+    public synchronized List<JobStatus> statuses() {
+        return jobs.values().stream().map(Job::status).toList();
+    }
+
+    @Override
+    public synchronized Optional<List<String>> pgn(final int id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::pgn);
+    }
+
+    @Override
+    public synchronized Optional<JobStatus> cancel(final int id) {
+        final var job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancel();
+        LOGGER.log(INFO, "Cancelled job {0}", id);
+        notifyAll();
+        return Optional.of(job.status());
+    }
+
+    @Override
+    public synchronized Optional<JobStatus> await(final int id) throws InterruptedException {
+        final var job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        while (!job.isDone() && !stopped) {
+            wait();
+        }
+        return Optional.of(job.status());
+    }
+
+    /**
+     * Plays games in one game slot until the service is stopped.
+     */
+    private void playSlot() {
+        final var gameService = gameServiceFactory.get();
+        gameServices.add(gameService);
+        final var engineCache = new EngineCache(engineService, sandbox, ENGINES_PER_SLOT);
+        try {
+            NextGame nextGame;
+            while ((nextGame = awaitNextGame()) != null) {
+                playGame(nextGame.job(), nextGame.round(), gameService, engineCache);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(ERROR, "Game slot failed: " + e.getMessage(), e);
+        } finally {
+            engineCache.unloadAll();
+        }
+    }
+
+    private record NextGame(Job job, int round) { }
+
+    /**
+     * Waits until there is a game to play, and returns it, or returns null if the service has been stopped.
+     */
+    private synchronized NextGame awaitNextGame() {
+        while (running) {
+            final var job = jobs.values().stream().filter(Job::hasGamesLeft).min(SCHEDULING_ORDER);
+            if (job.isPresent()) {
+                return new NextGame(job.get(), job.get().startGame());
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void playGame(final Job job, final int round, final GameService gameService, final EngineCache engineCache) {
+        final var configs = job.engineConfigs();
+        IdlingEngine engine1 = null;
+        IdlingEngine engine2 = null;
+        try {
+            engine1 = engineCache.acquire(job.engineFiles().get(0), configs.get(0));
+            engine2 = engineCache.acquire(job.engineFiles().get(1), configs.get(1));
+            final var engine1IsWhite = round % 2 != 0;
+            final var whiteEngine = engine1IsWhite ? engine1 : engine2;
+            final var blackEngine = engine1IsWhite ? engine2 : engine1;
+            final var gameConfig = GameConfig.builder()
+                    .white(whiteEngine.myName())
+                    .black(blackEngine.myName())
+                    .timeControl(job.timeControl())
+                    .build();
+            final var startTime = LocalDateTime.now();
+            final var playedGame = gameService.playGame(gameConfig, whiteEngine, blackEngine);
+            engine1 = engine1IsWhite ? playedGame.whiteEngine() : playedGame.blackEngine();
+            engine2 = engine1IsWhite ? playedGame.blackEngine() : playedGame.whiteEngine();
+            job.gameOver(round, playedGame, PgnFileWriter.format(round, startTime, playedGame));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(ERROR, "Game {0} of job {1} failed: {2}", round, job.id(), e.getMessage());
+            job.gameFailed(e.getMessage());
+        } finally {
+            synchronized (this) {
+                notifyAll();
+            }
+            if (engine1 != null) {
+                engineCache.release(configs.get(0), engine1);
+            }
+            if (engine2 != null) {
+                engineCache.release(configs.get(1), engine2);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+public enum JobState {
+    /** No game of the job has started yet. */
+    QUEUED,
+    /** Some games of the job have started. */
+    RUNNING,
+    /** All games of the job have been played. */
+    FINISHED,
+    /** The job was cancelled before all games had been played. */
+    CANCELLED,
+    /** The job failed, for example because an engine could not be loaded. */
+    FAILED
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.util.List;
+
+/**
+ * The status of a job, as returned by the job API.
+ *
+ * @param id The job id.
+ * @param name The job name.
+ * @param state The state of the job.
+ * @param priority The priority of the job.
+ * @param numberOfGames The number of games in the job.
+ * @param gamesPlayed The number of games that have been played.
+ * @param engines The names of engine 1 and engine 2, or {@code null} before the first game has been played.
+ * @param results The result of each game, in PGN format, or {@code null} for games not yet played.
+ * @param reasons The reason of each result, or {@code null} for games not yet played.
+ * @param error The error that made the job fail, or {@code null}.
+ */
+public record JobStatus(int id,
+                        String name,
+                        JobState state,
+                        int priority,
+                        int numberOfGames,
+                        int gamesPlayed,
+                        List<String> engines,
+                        List<String> results,
+                        List<String> reasons,
+                        String error) {
+}
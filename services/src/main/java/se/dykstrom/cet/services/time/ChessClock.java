@@ -16,17 +16,94 @@
 
 package se.dykstrom.cet.services.time;
 
+import java.util.function.LongSupplier;
+
 import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.exception.TimeoutException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The chess clock of one side in a game. The clock is either stopped or running. It is started
+ * when the engine starts thinking, and stopped when the engine has moved. The clock is updated
+ * in place, so starting and stopping it does not allocate.
+ * <p>
+ * This class is not thread-safe. Each side in a game has its own clock.
+ */
+public final class ChessClock {
 
-public interface ChessClock {
+    private final TimeControl timeControl;
+    private final LongSupplier currentTimeMillis;
+    private int moveNumber;
+    private long timeLeft;
+    private long startTime;
+    private boolean running;
 
-    TimeControl timeControl();
+    public ChessClock(final TimeControl timeControl) {
+        this(timeControl, System::currentTimeMillis);
+    }
 
-    int moveNumber();
+    ChessClock(final TimeControl timeControl, final LongSupplier currentTimeMillis) {
+        this.timeControl = requireNonNull(timeControl);
+        this.currentTimeMillis = requireNonNull(currentTimeMillis);
+        this.timeLeft = timeControl.initialTimeInMillis();
+    }
+
+    public TimeControl timeControl() {
+        return timeControl;
+    }
+
+    /**
+     * Returns the number of the move the clock was last started for, or 0 if it has not been started.
+     */
+    public int moveNumber() {
+        return moveNumber;
+    }
 
     /**
-     * Returns the time left on the clock. In case of a running chess clock,
+     * Returns the time left on the clock. If the clock is running,
      * this is the time that was left before starting the clock.
      */
-    long timeLeft();
+    public long timeLeft() {
+        return timeLeft;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts the clock for the next move.
+     */
+    public void start() {
+        if (running) {
+            throw new IllegalStateException("Clock is already running");
+        }
+        moveNumber++;
+        startTime = currentTimeMillis.getAsLong();
+        running = true;
+    }
+
+    /**
+     * Stops the clock, and deducts the elapsed time from the time left. If the move completed
+     * a time control period, the increment is added to the time left.
+     *
+     * @throws TimeoutException If the time left is exceeded.
+     */
+    public void stop() {
+        if (!running) {
+            throw new IllegalStateException("Clock is not running");
+        }
+        running = false;
+        final long elapsedTime = currentTimeMillis.getAsLong() - startTime;
+
+        long newTimeLeft = timeLeft - elapsedTime;
+        if (newTimeLeft < 0) {
+            throw new TimeoutException("Timeout after " + elapsedTime + " ms, time left " + newTimeLeft + " ms");
+        }
+        if (moveNumber % timeControl.movesInOnePeriod() == 0) {
+            newTimeLeft += timeControl.incrementInMillis();
+        }
+        timeLeft = newTimeLeft;
+    }
 }
@@ -1,34 +0,0 @@
-/*
- * Copyright 2021 Johan Dykström
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package se.dykstrom.cet.services.time;
-
-import se.dykstrom.cet.engine.time.TimeControl;
-
-public class StoppedChessClock extends AbstractChessClock {
-
-    public StoppedChessClock(final TimeControl timeControl) {
-        super(timeControl, 0, timeControl.initialTimeInMillis());
-    }
-
-    public StoppedChessClock(final TimeControl timeControl, final int moveNumber, final long timeLeft) {
-        super(timeControl, moveNumber, timeLeft);
-    }
-
-    public RunningChessClock start() {
-        return new RunningChessClock(timeControl(), moveNumber() + 1, timeLeft(), System.currentTimeMillis());
-    }
-}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.util.ResultUtils;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.INFO;
+import static java.util.Locale.US;
+
+/**
+ * Decides how many game slots of a tournament are active. Slots above the active number
+ * wait between games until they are needed again. If the minimum and maximum number
+ * of slots are equal, all slots are always active.
+ * <p>
+ * After each window of games, one game per active slot, the controller looks at the
+ * time forfeit rate, the NPS of each engine compared to its recent best NPS, and the
+ * system load average per core. It removes a slot if engines forfeit on time,
+ * slow down, or the machine is overloaded, and adds a slot if there is spare capacity.
+ * <p>
+ * This class is thread-safe.
+ */
+class ConcurrencyController {
+
+    private static final System.Logger LOGGER = System.getLogger(ConcurrencyController.class.getName());
+
+    /** Remove a slot if more than this share of the games in a window end by time forfeit. */
+    static final double MAX_FORFEIT_RATE = 0.05;
+    /** Remove a slot if an engine searches slower than this share of its best NPS. */
+    static final double MIN_NPS_RATIO = 0.85;
+    /** The best NPS of an engine decays by this factor each window, so an old peak is forgotten. */
+    static final double BEST_NPS_DECAY = 0.95;
+    /** Remove a slot if the load average per core is above this. */
+    static final double HIGH_LOAD = 1.0;
+    /** Add a slot if the load average per core is below this. */
+    static final double LOW_LOAD = 0.75;
+
+    private final int minSlots;
+    private final int maxSlots;
+    private final int cores;
+    private final DoubleSupplier loadAverage;
+
+    private final Map<String, Long> bestNps = new HashMap<>();
+    private final Map<String, SearchStatistics> windowSearch = new HashMap<>();
+    private int windowGames;
+    private int windowForfeits;
+    private int activeSlots;
+
+    ConcurrencyController(final int minSlots, final int maxSlots) {
+        this(minSlots, maxSlots, Runtime.getRuntime().availableProcessors(),
+             ManagementFactory.getOperatingSystemMXBean()::getSystemLoadAverage);
+    }
+
+    ConcurrencyController(final int minSlots, final int maxSlots, final int cores, final DoubleSupplier loadAverage) {
+        this.minSlots = minSlots;
+        this.maxSlots = maxSlots;
+        this.cores = cores;
+        this.loadAverage = loadAverage;
+        // Start low, and add slots while there is spare capacity
+        this.activeSlots = minSlots;
+        Metrics.global().gameSlots(activeSlots);
+    }
+
+    synchronized int activeSlots() {
+        return activeSlots;
+    }
+
+    /**
+     * Waits until the given slot is active. Returns true if the slot may play another game,
+     * or false if {@code running} became false while waiting.
+     */
+    synchronized boolean awaitTurn(final int slot, final BooleanSupplier running) {
+        while (running.getAsBoolean() && slot >= activeSlots) {
+            try {
+                // Wake up regularly to check if the tournament is still running
+                wait(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return running.getAsBoolean();
+    }
+
+    /**
+     * Records the outcome of a game, and adjusts the number of active slots at the end of each window.
+     */
+    synchronized void gameOver(final PlayedGame playedGame) {
+        if (minSlots == maxSlots) {
+            return;
+        }
+        windowGames++;
+        if (ResultUtils.isTimeForfeit(playedGame.reason())) {
+            windowForfeits++;
+        }
+        addSearch(playedGame.whiteEngine(), playedGame.whiteSearch());
+        addSearch(playedGame.blackEngine(), playedGame.blackSearch());
+        if (windowGames >= activeSlots) {
+            adjust();
+        }
+    }
+
+    private void addSearch(final IdlingEngine engine, final SearchStatistics search) {
+        if (engine != null && search != null && search.moves() > 0) {
+            windowSearch.merge(engine.myName(), search, SearchStatistics::plus);
+        }
+    }
+
+    private void adjust() {
+        final var forfeitRate = (double) windowForfeits / windowGames;
+        final var slowEngines = slowEngines();
+        // The load average is negative if not available
+        final var load = loadAverage.getAsDouble() / cores;
+
+        var target = activeSlots;
+        String reason;
+        if (forfeitRate > MAX_FORFEIT_RATE) {
+            target--;
+            reason = String.format(US, "%d of %d game(s) ended by time forfeit", windowForfeits, windowGames);
+        } else if (!slowEngines.isEmpty()) {
+            target--;
+            reason = "NPS of " + String.join(", ", slowEngines) + " dropped below " + Math.round(MIN_NPS_RATIO * 100) + "% of best";
+        } else if (load > HIGH_LOAD) {
+            target--;
+            reason = String.format(US, "load average is %.2f per core", load);
+        } else if (load >= 0 && load < LOW_LOAD) {
+            target++;
+            reason = String.format(US, "load average is %.2f per core", load);
+        } else {
+            reason = "no reason to change";
+        }
+        target = Math.max(minSlots, Math.min(maxSlots, target));
+
+        if (target != activeSlots) {
+            LOGGER.log(INFO, "Changing number of active game slots from {0} to {1}: {2}", activeSlots, target, reason);
+            activeSlots = target;
+            Metrics.global().gameSlots(activeSlots);
+            notifyAll();
+        } else {
+            LOGGER.log(DEBUG, "Keeping {0} active game slot(s): {1}", activeSlots, reason);
+        }
+
+        windowSearch.clear();
+        windowGames = 0;
+        windowForfeits = 0;
+    }
+
+    /**
+     * Returns the names of the engines that searched slower in this window than {@link #MIN_NPS_RATIO}
+     * of their best NPS, and updates the best NPS of each engine. The best NPS decays by
+     * {@link #BEST_NPS_DECAY} each window, so a single fast window, for example when the machine
+     * happened to be idle, does not make the engine look slow for the rest of the tournament.
+     */
+    private List<String> slowEngines() {
+        final var slowEngines = new ArrayList<String>();
+        windowSearch.forEach((name, search) -> {
+            final var nps = search.nps();
+            final var best = Math.round(bestNps.getOrDefault(name, 0L) * BEST_NPS_DECAY);
+            if (nps < best * MIN_NPS_RATIO) {
+                slowEngines.add(name);
+            }
+            bestNps.put(name, Math.max(best, nps));
+        });
+        slowEngines.sort(null);
+        return slowEngines;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.BLACK_WON;
+import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+
+/**
+ * Scores of all engines against each other. Rows and columns are indexed by engine index.
+ */
+public final class Crosstable {
+
+    private final double[][] scores;
+    private final int[][] games;
+
+    private Crosstable(final double[][] scores, final int[][] games) {
+        this.scores = scores;
+        this.games = games;
+    }
+
+    public static Crosstable of(final int numberOfEngines, final List<TournamentGame> tournamentGames) {
+        final var scores = new double[numberOfEngines][numberOfEngines];
+        final var games = new int[numberOfEngines][numberOfEngines];
+        for (final var game : tournamentGames) {
+            final var white = game.pairing().white();
+            final var black = game.pairing().black();
+            if (game.result() == WHITE_WON) {
+                scores[white][black] += 1.0;
+            } else if (game.result() == BLACK_WON) {
+                scores[black][white] += 1.0;
+            } else if (game.result() == DRAW) {
+                scores[white][black] += 0.5;
+                scores[black][white] += 0.5;
+            } else {
+                // Unfinished games are not counted
+                continue;
+            }
+            games[white][black]++;
+            games[black][white]++;
+        }
+        return new Crosstable(scores, games);
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * Returns the score of engine {@code engine} against engine {@code opponent}.
+     */
+    public double score(final int engine, final int opponent) {
+        return scores[engine][opponent];
+    }
+
+    /**
+     * Returns the number of finished games between engine {@code engine} and engine {@code opponent}.
+     */
+    public int games(final int engine, final int opponent) {
+        return games[engine][opponent];
+    }
+
+    public double totalScore(final int engine) {
+        double total = 0.0;
+        for (final double score : scores[engine]) {
+            total += score;
+        }
+        return total;
+    }
+
+    public int totalGames(final int engine) {
+        int total = 0;
+        for (final int count : games[engine]) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the engine indices sorted by total score, best engine first.
+     */
+    public List<Integer> ranking() {
+        return IntStream.range(0, size())
+                        .boxed()
+                        .sorted(Comparator.comparingDouble(this::totalScore).reversed())
+                        .toList();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.services.engine.EngineService;
+
+import static java.lang.System.Logger.Level.INFO;
+import static se.dykstrom.cet.services.util.EngineUtils.restartEngineIfNeeded;
+
+/**
+ * The engines used by one game slot. An engine is loaded the first time it is needed,
+ * and kept loaded between games, unless it does not support reuse. All engines in the
+ * pool run in the sandbox of the slot, for example restricted to the CPUs of the slot.
+ * <p>
+ * This class is not thread-safe. Each game slot has its own pool.
+ */
+class EnginePool {
+
+    private static final System.Logger LOGGER = System.getLogger(EnginePool.class.getName());
+
+    private final EngineService engineService;
+    private final List<File> engineFiles;
+    private final Sandbox sandbox;
+    private final IdlingEngine[] engines;
+
+    EnginePool(final EngineService engineService, final List<File> engineFiles, final Sandbox sandbox) {
+        this.engineService = engineService;
+        this.engineFiles = engineFiles;
+        this.sandbox = sandbox;
+        this.engines = new IdlingEngine[engineFiles.size()];
+    }
+
+    /**
+     * Returns the engine with the given index, loading it if needed.
+     */
+    IdlingEngine acquire(final int index) {
+        if (engines[index] == null) {
+            try {
+                engines[index] = engineService.load(engineFiles.get(index), sandbox);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return engines[index];
+    }
+
+    /**
+     * Gives the engine with the given index back to the pool after a game. The engine
+     * process is restarted if it has crashed, or if reuse is disabled in the engine features.
+     */
+    void release(final int index, final IdlingEngine idlingEngine) {
+        engines[index] = restartEngineIfNeeded(idlingEngine);
+    }
+
+    void unloadAll() {
+        for (var index = 0; index < engines.length; index++) {
+            if (engines[index] != null) {
+                LOGGER.log(INFO, "Unloading engine ''{0}''", engines[index].myName());
+                engineService.unload(engines[index]);
+                engines[index] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PairingUtils {
+
+    private PairingUtils() { }
+
+    /**
+     * Creates all pairings of the given tournament, in the order they should be played.
+     * The games between two engines are spread out over the tournament, so that every pair
+     * of engines have played game N before any pair plays game N + 1. Colors alternate
+     * between the games of a pair, and the first color of each pair alternates over the
+     * tournament, so that every engine gets about as many white games as black games.
+     */
+    public static List<Pairing> createPairings(final TournamentConfig config) {
+        final var numberOfEngines = config.engineFiles().size();
+        final var opponents = new ArrayList<int[]>();
+        if (config.format() == TournamentFormat.GAUNTLET) {
+            for (var opponent = 1; opponent < numberOfEngines; opponent++) {
+                opponents.add(new int[]{0, opponent});
+            }
+        } else {
+            for (var engine = 0; engine < numberOfEngines; engine++) {
+                for (var opponent = engine + 1; opponent < numberOfEngines; opponent++) {
+                    opponents.add(new int[]{engine, opponent});
+                }
+            }
+        }
+
+        final var pairings = new ArrayList<Pairing>();
+        for (var game = 0; game < config.gamesPerPairing(); game++) {
+            for (final var pair : opponents) {
+                if ((game + pair[0] + pair[1]) % 2 == 0) {
+                    pairings.add(new Pairing(pair[0], pair[1]));
+                } else {
+                    pairings.add(new Pairing(pair[1], pair[0]));
+                }
+            }
+        }
+        return pairings;
+    }
+}
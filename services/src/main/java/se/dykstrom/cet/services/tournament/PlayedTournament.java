@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.util.List;
+
+/**
+ * The outcome of a tournament. If the tournament was stopped, {@code games} only
+ * contains the games that were actually played, sorted by round.
+ */
+public record PlayedTournament(TournamentConfig config, List<String> engineNames, List<TournamentGame> games) {
+
+    public Crosstable crosstable() {
+        return Crosstable.of(engineNames.size(), games);
+    }
+}
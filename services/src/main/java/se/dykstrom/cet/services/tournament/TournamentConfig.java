@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.time.TimeControl;
+
+import static java.util.Objects.requireNonNull;
+import static se.dykstrom.cet.engine.util.Args.ensure;
+
+/**
+ * Configuration of a tournament between a number of engines.
+ *
+ * @param engineFiles The engine config files. In a gauntlet, the first engine plays all the others.
+ * @param format The tournament format.
+ * @param gamesPerPairing The number of games each pair of engines play. Either 1 or an even number.
+ * @param timeControl The time control to use in all games.
+ * @param concurrency The number of games to play at the same time.
+ * @param affinity True if each game slot should be pinned to its own set of CPUs.
+ * @param cgroup A cgroup v2 directory in which to create a sub-group for each engine, or {@code null}.
+ * @param sampleIntervalMillis The interval between samples of the engine processes, or 0 to not sample them.
+ * @param minConcurrency The least number of games to play at the same time. If less than {@code concurrency},
+ *                       the number of games played at the same time adapts to the load between these bounds.
+ */
+public record TournamentConfig(List<File> engineFiles,
+                               TournamentFormat format,
+                               int gamesPerPairing,
+                               TimeControl timeControl,
+                               int concurrency,
+                               boolean affinity,
+                               Path cgroup,
+                               long sampleIntervalMillis,
+                               int minConcurrency) {
+
+    public TournamentConfig {
+        engineFiles = List.copyOf(engineFiles);
+        ensure(engineFiles.size() >= 2, "engineFiles must contain at least 2 engines");
+        requireNonNull(format);
+        ensure(gamesPerPairing == 1 || (gamesPerPairing > 1 && gamesPerPairing % 2 == 0), "gamesPerPairing must be 1 or even");
+        requireNonNull(timeControl);
+        ensure(concurrency > 0, "concurrency must be > 0");
+        ensure(sampleIntervalMillis >= 0, "sampleIntervalMillis must be >= 0");
+        ensure(minConcurrency > 0 && minConcurrency <= concurrency, "minConcurrency must be > 0 and <= concurrency");
+    }
+
+    /**
+     * Returns true if the number of games played at the same time adapts to the load.
+     */
+    public boolean adaptive() {
+        return minConcurrency < concurrency;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private List<File> engineFiles = List.of();
+        private TournamentFormat format = TournamentFormat.ROUND_ROBIN;
+        private int gamesPerPairing = 2;
+        private TimeControl timeControl;
+        private int concurrency = 1;
+        private boolean affinity = false;
+        private Path cgroup;
+        private long sampleIntervalMillis = GameConfig.DEFAULT_SAMPLE_INTERVAL_MILLIS;
+        private Integer minConcurrency;
+
+        public Builder engineFiles(final List<File> engineFiles) {
+            this.engineFiles = engineFiles;
+            return this;
+        }
+
+        public Builder format(final TournamentFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder gamesPerPairing(final int gamesPerPairing) {
+            this.gamesPerPairing = gamesPerPairing;
+            return this;
+        }
+
+        public Builder timeControl(final TimeControl timeControl) {
+            this.timeControl = timeControl;
+            return this;
+        }
+
+        public Builder concurrency(final int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder affinity(final boolean affinity) {
+            this.affinity = affinity;
+            return this;
+        }
+
+        public Builder cgroup(final Path cgroup) {
+            this.cgroup = cgroup;
+            return this;
+        }
+
+        public Builder sampleIntervalMillis(final long sampleIntervalMillis) {
+            this.sampleIntervalMillis = sampleIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Sets the least number of games to play at the same time. If not set, it is the same as the concurrency.
+         */
+        public Builder minConcurrency(final Integer minConcurrency) {
+            this.minConcurrency = minConcurrency;
+            return this;
+        }
+
+        public TournamentConfig build() {
+            return new TournamentConfig(engineFiles, format, gamesPerPairing, timeControl, concurrency, affinity, cgroup,
+                                        sampleIntervalMillis, minConcurrency != null ? minConcurrency : concurrency);
+        }
+    }
+}
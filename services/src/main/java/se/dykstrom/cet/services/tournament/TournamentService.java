@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import se.dykstrom.cet.services.util.GameListener;
+
+public interface TournamentService extends AutoCloseable {
+
+    void addGameListener(final GameListener gameListener);
+
+    /**
+     * Plays all games of the tournament described by {@code tournamentConfig}. Engines are
+     * loaded when they are first needed, and kept loaded until the tournament is over.
+     */
+    PlayedTournament playTournament(final TournamentConfig tournamentConfig);
+
+    void stopTournament();
+
+    /**
+     * Waits until all game listeners have handled all events, and releases the threads that deliver them.
+     */
+    @Override
+    void close();
+}
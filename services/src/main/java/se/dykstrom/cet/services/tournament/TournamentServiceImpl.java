@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.util.CpuLayout;
+import se.dykstrom.cet.engine.util.CpuTopology;
+import se.dykstrom.cet.engine.util.ProcessUtils;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.engine.EngineServiceImpl;
+import se.dykstrom.cet.services.event.GameEventBus;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.GameServiceImpl;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.util.GameListener;
+import se.dykstrom.cet.services.util.ThreadUtils;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.INFO;
+import static java.util.Objects.requireNonNull;
+
+public class TournamentServiceImpl implements TournamentService {
+
+    private static final System.Logger LOGGER = System.getLogger(TournamentServiceImpl.class.getName());
+
+    private final EngineService engineService;
+    private final Supplier<GameService> gameServiceFactory;
+
+    private final GameEventBus eventBus;
+
+    private final AtomicBoolean playing = new AtomicBoolean(false);
+    private final List<GameService> gameServices = new CopyOnWriteArrayList<>();
+
+    public TournamentServiceImpl() {
+        this(new GameEventBus());
+    }
+
+    private TournamentServiceImpl(final GameEventBus eventBus) {
+        this(new EngineServiceImpl(), () -> new GameServiceImpl(eventBus), eventBus);
+    }
+
+    public TournamentServiceImpl(final EngineService engineService, final Supplier<GameService> gameServiceFactory) {
+        this(engineService, gameServiceFactory, new GameEventBus());
+    }
+
+    /**
+     * Creates a tournament service that publishes game events on the given event bus. The game services
+     * should publish game start and move events on the same bus.
+     */
+    public TournamentServiceImpl(final EngineService engineService,
+                                 final Supplier<GameService> gameServiceFactory,
+                                 final GameEventBus eventBus) {
+        this.engineService = requireNonNull(engineService);
+        this.gameServiceFactory = requireNonNull(gameServiceFactory);
+        this.eventBus = requireNonNull(eventBus);
+    }
+
+    @Override
+    public void addGameListener(final GameListener gameListener) {
+        eventBus.subscribe(gameListener);
+    }
+
+    @Override
+    public PlayedTournament playTournament(final TournamentConfig config) {
+        final var pairings = PairingUtils.createPairings(config);
+        if (config.adaptive()) {
+            LOGGER.log(INFO, "Starting new {0} tournament of {1} game(s) between {2} engines. Time control is {3}. Playing {4} to {5} game(s) at a time.",
+                    config.format(), pairings.size(), config.engineFiles().size(), config.timeControl(), config.minConcurrency(), config.concurrency());
+        } else {
+            LOGGER.log(INFO, "Starting new {0} tournament of {1} game(s) between {2} engines. Time control is {3}. Playing {4} game(s) at a time.",
+                    config.format(), pairings.size(), config.engineFiles().size(), config.timeControl(), config.concurrency());
+        }
+        playing.set(true);
+
+        final var games = new TournamentGame[pairings.size()];
+        final var engineNames = new AtomicReferenceArray<String>(config.engineFiles().size());
+        final var nextPairing = new AtomicInteger(0);
+        final var failure = new AtomicReference<RuntimeException>();
+        final var slotCpus = allocateCpus(config);
+        final var controller = new ConcurrencyController(config.minConcurrency(), config.concurrency());
+
+        try (var executor = Executors.newFixedThreadPool(config.concurrency())) {
+            for (var slot = 0; slot < config.concurrency(); slot++) {
+                final var sandbox = new Sandbox(slotCpus.get(slot), config.cgroup());
+                final var slotNumber = slot;
+                executor.execute(() -> {
+                    try {
+                        playSlot(config, slotNumber, sandbox, controller, pairings, nextPairing, games, engineNames);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(ERROR, "Game slot failed: " + e.getMessage(), e);
+                        failure.compareAndSet(null, e);
+                        stopTournament();
+                    }
+                });
+            }
+        }
+        gameServices.clear();
+        eventBus.matchEnded();
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        final var names = new ArrayList<String>();
+        for (var index = 0; index < engineNames.length(); index++) {
+            final var name = engineNames.get(index);
+            names.add(name != null ? name : config.engineFiles().get(index).getName());
+        }
+        final var playedGames = Arrays.stream(games).filter(Objects::nonNull).toList();
+        LOGGER.log(INFO, "Tournament finished after {0} game(s)", playedGames.size());
+        return new PlayedTournament(config, names, playedGames);
+    }
+
+    /**
+     * Returns the logical CPUs of each game slot. If CPU affinity is enabled, the tester itself
+     * is pinned to a reserved core, and each slot gets its own cores. Otherwise, all slots may
+     * run on any CPU.
+     */
+    private static List<Set<Integer>> allocateCpus(final TournamentConfig config) {
+        if (!config.affinity()) {
+            return Collections.nCopies(config.concurrency(), Set.of());
+        }
+        try {
+            final var layout = CpuLayout.of(CpuTopology.read(), config.concurrency());
+            ProcessUtils.pinCurrentProcess(layout.reserved());
+            for (var slot = 0; slot < layout.slots().size(); slot++) {
+                LOGGER.log(INFO, "Game slot {0} runs on CPUs {1}", slot, CpuTopology.format(layout.slots().get(slot)));
+            }
+            return layout.slots();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Plays games in one game slot until all pairings have been played, or the tournament is stopped.
+     * Between games, the slot waits while the controller has made it inactive.
+     */
+    private void playSlot(final TournamentConfig config,
+                          final int slot,
+                          final Sandbox sandbox,
+                          final ConcurrencyController controller,
+                          final List<Pairing> pairings,
+                          final AtomicInteger nextPairing,
+                          final TournamentGame[] games,
+                          final AtomicReferenceArray<String> engineNames) {
+        final var gameService = gameServiceFactory.get();
+        gameServices.add(gameService);
+        final var enginePool = new EnginePool(engineService, config.engineFiles(), sandbox);
+        try {
+            int index;
+            while (controller.awaitTurn(slot, () -> playing.get() && nextPairing.get() < pairings.size())
+                   && (index = nextPairing.getAndIncrement()) < pairings.size()) {
+                final var pairing = pairings.get(index);
+                final var whiteEngine = enginePool.acquire(pairing.white());
+                final var blackEngine = enginePool.acquire(pairing.black());
+                engineNames.compareAndSet(pairing.white(), null, whiteEngine.myName());
+                engineNames.compareAndSet(pairing.black(), null, blackEngine.myName());
+
+                final var gameConfig = GameConfig.builder()
+                        .white(whiteEngine.myName())
+                        .black(blackEngine.myName())
+                        .timeControl(config.timeControl())
+                        .sampleIntervalMillis(config.sampleIntervalMillis())
+                        .build();
+                final var startTime = LocalDateTime.now();
+                final var playedGame = gameService.playGame(gameConfig, whiteEngine, blackEngine);
+                final var round = index + 1;
+                games[index] = new TournamentGame(round, pairing, playedGame.result(), playedGame.reason());
+                notifyListeners(round, startTime, playedGame);
+                controller.gameOver(playedGame);
+
+                enginePool.release(pairing.white(), playedGame.whiteEngine());
+                enginePool.release(pairing.black(), playedGame.blackEngine());
+                ThreadUtils.sleepSilently(1_000);
+            }
+        } finally {
+            enginePool.unloadAll();
+        }
+    }
+
+    @Override
+    public void stopTournament() {
+        playing.set(false);
+        gameServices.forEach(GameService::stopGame);
+    }
+
+    @Override
+    public void close() {
+        eventBus.close();
+    }
+
+    private void notifyListeners(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+        eventBus.gameEnded(round, startTime, playedGame);
+    }
+}
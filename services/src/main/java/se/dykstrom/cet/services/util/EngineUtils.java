@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package se.dykstrom.cet.services.util;
+
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.services.jfr.EngineRestartEvent;
+
+public final class EngineUtils {
+
+    private EngineUtils() { }
+
+    /**
+     * Restarts the engine process if the engine has crashed, or if reuse is disabled in the
+     * engine features. Otherwise, this method just returns the given idling engine. Each
+     * restart is recorded as an {@link EngineRestartEvent}.
+     */
+    public static IdlingEngine restartEngineIfNeeded(final IdlingEngine idlingEngine) {
+        if (idlingEngine.features().reuse() && !idlingEngine.hasCrashed()) {
+            return idlingEngine;
+        }
+
+        final var crashed = idlingEngine.hasCrashed();
+        final var event = new EngineRestartEvent();
+        event.begin();
+        final var restartedEngine = idlingEngine.unload().load();
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = idlingEngine.myName();
+            event.crashed = crashed;
+            event.commit();
+        }
+        return restartedEngine;
+    }
+}
@@ -18,15 +18,58 @@ package se.dykstrom.cet.services.util;
 
 import java.time.LocalDateTime;
 
+import se.dykstrom.cet.services.event.Backpressure;
+import se.dykstrom.cet.services.event.GameEvent;
+import se.dykstrom.cet.services.event.GameEventBus;
 import se.dykstrom.cet.services.game.PlayedGame;
 
 /**
  * Interface to be implemented by classes that are interested in game events.
  * This can be used to display a progress meter, save game results etc.
+ * <p>
+ * Events are delivered by a {@link GameEventBus}, on a thread of its own for each listener,
+ * so a listener does not need to be thread-safe, unless it is also called by other threads.
  */
 public interface GameListener {
+    /**
+     * Called when a game has started.
+     */
+    default void gameStarted(final GameEvent.GameStarted event) { }
+
+    /**
+     * Called after each ply played by an engine, if {@link #wantsMoves()} returns true.
+     */
+    default void movePlayed(final GameEvent.MovePlayed event) { }
+
     /**
      * Called when a game has finished.
      */
     void gameOver(final int round, final LocalDateTime startTime, final PlayedGame playedGame);
+
+    /**
+     * Called when a game has finished. The default implementation calls {@link #gameOver}.
+     * Override this method to get the game id as well.
+     */
+    default void gameEnded(final GameEvent.GameEnded event) {
+        gameOver(event.round(), event.startTime(), event.playedGame());
+    }
+
+    /**
+     * Called when a match or tournament has finished.
+     */
+    default void matchOver() { }
+
+    /**
+     * Returns true if this listener wants move events. Move events are only created if some listener wants them.
+     */
+    default boolean wantsMoves() {
+        return false;
+    }
+
+    /**
+     * Returns what to do with a new move event when the queue of this listener is full.
+     */
+    default Backpressure backpressure() {
+        return Backpressure.BLOCK;
+    }
 }
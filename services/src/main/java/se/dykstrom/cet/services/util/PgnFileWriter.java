@@ -24,7 +24,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+import se.dykstrom.cet.services.game.MoveTimes;
 import se.dykstrom.cet.services.game.PlayedGame;
 import se.dykstrom.cet.services.io.FileService;
 
@@ -46,24 +50,15 @@ public record PgnFileWriter(File outputFile, FileService fileService) implements
     @Override
     public void gameOver(final int round, final LocalDateTime startTime, final PlayedGame game) {
         if (outputFile != null) {
-            List<String> lines = new ArrayList<>();
-
-            lines.add(tag("Event", "Chess Game"));
-            lines.add(tag("Site", getHostName()));
-            lines.add(tag("Date", DATE_FORMATTER.format(startTime)));
-            lines.add(tag("Round", round));
-            lines.add(tag("White", game.gameConfig().white()));
-            lines.add(tag("Black", game.gameConfig().black()));
-            lines.add(tag("Result", game.result().getDescription()));
-            lines.add(tag("PlyCount", game.moves().size()));
-            lines.add(tag("Time", TIME_FORMATTER.format(startTime)));
-            lines.add(tag("TimeControl", game.gameConfig().timeControl().toPgn()));
-            lines.add("");
-
-            lines.addAll(PgnUtils.formatMoveText(game.moves().toSanArray(), game.extraMoves()));
-            lines.add(game.result().getDescription() + " {" + game.reason() + "}");
-            lines.add("");
+            write(format(round, startTime, game));
+        }
+    }
 
+    /**
+     * Appends the given PGN lines to the output file, if there is one.
+     */
+    public void write(final List<String> lines) {
+        if (outputFile != null) {
             try {
                 fileService.write(outputFile.toPath(), lines, UTF_8, CREATE, WRITE, APPEND);
             } catch (IOException e) {
@@ -72,7 +67,69 @@ public record PgnFileWriter(File outputFile, FileService fileService) implements
         }
     }
 
-    private String getHostName() {
+    /**
+     * Formats the given game as PGN lines, ending with an empty line.
+     */
+    public static List<String> format(final int round, final LocalDateTime startTime, final PlayedGame game) {
+        List<String> lines = new ArrayList<>();
+
+        lines.add(tag("Event", "Chess Game"));
+        lines.add(tag("Site", getHostName()));
+        lines.add(tag("Date", DATE_FORMATTER.format(startTime)));
+        lines.add(tag("Round", round));
+        lines.add(tag("White", game.gameConfig().white()));
+        lines.add(tag("Black", game.gameConfig().black()));
+        lines.add(tag("Result", game.result().getDescription()));
+        lines.add(tag("PlyCount", game.moves().size()));
+        lines.add(tag("Time", TIME_FORMATTER.format(startTime)));
+        lines.add(tag("TimeControl", game.gameConfig().timeControl().toPgn()));
+        final var fen = game.gameConfig().fen();
+        if (fen != null) {
+            lines.add(tag("SetUp", 1));
+            lines.add(tag("FEN", fen));
+        }
+        lines.add("");
+
+        final var comments = formatMoveTimes(game.moveTimes(), game.moves().size());
+        if (fen != null) {
+            final var board = new Board();
+            board.loadFromFen(fen);
+            lines.addAll(PgnUtils.formatMoveText(game.moves().toSanArray(), comments, game.extraMoves(),
+                    board.getMoveCounter(), board.getSideToMove() == Side.WHITE));
+        } else {
+            lines.addAll(PgnUtils.formatMoveText(game.moves().toSanArray(), comments, game.extraMoves(), 1, true));
+        }
+        lines.add(game.result().getDescription() + " {" + game.reason() + "}");
+        lines.add("");
+        return lines;
+    }
+
+    /**
+     * Formats the think time and clock time of each ply as PGN comments, for example
+     * "[%emt 0:00:02.5] [%clk 0:04:57.5]". Returns null if there are no move times.
+     */
+    private static String[] formatMoveTimes(final MoveTimes moveTimes, final int plies) {
+        if (moveTimes == null || moveTimes.plies() == 0) {
+            return null;
+        }
+        final var comments = new String[plies];
+        for (int ply = 1; ply <= plies; ply++) {
+            if (moveTimes.contains(ply)) {
+                comments[ply - 1] = "[%emt " + formatTime(moveTimes.elapsedMillis(ply)) + "] [%clk " + formatTime(moveTimes.clockMillis(ply)) + "]";
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Formats a time in milliseconds as H:MM:SS.S.
+     */
+    static String formatTime(final long millis) {
+        final var tenths = Math.max(0, millis) / 100;
+        return String.format(Locale.ROOT, "%d:%02d:%02d.%d", tenths / 36_000, tenths / 600 % 60, tenths / 10 % 60, tenths % 10);
+    }
+
+    private static String getHostName() {
         try {
             return InetAddress.getLocalHost().getHostName();
         } catch (UnknownHostException e) {
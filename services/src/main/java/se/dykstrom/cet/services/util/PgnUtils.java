@@ -26,27 +26,62 @@ public final class PgnUtils {
 
     public static List<String> formatMoveText(final String[] moves,
                                               final Map<Integer, String> extraMoves) {
+        return formatMoveText(moves, extraMoves, 1, true);
+    }
+
+    /**
+     * Formats the move text of a game that starts with move number {@code firstMoveNumber},
+     * and with white or black to move as specified by {@code whiteMovesFirst}.
+     */
+    public static List<String> formatMoveText(final String[] moves,
+                                              final Map<Integer, String> extraMoves,
+                                              final int firstMoveNumber,
+                                              final boolean whiteMovesFirst) {
+        return formatMoveText(moves, null, extraMoves, firstMoveNumber, whiteMovesFirst);
+    }
+
+    /**
+     * Formats the move text of a game that starts with move number {@code firstMoveNumber},
+     * and with white or black to move as specified by {@code whiteMovesFirst}. If {@code comments}
+     * is not null, element N is the comment to write after move N, or null for no comment.
+     */
+    public static List<String> formatMoveText(final String[] moves,
+                                              final String[] comments,
+                                              final Map<Integer, String> extraMoves,
+                                              final int firstMoveNumber,
+                                              final boolean whiteMovesFirst) {
         final var lines = new ArrayList<String>();
         final var builder = new StringBuilder();
+        final var offset = whiteMovesFirst ? 0 : 1;
+        var afterComment = false;
 
-        for (var index = 0; index < moves.length; index += 2) {
-            final var moveNumber = index / 2 + 1;
+        for (var index = 0; index < moves.length; index++) {
+            final var moveNumber = firstMoveNumber + (index + offset) / 2;
+            final var whiteMove = (index + offset) % 2 == 0;
 
-            // White move
-            builder.append(moveNumber).append(". ").append(moves[index]).append(" ");
+            if (whiteMove) {
+                builder.append(moveNumber).append(". ");
+            } else if (index == 0 || afterComment) {
+                builder.append(moveNumber).append("... ");
+            }
+            builder.append(moves[index]).append(" ");
 
-            // Black move
-            if (index + 1 < moves.length) {
-                builder.append(moves[index + 1]).append(" ");
+            afterComment = comments != null && comments[index] != null;
+            if (afterComment) {
+                builder.append("{").append(comments[index]).append("} ");
             }
 
-            // Possible extra move
-            if (extraMoves != null && extraMoves.containsKey(moveNumber)) {
-                final var extraMove = extraMoves.get(moveNumber);
-                builder.append("{").append(moveNumber).append("... ").append(extraMove).append("} ");
+            // End of white and black move pair
+            if (!whiteMove || index + 1 == moves.length) {
+                // Possible extra move
+                if (extraMoves != null && extraMoves.containsKey(moveNumber)) {
+                    final var extraMove = extraMoves.get(moveNumber);
+                    builder.append("{").append(moveNumber).append("... ").append(extraMove).append("} ");
+                    afterComment = true;
+                }
             }
 
-            if (builder.length() > 60) {
+            if ((!whiteMove || index + 1 == moves.length || afterComment) && builder.length() > 60) {
                 lines.add(builder.toString().strip());
                 builder.setLength(0);
             }
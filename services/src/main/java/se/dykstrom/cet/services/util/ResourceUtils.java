@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import se.dykstrom.cet.services.io.EngineConfigDto;
+
+/**
+ * Computes the memory and cores reserved by the engines in a concurrent tournament, and checks
+ * them against the machine. A game slot may keep more engines loaded than the two that are
+ * playing. Their hash tables stay in memory, so the memory check counts the most demanding
+ * engines a slot can keep loaded. Idle engines do not think, so the core check only counts the
+ * two most demanding engines in each slot.
+ */
+public final class ResourceUtils {
+
+    private ResourceUtils() { }
+
+    /**
+     * Returns the total hash size in MB reserved when playing {@code concurrency} games at a time,
+     * and each game slot keeps up to {@code enginesPerSlot} engines loaded. An engine without a
+     * configured hash size is assumed to use none.
+     */
+    public static long reservedMemoryMb(final List<EngineConfigDto> engines, final int concurrency, final int enginesPerSlot) {
+        return perSlot(engines, EngineConfigDto::hash, 0, enginesPerSlot) * concurrency;
+    }
+
+    /**
+     * Returns the total number of cores reserved when playing {@code concurrency} games at a time.
+     * An engine without a configured number of threads is assumed to use one.
+     */
+    public static int reservedCores(final List<EngineConfigDto> engines, final int concurrency) {
+        return (int) perSlot(engines, EngineConfigDto::threads, 1, 2) * concurrency;
+    }
+
+    /**
+     * Returns a list of problems found when checking the reserved memory and cores against
+     * {@code totalMemoryMb} and {@code availableCores}. If the list is empty, there are enough resources.
+     */
+    public static List<String> checkResources(final List<EngineConfigDto> engines,
+                                              final int concurrency,
+                                              final int enginesPerSlot,
+                                              final long totalMemoryMb,
+                                              final int availableCores) {
+        final var problems = new ArrayList<String>();
+        final var memoryMb = reservedMemoryMb(engines, concurrency, enginesPerSlot);
+        if (memoryMb > totalMemoryMb) {
+            problems.add("Engines reserve " + memoryMb + " MB of hash, but the machine only has " + totalMemoryMb + " MB of memory.");
+        }
+        final var cores = reservedCores(engines, concurrency);
+        if (cores > availableCores) {
+            problems.add("Engines reserve " + cores + " cores, but the machine only has " + availableCores + " cores.");
+        }
+        return problems;
+    }
+
+    /**
+     * Returns the sum of the {@code enginesPerSlot} largest values of the given property, which is
+     * what the engines of one game slot can reserve at most.
+     */
+    private static long perSlot(final List<EngineConfigDto> engines,
+                                final Function<EngineConfigDto, Integer> property,
+                                final int defaultValue,
+                                final int enginesPerSlot) {
+        return engines.stream()
+                      .map(property)
+                      .map(value -> value != null ? value : defaultValue)
+                      .sorted(Comparator.reverseOrder())
+                      .limit(enginesPerSlot)
+                      .mapToLong(Integer::longValue)
+                      .sum();
+    }
+
+    /**
+     * Returns the total physical memory of this machine in MB.
+     */
+    public static long totalMemoryMb() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean bean) {
+            return bean.getTotalMemorySize() / (1024 * 1024);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of cores available to this program.
+     */
+    public static int availableCores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -17,6 +17,7 @@
 package se.dykstrom.cet.services.util;
 
 import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
 import se.dykstrom.cet.engine.parser.IllegalMove;
 import se.dykstrom.cet.engine.parser.InvalidCommand;
 import se.dykstrom.cet.engine.parser.Response;
@@ -26,6 +27,8 @@ import static com.github.bhlangonijr.chesslib.Side.WHITE;
 
 public final class ResultUtils {
 
+    private static final String TIME_FORFEIT = "Time forfeit";
+
     private ResultUtils() { }
 
     /**
@@ -103,6 +106,22 @@ public final class ResultUtils {
     public static Result createTimeoutResult(final Board board) {
         final var side = board.getSideToMove();
         final var code = side == WHITE ? "0-1" : "1-0";
-        return new Result(code, "Time forfeit");
+        return new Result(code, TIME_FORFEIT);
+    }
+
+    /**
+     * Returns true if the given game result reason means that a side lost on time.
+     */
+    public static boolean isTimeForfeit(final String reason) {
+        return reason != null && reason.startsWith(TIME_FORFEIT);
+    }
+
+    /**
+     * This method is called when the engine playing the given side has crashed,
+     * which means the side that crashed loses the game.
+     */
+    public static Result createCrashResult(final Side side) {
+        final var code = side == WHITE ? "0-1" : "1-0";
+        return new Result(code, side + " engine crashed");
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.game.MoveTimes;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+/**
+ * Summarizes how the engines manage their time, using the move times of each game. For each engine,
+ * the summary shows how long the engine thought compared with the budget for the move, and how large
+ * a share of the available clock time the engine had used by move 40.
+ * <p>
+ * For classic time control, the budget of a move is the time left on the clock divided by the number
+ * of moves left in the time period. For incremental time control, the budget is the time left divided
+ * by 30, plus the increment.
+ */
+public class ThinkTimeSummary implements GameListener {
+
+    private static final String[] BUCKET_NAMES = {"<25%", "25-50%", "50-100%", "100-200%", ">200%"};
+    private static final double[] BUCKET_LIMITS = {0.25, 0.5, 1.0, 2.0};
+    private static final int INCREMENTAL_MOVES_TO_GO = 30;
+    private static final int SHARE_MOVE = 40;
+
+    private final Map<String, EngineTimes> engines = new LinkedHashMap<>();
+
+    private static final class EngineTimes {
+        private final long[] buckets = new long[BUCKET_NAMES.length];
+        private long moves;
+        private double shareSum;
+        private int shareGames;
+    }
+
+    @Override
+    public synchronized void gameOver(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+        final var moveTimes = playedGame.moveTimes();
+        if (moveTimes == null) {
+            return;
+        }
+        final var fen = playedGame.gameConfig().fen();
+        final var whiteMovesFirst = fen == null || fen.split(" ")[1].equals("w");
+        final var timeControl = playedGame.gameConfig().timeControl();
+        add(playedGame.whiteEngine().myName(), moveTimes, whiteMovesFirst ? 1 : 2, timeControl);
+        add(playedGame.blackEngine().myName(), moveTimes, whiteMovesFirst ? 2 : 1, timeControl);
+    }
+
+    /**
+     * Adds the moves of one engine, that played ply {@code firstPly}, and every second ply after that.
+     */
+    private void add(final String engine, final MoveTimes moveTimes, final int firstPly, final TimeControl timeControl) {
+        final var times = engines.computeIfAbsent(engine, key -> new EngineTimes());
+        var clockBefore = timeControl.initialTimeInMillis();
+        var move = 0;
+        var usedMillis = 0L;
+        for (int ply = firstPly; ply <= moveTimes.plies(); ply += 2) {
+            // Opening moves have no times
+            if (moveTimes.contains(ply)) {
+                move++;
+                final var elapsedMillis = moveTimes.elapsedMillis(ply);
+                times.buckets[bucket(elapsedMillis / budgetMillis(timeControl, move, clockBefore))]++;
+                times.moves++;
+                usedMillis += elapsedMillis;
+                if (move == SHARE_MOVE) {
+                    times.shareSum += (double) usedMillis / availableMillis(timeControl);
+                    times.shareGames++;
+                }
+                clockBefore = moveTimes.clockMillis(ply);
+            }
+        }
+    }
+
+    /**
+     * Returns the budget for move number {@code move} of an engine, counted from the start of its clock.
+     */
+    static double budgetMillis(final TimeControl timeControl, final int move, final long clockBefore) {
+        if (timeControl instanceof IncrementalTimeControl) {
+            return (double) clockBefore / INCREMENTAL_MOVES_TO_GO + timeControl.incrementInMillis();
+        }
+        final var movesInPeriod = timeControl.movesInOnePeriod();
+        return (double) clockBefore / (movesInPeriod - (move - 1) % movesInPeriod);
+    }
+
+    /**
+     * Returns the clock time available for the first 40 moves, that is, the initial time
+     * plus the time added after each of the first 39 moves.
+     */
+    private static long availableMillis(final TimeControl timeControl) {
+        return timeControl.initialTimeInMillis() + (long) (SHARE_MOVE - 1) / timeControl.movesInOnePeriod() * timeControl.incrementInMillis();
+    }
+
+    private static int bucket(final double ratio) {
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            if (ratio < BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS.length;
+    }
+
+    /**
+     * Formats the summary as a table, with the share of moves in each budget bucket, and the average
+     * share of the clock used by move 40. Returns an empty list if no move times have been recorded.
+     */
+    public synchronized List<String> format() {
+        final var lines = new ArrayList<String>();
+        if (engines.values().stream().allMatch(times -> times.moves == 0)) {
+            return lines;
+        }
+        final var nameWidth = Math.max("Engine".length(), engines.keySet().stream().mapToInt(String::length).max().orElse(0));
+        final var header = new StringBuilder(String.format(Locale.ROOT, "%-" + nameWidth + "s", "Engine"));
+        for (final var name : BUCKET_NAMES) {
+            header.append(String.format(Locale.ROOT, "  %8s", name));
+        }
+        header.append("  Move ").append(SHARE_MOVE);
+        lines.add("Think time compared with budget, and share of clock used by move " + SHARE_MOVE + ":");
+        lines.add(header.toString());
+
+        engines.forEach((engine, times) -> {
+            final var line = new StringBuilder(String.format(Locale.ROOT, "%-" + nameWidth + "s", engine));
+            for (final var count : times.buckets) {
+                line.append(String.format(Locale.ROOT, "  %7.0f%%", times.moves > 0 ? 100.0 * count / times.moves : 0.0));
+            }
+            line.append(times.shareGames > 0 ? String.format(Locale.ROOT, "  %6.0f%%", 100 * times.shareSum / times.shareGames) : "        -");
+            lines.add(line.toString());
+        });
+        return lines;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.broadcast;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.services.event.GameEvent;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static se.dykstrom.cet.engine.util.EngineProcess.NO_SCORE;
+
+class BroadcastServerIT {
+
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("foo").black("bar").timeControl(new ClassicTimeControl(40, 5, 0)).build();
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String E4_FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+    private static final String E5_FEN = "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2";
+
+    @Test
+    void shouldSendSnapshotAndThenMoves() throws Exception {
+        try (var broadcastServer = new BroadcastServer(0)) {
+            broadcastServer.start();
+            // Given a game in progress
+            broadcastServer.gameStarted(new GameEvent.GameStarted(1, GAME_CONFIG, START_FEN, 300_000));
+            broadcastServer.movePlayed(new GameEvent.MovePlayed(1, 1, "e2e4", E4_FEN, 2_000, 298_000, 300_000, 30));
+
+            // When
+            final var events = connect(broadcastServer);
+
+            // Then the snapshot is sent first
+            assertEquals("event: game", events.next());
+            assertEquals("data: {\"id\":1,\"white\":\"foo\",\"black\":\"bar\",\"ply\":1,\"move\":\"e2e4\",\"fen\":\"" + E4_FEN +
+                         "\",\"whiteClockMillis\":298000,\"blackClockMillis\":300000,\"score\":30}", events.next());
+            assertEquals("", events.next());
+
+            // When
+            broadcastServer.movePlayed(new GameEvent.MovePlayed(1, 2, "e7e5", E5_FEN, 3_000, 298_000, 297_000, 10));
+
+            // Then the score is from white's point of view
+            assertEquals("event: move", events.next());
+            assertEquals("data: {\"id\":1,\"white\":\"foo\",\"black\":\"bar\",\"ply\":2,\"move\":\"e7e5\",\"fen\":\"" + E5_FEN +
+                         "\",\"whiteClockMillis\":298000,\"blackClockMillis\":297000,\"score\":-10}", events.next());
+            assertEquals("", events.next());
+
+            // When
+            final var playedGame = PlayedGame.builder()
+                    .gameConfig(GAME_CONFIG)
+                    .result(WHITE_WON)
+                    .reason("Checkmate")
+                    .moves(new MoveList())
+                    .build();
+            broadcastServer.gameEnded(new GameEvent.GameEnded(1, 1, LocalDateTime.now(), playedGame));
+
+            // Then
+            assertEquals("event: end", events.next());
+            assertEquals("data: {\"id\":1,\"result\":\"1-0\",\"reason\":\"Checkmate\"}", events.next());
+            assertTrue(broadcastServer.games().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldSendNullScoreWhenEngineDidNotThink() throws Exception {
+        try (var broadcastServer = new BroadcastServer(0)) {
+            broadcastServer.start();
+            final var events = connect(broadcastServer);
+
+            // When
+            broadcastServer.gameStarted(new GameEvent.GameStarted(7, GAME_CONFIG, START_FEN, 300_000));
+            broadcastServer.movePlayed(new GameEvent.MovePlayed(7, 1, "e2e4", E4_FEN, 2_000, 298_000, 300_000, NO_SCORE));
+
+            // Then
+            assertEquals("event: game", events.next());
+            assertTrue(events.next().endsWith("\"ply\":0,\"move\":null,\"fen\":\"" + START_FEN +
+                                              "\",\"whiteClockMillis\":300000,\"blackClockMillis\":300000,\"score\":null}"));
+            assertEquals("", events.next());
+            assertEquals("event: move", events.next());
+            assertTrue(events.next().endsWith("\"score\":null}"));
+        }
+    }
+
+    @Test
+    void shouldServePage() throws Exception {
+        try (var broadcastServer = new BroadcastServer(0)) {
+            broadcastServer.start();
+            final var uri = URI.create("http://localhost:" + broadcastServer.port() + "/");
+
+            // When
+            final var response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+
+            // Then
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/html"));
+            assertTrue(response.body().contains("new EventSource(\"events\")"));
+        }
+    }
+
+    private static Iterator<String> connect(final BroadcastServer broadcastServer) throws Exception {
+        final var uri = URI.create("http://localhost:" + broadcastServer.port() + "/events");
+        final var response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        assertEquals("text/event-stream; charset=utf-8", response.headers().firstValue("Content-Type").orElseThrow());
+        return response.body().iterator();
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.distributed;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.engine.util.EngineFeatures;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.io.FileService;
+import se.dykstrom.cet.services.match.MatchConfig;
+import se.dykstrom.cet.services.match.PlayedMatch;
+import se.dykstrom.cet.services.util.PgnFileWriter;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoordinatorIT {
+
+    private static final MatchConfig MATCH_CONFIG = MatchConfig.builder().numberOfGames(8).timeControl(new IncrementalTimeControl(0, 1, 0)).build();
+
+    private final FileService fileServiceMock = mock(FileService.class);
+
+    @Test
+    @Timeout(60)
+    void shouldPlayMatchOnSeveralWorkers() throws Exception {
+        // Given
+        try (var serverSocket = new ServerSocket(0)) {
+            final var coordinator = new Coordinator(serverSocket, 1, new PgnFileWriter(new File("games.pgn"), fileServiceMock));
+            final var workers = List.of(new Worker(engineService(), gameService(Integer.MAX_VALUE)),
+                                        new Worker(engineService(), gameService(Integer.MAX_VALUE)));
+
+            // When
+            final var playedMatch = playMatch(coordinator, serverSocket.getLocalPort(), workers);
+
+            // Then
+            assertEquals(8, playedMatch.results().size());
+            assertEquals(List.of(WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON), playedMatch.results());
+            assertEquals(List.of("e1", "e2"), coordinator.engineNames());
+            verify(fileServiceMock, times(8)).write(any(), any(), any(), any(), any(), any());
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void shouldReassignGamesFromWorkerThatDies() throws Exception {
+        // Given
+        try (var serverSocket = new ServerSocket(0)) {
+            final var coordinator = new Coordinator(serverSocket, 2, new PgnFileWriter(null, fileServiceMock));
+            // The second worker dies in its second game
+            final var workers = List.of(new Worker(engineService(), gameService(Integer.MAX_VALUE)),
+                                        new Worker(engineService(), gameService(1)));
+
+            // When
+            final var playedMatch = playMatch(coordinator, serverSocket.getLocalPort(), workers);
+
+            // Then
+            assertEquals(8, playedMatch.results().size());
+            assertEquals(8, playedMatch.reasons().stream().filter("Checkmate"::equals).count());
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void shouldReassignGamesFromWorkerThatHangs() throws Exception {
+        // Given
+        try (var serverSocket = new ServerSocket(0)) {
+            // Each game may take 2 seconds, which is enough for the 1 second pause between games
+            final var coordinator = new Coordinator(serverSocket, 2, new PgnFileWriter(null, fileServiceMock), timeControl -> 2_000);
+            // The second worker hangs in its first game, until it is stopped
+            final var workers = List.of(new Worker(engineService(), gameService(Integer.MAX_VALUE)),
+                                        new Worker(engineService(), hangingGameService()));
+
+            // When
+            final var playedMatch = playMatch(coordinator, serverSocket.getLocalPort(), workers);
+
+            // Then
+            assertEquals(8, playedMatch.results().size());
+            assertEquals(8, playedMatch.reasons().stream().filter("Checkmate"::equals).count());
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void shouldDisconnectWorkerWithOtherEngines() throws Exception {
+        // Given
+        try (var serverSocket = new ServerSocket(0)) {
+            final var firstGameWritten = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                firstGameWritten.countDown();
+                return null;
+            }).when(fileServiceMock).write(any(), any(), any(), any(), any(), any());
+            final var coordinator = new Coordinator(serverSocket, 1, new PgnFileWriter(new File("games.pgn"), fileServiceMock));
+            // The second worker connects after the first game has been recorded, and plays with other engines
+            final var workers = List.of(new Worker(engineService(), gameService(Integer.MAX_VALUE)),
+                                        new Worker(engineService(firstGameWritten, "x1", "x2"), gameService(Integer.MAX_VALUE)));
+
+            // When
+            final var playedMatch = playMatch(coordinator, serverSocket.getLocalPort(), workers);
+
+            // Then
+            assertEquals(List.of(WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON, WHITE_WON), playedMatch.results());
+            assertEquals(List.of("e1", "e2"), coordinator.engineNames());
+            verify(fileServiceMock, times(8)).write(any(), any(), any(), any(), any(), any());
+        }
+    }
+
+    @Test
+    void shouldCalculateGameTimeout() {
+        // 200 moves of 1 second per side
+        assertEquals(2 * 200_000 + Coordinator.GAME_MARGIN_MILLIS, Coordinator.gameTimeoutMillis(new IncrementalTimeControl(0, 0, 1)));
+        // 1 + 5 periods of 60 seconds per side
+        assertEquals(2 * 360_000 + Coordinator.GAME_MARGIN_MILLIS, Coordinator.gameTimeoutMillis(new ClassicTimeControl(40, 1, 0)));
+        // 2 minutes and 200 moves of 2 seconds per side
+        assertEquals(2 * 520_000 + Coordinator.GAME_MARGIN_MILLIS, Coordinator.gameTimeoutMillis(new IncrementalTimeControl(2, 0, 2)));
+    }
+
+    /**
+     * Plays the match, with each worker in its own thread. The workers are stopped when the match is over.
+     */
+    private static PlayedMatch playMatch(final Coordinator coordinator, final int port, final List<Worker> workers) throws Exception {
+        final var threads = new ArrayList<Thread>();
+        for (final Worker worker : workers) {
+            final var thread = new Thread(() -> {
+                try {
+                    worker.work(new Socket("localhost", port), List.of(), Sandbox.NONE);
+                } catch (IOException | RuntimeException e) {
+                    // Expected for the worker that dies
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        final var playedMatch = coordinator.playMatch(MATCH_CONFIG);
+        workers.forEach(Worker::stopWork);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        return playedMatch;
+    }
+
+    private static EngineService engineService() throws IOException {
+        final var engineServiceMock = mock(EngineService.class);
+        when(engineServiceMock.loadAll(any(), any())).thenReturn(List.of(engine("e1"), engine("e2")));
+        return engineServiceMock;
+    }
+
+    /**
+     * Returns an engine service that loads engines with the given names, when {@code loaded} has been counted down.
+     */
+    private static EngineService engineService(final CountDownLatch loaded, final String name1, final String name2) throws IOException {
+        final var engineServiceMock = mock(EngineService.class);
+        when(engineServiceMock.loadAll(any(), any())).thenAnswer(invocation -> {
+            loaded.await();
+            return List.of(engine(name1), engine(name2));
+        });
+        return engineServiceMock;
+    }
+
+    private static IdlingEngine engine(final String name) {
+        final var engineMock = mock(IdlingEngine.class);
+        when(engineMock.myName()).thenReturn(name);
+        when(engineMock.features()).thenReturn(EngineFeatures.builder().myName(name).reuse("1").build());
+        return engineMock;
+    }
+
+    /**
+     * Returns a game service where white wins all games, that fails after {@code gamesBeforeFailure} games.
+     */
+    private static GameService gameService(final int gamesBeforeFailure) {
+        final var gameServiceMock = mock(GameService.class);
+        final var games = new AtomicInteger(0);
+        when(gameServiceMock.playGame(any(), any(), any())).thenAnswer(invocation -> {
+            if (games.incrementAndGet() > gamesBeforeFailure) {
+                throw new IllegalStateException("Worker died");
+            }
+            return PlayedGame.builder()
+                    .gameConfig(invocation.getArgument(0))
+                    .whiteEngine(invocation.getArgument(1))
+                    .blackEngine(invocation.getArgument(2))
+                    .result(WHITE_WON)
+                    .reason("Checkmate")
+                    .moves(new MoveList())
+                    .build();
+        });
+        return gameServiceMock;
+    }
+
+    /**
+     * Returns a game service where all games hang, until the game is stopped.
+     */
+    private static GameService hangingGameService() {
+        final var gameServiceMock = mock(GameService.class);
+        final var stopped = new CountDownLatch(1);
+        when(gameServiceMock.playGame(any(), any(), any())).thenAnswer(invocation -> {
+            stopped.await();
+            return PlayedGame.builder()
+                    .gameConfig(invocation.getArgument(0))
+                    .whiteEngine(invocation.getArgument(1))
+                    .blackEngine(invocation.getArgument(2))
+                    .result(WHITE_WON)
+                    .reason("Checkmate")
+                    .moves(new MoveList())
+                    .build();
+        });
+        doAnswer(invocation -> {
+            stopped.countDown();
+            return null;
+        }).when(gameServiceMock).stopGame();
+        return gameServiceMock;
+    }
+}
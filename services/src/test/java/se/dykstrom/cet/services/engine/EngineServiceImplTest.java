@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package se.dykstrom.cet.services.engine;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.exception.EngineException;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.EngineProcess;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Timeout(10)
+class EngineServiceImplTest {
+
+    private static final File FOO_FILE = new File("foo.json");
+    private static final File BAR_FILE = new File("bar.json");
+
+    private final FileService fileServiceMock = mock(FileService.class);
+    private final EngineProcess launcherMock = mock(EngineProcess.class);
+    private final EngineProcess fooProcessMock = mock(EngineProcess.class);
+    private final EngineProcess barProcessMock = mock(EngineProcess.class);
+
+    private final EngineServiceImpl engineService = new EngineServiceImpl(fileServiceMock, () -> launcherMock);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        setUpEngine(FOO_FILE, "foo", fooProcessMock);
+        setUpEngine(BAR_FILE, "bar", barProcessMock);
+    }
+
+    private void setUpEngine(final File file, final String name, final EngineProcess processMock) throws Exception {
+        when(fileServiceMock.load(file)).thenReturn(new EngineConfigDto(name, null));
+        when(launcherMock.startUp(anyInt(), eq(name), any(), any())).thenReturn(processMock);
+        when(processMock.readLine(anyLong())).thenReturn("feature myname=\"" + name + "\" done=1");
+    }
+
+    @Test
+    void shouldLoadEnginesConcurrentlyInConfigFileOrder() throws Exception {
+        // Given
+        final var barStarted = new CountDownLatch(1);
+        // Foo cannot finish loading until bar has started, so they must be loaded at the same time
+        when(fooProcessMock.readLine(anyLong())).thenAnswer(invocation -> {
+            barStarted.await();
+            return "feature myname=\"foo\" done=1";
+        });
+        when(barProcessMock.readLine(anyLong())).thenAnswer(invocation -> {
+            barStarted.countDown();
+            return "feature myname=\"bar\" done=1";
+        });
+
+        // When
+        final var engines = engineService.loadAll(List.of(FOO_FILE, BAR_FILE), Sandbox.NONE);
+
+        // Then
+        assertEquals(List.of("foo", "bar"), engines.stream().map(IdlingEngine::myName).toList());
+        verify(fooProcessMock, never()).shutDown();
+        verify(barProcessMock, never()).shutDown();
+    }
+
+    @Test
+    void shouldUnloadLoadedEnginesIfOneFails() {
+        // Given
+        when(launcherMock.startUp(anyInt(), eq("bar"), any(), any())).thenThrow(new EngineException("Cannot start bar"));
+
+        // When
+        final var exception = assertThrows(EngineException.class, () -> engineService.loadAll(List.of(FOO_FILE, BAR_FILE), Sandbox.NONE));
+
+        // Then
+        assertEquals("Cannot start bar", exception.getMessage());
+        verify(fooProcessMock).shutDown();
+    }
+
+    @Test
+    void shouldUnloadLoadedEnginesIfInterrupted() {
+        // Given
+        final var fooBlocked = new CountDownLatch(1);
+        when(fooProcessMock.readLine(anyLong())).thenAnswer(invocation -> {
+            // Blocks until the load is cancelled
+            try {
+                fooBlocked.await();
+                return null;
+            } catch (InterruptedException e) {
+                throw new EngineException("Interrupted");
+            }
+        });
+        Thread.currentThread().interrupt();
+
+        // When
+        assertThrows(InterruptedIOException.class, () -> engineService.loadAll(List.of(FOO_FILE, BAR_FILE), Sandbox.NONE));
+
+        // Then
+        assertTrue(Thread.interrupted());
+        verify(fooProcessMock).shutDown();
+        verify(barProcessMock).shutDown();
+    }
+}
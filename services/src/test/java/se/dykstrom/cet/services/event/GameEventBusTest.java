@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.services.event.GameEvent.MovePlayed;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.util.GameListener;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventBusTest {
+
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("foo").black("bar").timeControl(new ClassicTimeControl(40, 5, 0)).build();
+    private static final String FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+    @Test
+    void shouldDeliverEventsInOrder() {
+        // Given
+        final var bus = new GameEventBus();
+        final var listener = new RecordingListener(Backpressure.BLOCK);
+        bus.subscribe(listener);
+
+        // When
+        final var gameId = bus.gameStarted(GAME_CONFIG, FEN, 300_000);
+        bus.movePlayed(move(gameId, 1));
+        bus.gameEnded(1, LocalDateTime.now(), PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .result(DRAW)
+                .reason("Stalemate")
+                .moves(new MoveList())
+                .gameId(gameId)
+                .build());
+        bus.matchEnded();
+
+        // Then
+        assertEquals(List.of("started " + gameId, "move " + gameId + " 1 e2e4", "over " + gameId + " 1", "match over"), listener.events);
+    }
+
+    @Test
+    void shouldDeliverEventsAndEndThreadsOnClose() throws Exception {
+        // Given
+        final var bus = new GameEventBus();
+        final var listener = new RecordingListener(Backpressure.BLOCK);
+        bus.subscribe(listener);
+        final var gameId = bus.gameStarted(GAME_CONFIG, FEN, 300_000);
+
+        // When
+        bus.close();
+        bus.gameStarted(GAME_CONFIG, FEN, 300_000);
+
+        // Then
+        assertEquals(List.of("started " + gameId), listener.events);
+        assertFalse(bus.movesWanted());
+        final var deliveryThread = listener.thread;
+        deliveryThread.join(5_000);
+        assertFalse(deliveryThread.isAlive());
+    }
+
+    @Test
+    void shouldWantMovesOnlyWhenSomeListenerWantsThem() {
+        // Given
+        final var bus = new GameEventBus();
+        bus.subscribe((round, startTime, playedGame) -> { });
+        assertFalse(bus.movesWanted());
+
+        // When
+        bus.subscribe(new RecordingListener(Backpressure.BLOCK));
+
+        // Then
+        assertTrue(bus.movesWanted());
+    }
+
+    @Test
+    void shouldDropMovesWhenSlowListenerQueueIsFull() throws Exception {
+        // Given
+        final var bus = new GameEventBus(2);
+        final var listener = new RecordingListener(Backpressure.DROP);
+        bus.subscribe(listener);
+        final var gameId = bus.gameStarted(GAME_CONFIG, FEN, 300_000);
+        listener.block();
+
+        // When
+        for (int ply = 1; ply <= 5; ply++) {
+            bus.movePlayed(move(gameId, ply));
+            if (ply == 1) {
+                listener.awaitBlocked();
+            }
+        }
+        listener.unblock();
+        bus.flush();
+
+        // Then
+        assertEquals(List.of("started " + gameId, "move " + gameId + " 1 e2e4", "move " + gameId + " 2 e2e4",
+                             "move " + gameId + " 3 e2e4"), listener.events);
+        assertEquals(2, bus.dropped());
+    }
+
+    @Test
+    void shouldCoalesceMovesWhenSlowListenerQueueIsFull() throws Exception {
+        // Given
+        final var bus = new GameEventBus(2);
+        final var listener = new RecordingListener(Backpressure.COALESCE);
+        bus.subscribe(listener);
+        final var gameId = bus.gameStarted(GAME_CONFIG, FEN, 300_000);
+        listener.block();
+
+        // When
+        for (int ply = 1; ply <= 5; ply++) {
+            bus.movePlayed(move(gameId, ply));
+            if (ply == 1) {
+                listener.awaitBlocked();
+            }
+        }
+        listener.unblock();
+        bus.flush();
+
+        // Then
+        assertEquals(List.of("started " + gameId, "move " + gameId + " 1 e2e4", "move " + gameId + " 4 e2e4",
+                             "move " + gameId + " 5 e2e4"), listener.events);
+        assertEquals(2, bus.dropped());
+    }
+
+    @Test
+    void shouldDeliverAllEventsFromManyGames() throws Exception {
+        // Given
+        final var bus = new GameEventBus(16);
+        final var count = new AtomicInteger();
+        bus.subscribe((round, startTime, playedGame) -> count.incrementAndGet());
+
+        // When
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    for (int game = 0; game < 1_000; game++) {
+                        bus.gameEnded(game, LocalDateTime.now(), null);
+                    }
+                });
+            }
+        }
+        bus.matchEnded();
+
+        // Then
+        assertEquals(8_000, count.get());
+        assertEquals(0, bus.dropped());
+    }
+
+    private static MovePlayed move(final long gameId, final int ply) {
+        return new MovePlayed(gameId, ply, "e2e4", FEN, 1_000, 299_000, 300_000, 25);
+    }
+
+    private static class RecordingListener implements GameListener {
+
+        private final Backpressure backpressure;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile Thread thread;
+        private volatile CountDownLatch blocked;
+        private volatile CountDownLatch released;
+
+        RecordingListener(final Backpressure backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        @Override
+        public void gameStarted(final GameEvent.GameStarted event) {
+            thread = Thread.currentThread();
+            events.add("started " + event.gameId());
+        }
+
+        @Override
+        public void movePlayed(final GameEvent.MovePlayed event) {
+            events.add("move " + event.gameId() + " " + event.ply() + " " + event.move());
+            if (released != null) {
+                blocked.countDown();
+                try {
+                    assertTrue(released.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void gameEnded(final GameEvent.GameEnded event) {
+            events.add("over " + event.gameId() + " " + event.round());
+        }
+
+        @Override
+        public void gameOver(final int round, final LocalDateTime startTime, final PlayedGame playedGame) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void matchOver() {
+            events.add("match over");
+        }
+
+        @Override
+        public boolean wantsMoves() {
+            return true;
+        }
+
+        @Override
+        public Backpressure backpressure() {
+            return backpressure;
+        }
+
+        /** Makes the next move event block until {@link #unblock()} is called. */
+        void block() {
+            blocked = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        }
+
+        void unblock() {
+            released.countDown();
+        }
+    }
+}
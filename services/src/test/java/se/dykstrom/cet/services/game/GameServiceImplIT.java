@@ -67,7 +67,11 @@ class GameServiceImplIT {
         final IdlingEngine whiteEngine = loadEngine(1, whiteCommand, ENGINE_1_DIRECTORY);
         final IdlingEngine blackEngine = loadEngine(2, blackCommand, ENGINE_2_DIRECTORY);
 
-        final var gameConfig = new GameConfig(whiteEngine.features().myName(), blackEngine.features().myName(), TIME_CONTROL);
+        final var gameConfig = GameConfig.builder()
+                .white(whiteEngine.features().myName())
+                .black(blackEngine.features().myName())
+                .timeControl(TIME_CONTROL)
+                .build();
 
         try {
             PlayedGame playedGame = gameService.playGame(gameConfig, whiteEngine, blackEngine);
@@ -99,7 +103,11 @@ class GameServiceImplIT {
         final IdlingEngine blackEngine = loadEngine(2, blackCommand, ENGINE_2_DIRECTORY);
         final IdlingEngine extraEngine = loadEngine(3, extraCommand, ENGINE_3_DIRECTORY);
 
-        final var gameConfig = new GameConfig(whiteEngine.features().myName(), blackEngine.features().myName(), TIME_CONTROL);
+        final var gameConfig = GameConfig.builder()
+                .white(whiteEngine.features().myName())
+                .black(blackEngine.features().myName())
+                .timeControl(TIME_CONTROL)
+                .build();
 
         try {
             PlayedGame playedGame = gameService.playGameWithExtraEngine(gameConfig, whiteEngine, blackEngine, extraEngine);
@@ -16,9 +16,12 @@
 
 package se.dykstrom.cet.services.game;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.exception.EngineCrashedException;
 import se.dykstrom.cet.engine.exception.UnexpectedException;
 import se.dykstrom.cet.engine.parser.IllegalMove;
 import se.dykstrom.cet.engine.parser.Result;
@@ -32,12 +35,16 @@ import se.dykstrom.cet.services.exception.TimeoutException;
 
 import static com.github.bhlangonijr.chesslib.game.GameResult.BLACK_WON;
 import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static com.github.bhlangonijr.chesslib.game.GameResult.ONGOING;
 import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GameServiceImplTest {
@@ -47,7 +54,7 @@ class GameServiceImplTest {
     private static final String EXTRA_NAME = "ExtraEngine";
 
     private static final TimeControl TIME_CONTROL = new IncrementalTimeControl(5, 0, 5);
-    private static final GameConfig GAME_CONFIG = new GameConfig(WHITE_NAME, BLACK_NAME, TIME_CONTROL);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white(WHITE_NAME).black(BLACK_NAME).timeControl(TIME_CONTROL).build();
     private static final EngineFeatures EXTRA_ENGINE_PLAY_OTHER_YES = EngineFeatures.builder().myName(EXTRA_NAME).playOther("1").build();
     private static final EngineFeatures EXTRA_ENGINE_PLAY_OTHER_NO = EngineFeatures.builder().myName(EXTRA_NAME).playOther("0").build();
 
@@ -97,6 +104,92 @@ class GameServiceImplTest {
         assertEquals(BLACK_WON, playedGame.result());
     }
 
+    @Test
+    void shouldPlayOpeningMovesBeforeFirstGo() {
+        // Given
+        final var gameConfig = GAME_CONFIG.withMoves(List.of("f2f3", "e7e5"));
+        when(activeWhiteEngine.readMove()).thenReturn("g2g4");
+        when(activeBlackEngine.readMove()).thenReturn("d8h4");
+        when(activeWhiteEngine.makeAndReadMove("d8h4")).thenThrow(new UnexpectedException(new Result("0-1", "Black mates")));
+
+        // When
+        final var playedGame = gameService.playGame(gameConfig, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(BLACK_WON, playedGame.result());
+        assertEquals(4, playedGame.moves().size());
+        verify(forcedWhiteEngineMock).makeMove("f2f3");
+        verify(forcedWhiteEngineMock).makeMove("e7e5");
+        verify(forcedBlackEngineMock).makeMove("f2f3");
+        verify(forcedBlackEngineMock).makeMove("e7e5");
+    }
+
+    @Test
+    void shouldNotPlayOpeningWithIllegalMove() {
+        // Given
+        final var gameConfig = GAME_CONFIG.withMoves(List.of("f2f3", "e2e5"));
+
+        // When
+        final var playedGame = gameService.playGame(gameConfig, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(ONGOING, playedGame.result());
+        assertEquals("Cannot play opening: illegal move e2e5", playedGame.reason());
+        verify(forcedWhiteEngineMock, never()).makeMove(any());
+        verify(forcedWhiteEngineMock, never()).go();
+        verify(forcedWhiteEngineMock).stop();
+        verify(forcedBlackEngineMock).stop();
+    }
+
+    @Test
+    void shouldNotPlayOpeningThatEndsInCheckmate() {
+        // Given
+        final var gameConfig = GAME_CONFIG.withMoves(List.of("f2f3", "e7e5", "g2g4", "d8h4"));
+
+        // When
+        final var playedGame = gameService.playGame(gameConfig, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(ONGOING, playedGame.result());
+        assertEquals("Cannot play opening: checkmate", playedGame.reason());
+        verify(forcedWhiteEngineMock, never()).go();
+    }
+
+    @Test
+    void shouldEndGameIfEngineCrashesDuringOpening() {
+        // Given
+        final var gameConfig = GAME_CONFIG.withMoves(List.of("f2f3", "e7e5"));
+        doThrow(new EngineCrashedException(2, 139, null)).when(forcedBlackEngineMock).makeMove("e7e5");
+        when(forcedBlackEngineMock.hasCrashed()).thenReturn(true);
+
+        // When
+        final var playedGame = gameService.playGame(gameConfig, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(WHITE_WON, playedGame.result());
+        assertEquals("BLACK engine crashed", playedGame.reason());
+        verify(forcedWhiteEngineMock, never()).go();
+        verify(forcedWhiteEngineMock).stop();
+    }
+
+    @Test
+    void shouldLetBlackMoveFirstFromPosition() {
+        // Given
+        final var gameConfig = GAME_CONFIG.withFen("rnbqkbnr/pppppppp/8/8/8/5P2/PPPPP1PP/RNBQKBNR b KQkq - 0 1");
+        when(activeBlackEngine.readMove()).thenReturn("e7e5");
+        when(activeWhiteEngine.readMove()).thenReturn("g2g4");
+        when(activeBlackEngine.makeAndReadMove("g2g4")).thenReturn("d8h4");
+        when(activeWhiteEngine.makeAndReadMove("d8h4")).thenThrow(new UnexpectedException(new Result("0-1", "Black mates")));
+
+        // When
+        final var playedGame = gameService.playGame(gameConfig, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(BLACK_WON, playedGame.result());
+        assertEquals(3, playedGame.moves().size());
+        verify(forcedWhiteEngineMock).makeMove("e7e5");
+    }
+
     @Test
     void shouldPlayUntilBlackMatesButWhiteDoesNotRecognize() {
         // Given
@@ -128,6 +221,26 @@ class GameServiceImplTest {
         assertEquals(BLACK_WON, playedGame.result());
     }
 
+    @Test
+    void shouldPlayUntilBlackCrashes() {
+        // Given
+        when(activeWhiteEngine.readMove()).thenReturn("e2e4");
+        when(activeBlackEngine.readMove()).thenReturn("e7e5");
+        when(activeWhiteEngine.makeAndReadMove("e7e5")).thenReturn("g1f3");
+        when(activeBlackEngine.makeAndReadMove("g1f3")).thenThrow(new EngineCrashedException(2, 139, null));
+        when(forcedBlackEngineMock.hasCrashed()).thenReturn(true);
+        when(activeBlackEngine.hasCrashed()).thenReturn(true);
+
+        // When
+        final var playedGame = gameService.playGame(GAME_CONFIG, idlingWhiteEngineMock, idlingBlackEngineMock);
+
+        // Then
+        assertEquals(WHITE_WON, playedGame.result());
+        assertEquals("BLACK engine crashed", playedGame.reason());
+        verify(activeBlackEngine, never()).postResult(any(), any());
+        verify(activeBlackEngine, never()).force();
+    }
+
     @Test
     void shouldPlayUntilWhiteMakesNonsenseMove() {
         // Given
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveTimesTest {
+
+    private final MoveTimes moveTimes = new MoveTimes();
+
+    @Test
+    void shouldRecordPlies() {
+        // When
+        moveTimes.record(3, 1_500, 58_500);
+        moveTimes.record(4, 2_000, 58_000);
+
+        // Then
+        assertEquals(4, moveTimes.plies());
+        assertFalse(moveTimes.contains(1));
+        assertFalse(moveTimes.contains(2));
+        assertTrue(moveTimes.contains(3));
+        assertFalse(moveTimes.contains(5));
+        assertEquals(1_500, moveTimes.elapsedMillis(3));
+        assertEquals(58_000, moveTimes.clockMillis(4));
+    }
+
+    @Test
+    void shouldGrowWhenGameIsLong() {
+        // When
+        for (int ply = 1; ply <= 1000; ply++) {
+            moveTimes.record(ply, ply, 100_000 - ply);
+        }
+
+        // Then
+        assertEquals(1000, moveTimes.plies());
+        assertTrue(moveTimes.contains(1000));
+        assertEquals(513, moveTimes.elapsedMillis(513));
+        assertEquals(99_000, moveTimes.clockMillis(1000));
+    }
+}
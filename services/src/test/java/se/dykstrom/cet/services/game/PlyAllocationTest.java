@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.config.EngineConfig;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.parser.LineReader;
+import se.dykstrom.cet.engine.parser.Parser;
+import se.dykstrom.cet.engine.state.ActiveEngine;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.engine.util.EngineFeatures;
+import se.dykstrom.cet.engine.util.EngineProcessImpl;
+import se.dykstrom.cet.engine.util.XboardCommand;
+import se.dykstrom.cet.services.metrics.Metrics;
+import se.dykstrom.cet.services.time.ChessClock;
+
+import static com.github.bhlangonijr.chesslib.Side.BLACK;
+import static com.github.bhlangonijr.chesslib.Side.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that some of the work the tester does for each ply does not allocate, once warmed up:
+ * timing the ply with the chess clocks and the {@link PlyTimer}, logging the move when debug logging
+ * is off, sending the time and the move to an engine, and parsing the thinking output of the engine.
+ * Allocations are measured with the allocated bytes counter of the current thread.
+ * <p>
+ * The rest of a ply is not covered, and does allocate: reading the lines of the engine and parsing
+ * its move, creating the move and updating the board in {@code updateGameState}, and in {@code endMove},
+ * handing the end of the move to the process samplers when sampling is on, and publishing a move event
+ * when a listener wants move events.
+ */
+class PlyAllocationTest {
+
+    private static final int WARMUP_PLIES = 20_000;
+    private static final int MEASURED_PLIES = 10_000;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("foo").black("bar").timeControl(new ClassicTimeControl(40, 60, 0)).build();
+    private static final EngineConfig ENGINE_CONFIG = new EngineConfig(17, "engine.sh", new File("/tmp"));
+    private static final EngineFeatures FEATURES = EngineFeatures.builder().myName("foo").build();
+    private static final Move MOVE = new Move(Square.E2, Square.E4);
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    @BeforeAll
+    static void setUpClass() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+                   bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @Test
+    void shouldNotAllocateWhenTimingPly() {
+        // Given
+        final var metrics = Metrics.global();
+        final var plyTimer = new PlyTimer(metrics, metrics.gameStarted("foo", "bar", 3_600_000));
+        final var whiteClock = new ChessClock(GAME_CONFIG.timeControl());
+        final var blackClock = new ChessClock(GAME_CONFIG.timeControl());
+        final Runnable ply = new Runnable() {
+            private int ply;
+
+            @Override
+            public void run() {
+                // Stay within the initial capacity of the move times
+                ply = ply % 200 + 1;
+                final var clock = ply % 2 == 1 ? whiteClock : blackClock;
+                plyTimer.moveSent();
+                clock.start();
+                clock.stop();
+                plyTimer.moveReceived(ply % 2 == 1 ? WHITE : BLACK, clock.timeLeft(), System.nanoTime());
+                plyTimer.plyDone(ply, ply % 2 == 1 ? WHITE : BLACK, MOVE);
+            }
+        };
+
+        // When & Then
+        assertEquals(0, allocatedBytes(ply));
+    }
+
+    @Test
+    void shouldNotAllocateWhenLoggingMoveWithDebugOff() {
+        // Given
+        final var board = new Board();
+        final Runnable ply = () -> {
+            GameServiceImpl.logMove("e2e4", board);
+            GameServiceImpl.logMove("e2e4", board, false);
+        };
+
+        // When & Then
+        assertEquals(0, allocatedBytes(ply));
+    }
+
+    @Test
+    void shouldNotAllocateWhenSendingMoveAndTime() {
+        // Given
+        final var process = new EngineProcessImpl(17, new NullProcess());
+        final var activeEngine = new ActiveEngine(ENGINE_CONFIG, FEATURES, GAME_CONFIG, process);
+        final Runnable ply = () -> {
+            activeEngine.postTime(3_599_000, 3_598_000);
+            process.sendCommand(XboardCommand.USERMOVE, "e2e4");
+            process.sendCommand("e2e4");
+        };
+
+        // When & Then
+        assertEquals(0, allocatedBytes(ply));
+    }
+
+    @Test
+    void shouldNotAllocateWhenParsingThinkingOutput() {
+        // Given
+        final var line = " 12   -35    150   1234567 e2e4 e7e5 g1f3 b8c6";
+        final var parser = new Parser(new LineReader() {
+            private boolean ready;
+
+            @Override
+            public boolean ready() {
+                // One line is ready each time the parser is asked for a response
+                ready = !ready;
+                return ready;
+            }
+
+            @Override
+            public String readLine() {
+                return line;
+            }
+        });
+        final Runnable ply = () -> {
+            try {
+                parser.hasNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        // When & Then
+        assertEquals(0, allocatedBytes(ply));
+    }
+
+    /**
+     * Runs {@code ply} until warmed up, and then returns the number of bytes allocated by the current
+     * thread when running it {@link #MEASURED_PLIES} times. The JIT compiler may still allocate a few
+     * bytes now and then, so this method returns the smallest number from a few rounds. A ply that
+     * does allocate, allocates in every round.
+     */
+    private static long allocatedBytes(final Runnable ply) {
+        for (int i = 0; i < WARMUP_PLIES; i++) {
+            ply.run();
+        }
+        var minBytes = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            final var before = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_PLIES; i++) {
+                ply.run();
+            }
+            minBytes = Math.min(minBytes, threadMXBean.getCurrentThreadAllocatedBytes() - before);
+        }
+        return minBytes;
+    }
+
+    /**
+     * A process that discards its input, and has no output.
+     */
+    private static class NullProcess extends Process {
+
+        private final OutputStream outputStream = OutputStream.nullOutputStream();
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() { }
+    }
+}
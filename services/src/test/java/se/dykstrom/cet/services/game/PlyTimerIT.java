@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.game;
+
+import java.nio.file.Files;
+import java.time.Duration;
+
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.services.metrics.Metrics;
+
+import static com.github.bhlangonijr.chesslib.Side.BLACK;
+import static com.github.bhlangonijr.chesslib.Side.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlyTimerIT {
+
+    @Test
+    void shouldRecordPlyEvents() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".jfr");
+        path.toFile().deleteOnExit();
+
+        final var metrics = Metrics.global();
+        final var liveGame = metrics.gameStarted("foo", "bar", 60_000);
+        final MoveTimes moveTimes;
+
+        try (var recording = new Recording()) {
+            recording.enable("se.dykstrom.cet.Ply").withThreshold(Duration.ZERO);
+            recording.start();
+
+            // When
+            final var plyTimer = new PlyTimer(metrics, liveGame);
+            plyTimer.moveSent();
+            final var lineNanos = System.nanoTime();
+            Thread.sleep(10);
+            plyTimer.moveReceived(WHITE, 59_000, lineNanos);
+            plyTimer.plyDone(1, WHITE, new Move(Square.E2, Square.E4));
+            plyTimer.moveSent();
+            // The time the line was read is not known
+            plyTimer.moveReceived(BLACK, 58_000, 0);
+            plyTimer.plyDone(2, BLACK, new Move(Square.E7, Square.E5));
+            moveTimes = plyTimer.moveTimes();
+
+            recording.stop();
+            recording.dump(path);
+        } finally {
+            metrics.gameFinished(liveGame, false);
+        }
+
+        // Then
+        final var events = RecordingFile.readAllEvents(path);
+        assertEquals(2, events.size());
+        assertEquals("foo", events.get(0).getString("engine"));
+        assertEquals(1, events.get(0).getInt("ply"));
+        assertEquals("e2e4", events.get(0).getString("move"));
+        assertEquals("bar", events.get(1).getString("engine"));
+        assertEquals("e7e5", events.get(1).getString("move"));
+        assertTrue(events.get(1).getDuration("engineTime").toNanos() >= 0);
+        assertTrue(events.get(0).getDuration("parseTime").toMillis() >= 10);
+        assertTrue(events.get(1).getDuration("parseTime").toNanos() < 10_000_000);
+        assertEquals(2, liveGame.ply());
+        assertEquals(59_000, liveGame.whiteMillisLeft());
+        assertEquals(58_000, liveGame.blackMillisLeft());
+        assertEquals(2, moveTimes.plies());
+        assertEquals(59_000, moveTimes.clockMillis(1));
+    }
+}
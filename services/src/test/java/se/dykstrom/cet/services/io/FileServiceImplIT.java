@@ -19,6 +19,7 @@ package se.dykstrom.cet.services.io;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -50,6 +51,28 @@ class FileServiceImplIT {
         assertEquals(new EngineConfigDto("foo", null), dto);
     }
 
+    @Test
+    void shouldReadConfigFileWithResources() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, null);
+        final var file = path.toFile();
+        file.deleteOnExit();
+        Files.write(path, List.of(
+                "{",
+                "\"command\" : \"foo\",",
+                "\"hash\" : 128,",
+                "\"threads\" : 2,",
+                "\"options\" : { \"Ponder\" : \"false\" }",
+                "}"
+        ));
+
+        // When
+        final var dto = fileService.load(file);
+
+        // Then
+        assertEquals(new EngineConfigDto("foo", null, 128, 2, Map.of("Ponder", "false")), dto);
+    }
+
     @Test
     void shouldWriteLines() throws Exception {
         // Given
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.match;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.BLACK_WON;
+import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatchJournalIT {
+
+    private static final String OPENINGS = "0badcafe";
+    private static final JournalEntry ENTRY_1 = new JournalEntry(1, "e1", "e2", 7, DRAW, "Stalemate");
+    private static final JournalEntry ENTRY_2 = new JournalEntry(2, "e2", "e1", 7, BLACK_WON, "Checkmate");
+
+    @Test
+    void shouldResumeJournal() throws Exception {
+        // Given
+        final var path = newJournalPath();
+        try (var journal = MatchJournal.create(path, 10, 4711, OPENINGS)) {
+            journal.append(ENTRY_1);
+            journal.append(ENTRY_2);
+        }
+
+        // When
+        try (var journal = MatchJournal.resume(path)) {
+            // Then
+            assertEquals(10, journal.numberOfGames());
+            assertEquals(4711, journal.seed());
+            assertEquals(OPENINGS, journal.openings());
+            assertEquals(List.of(ENTRY_1, ENTRY_2), journal.entries());
+        }
+    }
+
+    @Test
+    void shouldAppendAfterResume() throws Exception {
+        // Given
+        final var path = newJournalPath();
+        try (var journal = MatchJournal.create(path, 10, 4711, OPENINGS)) {
+            journal.append(ENTRY_1);
+        }
+        try (var journal = MatchJournal.resume(path)) {
+            journal.append(ENTRY_2);
+        }
+
+        // When
+        try (var journal = MatchJournal.resume(path)) {
+            // Then
+            assertEquals(List.of(ENTRY_1, ENTRY_2), journal.entries());
+        }
+    }
+
+    @Test
+    void shouldRemoveIncompleteLastLine() throws Exception {
+        // Given
+        final var path = newJournalPath();
+        try (var journal = MatchJournal.create(path, 10, 4711, OPENINGS)) {
+            journal.append(ENTRY_1);
+        }
+        final var size = Files.size(path);
+        Files.writeString(path, "2\te2\te1\t7\t0-1", UTF_8, APPEND);
+
+        // When
+        try (var journal = MatchJournal.resume(path)) {
+            // Then
+            assertEquals(List.of(ENTRY_1), journal.entries());
+            assertEquals(size, Files.size(path));
+        }
+    }
+
+    @Test
+    void shouldNotResumeCorruptJournal() throws Exception {
+        // Given
+        final var path = newJournalPath();
+        try (var journal = MatchJournal.create(path, 10, 4711, OPENINGS)) {
+            journal.append(ENTRY_1);
+            journal.append(ENTRY_2);
+        }
+        final var lines = Files.readAllLines(path, UTF_8);
+        Files.write(path, List.of(lines.get(0), lines.get(1).replace("Stalemate", "Checkmate"), lines.get(2)), UTF_8);
+
+        // When & Then
+        assertThrows(IOException.class, () -> MatchJournal.resume(path));
+    }
+
+    @Test
+    void shouldNotResumeFileWithoutHeader() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        path.toFile().deleteOnExit();
+        Files.write(path, List.of("1\te1\te2\t7\t1/2-1/2\tStalemate"), UTF_8);
+
+        // When & Then
+        assertThrows(IOException.class, () -> MatchJournal.resume(path));
+    }
+
+    @Test
+    void shouldNotCreateExistingJournal() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        path.toFile().deleteOnExit();
+
+        // When & Then
+        assertThrows(IOException.class, () -> MatchJournal.create(path, 10, 4711, OPENINGS));
+    }
+
+    private static Path newJournalPath() throws IOException {
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+}
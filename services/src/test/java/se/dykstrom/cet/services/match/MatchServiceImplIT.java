@@ -63,7 +63,7 @@ class MatchServiceImplIT {
         final IdlingEngine engine1 = loadEngine(1, engine1Command, ENGINE_1_DIRECTORY);
         final IdlingEngine engine2 = loadEngine(2, engine2Command, ENGINE_2_DIRECTORY);
 
-        final var matchConfig = new MatchConfig(NUMBER_OF_GAMES, TIME_CONTROL);
+        final var matchConfig = MatchConfig.builder().numberOfGames(NUMBER_OF_GAMES).timeControl(TIME_CONTROL).build();
         final var matchCount = new AtomicInteger(0);
 
         PlayedMatch playedMatch = null;
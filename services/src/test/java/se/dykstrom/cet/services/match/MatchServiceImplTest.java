@@ -16,11 +16,14 @@
 
 package se.dykstrom.cet.services.match;
 
+import java.nio.file.Files;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.github.bhlangonijr.chesslib.move.MoveList;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import se.dykstrom.cet.engine.config.GameConfig;
 import se.dykstrom.cet.engine.state.ConfiguredEngine;
 import se.dykstrom.cet.engine.state.IdlingEngine;
@@ -29,11 +32,17 @@ import se.dykstrom.cet.engine.time.TimeControl;
 import se.dykstrom.cet.engine.util.EngineFeatures;
 import se.dykstrom.cet.services.game.GameService;
 import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.opening.OpeningSuite;
 
 import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
 import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MatchServiceImplTest {
@@ -47,9 +56,13 @@ class MatchServiceImplTest {
     private static final EngineFeatures FEATURE_CONFIG_ENGINE_2_REUSE_YES = EngineFeatures.builder().myName(ENGINE_2_NAME).reuse("1").build();
     private static final EngineFeatures FEATURE_CONFIG_ENGINE_1_REUSE_NO = EngineFeatures.builder().myName(ENGINE_1_NAME).reuse("0").build();
     private static final EngineFeatures FEATURE_CONFIG_ENGINE_2_REUSE_NO = EngineFeatures.builder().myName(ENGINE_2_NAME).reuse("0").build();
-    private static final GameConfig GAME_CONFIG_ENGINE_1_IS_WHITE = new GameConfig(ENGINE_1_NAME, ENGINE_2_NAME, TIME_CONTROL);
-    private static final GameConfig GAME_CONFIG_ENGINE_1_IS_BLACK = new GameConfig(ENGINE_2_NAME, ENGINE_1_NAME, TIME_CONTROL);
-    private static final MatchConfig MATCH_CONFIG = new MatchConfig(2, TIME_CONTROL);
+    private static final EngineFeatures FEATURE_CONFIG_ENGINE_1_SET_BOARD = EngineFeatures.builder().myName(ENGINE_1_NAME).setBoard("1").build();
+    private static final EngineFeatures FEATURE_CONFIG_ENGINE_2_SET_BOARD = EngineFeatures.builder().myName(ENGINE_2_NAME).setBoard("1").build();
+    private static final GameConfig GAME_CONFIG_ENGINE_1_IS_WHITE =
+            GameConfig.builder().white(ENGINE_1_NAME).black(ENGINE_2_NAME).timeControl(TIME_CONTROL).build();
+    private static final GameConfig GAME_CONFIG_ENGINE_1_IS_BLACK =
+            GameConfig.builder().white(ENGINE_2_NAME).black(ENGINE_1_NAME).timeControl(TIME_CONTROL).build();
+    private static final MatchConfig MATCH_CONFIG = MatchConfig.builder().numberOfGames(2).timeControl(TIME_CONTROL).build();
 
     private final GameService gameServiceMock = mock(GameService.class);
     private final IdlingEngine initialIdlingEngine1Mock = mock(IdlingEngine.class);
@@ -61,9 +74,23 @@ class MatchServiceImplTest {
     private final ConfiguredEngine configuredEngine2Mock = mock(ConfiguredEngine.class);
 
     private final PlayedGame gamePlayedWithEngine1AsWhite =
-            new PlayedGame(GAME_CONFIG_ENGINE_1_IS_WHITE, initialIdlingEngine1Mock, initialIdlingEngine2Mock, null, WHITE_WON, "Checkmate", new MoveList(), null);
+            PlayedGame.builder()
+                    .gameConfig(GAME_CONFIG_ENGINE_1_IS_WHITE)
+                    .whiteEngine(initialIdlingEngine1Mock)
+                    .blackEngine(initialIdlingEngine2Mock)
+                    .result(WHITE_WON)
+                    .reason("Checkmate")
+                    .moves(new MoveList())
+                    .build();
     private final PlayedGame gamePlayedWithEngine1AsBlack =
-            new PlayedGame(GAME_CONFIG_ENGINE_1_IS_WHITE, initialIdlingEngine2Mock, initialIdlingEngine1Mock, null, DRAW, "Stalemate", new MoveList(), null);
+            PlayedGame.builder()
+                    .gameConfig(GAME_CONFIG_ENGINE_1_IS_WHITE)
+                    .whiteEngine(initialIdlingEngine2Mock)
+                    .blackEngine(initialIdlingEngine1Mock)
+                    .result(DRAW)
+                    .reason("Stalemate")
+                    .moves(new MoveList())
+                    .build();
 
     private final MatchService matchService = new MatchServiceImpl(gameServiceMock);
 
@@ -161,4 +188,235 @@ class MatchServiceImplTest {
         assertEquals(finalIdlingEngine2Mock, playedMatch.engine2());
         assertEquals(2, matchCount.get());
     }
+
+    @Test
+    void shouldPlayEachOpeningWithColorsSwapped() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".epd");
+        path.toFile().deleteOnExit();
+        Files.write(path, List.of(
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq -",
+                "rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq -"
+        ));
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_SET_BOARD);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_SET_BOARD);
+        when(gameServiceMock.playGame(any(), any(), any())).thenReturn(gamePlayedWithEngine1AsWhite, gamePlayedWithEngine1AsBlack);
+        final ArgumentCaptor<GameConfig> gameConfigCaptor = ArgumentCaptor.forClass(GameConfig.class);
+
+        try (var openings = OpeningSuite.open(path)) {
+            // When
+            final var matchConfig = MatchConfig.builder().numberOfGames(4).timeControl(TIME_CONTROL).openings(openings).seed(17).build();
+            matchService.playMatch(matchConfig, initialIdlingEngine1Mock, initialIdlingEngine2Mock);
+
+            // Then
+            verify(gameServiceMock, times(4)).playGame(gameConfigCaptor.capture(), any(), any());
+            final var gameConfigs = gameConfigCaptor.getAllValues();
+            assertEquals(gameConfigs.get(0).fen(), gameConfigs.get(1).fen());
+            assertEquals(gameConfigs.get(2).fen(), gameConfigs.get(3).fen());
+            assertEquals(ENGINE_1_NAME, gameConfigs.get(0).white());
+            assertEquals(ENGINE_1_NAME, gameConfigs.get(1).black());
+            assertEquals(List.of(gameConfigs.get(0).fen(), gameConfigs.get(2).fen()).stream().sorted().toList(),
+                    List.of(openings.fen(0), openings.fen(1)).stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void shouldNotPlayOpeningsWithoutSetBoard() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".epd");
+        path.toFile().deleteOnExit();
+        Files.write(path, List.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq -"));
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_REUSE_YES);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_SET_BOARD);
+
+        try (var openings = OpeningSuite.open(path)) {
+            final var matchConfig = MatchConfig.builder().numberOfGames(2).timeControl(TIME_CONTROL).openings(openings).seed(17).build();
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> matchService.playMatch(matchConfig, initialIdlingEngine1Mock, initialIdlingEngine2Mock));
+        }
+    }
+
+    @Test
+    void shouldSkipGamesFinishedInJournal() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        try (var journal = MatchJournal.create(path, 2, 17, MatchOpenings.of(MATCH_CONFIG).fingerprint())) {
+            journal.append(new JournalEntry(1, ENGINE_1_NAME, ENGINE_2_NAME, -1, WHITE_WON, "Checkmate"));
+        }
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_REUSE_YES);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_REUSE_YES);
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_BLACK, initialIdlingEngine2Mock, initialIdlingEngine1Mock))
+                .thenReturn(gamePlayedWithEngine1AsBlack);
+
+        try (var journal = MatchJournal.resume(path)) {
+            // When
+            final var playedMatch = matchService.playMatch(MATCH_CONFIG.withJournal(journal), initialIdlingEngine1Mock, initialIdlingEngine2Mock);
+
+            // Then
+            verify(gameServiceMock, times(1)).playGame(any(), any(), any());
+            assertEquals(List.of(WHITE_WON, DRAW), playedMatch.results());
+            assertEquals(2, journal.entries().size());
+            assertEquals(DRAW, journal.entries().get(1).result());
+        }
+    }
+
+    @Test
+    void shouldJournalGameOnlyAfterListenersHaveHandledIt() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_REUSE_YES);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_REUSE_YES);
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_WHITE, initialIdlingEngine1Mock, initialIdlingEngine2Mock))
+                .thenReturn(gamePlayedWithEngine1AsWhite);
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_BLACK, initialIdlingEngine2Mock, initialIdlingEngine1Mock))
+                .thenReturn(gamePlayedWithEngine1AsBlack);
+
+        try (var journal = MatchJournal.create(path, 2, 17, MatchOpenings.of(MATCH_CONFIG).fingerprint())) {
+            // A slow listener, like a PGN writer on a busy disk, records how many games were journaled when it ran
+            final var journaled = new CopyOnWriteArrayList<Integer>();
+            matchService.addGameListener((gameNumber, startTime, playedGame) -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                journaled.add(journal.entries().size());
+            });
+
+            // When
+            matchService.playMatch(MATCH_CONFIG.withJournal(journal), initialIdlingEngine1Mock, initialIdlingEngine2Mock);
+
+            // Then
+            assertEquals(List.of(0, 1), journaled);
+            assertEquals(2, journal.entries().size());
+        }
+    }
+
+    @Test
+    void shouldNotResumeJournalWithOtherOpenings() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        try (var journal = MatchJournal.create(path, 2, 17, MatchOpenings.of(MATCH_CONFIG).fingerprint())) {
+            // The game was played from an opening suite, but the resumed match has none
+            journal.append(new JournalEntry(1, ENGINE_1_NAME, ENGINE_2_NAME, 5, WHITE_WON, "Checkmate"));
+        }
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+
+        try (var journal = MatchJournal.resume(path)) {
+            final var matchConfig = MATCH_CONFIG.withJournal(journal);
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> matchService.playMatch(matchConfig, initialIdlingEngine1Mock, initialIdlingEngine2Mock));
+            verify(gameServiceMock, never()).playGame(any(), any(), any());
+        }
+    }
+
+    @Test
+    void shouldNotResumeJournalWithOtherBookLines() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        try (var journal = MatchJournal.create(path, 2, 17, "12345678")) {
+            journal.append(new JournalEntry(1, ENGINE_1_NAME, ENGINE_2_NAME, -1, WHITE_WON, "Checkmate"));
+        }
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+
+        try (var journal = MatchJournal.resume(path)) {
+            final var matchConfig = MATCH_CONFIG.withJournal(journal);
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> matchService.playMatch(matchConfig, initialIdlingEngine1Mock, initialIdlingEngine2Mock));
+            verify(gameServiceMock, never()).playGame(any(), any(), any());
+        }
+    }
+
+    @Test
+    void shouldNotResumeJournalWithEnginesSwapped() throws Exception {
+        // Given
+        final var path = Files.createTempFile(null, ".journal");
+        Files.delete(path);
+        path.toFile().deleteOnExit();
+        try (var journal = MatchJournal.create(path, 2, 17, MatchOpenings.of(MATCH_CONFIG).fingerprint())) {
+            journal.append(new JournalEntry(1, ENGINE_1_NAME, ENGINE_2_NAME, -1, WHITE_WON, "Checkmate"));
+        }
+        // Engine 1 and engine 2 have changed places since the journal was written
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_1_NAME);
+
+        try (var journal = MatchJournal.resume(path)) {
+            final var matchConfig = MATCH_CONFIG.withJournal(journal);
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> matchService.playMatch(matchConfig, initialIdlingEngine1Mock, initialIdlingEngine2Mock));
+            verify(gameServiceMock, never()).playGame(any(), any(), any());
+        }
+    }
+
+    @Test
+    void shouldRestartCrashedEngine() {
+        // Given
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_REUSE_YES);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_REUSE_YES);
+        when(initialIdlingEngine2Mock.hasCrashed()).thenReturn(true);
+        when(initialIdlingEngine2Mock.unload()).thenReturn(configuredEngine2Mock);
+        when(configuredEngine2Mock.load()).thenReturn(finalIdlingEngine2Mock);
+        when(finalIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(finalIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_REUSE_YES);
+
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_WHITE, initialIdlingEngine1Mock, initialIdlingEngine2Mock))
+                .thenReturn(gamePlayedWithEngine1AsWhite);
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_BLACK, finalIdlingEngine2Mock, initialIdlingEngine1Mock))
+                .thenReturn(gamePlayedWithEngine1AsBlack);
+
+        // When
+        final var playedMatch = matchService.playMatch(MATCH_CONFIG, initialIdlingEngine1Mock, initialIdlingEngine2Mock);
+
+        // Then
+        assertEquals(List.of(WHITE_WON, DRAW), playedMatch.results());
+        assertEquals(initialIdlingEngine1Mock, playedMatch.engine1());
+        assertEquals(finalIdlingEngine2Mock, playedMatch.engine2());
+    }
+
+    @Test
+    void shouldStopMatchWhenCrashBudgetIsExhausted() {
+        // Given
+        when(initialIdlingEngine1Mock.myName()).thenReturn(ENGINE_1_NAME);
+        when(initialIdlingEngine2Mock.myName()).thenReturn(ENGINE_2_NAME);
+        when(initialIdlingEngine1Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_1_REUSE_YES);
+        when(initialIdlingEngine2Mock.features()).thenReturn(FEATURE_CONFIG_ENGINE_2_REUSE_YES);
+        when(initialIdlingEngine2Mock.hasCrashed()).thenReturn(true);
+        when(gameServiceMock.playGame(GAME_CONFIG_ENGINE_1_IS_WHITE, initialIdlingEngine1Mock, initialIdlingEngine2Mock))
+                .thenReturn(gamePlayedWithEngine1AsWhite);
+
+        // When
+        final var playedMatch = matchService.playMatch(MATCH_CONFIG.withMaxCrashes(0), initialIdlingEngine1Mock, initialIdlingEngine2Mock);
+
+        // Then
+        assertEquals(List.of(WHITE_WON), playedMatch.results());
+        verify(gameServiceMock, times(1)).playGame(any(), any(), any());
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+    private final Metrics metrics = new Metrics();
+
+    @Test
+    void shouldCountGames() {
+        // Given
+        final var game1 = metrics.gameStarted("foo", "bar", 60_000);
+        final var game2 = metrics.gameStarted("bar", "foo", 60_000);
+        metrics.gameStarted("foo", "tee", 60_000);
+        metrics.gameFinished(game1, true);
+        metrics.gameFinished(game2, false);
+        metrics.timeForfeit();
+        metrics.illegalMove();
+        metrics.engineCrash();
+        metrics.engineCrash();
+        metrics.gameSlots(4);
+
+        // When
+        final var text = metrics.scrape();
+
+        // Then
+        assertTrue(text.contains("# TYPE cet_games_completed_total counter\ncet_games_completed_total 1\n"));
+        assertTrue(text.contains("\ncet_games_in_progress 1\n"));
+        assertTrue(text.contains("\ncet_game_slots 4\n"));
+        assertTrue(text.contains("\ncet_time_forfeits_total 1\n"));
+        assertTrue(text.contains("\ncet_illegal_moves_total 1\n"));
+        assertTrue(text.contains("\ncet_engine_crashes_total 2\n"));
+        assertEquals(1, metrics.liveGames().size());
+        assertEquals("tee", metrics.liveGames().get(0).black());
+    }
+
+    @Test
+    void shouldExportHistogramPerEngine() {
+        // Given
+        metrics.moveLatency("foo").observe(3_000_000);
+        metrics.moveLatency("foo").observe(20_000_000);
+        metrics.moveLatency("foo").observe(120_000_000_000L);
+        metrics.moveLatency("bar \"2\"").observe(1_000_000);
+
+        // When
+        final var text = metrics.scrape();
+
+        // Then
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"foo\",le=\"0.001\"} 0\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"foo\",le=\"0.005\"} 1\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"foo\",le=\"0.025\"} 2\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"foo\",le=\"60.0\"} 2\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"foo\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_sum{engine=\"foo\"} 120.023\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_count{engine=\"foo\"} 3\n"));
+        assertTrue(text.contains("cet_engine_move_seconds_bucket{engine=\"bar \\\"2\\\"\",le=\"0.001\"} 1\n"));
+    }
+
+    @Test
+    void shouldExportNodesPerSecond() {
+        // Given
+        metrics.search("foo", 1_000_000, 100);
+        metrics.search("foo", 3_000_000, 100);
+        metrics.moveLatency("bar");
+
+        // When
+        final var text = metrics.scrape();
+
+        // Then
+        assertTrue(text.contains("cet_engine_nodes_per_second{engine=\"foo\"} 2000000\n"));
+        assertTrue(text.contains("cet_engine_nodes_per_second{engine=\"bar\"} 0\n"));
+    }
+
+    @Test
+    void shouldExportPlyOverhead() {
+        // Given
+        metrics.plyOverhead().observe(20_000);
+
+        // When
+        final var text = metrics.scrape();
+
+        // Then
+        assertTrue(text.contains("cet_ply_overhead_seconds_bucket{le=\"1.0E-5\"} 0\n"));
+        assertTrue(text.contains("cet_ply_overhead_seconds_bucket{le=\"5.0E-5\"} 1\n"));
+        assertTrue(text.contains("cet_ply_overhead_seconds_count 1\n"));
+    }
+}
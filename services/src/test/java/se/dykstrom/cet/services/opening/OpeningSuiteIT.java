@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.opening;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class OpeningSuiteIT {
+
+    private static final String EPD_1 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - id \"1.e4\";";
+    private static final String EPD_2 = "rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq - hmvc 0; fmvn 1;";
+    private static final String FEN_3 = "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2";
+
+    @Test
+    void shouldIndexAndReadPositions() throws Exception {
+        // Given
+        final var file = createTempFile();
+        Files.write(file, List.of("# Comment", EPD_1, "", EPD_2, FEN_3));
+
+        // When
+        try (var suite = OpeningSuite.open(file)) {
+            // Then
+            assertEquals(3, suite.size());
+            assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", suite.fen(0));
+            assertEquals("rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq - 0 1", suite.fen(1));
+            assertEquals(FEN_3, suite.fen(2));
+        }
+    }
+
+    @Test
+    void shouldReadLastLineWithoutNewline() throws Exception {
+        // Given
+        final var file = createTempFile();
+        Files.writeString(file, EPD_1 + "\r\n" + FEN_3);
+
+        // When
+        try (var suite = OpeningSuite.open(file)) {
+            // Then
+            assertEquals(2, suite.size());
+            assertEquals(FEN_3, suite.fen(1));
+        }
+    }
+
+    @Test
+    void shouldSampleReproducibly() throws Exception {
+        // Given
+        final var file = createTempFile();
+        Files.write(file, List.of(EPD_1, EPD_2, FEN_3));
+
+        try (var suite = OpeningSuite.open(file)) {
+            // When
+            final var sample1 = suite.sample(9, 17);
+            final var sample2 = suite.sample(9, 17);
+            final var sample3 = suite.sample(9, 4711);
+
+            // Then
+            assertEquals(Arrays.toString(sample1), Arrays.toString(sample2));
+            assertNotEquals(Arrays.toString(sample1), Arrays.toString(sample3));
+            // Each pass through the suite uses all positions once
+            for (var pass = 0; pass < 3; pass++) {
+                final var positions = Arrays.copyOfRange(sample1, pass * 3, pass * 3 + 3);
+                Arrays.sort(positions);
+                assertEquals("[0, 1, 2]", Arrays.toString(positions));
+            }
+        }
+    }
+
+    private static Path createTempFile() throws Exception {
+        final var path = Files.createTempFile(null, ".epd");
+        path.toFile().deleteOnExit();
+        return path;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.opening;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Square;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.services.opening.PolyglotBook.BookEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolyglotBookIT {
+
+    private static final String FEN_AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+    private static final String FEN_CASTLING = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+    private static final String FEN_PROMOTION = "8/P7/8/8/8/8/8/k6K w - - 0 1";
+    private static final String FEN_BEFORE_MATE = "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2";
+
+    private final PolyglotKeys keys = PolyglotKeys.standard();
+
+    @Test
+    void shouldFindEntriesByBinarySearch() throws Exception {
+        // Given
+        final var path = writeBook();
+
+        try (var book = PolyglotBook.open(path)) {
+            // When
+            final var startEntries = book.entries(new Board());
+            final var e4Entries = book.entries(board(FEN_AFTER_E4));
+            final var missingEntries = book.entries(board(FEN_PROMOTION));
+
+            // Then
+            assertEquals(4, book.size());
+            assertEquals(List.of(new BookEntry("e2e4", 10), new BookEntry("d2d4", 5), new BookEntry("a2a3", 0)), startEntries);
+            assertEquals(List.of(new BookEntry("e7e5", 1)), e4Entries);
+            assertTrue(missingEntries.isEmpty());
+        }
+    }
+
+    @Test
+    void shouldPlayWeightedBookLine() throws Exception {
+        // Given
+        final var path = writeBook();
+
+        try (var book = PolyglotBook.open(path)) {
+            // When
+            final var line1 = book.line(null, 8, new Random(4711));
+            final var line2 = book.line(null, 8, new Random(4711));
+            final var shortLine = book.line(null, 1, new Random(4711));
+
+            // Then
+            assertEquals(line1, line2);
+            assertEquals(1, shortLine.size());
+            // Moves with zero weight are never played
+            assertTrue(line1.equals(List.of("e2e4", "e7e5")) || line1.equals(List.of("d2d4")));
+        }
+    }
+
+    @Test
+    void shouldNotEndLineInCheckmate() throws Exception {
+        // Given
+        final var buffer = ByteBuffer.allocate(16);
+        putEntry(buffer, keys.key(board(FEN_BEFORE_MATE)), move(Square.D8, Square.H4, 0), 1);
+        final var path = Files.createTempFile(null, ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+
+        try (var book = PolyglotBook.open(path)) {
+            // When
+            final var entries = book.entries(board(FEN_BEFORE_MATE));
+            final var line = book.line(FEN_BEFORE_MATE, 8, new Random(4711));
+
+            // Then
+            assertEquals(List.of(new BookEntry("d8h4", 1)), entries);
+            assertTrue(line.isEmpty());
+        }
+    }
+
+    @Test
+    void shouldConvertCastlingAndPromotion() {
+        assertEquals("e1g1", PolyglotBook.toMove(board(FEN_CASTLING), move(Square.E1, Square.H1, 0)));
+        assertEquals("e1c1", PolyglotBook.toMove(board(FEN_CASTLING), move(Square.E1, Square.A1, 0)));
+        assertEquals("a1b1", PolyglotBook.toMove(board(FEN_CASTLING), move(Square.A1, Square.B1, 0)));
+        assertEquals("a7a8q", PolyglotBook.toMove(board(FEN_PROMOTION), move(Square.A7, Square.A8, 4)));
+        assertEquals("a7a8n", PolyglotBook.toMove(board(FEN_PROMOTION), move(Square.A7, Square.A8, 1)));
+    }
+
+    private Path writeBook() throws IOException {
+        final var startKey = keys.key(new Board());
+        final var e4Key = keys.key(board(FEN_AFTER_E4));
+        final var buffer = ByteBuffer.allocate(4 * 16);
+        // Entries must be sorted by key, compared as unsigned numbers
+        final boolean startFirst = Long.compareUnsigned(startKey, e4Key) < 0;
+        if (startFirst) {
+            putStartEntries(buffer, startKey);
+            putEntry(buffer, e4Key, move(Square.E7, Square.E5, 0), 1);
+        } else {
+            putEntry(buffer, e4Key, move(Square.E7, Square.E5, 0), 1);
+            putStartEntries(buffer, startKey);
+        }
+        final var path = Files.createTempFile(null, ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static void putStartEntries(final ByteBuffer buffer, final long key) {
+        putEntry(buffer, key, move(Square.E2, Square.E4, 0), 10);
+        putEntry(buffer, key, move(Square.D2, Square.D4, 0), 5);
+        putEntry(buffer, key, move(Square.A2, Square.A3, 0), 0);
+    }
+
+    private static void putEntry(final ByteBuffer buffer, final long key, final int move, final int weight) {
+        buffer.putLong(key).putShort((short) move).putShort((short) weight).putInt(0);
+    }
+
+    private static int move(final Square from, final Square to, final int promotion) {
+        return (promotion << 12) | (from.ordinal() << 6) | to.ordinal();
+    }
+
+    private static Board board(final String fen) {
+        final var board = new Board();
+        board.loadFromFen(fen);
+        return board;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.opening;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PolyglotKeysTest {
+
+    private final PolyglotKeys keys = PolyglotKeys.standard();
+
+    @Test
+    void shouldComputeKeyOfStartPosition() {
+        assertEquals(0x463b96181691fc9cL, keys.key(new Board()));
+    }
+
+    @Test
+    void shouldComputeKeysOfSpecificationExamples() {
+        // These are the example positions in the Polyglot book format specification
+        assertKey(0x463b96181691fc9cL, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertKey(0x823c9b50fd114196L, "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertKey(0x0756b94461c50fb0L, "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+        assertKey(0x662fafb965db29d4L, "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2");
+        assertKey(0x22a48b5a8e47ff78L, "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        assertKey(0x652a607ca3f242c1L, "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3");
+        assertKey(0x00fdd303c946bdd9L, "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4");
+        assertKey(0x3c8123ea7b067637L, "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3");
+        assertKey(0x5c3f9b829b279560L, "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4");
+    }
+
+    @Test
+    void shouldComputeSameKeyAfterPlayingMoves() {
+        // Given
+        final var board = new Board();
+
+        // When
+        for (final var move : new String[]{"e2e4", "d7d5", "e4e5", "f7f5"}) {
+            board.doMove(new Move(move, board.getSideToMove()));
+        }
+
+        // Then
+        assertEquals(0x22a48b5a8e47ff78L, keys.key(board));
+    }
+
+    @Test
+    void shouldNotAcceptTableOfWrongSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PolyglotKeys(new long[PolyglotKeys.RANDOM_64_SIZE - 1]));
+    }
+
+    private void assertKey(final long expected, final String fen) {
+        final var board = new Board();
+        board.loadFromFen(fen);
+        assertEquals(expected, keys.key(board), fen);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.rating;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Random;
+
+import com.github.bhlangonijr.chesslib.game.GameResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatingServiceImplTest {
+
+    private final RatingService ratingService = new RatingServiceImpl();
+
+    @Test
+    void shouldRateEvenPlayersEqually() {
+        // Given
+        final var results = PairwiseResults.builder()
+                                           .add("A", "B", GameResult.WHITE_WON)
+                                           .add("B", "A", GameResult.WHITE_WON)
+                                           .add("A", "B", GameResult.DRAW)
+                                           .add("B", "A", GameResult.DRAW)
+                                           .build();
+
+        // When
+        final var ratingList = ratingService.rate(results);
+
+        // Then
+        final var ratings = ratingList.ratings();
+        assertEquals(2, ratings.size());
+        assertEquals(0.0, ratings.get(0).elo(), 0.01);
+        assertEquals(0.0, ratings.get(1).elo(), 0.01);
+        assertEquals(ratings.get(0).error(), ratings.get(1).error(), 0.01);
+        assertEquals(4, ratings.get(0).games());
+        assertEquals(2.0, ratings.get(0).score());
+    }
+
+    @Test
+    void shouldGiveFiniteRatingToPlayerWhoWonAllGames() {
+        // Given
+        final var builder = PairwiseResults.builder();
+        for (var game = 0; game < 10; game++) {
+            builder.add("Strong", "Weak", GameResult.WHITE_WON);
+            builder.add("Weak", "Strong", GameResult.BLACK_WON);
+        }
+
+        // When
+        final var ratings = ratingService.rate(builder.build()).ratings();
+
+        // Then
+        assertEquals("Strong", ratings.get(0).name());
+        assertTrue(Double.isFinite(ratings.get(0).elo()));
+        assertTrue(ratings.get(0).elo() > 100);
+        assertEquals(-ratings.get(0).elo(), ratings.get(1).elo(), 0.01);
+    }
+
+    @Test
+    void shouldRecoverRatingsFromSimulatedGames() {
+        // Given
+        final double[] elos = {-150, -50, 50, 150};
+        final var eloAdvantage = 30.0;
+        final var eloDraw = 100.0;
+        final var random = new Random(4711);
+        final var builder = PairwiseResults.builder();
+        for (var game = 0; game < 40_000; game++) {
+            final var white = random.nextInt(elos.length);
+            final var black = (white + 1 + random.nextInt(elos.length - 1)) % elos.length;
+            final var whiteWin = expected(elos[white] - elos[black] + eloAdvantage - eloDraw);
+            final var blackWin = expected(elos[black] - elos[white] - eloAdvantage - eloDraw);
+            final var x = random.nextDouble();
+            final var result = x < whiteWin ? GameResult.WHITE_WON : x < whiteWin + blackWin ? GameResult.BLACK_WON : GameResult.DRAW;
+            builder.add("P" + white, "P" + black, result);
+        }
+
+        // When
+        final var ratingList = ratingService.rate(builder.build());
+
+        // Then
+        final var ratings = ratingList.ratings();
+        for (var index = 0; index < elos.length; index++) {
+            final var rating = ratings.get(elos.length - 1 - index);
+            assertEquals("P" + index, rating.name());
+            assertEquals(elos[index], rating.elo(), 10.0);
+            assertTrue(rating.error() > 0 && rating.error() < 10.0);
+        }
+        assertEquals(eloAdvantage, ratingList.eloAdvantage(), 10.0);
+        assertEquals(eloDraw, ratingList.eloDraw(), 10.0);
+    }
+
+    @Test
+    void shouldReadResultsFromPgn() throws Exception {
+        // Given
+        final var pgn = """
+                [Event "Test"]
+                [White "Engine A"]
+                [Black "Engine B"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0
+
+                [Event "Test"]
+                [White "Engine B"]
+                [Black "Engine A"]
+                [Result "1/2-1/2"]
+
+                1. d4 d5 1/2-1/2
+
+                [Event "Test"]
+                [White "Engine A"]
+                [Black "Engine C"]
+                [Result "*"]
+
+                1. c4 *
+                """;
+        final var builder = PairwiseResults.builder();
+
+        // When
+        final var count = PgnResultReader.read(new BufferedReader(new StringReader(pgn)), builder);
+
+        // Then
+        final var results = builder.build();
+        assertEquals(3, count);
+        assertEquals(2, results.size());
+        assertEquals("Engine A", results.players().get(results.white(0)));
+        assertEquals(1.0, results.whiteWins(0));
+        assertEquals(1.0, results.draws(1));
+    }
+
+    private static double expected(final double difference) {
+        return 1 / (1 + Math.pow(10, -difference / 400));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchFileIT {
+
+    @Test
+    void shouldLoadBatchFile() throws Exception {
+        // Given
+        final var batchFile = createTempFile();
+        Files.writeString(batchFile, """
+                                     [
+                                         {"name": "quick", "engines": ["foo.json", "/conf/bar.json"], "timeControl": "40/60", "games": 10},
+                                         {"engines": ["foo.json", "tee.json"], "timeControl": "60+1", "games": 2, "priority": 1, "pgn": "tee.pgn"}
+                                     ]
+                                     """);
+        final var dir = batchFile.toFile().getParentFile();
+
+        // When
+        final var requests = BatchFile.load(batchFile.toFile());
+
+        // Then
+        assertEquals(List.of(new JobRequest(List.of(new File(dir, "foo.json"), new File("/conf/bar.json")), "40/60", 10, 0, "quick", null),
+                             new JobRequest(List.of(new File(dir, "foo.json"), new File(dir, "tee.json")), "60+1", 2, 1, null, new File(dir, "tee.pgn"))),
+                     requests);
+    }
+
+    @Test
+    void shouldNotLoadInvalidBatchFile() throws Exception {
+        // Given
+        final var batchFile = createTempFile();
+        Files.writeString(batchFile, "{\"games\": 2}");
+
+        // When & Then
+        assertThrows(JsonProcessingException.class, () -> BatchFile.load(batchFile.toFile()));
+    }
+
+    private static Path createTempFile() throws Exception {
+        final var path = Files.createTempFile(null, ".json");
+        path.toFile().deleteOnExit();
+        return path;
+    }
+}
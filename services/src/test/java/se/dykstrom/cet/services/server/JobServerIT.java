@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServerIT {
+
+    private static final JobStatus STATUS = new JobStatus(1, "job1", JobState.QUEUED, 0, 2, 0, List.of("foo", "bar"), List.of(), List.of(), null);
+
+    private final JobService jobServiceMock = mock(JobService.class);
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private JobServer jobServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jobServer = new JobServer(jobServiceMock, 0);
+        jobServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobServer.close();
+    }
+
+    @Test
+    void shouldSubmitJob() throws Exception {
+        // Given
+        when(jobServiceMock.submit(any())).thenReturn(STATUS);
+        final var body = """
+                         {"engines": ["foo.json", "bar.json"], "timeControl": "40/1", "games": 2, "priority": 3, "name": "foo-bar"}
+                         """;
+
+        // When
+        final var response = send(json(uri("/jobs")).POST(HttpRequest.BodyPublishers.ofString(body)));
+
+        // Then
+        assertEquals(201, response.statusCode());
+        assertTrue(response.body().contains("\"state\":\"QUEUED\""));
+        verify(jobServiceMock).submit(new JobRequest(List.of(new File("foo.json"), new File("bar.json")), "40/1", 2, 3, "foo-bar", null));
+    }
+
+    @Test
+    void shouldRejectInvalidJob() throws Exception {
+        // Given
+        when(jobServiceMock.submit(any())).thenThrow(new IllegalArgumentException("games must be > 0"));
+
+        // When
+        final var invalidJson = send(json(uri("/jobs")).POST(HttpRequest.BodyPublishers.ofString("{")));
+        final var invalidJob = send(json(uri("/jobs")).POST(HttpRequest.BodyPublishers.ofString("{\"games\": 0}")));
+
+        // Then
+        assertEquals(400, invalidJson.statusCode());
+        assertEquals(400, invalidJob.statusCode());
+        assertTrue(invalidJob.body().contains("games must be > 0"));
+    }
+
+    @Test
+    void shouldRejectJobThatIsNotJson() throws Exception {
+        // Given
+        final var body = """
+                         {"engines": ["foo.json", "bar.json"], "timeControl": "40/1", "games": 2}
+                         """;
+
+        // When
+        final var response = send(HttpRequest.newBuilder(uri("/jobs"))
+                                             .header("Content-Type", "application/x-www-form-urlencoded")
+                                             .POST(HttpRequest.BodyPublishers.ofString(body)));
+
+        // Then
+        assertEquals(415, response.statusCode());
+        verify(jobServiceMock, never()).submit(any());
+    }
+
+    @Test
+    void shouldRejectRequestFromWebPage() throws Exception {
+        // Given
+        final var body = """
+                         {"engines": ["foo.json", "bar.json"], "timeControl": "40/1", "games": 2}
+                         """;
+
+        // When
+        final var submit = send(json(uri("/jobs")).header("Origin", "http://example.com").POST(HttpRequest.BodyPublishers.ofString(body)));
+        final var status = send(HttpRequest.newBuilder(uri("/jobs")).header("Origin", "http://example.com").GET());
+
+        // Then
+        assertEquals(403, submit.statusCode());
+        assertEquals(403, status.statusCode());
+        verify(jobServiceMock, never()).submit(any());
+    }
+
+    @Test
+    void shouldRejectFilesOutsideAllowedDirectories() throws Exception {
+        // Given
+        final var otherEngine = """
+                                {"engines": ["foo.json", "../bar.json"], "timeControl": "40/1", "games": 2}
+                                """;
+        final var otherPgn = """
+                             {"engines": ["foo.json", "bar.json"], "timeControl": "40/1", "games": 2, "pgn": "/tmp/games.pgn"}
+                             """;
+
+        // When
+        final var engineResponse = send(json(uri("/jobs")).POST(HttpRequest.BodyPublishers.ofString(otherEngine)));
+        final var pgnResponse = send(json(uri("/jobs")).POST(HttpRequest.BodyPublishers.ofString(otherPgn)));
+
+        // Then
+        assertEquals(403, engineResponse.statusCode());
+        assertTrue(engineResponse.body().contains("bar.json"));
+        assertEquals(403, pgnResponse.statusCode());
+        assertTrue(pgnResponse.body().contains("games.pgn"));
+        verify(jobServiceMock, never()).submit(any());
+    }
+
+    @Test
+    void shouldGetStatusAndPgn() throws Exception {
+        // Given
+        when(jobServiceMock.statuses()).thenReturn(List.of(STATUS));
+        when(jobServiceMock.status(1)).thenReturn(Optional.of(STATUS));
+        when(jobServiceMock.pgn(1)).thenReturn(Optional.of(List.of("[Round \"1\"]", "", "1-0")));
+
+        // When
+        final var all = send(HttpRequest.newBuilder(uri("/jobs")).GET());
+        final var one = send(HttpRequest.newBuilder(uri("/jobs/1")).GET());
+        final var pgn = send(HttpRequest.newBuilder(uri("/jobs/1/pgn")).GET());
+
+        // Then
+        assertEquals(200, all.statusCode());
+        assertTrue(all.body().startsWith("[{\"id\":1,"));
+        assertEquals(200, one.statusCode());
+        assertTrue(one.body().startsWith("{\"id\":1,"));
+        assertEquals(200, pgn.statusCode());
+        assertTrue(pgn.body().startsWith("[Round \"1\"]"));
+    }
+
+    @Test
+    void shouldCancelJob() throws Exception {
+        // Given
+        when(jobServiceMock.cancel(1)).thenReturn(Optional.of(STATUS));
+
+        // When
+        final var response = send(HttpRequest.newBuilder(uri("/jobs/1")).DELETE());
+
+        // Then
+        assertEquals(200, response.statusCode());
+        verify(jobServiceMock).cancel(1);
+    }
+
+    @Test
+    void shouldReturnNotFound() throws Exception {
+        // When
+        final var unknownJob = send(HttpRequest.newBuilder(uri("/jobs/17")).GET());
+        final var invalidId = send(HttpRequest.newBuilder(uri("/jobs/foo")).GET());
+        final var unknownPath = send(HttpRequest.newBuilder(uri("/jobs/1/foo")).GET());
+
+        // Then
+        assertEquals(404, unknownJob.statusCode());
+        assertEquals(404, invalidId.statusCode());
+        assertEquals(404, unknownPath.statusCode());
+    }
+
+    @Test
+    void shouldReturnMethodNotAllowed() throws Exception {
+        // When
+        final var response = send(HttpRequest.newBuilder(uri("/jobs")).DELETE());
+
+        // Then
+        assertEquals(405, response.statusCode());
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + jobServer.port() + path);
+    }
+
+    private static HttpRequest.Builder json(final URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+    }
+
+    private HttpResponse<String> send(final HttpRequest.Builder builder) throws Exception {
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
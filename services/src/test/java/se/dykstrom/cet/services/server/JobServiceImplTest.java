@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.server;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.EngineFeatures;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.PlayedGame;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+import se.dykstrom.cet.services.io.FileService;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceImplTest {
+
+    private static final File FOO_FILE = new File("foo.json");
+    private static final File BAR_FILE = new File("bar.json");
+    private static final File TEE_FILE = new File("tee.json");
+
+    private final FileService fileServiceMock = mock(FileService.class);
+    private final EngineService engineServiceMock = mock(EngineService.class);
+    private final GameService gameServiceMock = mock(GameService.class);
+
+    // The white engine of each played game, in order
+    private final List<String> whiteEngines = new CopyOnWriteArrayList<>();
+
+    private final JobServiceImpl jobService =
+            new JobServiceImpl(fileServiceMock, engineServiceMock, () -> gameServiceMock, 1, Sandbox.NONE);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (final File file : List.of(FOO_FILE, BAR_FILE, TEE_FILE)) {
+            final var name = file.getName().replace(".json", "");
+            when(fileServiceMock.canRead(file)).thenReturn(true);
+            when(fileServiceMock.load(file)).thenReturn(new EngineConfigDto(name, null));
+            when(engineServiceMock.load(eq(file), any())).thenAnswer(invocation -> engine(name));
+        }
+        when(gameServiceMock.playGame(any(), any(), any())).thenAnswer(invocation -> {
+            final IdlingEngine whiteEngine = invocation.getArgument(1);
+            whiteEngines.add(whiteEngine.myName());
+            return PlayedGame.builder()
+                    .gameConfig(invocation.getArgument(0))
+                    .whiteEngine(whiteEngine)
+                    .blackEngine(invocation.getArgument(2))
+                    .result(WHITE_WON)
+                    .reason("Checkmate")
+                    .moves(new MoveList())
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.stop();
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldPlayJob() throws Exception {
+        // Given
+        jobService.start();
+
+        // When
+        final var submitted = jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "40/1", 4));
+        final var status = awaitFinished(submitted.id());
+
+        // Then
+        assertEquals(JobState.FINISHED, status.state());
+        assertEquals(4, status.gamesPlayed());
+        assertEquals(List.of("1-0", "1-0", "1-0", "1-0"), status.results());
+        assertEquals(List.of("foo", "bar", "foo", "bar"), whiteEngines);
+        assertTrue(jobService.pgn(submitted.id()).orElseThrow().size() > 0);
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldPlayJobsInPriorityOrder() throws Exception {
+        // Given
+        final var low = jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "40/1", 2, 0));
+        final var high = jobService.submit(new JobRequest(List.of(TEE_FILE, BAR_FILE), "40/1", 2, 5));
+
+        // When
+        jobService.start();
+        awaitFinished(low.id());
+        awaitFinished(high.id());
+
+        // Then
+        assertEquals(List.of("tee", "bar", "foo", "bar"), whiteEngines);
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldKeepEnginesLoadedBetweenJobs() throws Exception {
+        // Given
+        jobService.start();
+
+        // When
+        awaitFinished(jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "40/1", 2)).id());
+        awaitFinished(jobService.submit(new JobRequest(List.of(BAR_FILE, TEE_FILE), "40/1", 2)).id());
+
+        // Then
+        verify(engineServiceMock, times(1)).load(eq(FOO_FILE), any());
+        verify(engineServiceMock, times(1)).load(eq(BAR_FILE), any());
+        verify(engineServiceMock, times(1)).load(eq(TEE_FILE), any());
+    }
+
+    @Test
+    void shouldCancelQueuedJob() {
+        // Given
+        final var submitted = jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "40/1", 2));
+
+        // When
+        final var status = jobService.cancel(submitted.id()).orElseThrow();
+
+        // Then
+        assertEquals(JobState.CANCELLED, status.state());
+        assertEquals(0, status.gamesPlayed());
+    }
+
+    @Test
+    void shouldRejectInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(new JobRequest(List.of(FOO_FILE), "40/1", 2)));
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "40/1", 0)));
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(new JobRequest(List.of(FOO_FILE, BAR_FILE), "x", 2)));
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(new JobRequest(List.of(FOO_FILE, new File("x")), "40/1", 2)));
+        assertTrue(jobService.statuses().isEmpty());
+    }
+
+    private JobStatus awaitFinished(final int id) throws InterruptedException {
+        while (true) {
+            final var status = jobService.status(id).orElseThrow();
+            if (status.state() != JobState.QUEUED && status.state() != JobState.RUNNING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static IdlingEngine engine(final String name) {
+        final var engineMock = mock(IdlingEngine.class);
+        when(engineMock.myName()).thenReturn(name);
+        when(engineMock.features()).thenReturn(EngineFeatures.builder().myName(name).reuse("1").build());
+        return engineMock;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.time;
+
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.services.exception.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChessClockTest {
+
+    private static final int ONE_HOUR = 60 * 60 * 1000;
+    private static final int FIVE_MINUTES = 5 * 60 * 1000;
+
+    private long now = 1_000_000;
+
+    @Test
+    void shouldStartClock() {
+        // Given
+        final var timeControl = new ClassicTimeControl(40, 60, 0);
+        final var chessClock = new ChessClock(timeControl, () -> now);
+
+        // When
+        chessClock.start();
+
+        // Then
+        assertEquals(timeControl, chessClock.timeControl());
+        assertEquals(ONE_HOUR, chessClock.timeLeft());
+        assertEquals(1, chessClock.moveNumber());
+        assertTrue(chessClock.isRunning());
+    }
+
+    @Test
+    void shouldStopClock() {
+        // Given
+        final var chessClock = new ChessClock(new ClassicTimeControl(40, 60, 0), () -> now);
+        chessClock.start();
+        now += 100;
+
+        // When
+        chessClock.stop();
+
+        // Then
+        assertEquals(ONE_HOUR - 100, chessClock.timeLeft());
+        assertFalse(chessClock.isRunning());
+    }
+
+    @Test
+    void shouldThrowIfStoppedAfterTimeout() {
+        // Given
+        final var chessClock = new ChessClock(new ClassicTimeControl(40, 0, 1), () -> now);
+        chessClock.start();
+        now += 1_001;
+
+        // When & Then
+        assertThrows(TimeoutException.class, chessClock::stop);
+    }
+
+    @Test
+    void shouldThrowIfStartedTwiceOrStoppedTwice() {
+        // Given
+        final var chessClock = new ChessClock(new ClassicTimeControl(40, 60, 0), () -> now);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, chessClock::stop);
+        chessClock.start();
+        assertThrows(IllegalStateException.class, chessClock::start);
+    }
+
+    @Test
+    void shouldGetMoreTimeAfterOnePeriodClassic() {
+        // Given
+        final var chessClock = new ChessClock(new ClassicTimeControl(3, 60, 0), () -> now);
+
+        // When
+        // Stop clock 3 times to pass a time control period
+        for (int move = 1; move <= 3; move++) {
+            chessClock.start();
+            now += 1_000;
+            chessClock.stop();
+        }
+
+        // Then
+        assertEquals(2 * ONE_HOUR - 3_000, chessClock.timeLeft());
+        assertEquals(3, chessClock.moveNumber());
+    }
+
+    @Test
+    void shouldGetMoreTimeAfterOnePeriodIncremental() {
+        // Given
+        final var chessClock = new ChessClock(new IncrementalTimeControl(5, 0, 10), () -> now);
+
+        // When
+        // Stop clock 2 times
+        for (int move = 1; move <= 2; move++) {
+            chessClock.start();
+            now += 1_000;
+            chessClock.stop();
+        }
+
+        // Then
+        assertEquals(FIVE_MINUTES + 2 * 10 * 1000 - 2_000, chessClock.timeLeft());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.util.SearchStatistics;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.BLACK_WON;
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyControllerTest {
+
+    private static final int CORES = 8;
+
+    private final IdlingEngine engine1Mock = mock(IdlingEngine.class);
+    private final IdlingEngine engine2Mock = mock(IdlingEngine.class);
+
+    // Load average of the whole machine
+    private double load = 0.0;
+
+    @Test
+    void shouldAddSlotsWhileLoadIsLow() {
+        // Given
+        final var controller = new ConcurrencyController(1, 3, CORES, () -> load);
+
+        // When
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+
+        // Then
+        assertEquals(3, controller.activeSlots());
+    }
+
+    @Test
+    void shouldRemoveSlotOnTimeForfeit() {
+        // Given
+        final var controller = new ConcurrencyController(1, 3, CORES, () -> load);
+        controller.gameOver(game("Checkmate", 1_000_000));
+        assertEquals(2, controller.activeSlots());
+
+        // When
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Time forfeit", 1_000_000));
+
+        // Then
+        assertEquals(1, controller.activeSlots());
+    }
+
+    @Test
+    void shouldRemoveSlotWhenNpsDrops() {
+        // Given
+        final var controller = new ConcurrencyController(1, 3, CORES, () -> load);
+        controller.gameOver(game("Checkmate", 1_000_000));
+        assertEquals(2, controller.activeSlots());
+
+        // When
+        controller.gameOver(game("Checkmate", 800_000));
+        controller.gameOver(game("Checkmate", 800_000));
+
+        // Then
+        assertEquals(1, controller.activeSlots());
+    }
+
+    @Test
+    void shouldForgetOldNpsPeak() {
+        // Given
+        final var controller = new ConcurrencyController(1, 2, CORES, () -> load);
+        controller.gameOver(game("Checkmate", 2_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+        assertEquals(1, controller.activeSlots());
+
+        // When
+        for (int i = 0; i < 12; i++) {
+            controller.gameOver(game("Checkmate", 1_000_000));
+        }
+
+        // Then
+        assertEquals(2, controller.activeSlots());
+    }
+
+    @Test
+    void shouldRemoveSlotWhenLoadIsHigh() {
+        // Given
+        final var controller = new ConcurrencyController(1, 3, CORES, () -> load);
+        controller.gameOver(game("Checkmate", 1_000_000));
+        assertEquals(2, controller.activeSlots());
+        load = 9.5;
+
+        // When
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Checkmate", 1_000_000));
+
+        // Then
+        assertEquals(1, controller.activeSlots());
+    }
+
+    @Test
+    void shouldKeepSlotsWithinBounds() {
+        // Given
+        final var controller = new ConcurrencyController(2, 3, CORES, () -> load);
+        load = 12.0;
+
+        // When
+        controller.gameOver(game("Time forfeit", 1_000_000));
+        controller.gameOver(game("Time forfeit", 1_000_000));
+
+        // Then
+        assertEquals(2, controller.activeSlots());
+    }
+
+    @Test
+    void shouldNotAdjustFixedConcurrency() {
+        // Given
+        final var controller = new ConcurrencyController(4, 4, CORES, () -> load);
+
+        // When
+        controller.gameOver(game("Checkmate", 1_000_000));
+        controller.gameOver(game("Time forfeit", 1_000_000));
+
+        // Then
+        assertEquals(4, controller.activeSlots());
+        assertTrue(controller.awaitTurn(3, () -> true));
+    }
+
+    @Test
+    void shouldStopWaitingWhenNotRunning() {
+        // Given
+        final var controller = new ConcurrencyController(1, 2, CORES, () -> load);
+
+        // When
+        final var turn = controller.awaitTurn(1, () -> false);
+
+        // Then
+        assertFalse(turn);
+    }
+
+    private PlayedGame game(final String reason, final long nps) {
+        when(engine1Mock.myName()).thenReturn("e1");
+        when(engine2Mock.myName()).thenReturn("e2");
+        // 40 moves of 1 second each
+        final var search = new SearchStatistics(40, nps * 40, 4_000);
+        return PlayedGame.builder()
+                .whiteEngine(engine1Mock)
+                .blackEngine(engine2Mock)
+                .result(reason.startsWith("Time") ? BLACK_WON : WHITE_WON)
+                .reason(reason)
+                .moves(new MoveList())
+                .whiteSearch(search)
+                .blackSearch(search)
+                .build();
+    }
+}
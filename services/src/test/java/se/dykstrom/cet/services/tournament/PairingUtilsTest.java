@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.engine.time.TimeControl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static se.dykstrom.cet.services.tournament.TournamentFormat.GAUNTLET;
+import static se.dykstrom.cet.services.tournament.TournamentFormat.ROUND_ROBIN;
+
+class PairingUtilsTest {
+
+    private static final TimeControl TIME_CONTROL = new IncrementalTimeControl(5, 0, 5);
+    private static final List<File> FOUR_ENGINES = List.of(new File("a.json"), new File("b.json"), new File("c.json"), new File("d.json"));
+
+    @Test
+    void shouldCreateRoundRobinPairings() {
+        // Given
+        final var config = TournamentConfig.builder()
+                .engineFiles(FOUR_ENGINES)
+                .format(ROUND_ROBIN)
+                .gamesPerPairing(2)
+                .timeControl(TIME_CONTROL)
+                .concurrency(1)
+                .build();
+
+        // When
+        final var pairings = PairingUtils.createPairings(config);
+
+        // Then
+        assertEquals(12, pairings.size());
+        for (var engine = 0; engine < 4; engine++) {
+            assertEquals(3, countWhite(pairings, engine));
+            assertEquals(3, countBlack(pairings, engine));
+        }
+        // Each pair should have played once before any pair plays again
+        assertEquals(pairings.get(0), new Pairing(pairings.get(6).black(), pairings.get(6).white()));
+    }
+
+    @Test
+    void shouldBalanceColorsInSingleGameRoundRobin() {
+        // Given
+        final var config = TournamentConfig.builder()
+                .engineFiles(FOUR_ENGINES)
+                .format(ROUND_ROBIN)
+                .gamesPerPairing(1)
+                .timeControl(TIME_CONTROL)
+                .concurrency(1)
+                .build();
+
+        // When
+        final var pairings = PairingUtils.createPairings(config);
+
+        // Then
+        assertEquals(6, pairings.size());
+        for (var engine = 0; engine < 4; engine++) {
+            final var white = countWhite(pairings, engine);
+            assertEquals(3, white + countBlack(pairings, engine));
+            assertTrue(white == 1 || white == 2);
+        }
+    }
+
+    @Test
+    void shouldCreateGauntletPairings() {
+        // Given
+        final var config = TournamentConfig.builder()
+                .engineFiles(FOUR_ENGINES)
+                .format(GAUNTLET)
+                .gamesPerPairing(4)
+                .timeControl(TIME_CONTROL)
+                .concurrency(1)
+                .build();
+
+        // When
+        final var pairings = PairingUtils.createPairings(config);
+
+        // Then
+        assertEquals(12, pairings.size());
+        assertEquals(6, countWhite(pairings, 0));
+        assertEquals(6, countBlack(pairings, 0));
+        pairings.forEach(pairing -> assertTrue(pairing.white() == 0 || pairing.black() == 0));
+    }
+
+    private static long countWhite(final List<Pairing> pairings, final int engine) {
+        return pairings.stream().filter(pairing -> pairing.white() == engine).count();
+    }
+
+    private static long countBlack(final List<Pairing> pairings, final int engine) {
+        return pairings.stream().filter(pairing -> pairing.black() == engine).count();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.tournament;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.config.Sandbox;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.engine.util.EngineFeatures;
+import se.dykstrom.cet.services.engine.EngineService;
+import se.dykstrom.cet.services.game.GameService;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.WHITE_WON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TournamentServiceImplTest {
+
+    private static final TimeControl TIME_CONTROL = new IncrementalTimeControl(5, 0, 5);
+    private static final File FILE_1 = new File("e1.json");
+    private static final File FILE_2 = new File("e2.json");
+    private static final File FILE_3 = new File("e3.json");
+
+    private final EngineService engineServiceMock = mock(EngineService.class);
+    private final GameService gameServiceMock = mock(GameService.class);
+    private final IdlingEngine engine1Mock = mock(IdlingEngine.class);
+    private final IdlingEngine engine2Mock = mock(IdlingEngine.class);
+    private final IdlingEngine engine3Mock = mock(IdlingEngine.class);
+
+    private final TournamentService tournamentService = new TournamentServiceImpl(engineServiceMock, () -> gameServiceMock);
+
+    @Test
+    void shouldPlayRoundRobinTournament() throws Exception {
+        // Given
+        setUpEngine(engine1Mock, FILE_1, "e1");
+        setUpEngine(engine2Mock, FILE_2, "e2");
+        setUpEngine(engine3Mock, FILE_3, "e3");
+        when(gameServiceMock.playGame(any(), any(), any())).thenAnswer(invocation -> PlayedGame.builder()
+                .gameConfig(invocation.getArgument(0))
+                .whiteEngine(invocation.getArgument(1))
+                .blackEngine(invocation.getArgument(2))
+                .result(WHITE_WON)
+                .reason("Checkmate")
+                .moves(new MoveList())
+                .build());
+        final var config = TournamentConfig.builder()
+                .engineFiles(List.of(FILE_1, FILE_2, FILE_3))
+                .format(TournamentFormat.ROUND_ROBIN)
+                .gamesPerPairing(2)
+                .timeControl(TIME_CONTROL)
+                .concurrency(1)
+                .build();
+        final var gameCount = new AtomicInteger(0);
+
+        // When
+        tournamentService.addGameListener((round, startTime, playedGame) -> gameCount.incrementAndGet());
+        final var playedTournament = tournamentService.playTournament(config);
+
+        // Then
+        assertEquals(6, gameCount.get());
+        assertEquals(6, playedTournament.games().size());
+        assertEquals(List.of("e1", "e2", "e3"), playedTournament.engineNames());
+        final var crosstable = playedTournament.crosstable();
+        for (var engine = 0; engine < 3; engine++) {
+            // Every engine won all games with white
+            assertEquals(2.0, crosstable.totalScore(engine));
+            assertEquals(4, crosstable.totalGames(engine));
+        }
+        // Every engine is loaded once, and unloaded when the tournament is over
+        verify(engineServiceMock, times(3)).load(any(), any());
+        verify(engineServiceMock, times(3)).unload(any());
+        verify(gameServiceMock).playGame(GameConfig.builder().white("e1").black("e2").timeControl(TIME_CONTROL).build(), engine1Mock, engine2Mock);
+    }
+
+    private void setUpEngine(final IdlingEngine engineMock, final File file, final String name) throws Exception {
+        when(engineMock.myName()).thenReturn(name);
+        when(engineMock.features()).thenReturn(EngineFeatures.builder().myName(name).reuse("1").build());
+        when(engineServiceMock.load(file, Sandbox.NONE)).thenReturn(engineMock);
+    }
+}
@@ -41,7 +41,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 class PgnFileWriterIT {
 
     private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40, 0, 30);
-    private static final GameConfig GAME_CONFIG = new GameConfig("w", "b", TIME_CONTROL);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("w").black("b").timeControl(TIME_CONTROL).build();
     private static final FileService FILE_SERVICE = new FileServiceImpl();
 
     private PlayedGame playedGame;
@@ -54,15 +54,12 @@ class PgnFileWriterIT {
         moves.add(new Move("g2g4", WHITE));
         moves.add(new Move("d8h4", BLACK));
 
-        playedGame = new PlayedGame(
-                GAME_CONFIG,
-                null,
-                null,
-                null,
-                BLACK_WON,
-                "Checkmate",
-                moves,
-                null);
+        playedGame = PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .result(BLACK_WON)
+                .reason("Checkmate")
+                .moves(moves)
+                .build();
     }
 
     @Test
@@ -33,6 +33,7 @@ import org.mockito.ArgumentCaptor;
 import se.dykstrom.cet.engine.config.GameConfig;
 import se.dykstrom.cet.engine.time.ClassicTimeControl;
 import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.game.MoveTimes;
 import se.dykstrom.cet.services.game.PlayedGame;
 import se.dykstrom.cet.services.io.FileService;
 
@@ -48,7 +49,7 @@ import static org.mockito.Mockito.verify;
 class PgnFileWriterTest {
 
     private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40, 0, 30);
-    private static final GameConfig GAME_CONFIG = new GameConfig("w", "b", TIME_CONTROL);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("w").black("b").timeControl(TIME_CONTROL).build();
 
     private final FileService fileServiceMock = mock(FileService.class);
     private final ArgumentCaptor<Path> pathCaptor = ArgumentCaptor.forClass(Path.class);
@@ -71,15 +72,12 @@ class PgnFileWriterTest {
     @Test
     void shouldWriteFileWithoutExtraMoves() throws Exception {
         // Given
-        final PlayedGame playedGame = new PlayedGame(
-                GAME_CONFIG,
-                null,
-                null,
-                null,
-                BLACK_WON,
-                "Checkmate",
-                moves,
-                null);
+        final PlayedGame playedGame = PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .result(BLACK_WON)
+                .reason("Checkmate")
+                .moves(moves)
+                .build();
 
         // When
         writer.gameOver(1, LocalDateTime.now(), playedGame);
@@ -99,15 +97,13 @@ class PgnFileWriterTest {
     @Test
     void shouldWriteFileWithExtraMoves() throws Exception {
         // Given
-        final PlayedGame playedGame = new PlayedGame(
-                GAME_CONFIG,
-                null,
-                null,
-                null,
-                BLACK_WON,
-                "Checkmate",
-                moves,
-                Map.of(1, "a5"));
+        final PlayedGame playedGame = PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .result(BLACK_WON)
+                .reason("Checkmate")
+                .moves(moves)
+                .extraMoves(Map.of(1, "a5"))
+                .build();
 
         // When
         writer.gameOver(1, LocalDateTime.now(), playedGame);
@@ -119,4 +115,55 @@ class PgnFileWriterTest {
         final List<String> list = StreamSupport.stream(linesCaptor.getValue().spliterator(), false).toList();
         assertTrue(list.contains("1. f3 e5 {1... a5} 2. g4 Qh4#"));
     }
+
+    @Test
+    void shouldWriteFileWithMoveTimes() throws Exception {
+        // Given
+        final var moveTimes = new MoveTimes();
+        moveTimes.record(2, 1_234, 28_766);
+        moveTimes.record(3, 500, 29_500);
+        moveTimes.record(4, 2_000, 26_766);
+        final PlayedGame playedGame = PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .result(BLACK_WON)
+                .reason("Checkmate")
+                .moves(moves)
+                .moveTimes(moveTimes)
+                .build();
+
+        // When
+        writer.gameOver(1, LocalDateTime.now(), playedGame);
+
+        // Then
+        verify(fileServiceMock).write(pathCaptor.capture(), linesCaptor.capture(), charsetCaptor.capture(), any(), any(), any());
+        final List<String> list = StreamSupport.stream(linesCaptor.getValue().spliterator(), false).toList();
+        assertTrue(list.contains("1. f3 e5 {[%emt 0:00:01.2] [%clk 0:00:28.7]} 2. g4 {[%emt 0:00:00.5] [%clk 0:00:29.5]}"));
+        assertTrue(list.contains("2... Qh4# {[%emt 0:00:02.0] [%clk 0:00:26.7]}"));
+    }
+
+    @Test
+    void shouldWriteFileWithStartPosition() throws Exception {
+        // Given
+        final var fen = "rnbqkbnr/pppppppp/8/8/8/5P2/PPPPP1PP/RNBQKBNR b KQkq - 0 1";
+        final var movesFromFen = new MoveList(fen);
+        movesFromFen.add(new Move("e7e5", BLACK));
+        movesFromFen.add(new Move("g2g4", WHITE));
+        movesFromFen.add(new Move("d8h4", BLACK));
+        final PlayedGame playedGame = PlayedGame.builder()
+                .gameConfig(GAME_CONFIG.withFen(fen))
+                .result(BLACK_WON)
+                .reason("Checkmate")
+                .moves(movesFromFen)
+                .build();
+
+        // When
+        writer.gameOver(1, LocalDateTime.now(), playedGame);
+
+        // Then
+        verify(fileServiceMock).write(pathCaptor.capture(), linesCaptor.capture(), charsetCaptor.capture(), any(), any(), any());
+        final List<String> list = StreamSupport.stream(linesCaptor.getValue().spliterator(), false).toList();
+        assertTrue(list.contains("[SetUp \"1\"]"));
+        assertTrue(list.contains("[FEN \"" + fen + "\"]"));
+        assertTrue(list.contains("1... e5 2. g4 Qh4#"));
+    }
 }
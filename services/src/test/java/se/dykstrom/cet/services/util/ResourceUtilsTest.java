@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.util;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.services.io.EngineConfigDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceUtilsTest {
+
+    private static final EngineConfigDto FOO = new EngineConfigDto("foo", null, 256, 4, null);
+    private static final EngineConfigDto BAR = new EngineConfigDto("bar", null, 128, 2, null);
+    private static final EngineConfigDto TEE = new EngineConfigDto("tee", null);
+
+    @Test
+    void shouldComputeReservedMemory() {
+        assertEquals(0, ResourceUtils.reservedMemoryMb(List.of(TEE), 4, 2));
+        assertEquals(384, ResourceUtils.reservedMemoryMb(List.of(FOO, BAR, TEE), 1, 2));
+        assertEquals(1536, ResourceUtils.reservedMemoryMb(List.of(FOO, BAR, TEE), 4, 2));
+        // Only the engines each slot keeps loaded count
+        assertEquals(1024, ResourceUtils.reservedMemoryMb(List.of(FOO, BAR, FOO), 2, 2));
+        assertEquals(1280, ResourceUtils.reservedMemoryMb(List.of(FOO, BAR, FOO), 2, 3));
+    }
+
+    @Test
+    void shouldComputeReservedCores() {
+        assertEquals(2, ResourceUtils.reservedCores(List.of(TEE, TEE), 1));
+        assertEquals(6, ResourceUtils.reservedCores(List.of(FOO, BAR, TEE), 1));
+        assertEquals(18, ResourceUtils.reservedCores(List.of(FOO, BAR, TEE), 3));
+    }
+
+    @Test
+    void shouldAcceptEnginesThatFit() {
+        // When
+        final var problems = ResourceUtils.checkResources(List.of(FOO, BAR), 2, 2, 1024, 12);
+
+        // Then
+        assertTrue(problems.isEmpty());
+    }
+
+    @Test
+    void shouldRejectEnginesThatDoNotFit() {
+        // When
+        final var problems = ResourceUtils.checkResources(List.of(FOO, BAR), 16, 2, 1024, 32);
+
+        // Then
+        assertEquals(List.of("Engines reserve 6144 MB of hash, but the machine only has 1024 MB of memory.",
+                             "Engines reserve 96 cores, but the machine only has 32 cores."), problems);
+    }
+}
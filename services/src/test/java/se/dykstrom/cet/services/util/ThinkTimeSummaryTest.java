@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Johan Dykström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package se.dykstrom.cet.services.util;
+
+import java.time.LocalDateTime;
+
+import com.github.bhlangonijr.chesslib.move.MoveList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.dykstrom.cet.engine.config.GameConfig;
+import se.dykstrom.cet.engine.state.IdlingEngine;
+import se.dykstrom.cet.engine.time.ClassicTimeControl;
+import se.dykstrom.cet.engine.time.IncrementalTimeControl;
+import se.dykstrom.cet.engine.time.TimeControl;
+import se.dykstrom.cet.services.game.MoveTimes;
+import se.dykstrom.cet.services.game.PlayedGame;
+
+import static com.github.bhlangonijr.chesslib.game.GameResult.DRAW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThinkTimeSummaryTest {
+
+    private static final TimeControl TIME_CONTROL = new ClassicTimeControl(40, 1, 0);
+    private static final GameConfig GAME_CONFIG = GameConfig.builder().white("foo").black("bar").timeControl(TIME_CONTROL).build();
+
+    private final IdlingEngine fooMock = mock(IdlingEngine.class);
+    private final IdlingEngine barMock = mock(IdlingEngine.class);
+    private final ThinkTimeSummary summary = new ThinkTimeSummary();
+
+    @BeforeEach
+    void setUp() {
+        when(fooMock.myName()).thenReturn("foo");
+        when(barMock.myName()).thenReturn("bar");
+    }
+
+    @Test
+    void shouldSummarizeThinkTime() {
+        // Given
+        final var moveTimes = new MoveTimes();
+        var whiteClock = 60_000L;
+        var blackClock = 60_000L;
+        for (int ply = 1; ply <= 80; ply += 2) {
+            whiteClock -= 500;
+            moveTimes.record(ply, 500, whiteClock);
+            blackClock -= 1_500;
+            moveTimes.record(ply + 1, 1_500, blackClock);
+        }
+
+        // When
+        summary.gameOver(1, LocalDateTime.now(), game(moveTimes));
+        final var lines = summary.format();
+
+        // Then
+        assertEquals(4, lines.size());
+        assertEquals("Engine      <25%    25-50%   50-100%  100-200%     >200%  Move 40", lines.get(1));
+        assertTrue(lines.get(2).startsWith("foo "));
+        assertTrue(lines.get(2).endsWith(" 33%"));
+        assertEquals("bar           0%        0%        0%      100%        0%     100%", lines.get(3));
+    }
+
+    @Test
+    void shouldFormatNothingWithoutMoveTimes() {
+        // When
+        summary.gameOver(1, LocalDateTime.now(), game(null));
+
+        // Then
+        assertTrue(summary.format().isEmpty());
+    }
+
+    @Test
+    void shouldComputeBudget() {
+        assertEquals(1_500.0, ThinkTimeSummary.budgetMillis(TIME_CONTROL, 1, 60_000));
+        assertEquals(3_000.0, ThinkTimeSummary.budgetMillis(TIME_CONTROL, 40, 3_000));
+        assertEquals(1_500.0, ThinkTimeSummary.budgetMillis(TIME_CONTROL, 41, 60_000));
+        assertEquals(3_000.0, ThinkTimeSummary.budgetMillis(new IncrementalTimeControl(60, 2), 5, 30_000));
+    }
+
+    private PlayedGame game(final MoveTimes moveTimes) {
+        return PlayedGame.builder()
+                .gameConfig(GAME_CONFIG)
+                .whiteEngine(fooMock)
+                .blackEngine(barMock)
+                .result(DRAW)
+                .reason("Draw by repetition")
+                .moves(new MoveList())
+                .moveTimes(moveTimes)
+                .build();
+    }
+}